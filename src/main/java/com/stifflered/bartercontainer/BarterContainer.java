@@ -1,6 +1,10 @@
 package com.stifflered.bartercontainer;
 
+import com.stifflered.bartercontainer.barter.BankLedger;
 import com.stifflered.bartercontainer.barter.BarterManager;
+import com.stifflered.bartercontainer.barter.PurchaseService;
+import com.stifflered.bartercontainer.barter.RestockScheduler;
+import com.stifflered.bartercontainer.barter.CatalogueIndex;
 import com.stifflered.bartercontainer.barter.ChunkBarterStorage;
 import com.stifflered.bartercontainer.command.*;
 import com.stifflered.bartercontainer.commands.DirectoryCommand; // <-- NEW: /directory command executor
@@ -9,7 +13,11 @@ import com.stifflered.bartercontainer.listeners.*;
 import com.stifflered.bartercontainer.player.ShoppingListManager;
 import com.stifflered.bartercontainer.util.BarterContainerLogger;
 import com.stifflered.bartercontainer.util.Messages;
+import com.stifflered.bartercontainer.util.analytics.MarketIndex;
+import com.stifflered.bartercontainer.util.analytics.SalesHistograms;
+import com.stifflered.bartercontainer.util.analytics.TransactionExporter;
 import com.stifflered.bartercontainer.util.analytics.WeeklyConsistencySnapshot;
+import com.stifflered.bartercontainer.util.analytics.WeeklySnapshotScheduler;
 import com.stifflered.bartercontainer.util.skin.HeadService;
 import com.stifflered.bartercontainer.util.TimeUtil;
 
@@ -23,8 +31,9 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 
 import java.util.Objects;
 
@@ -60,7 +69,7 @@ public class BarterContainer extends JavaPlugin implements Listener {
     public static BarterContainer INSTANCE;
 
     /** Wrapper for plugin configuration. Constructed after plugin enable; provides typed access to config values. */
-    private BarterContainerConfiguration configuration;
+    private volatile BarterContainerConfiguration configuration;
 
     /** Handles player shopping lists (add/remove/query), likely persisted per-player. */
     private ShoppingListManager shoppingListManager;
@@ -71,6 +80,9 @@ public class BarterContainer extends JavaPlugin implements Listener {
     // Analytics job kept as a field (referenced by scheduled tasks and command).
     private WeeklyConsistencySnapshot consistencyJob;
 
+    /** Fires {@link #consistencyJob} weekly (and catches up missed weeks on startup). */
+    private WeeklySnapshotScheduler consistencyScheduler;
+
     @Override
     public void onEnable() {
         // Establish the static plugin reference for access across the project.
@@ -96,6 +108,9 @@ public class BarterContainer extends JavaPlugin implements Listener {
         // Create HeadService early so listeners can use it immediately.
         this.headService = new HeadService(this);
 
+        // Seed the resident catalogue index (price/stock per shop) off-thread so /catalog never loads stores.
+        CatalogueIndex.INSTANCE.seedAsync();
+
         // === Register commands via plugin.yml ===
         // Root admin: /barterbarrels <sub>
         var barterBarrelsCmd = Objects.requireNonNull(
@@ -122,6 +137,10 @@ public class BarterContainer extends JavaPlugin implements Listener {
         Objects.requireNonNull(getCommand("endtracking"), "endtracking command missing in plugin.yml")
                 .setExecutor(new EndTrackingCommand());
 
+        // /market → server-wide volume & price index (GUI or per-item chat summary)
+        Objects.requireNonNull(getCommand("market"), "market command missing in plugin.yml")
+                .setExecutor(new MarketCommand());
+
         // Register gameplay listeners.
         this.register(
                 new ItemInstanceListener(),
@@ -129,9 +148,14 @@ public class BarterContainer extends JavaPlugin implements Listener {
                 new SafeFireworkDamageListener(),
                 new BarterBlockListener(),
                 new BarterInventoryListener(),
+                new ShopSessionListener(),
+                new SupplyLinkListener(),
                 new ChunkListener(chunkBarterStorage) // reacts to chunk load/unload
         );
 
+        // Auto-restock shops from their linked supply containers (main-thread, rate-limited passes).
+        RestockScheduler.INSTANCE.start(this.configuration.getRestockConfiguration());
+
         // Optional WorldGuard hook (currently disabled). Add a fine log to avoid "empty if" warning.
         if (Bukkit.getPluginManager().isPluginEnabled("WorldGuard")) {
             getLogger().fine(Messages.fmt("integrations.worldguard_detected"));
@@ -149,25 +173,16 @@ public class BarterContainer extends JavaPlugin implements Listener {
 
         this.consistencyJob = new WeeklyConsistencySnapshot(this, analyticsZone, analyticsClock);
 
-        // Schedule the job asynchronously to fire Monday 00:05 server local time.
-        Bukkit.getScheduler().runTaskTimerAsynchronously(
-                this,
-                () -> {
-                    ZonedDateTime now = ZonedDateTime.now(analyticsZone);
-                    if (now.getDayOfWeek() == java.time.DayOfWeek.MONDAY
-                            && now.getHour() == 0
-                            && now.getMinute() == 5) {
-                        try {
-                            getLogger().info(Messages.fmt("analytics.consistency.snapshot_started_log"));
-                            consistencyJob.runNow();
-                        } catch (Throwable t) {
-                            getLogger().warning(Messages.fmt("analytics.consistency.snapshot_failed_log", "detail", t.getMessage()));
-                        }
-                    }
-                },
-                20L,          // initial delay: 1 second
-                20L * 60L     // repeat: every 60 seconds
-        );
+        // Fire Monday 00:05 server local time on a dedicated scheduler; a missed week is caught up now.
+        this.consistencyScheduler = new WeeklySnapshotScheduler(
+                this, consistencyJob, analyticsZone, DayOfWeek.MONDAY, LocalTime.of(0, 5));
+        this.consistencyScheduler.start();
+
+        // Market price index: record purchases from now on, read recent history from the logs in the background.
+        MarketIndex.INSTANCE.start();
+
+        // Purchase export for offline analysis: on its own thread, on a timer if enabled, else on demand only.
+        TransactionExporter.INSTANCE.start(this.configuration.getAnalyticsExportConfiguration());
 
         // Optional: keep the manual admin command for analytics on demand.
         Bukkit.getCommandMap().register("consistency-snapshot", new Command("consistency-snapshot") {
@@ -177,8 +192,11 @@ public class BarterContainer extends JavaPlugin implements Listener {
                                    @NotNull String[] args) {
                 Bukkit.getScheduler().runTaskAsynchronously(BarterContainer.this, () -> {
                     try {
-                        consistencyJob.runNow();
-                        sender.sendMessage(Messages.fmt("analytics.consistency.snapshot_ok_command"));
+                        if (consistencyJob.runNow()) {
+                            sender.sendMessage(Messages.fmt("analytics.consistency.snapshot_ok_command"));
+                        } else {
+                            sender.sendMessage(Messages.fmt("analytics.consistency.snapshot_write_failed_command"));
+                        }
                     } catch (Throwable t) {
                         sender.sendMessage(Messages.fmt("analytics.consistency.snapshot_failed_command", "detail", t.getMessage()));
                     }
@@ -190,6 +208,21 @@ public class BarterContainer extends JavaPlugin implements Listener {
 
     @Override
     public void onDisable() {
+        // Stop restock passes so nothing mutates stores while they are being flushed.
+        RestockScheduler.INSTANCE.stop();
+
+        // Stop the weekly analytics timer before the stores and logs it reads are flushed.
+        if (this.consistencyScheduler != null) {
+            this.consistencyScheduler.stop();
+        }
+        TransactionExporter.INSTANCE.stop();
+
+        // Drain queued purchase logs and write-behind saves first so saveAll() sees the final state.
+        PurchaseService.INSTANCE.shutdown();
+        SalesHistograms.INSTANCE.save(); // after the log writer drained, so saved counts match the logs
+        BarterManager.INSTANCE.flushPendingWrites();
+        BankLedger.INSTANCE.flushPendingWrites();
+
         // Ensure all barter state is flushed to persistent storage before shutdown.
         BarterManager.INSTANCE.saveAll();
 
@@ -214,6 +247,15 @@ public class BarterContainer extends JavaPlugin implements Listener {
         return configuration;
     }
 
+    /**
+     * Re-read config.yml into a fresh typed facade. Needed on reload: the facade caches the FileConfiguration
+     * it was built from, and {@link #reloadConfig()} replaces that object rather than refilling it.
+     */
+    public BarterContainerConfiguration reloadConfiguration() {
+        this.configuration = new BarterContainerConfiguration(this);
+        return this.configuration;
+    }
+
     /** Accessor for shopping list manager. */
     public ShoppingListManager getShoppingListManager() {
         return shoppingListManager;
@@ -191,6 +191,16 @@ public class BarterContainerConfiguration {
         return parse(section, "view-logs-item");
     }
 
+    /** Item that opens the per-slot / per-item price rules editor. */
+    public ItemStack getPriceRulesItem() {
+        return parse(section, "price-rules-item");
+    }
+
+    /** Item that arms "link supply chest" mode for auto-restock. */
+    public ItemStack getLinkSupplyItem() {
+        return parse(section, "link-supply-item");
+    }
+
     /**
      * Item used for the Catalogue "Search" button shown in the bottom-right of each page.
 
@@ -350,6 +360,135 @@ public class BarterContainerConfiguration {
     /** Container for tracking numeric ranges. */
     public record TrackingSystemConfiguration(double trackRange, double arrowRange) {}
 
+    // ─────────────────────────────────────────────────────────────────────
+    // 📦 Auto-Restock
+    // ─────────────────────────────────────────────────────────────────────
+    /**
+     * Reads the auto-restock settings (linked supply containers):
+     *  - enabled:               master toggle (default true)
+     *  - interval-ticks:        ticks between passes (default 200)
+     *  - stores-per-pass:       shops handled per pass (default 16)
+     *  - stacks-per-store:      stacks moved into one shop per pass (default 9)
+     *  - max-supply-containers: links per shop (default 4)
+     *  - link-range:            max block distance from the shop (default 8)
+     *  - link-timeout-seconds:  time window to click a container when linking (default 30)
+
+     * Source of truth: config.yml → restock (missing section → defaults)
+     */
+    public RestockConfiguration getRestockConfiguration() {
+        ConfigurationSection restock = section.getConfigurationSection("restock");
+        if (restock == null) {
+            return new RestockConfiguration(true, 200L, 16, 9, 4, 8.0, 30);
+        }
+
+        return new RestockConfiguration(
+                restock.getBoolean("enabled", true),
+                Math.max(20L, restock.getLong("interval-ticks", 200L)),
+                Math.max(1, restock.getInt("stores-per-pass", 16)),
+                Math.max(1, restock.getInt("stacks-per-store", 9)),
+                Math.max(0, restock.getInt("max-supply-containers", 4)),
+                Math.max(1.0, restock.getDouble("link-range", 8.0)),
+                Math.max(5, restock.getInt("link-timeout-seconds", 30))
+        );
+    }
+
+    /** Container for auto-restock settings. */
+    public record RestockConfiguration(boolean enabled,
+                                       long intervalTicks,
+                                       int storesPerPass,
+                                       int stacksPerStore,
+                                       int maxSupplyContainers,
+                                       double linkRange,
+                                       int linkTimeoutSeconds) {}
+
+    // ─────────────────────────────────────────────────────────────────────
+    // 🏷️ Price Tiers
+    // ─────────────────────────────────────────────────────────────────────
+    /**
+     * Purchase counts owners can attach a tier price to (e.g., "from 4 purchases, each costs 3").
+     *  - Values below 2 are ignored; duplicates removed; sorted; at most 7 (one editor row).
+
+     * Source of truth: config.yml → price-tiers.quantities (default [4, 8, 16])
+     */
+    public List<Integer> getPriceTierQuantities() {
+        List<Integer> raw = section.isList("price-tiers.quantities")
+                ? section.getIntegerList("price-tiers.quantities")
+                : List.of(4, 8, 16);
+
+        return raw.stream()
+                .filter(quantity -> quantity >= 2)
+                .distinct()
+                .sorted()
+                .limit(7)
+                .toList();
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // 🏦 Owner Bank Ledger
+    // ─────────────────────────────────────────────────────────────────────
+    /**
+     * Whether purchase payments go into the owner-level bank ledger instead of each barrel's
+     * 27-slot bank inventory.
+
+     * Source of truth: config.yml → bank-ledger.enabled (default false; opt-in, since it changes where
+     * existing shops' payments go)
+     */
+    public boolean isBankLedgerEnabled() {
+        return section.getBoolean("bank-ledger.enabled", false);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // ⏳ Slot Reservations
+    // ─────────────────────────────────────────────────────────────────────
+    /**
+     * Reads the buyer-side slot reservation settings:
+     *  - enabled:     master toggle (default true)
+     *  - ttl-seconds: how long a previewed slot stays reserved for its buyer (default 10, min 3)
+     *  - max-queue:   buyers that can wait in line for one slot (default 16, min 0)
+
+     * Source of truth: config.yml → reservations (missing section → defaults)
+     */
+    public ReservationConfiguration getReservationConfiguration() {
+        ConfigurationSection reservations = section.getConfigurationSection("reservations");
+        if (reservations == null) {
+            return new ReservationConfiguration(true, 10, 16);
+        }
+
+        return new ReservationConfiguration(
+                reservations.getBoolean("enabled", true),
+                Math.max(3, reservations.getInt("ttl-seconds", 10)),
+                Math.max(0, reservations.getInt("max-queue", 16))
+        );
+    }
+
+    /** Container for slot reservation settings. */
+    public record ReservationConfiguration(boolean enabled, int ttlSeconds, int maxQueue) {}
+
+    // ─────────────────────────────────────────────────────────────────────
+    // 📊 Analytics Export
+    // ─────────────────────────────────────────────────────────────────────
+    /**
+     * Reads the scheduled purchase export settings:
+     *  - enabled:          export new records on a timer (default false; /barterbarrels export works regardless)
+     *  - interval-minutes: time between scheduled exports (default 60, min 5)
+
+     * Source of truth: config.yml → analytics-export (missing section → defaults)
+     */
+    public AnalyticsExportConfiguration getAnalyticsExportConfiguration() {
+        ConfigurationSection export = section.getConfigurationSection("analytics-export");
+        if (export == null) {
+            return new AnalyticsExportConfiguration(false, 60);
+        }
+
+        return new AnalyticsExportConfiguration(
+                export.getBoolean("enabled", false),
+                Math.max(5, export.getInt("interval-minutes", 60))
+        );
+    }
+
+    /** Container for analytics export settings. */
+    public record AnalyticsExportConfiguration(boolean enabled, int intervalMinutes) {}
+
     // ─────────────────────────────────────────────────────────────────────
     // 🕓 Shop Stats — Absolute Timestamp Formatter (UTC)
     // ─────────────────────────────────────────────────────────────────────
@@ -0,0 +1,250 @@
+package com.stifflered.bartercontainer.barter;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.store.BarterStore;
+import com.stifflered.bartercontainer.store.OwnerLedger;
+import com.stifflered.bartercontainer.util.ItemFingerprint;
+import com.stifflered.bartercontainer.util.Messages;
+import com.stifflered.bartercontainer.util.source.Sources;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Owner-level bank: routes purchase payments into one {@link OwnerLedger} per owner instead of the
+ * 27-slot bank inventory of each barrel.
+
+ * Behavior (when {@code bank-ledger.enabled} is true):
+ *  - {@link #deposit(BarterStore, ItemStack[])}: purchase payments are added to the owner's ledger
+ *    (no slot limit, so a busy shop never reports "shop full").
+ *  - {@link #collect(BarterStore)}: sweeps anything still sitting in a barrel's bank inventory
+ *    (pre-ledger balances, or items placed there while the ledger was off) into the ledger.
+ *  - {@link #withdraw(Player, UUID, ItemFingerprint, long)}: the owner takes currency out from ANY
+ *    of their barrels.
+
+ * Persistence:
+ *  - Ledgers are cached (Sources.OWNER_LEDGERS). {@link #preload(UUID)} loads them on the writer thread when
+ *    a store is loaded or its owner joins, so a purchase normally never reads the file on the main thread;
+ *    anything not preloaded yet is loaded on first use.
+ *  - A ledger file that fails to load is reported (logged) and left untouched: {@link #ledger(UUID)} returns
+ *    empty, nothing is cached, and callers refuse the operation (purchases fail with
+ *    {@link PurchaseService.Status#BANK_UNAVAILABLE}) instead of overwriting the file with an empty ledger.
+ *    The next access retries the load.
+ *  - Saves are write-behind on a single writer thread with detached copies; bursts coalesce into one write,
+ *    the same scheme as {@link BarterManager#saveAsync(BarterStore)}.
+
+ * Turning the ledger off:
+ *  - Payments go back to the barrel bank, but existing balances stay reachable: {@link #hasBalance(BarterStore)}
+ *    lets the bank button keep opening the ledger view while the owner still has something in it.
+
+ * Threading:
+ *  - Mutations are main-thread only (ledgers are not synchronized).
+ */
+public final class BankLedger {
+
+    /** Global singleton, mirroring {@link BarterManager#INSTANCE}. */
+    public static final BankLedger INSTANCE = new BankLedger();
+
+    /** Owner UUID → loaded ledger. */
+    private final Map<UUID, OwnerLedger> ledgers = new ConcurrentHashMap<>();
+
+    /** Latest detached snapshot awaiting write per owner. */
+    private final Map<UUID, OwnerLedger> pendingWrites = new ConcurrentHashMap<>();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "BarterContainer-LedgerWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private BankLedger() {
+    }
+
+    /** True if payments are routed to owner ledgers (config: bank-ledger.enabled). */
+    public boolean isEnabled() {
+        return BarterContainer.INSTANCE.getConfiguration().isBankLedgerEnabled();
+    }
+
+    /**
+     * Ledger for an owner, loaded from disk on first access (a new, empty ledger if none exists yet).
+     *
+     * @return empty if the owner's ledger file exists but could not be loaded
+     */
+    public Optional<OwnerLedger> ledger(UUID owner) {
+        // A null from load() is not cached, so a fixed file is picked up on the next access
+        return Optional.ofNullable(this.ledgers.computeIfAbsent(owner, BankLedger::load));
+    }
+
+    /** Ledger for the owner of the given store (empty if it could not be loaded). */
+    public Optional<OwnerLedger> ledger(BarterStore store) {
+        return this.ledger(Objects.requireNonNull(store.getPlayerProfile().getId()));
+    }
+
+    /**
+     * True if the store's owner has anything in their ledger, regardless of {@link #isEnabled()}.
+     * An unreadable ledger file also counts (its balances are unknown, not gone).
+     */
+    public boolean hasBalance(BarterStore store) {
+        return this.ledger(store).map(ledger -> !ledger.isEmpty()).orElse(true);
+    }
+
+    /**
+     * Load an owner's ledger into the cache in the background (no-op if already cached).
+     * Runs on the writer thread so the read never races a queued write of the same file.
+     * Safe to call from any thread.
+     */
+    public void preload(UUID owner) {
+        if (this.ledgers.containsKey(owner)) return;
+        this.writer.execute(() -> {
+            if (this.ledgers.containsKey(owner)) return;
+            OwnerLedger loaded = load(owner);
+            if (loaded != null) {
+                // A ledger created on the main thread meanwhile wins (it may already hold deposits)
+                this.ledgers.putIfAbsent(owner, loaded);
+            }
+        });
+    }
+
+    /** {@link #preload(UUID)} for the owner of the given store. */
+    public void preload(BarterStore store) {
+        UUID owner = store.getPlayerProfile().getId();
+        if (owner != null) {
+            this.preload(owner);
+        }
+    }
+
+    /** Credit a purchase payment to an owner's (already loaded) ledger and queue a save. */
+    public void deposit(OwnerLedger ledger, ItemStack[] payment) {
+        for (ItemStack stack : payment) {
+            ledger.deposit(stack);
+        }
+        this.saveAsync(ledger);
+    }
+
+    /**
+     * Move everything in the barrel's bank inventory into the owner's ledger.
+     *
+     * @return true if anything was collected (caller should save the store); false if the bank was empty
+     *         or the ledger could not be loaded (the items then stay in the barrel)
+     */
+    public boolean collect(BarterStore store) {
+        Inventory bank = store.getCurrencyStorage();
+        if (bank.isEmpty()) return false;
+
+        OwnerLedger ledger = this.ledger(store).orElse(null);
+        if (ledger == null) return false;
+        for (ItemStack stack : bank.getContents()) {
+            ledger.deposit(stack);
+        }
+        bank.clear();
+        this.saveAsync(ledger);
+        return true;
+    }
+
+    /**
+     * Withdraw up to {@code amount} of an item into the player's inventory.
+     * Whatever does not fit is put back into the ledger (nothing is dropped).
+     *
+     * @return amount actually delivered (0 if the ledger could not be loaded)
+     */
+    public long withdraw(Player player, UUID owner, ItemFingerprint item, long amount) {
+        OwnerLedger ledger = this.ledger(owner).orElse(null);
+        if (ledger == null) return 0L;
+        List<ItemStack> taken = ledger.withdraw(item, amount);
+        if (taken.isEmpty()) return 0L;
+
+        long delivered = 0L;
+        List<ItemStack> refund = new ArrayList<>();
+        for (ItemStack stack : taken) {
+            int requested = stack.getAmount();
+            Map<Integer, ItemStack> leftover = player.getInventory().addItem(stack);
+            int left = 0;
+            for (ItemStack rest : leftover.values()) {
+                left += rest.getAmount();
+                refund.add(rest);
+            }
+            delivered += requested - left;
+        }
+        ledger.refund(refund);
+
+        this.saveAsync(ledger);
+        return delivered;
+    }
+
+    /** Write-behind save of a ledger (detached copy; one write per burst). */
+    public void saveAsync(OwnerLedger ledger) {
+        UUID owner = ledger.getOwner();
+        if (this.pendingWrites.put(owner, ledger.copy()) == null) {
+            this.writer.execute(() -> {
+                OwnerLedger latest = this.pendingWrites.remove(owner);
+                if (latest != null) {
+                    write(latest);
+                }
+            });
+        }
+    }
+
+    /**
+     * Waits (briefly) for queued ledger writes to reach disk. The writer thread keeps running, so
+     * {@link #saveAsync} stays usable afterwards (e.g., a withdrawal from a late click during shutdown).
+     * Call from onDisable().
+     */
+    public void flushPendingWrites() {
+        // The writer is single-threaded and FIFO: once this marker runs, every earlier write has finished
+        try {
+            this.writer.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ignored) {
+            // Writer stuck or gone: fall through and write what is still pending ourselves
+        }
+
+        // Anything still pending (writer timed out) is written synchronously
+        this.pendingWrites.values().forEach(BankLedger::write);
+        this.pendingWrites.clear();
+    }
+
+    /** Load an owner's ledger; null (logged) if the file exists but is unreadable. */
+    private static @Nullable OwnerLedger load(UUID owner) {
+        try {
+            OwnerLedger ledger = Sources.OWNER_LEDGERS.load(owner);
+            return ledger != null ? ledger : new OwnerLedger(owner);
+        } catch (Exception e) {
+            // A broken file must not be silently replaced by an empty ledger on the next save
+            BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                    "bank.ledger.load_failed",
+                    "owner", owner.toString(),
+                    "detail", String.valueOf(e.getMessage())
+            ));
+            return null;
+        }
+    }
+
+    private static void write(OwnerLedger ledger) {
+        try {
+            Sources.OWNER_LEDGERS.save(ledger);
+        } catch (Exception e) {
+            BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                    "bank.ledger.save_failed",
+                    "owner", ledger.getOwner().toString(),
+                    "detail", String.valueOf(e.getMessage())
+            ));
+        }
+    }
+}
@@ -14,12 +14,17 @@ import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.block.TileState;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 /**
@@ -28,9 +33,12 @@ import java.util.function.Predicate;
  *  - Keeps an in-memory cache of loaded BarterStore instances (by BarterStoreKey).
  *  - Loads/stores data with the backing storage provider (Sources.BARTER_STORAGE).
  *  - Emits Bukkit events on create/remove.
+ *  - Keeps {@link CatalogueIndex} in step with every create/load/save/remove.
 
  * Threading & I/O:
- *  - Uses async tasks (BukkitRunnable#runTaskAsynchronously) for potentially slow save/load/delete I/O.
+ *  - Uses async tasks (BukkitRunnable#runTaskAsynchronously) for potentially slow load I/O.
+ *  - Every write and delete of a store file goes through ONE writer thread, so two writes of the same
+ *    store can never interleave and a delete always lands after the writes queued before it.
  *  - In-memory map is a ConcurrentHashMap to allow concurrent reader/writer access.
 
  * Separation of concerns:
@@ -48,6 +56,22 @@ public class BarterManager {
     /** Runtime cache of loaded stores keyed by their logical identity. */
     private final Map<BarterStoreKey, BarterStore> storage = new ConcurrentHashMap<>();
 
+    /** Single writer thread for write-behind saves; keeps writes for the same store in order. */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "BarterContainer-StoreWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Latest detached snapshot awaiting write per store; bursts of saves coalesce into one write. */
+    private final Map<BarterStoreKey, BarterStore> pendingWrites = new ConcurrentHashMap<>();
+
+    /** Stores whose barrel was broken: late saves (a purchase just before the break) must not bring the file back. */
+    private final Set<BarterStoreKey> removed = ConcurrentHashMap.newKeySet();
+
+    /** Store the writer thread is writing right now (null when idle); the shutdown fallback leaves it alone. */
+    private volatile BarterStoreKey writing;
+
     /**
      * Creates a new store instance, persists its key into the block PDC, caches it, and fires a creation event.
      * @param barterStore the fully constructed store (domain object with key)
@@ -62,6 +86,8 @@ public class BarterManager {
     public void createNewStore(BarterStoreImpl barterStore, PersistentDataContainer persistentDataContainer, Chunk chunk) {
         this.serializer.writeBarterStoreKey(persistentDataContainer, barterStore);
         this.storage.put(barterStore.getKey(), barterStore);
+        CatalogueIndex.INSTANCE.update(barterStore);
+        BankLedger.INSTANCE.preload(barterStore);
         new CreateBarterContainer(barterStore, chunk).callEvent();
     }
 
@@ -71,7 +97,8 @@ public class BarterManager {
      *  - Look up the BarterStoreKey from the block's PDC.
      *  - Remove from runtime cache.
      *  - Fire RemoveBarterContainer event.
-     *  - Delete persisted data asynchronously (swallows any exception).
+     *  - Drop any queued write and delete persisted data on the writer thread, after writes already in flight
+     *    (swallows any exception).
      *
      * @return true if a store was found and removed; false if no store key at location.
      */
@@ -80,18 +107,22 @@ public class BarterManager {
                 .map(storage::remove);
 
         if (value.isPresent()) {
+            BarterStoreKey key = value.get().getKey();
+            this.removed.add(key);
+            this.pendingWrites.remove(key);
+            CatalogueIndex.INSTANCE.remove(key);
             new RemoveBarterContainer(value.get(), location.getChunk()).callEvent();
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    try {
-                        Sources.BARTER_STORAGE.delete(value.get());
-                    } catch (Exception ignored) {
-                        // Intentionally ignored: deletion failures are not surfaced to players.
-                        // Consider logging in the future if diagnostics are needed.
-                    }
+            Runnable delete = () -> {
+                try {
+                    Sources.BARTER_STORAGE.delete(value.get());
+                } catch (Exception ignored) {
+                    // Intentionally ignored: deletion failures are not surfaced to players.
+                    // Consider logging in the future if diagnostics are needed.
                 }
-            }.runTaskAsynchronously(BarterContainer.INSTANCE);
+            };
+            if (!this.onWriter(delete)) {
+                delete.run(); // writer already stopped (shutdown): nothing else can write this store now
+            }
 
             return true;
         }
@@ -126,7 +157,10 @@ public class BarterManager {
 
         if (conditionCheck.test(store)) {
             this.storage.put(barterStoreKey, store);
+            PurchaseService.INSTANCE.markChanged(barterStoreKey); // fresh instance: open previews must re-validate
+            BankLedger.INSTANCE.preload(store); // first purchase must not read the ledger file on the main thread
         }
+        CatalogueIndex.INSTANCE.update(store);
         return true;
     }
 
@@ -134,42 +168,29 @@ public class BarterManager {
      * Persists and evicts a set of stores (by UUID) during chunk unload.
      * For each UUID:
      *  - Remove from cache (if present).
-     *  - Schedule async save of the removed store.
+     *  - Queue a write-behind save of the removed store ({@link #saveAsync}).
 
      * Notes:
      *  - If a UUID has no cached store, it is skipped (already unloaded).
-     *  - Saves are fire-and-forget; exceptions are printed but not retried.
+     *  - Saves are fire-and-forget; exceptions are logged but not retried.
      */
     public void saveContainersAndUnload(List<UUID> uuids) {
         for (UUID uuid : uuids) {
             BarterStore store = storage.remove(new BarterStoreKeyImpl(uuid));
             if (store != null) {
-                new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        try {
-                            Sources.BARTER_STORAGE.save(store);
-                        } catch (Exception e) {
-                            BarterContainer.INSTANCE.getLogger().warning(
-                                    Messages.fmt("barter.manager.save_failed_title", "key", uuid.toString())
-                            );
-                            BarterContainer.INSTANCE.getLogger().warning(
-                                    Messages.fmt("barter.manager.save_failed_detail", "detail", String.valueOf(e.getMessage()))
-                            );
-                            e.printStackTrace();
-                        }
-                    }
-                }.runTaskAsynchronously(BarterContainer.INSTANCE);
+                this.saveAsync(store);
             }
         }
     }
 
     /**
-     * Removes a store from the runtime cache without touching persistence.
+     * Removes a store from the runtime cache (and the catalogue index) without touching persistence.
      * Intended for cases where the container is deleted and its index has been updated elsewhere.
      */
     public void expungeContainer(UUID uuid) {
-        this.storage.remove(new BarterStoreKeyImpl(uuid));
+        BarterStoreKey key = new BarterStoreKeyImpl(uuid);
+        this.storage.remove(key);
+        CatalogueIndex.INSTANCE.remove(key);
     }
 
     /**
@@ -247,6 +268,16 @@ public class BarterManager {
         return Optional.empty();
     }
 
+    /** True if the store's barrel was broken since startup (its file is deleted or about to be). */
+    public boolean isRemoved(BarterStoreKey key) {
+        return this.removed.contains(key);
+    }
+
+    /** Point-in-time copy of the stores currently cached in memory (chunk loaded). */
+    public List<BarterStore> getLoadedStores() {
+        return List.copyOf(this.storage.values());
+    }
+
     /**
      * Retrieves all stores from persistent storage (NOT the in-memory cache).
      * Returns an empty list if an exception occurs.
@@ -270,7 +301,9 @@ public class BarterManager {
      * Called on plugin disable to flush runtime state.
      */
     public void saveAll() {
+        BarterStoreKey busy = this.writing; // only set if the writer got stuck during flushPendingWrites()
         storage.values().forEach(barterStore -> {
+            if (barterStore.getKey().equals(busy) || this.removed.contains(barterStore.getKey())) return;
             try {
                 Sources.BARTER_STORAGE.save(barterStore);
             } catch (Exception e) {
@@ -286,10 +319,26 @@ public class BarterManager {
     }
 
     /**
-     * Saves a single store via the storage backend.
-     * Caller decides threading; this method is synchronous as written.
+     * Saves a single store through the writer thread (same queue as {@link #saveAsync}, so it can never race
+     * a queued write-behind save of the same store).
+     *
+     * @return completes once the snapshot taken by this call is on disk; join it if the caller needs the
+     *         write to have happened (most callers, e.g., close handlers, can ignore it)
      */
-    public void save(BarterStore store) {
+    public CompletableFuture<Void> save(BarterStore store) {
+        this.saveAsync(store);
+        if (this.writer.isShutdown()) return CompletableFuture.completedFuture(null); // written synchronously
+
+        // FIFO writer: this marker runs after the task that picks up the snapshot queued above
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        if (!this.onWriter(() -> written.complete(null))) written.complete(null);
+        return written;
+    }
+
+    /** Storage write only; the catalogue index is left alone (callers that snapshot update it themselves). */
+    private void write(BarterStore store) {
+        if (this.removed.contains(store.getKey())) return; // barrel broken: its file stays deleted
+
         try {
             Sources.BARTER_STORAGE.save(store);
         } catch (Exception e) {
@@ -303,6 +352,106 @@ public class BarterManager {
         }
     }
 
+    /**
+     * Write-behind save: snapshots the store on the calling (main) thread and writes it on the writer thread.
+
+     * Behavior:
+     *  - The catalogue index is updated immediately from the live store.
+     *  - A detached copy (cloned contents, price and locations) is queued, so later main-thread edits
+     *    cannot race the serializer.
+     *  - If a write for the same store is still queued, the newer snapshot replaces it (one write per burst).
+     *  - After {@link #flushPendingWrites()} has stopped the writer, the snapshot is written synchronously.
+     *  - Stores whose barrel was broken are ignored.
+     */
+    public void saveAsync(BarterStore store) {
+        BarterStoreKey key = store.getKey();
+        if (this.removed.contains(key)) return;
+        CatalogueIndex.INSTANCE.update(store);
+
+        if (this.pendingWrites.put(key, detach(store)) == null) {
+            boolean queued = this.onWriter(() -> {
+                BarterStore latest = this.pendingWrites.remove(key);
+                if (latest != null) {
+                    this.writing = key;
+                    try {
+                        this.write(latest); // index was already updated from the live store
+                    } finally {
+                        this.writing = null;
+                    }
+                }
+            });
+            if (!queued) {
+                BarterStore latest = this.pendingWrites.remove(key);
+                if (latest != null) this.write(latest);
+            }
+        }
+    }
+
+    /** Run a task on the writer thread; false if the writer has been stopped (caller handles it inline). */
+    private boolean onWriter(Runnable task) {
+        try {
+            this.writer.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Drains queued write-behind saves and stops the writer thread; later saves are written synchronously
+     * by the caller. Call from onDisable() before {@link #saveAll()}.
+
+     * If the writer does not finish in time, the queued tasks are dropped and their snapshots are written
+     * here instead, except for the store the writer is stuck on (writing it again would race that write).
+     */
+    public void flushPendingWrites() {
+        this.writer.shutdown(); // queued writes still run, in order
+        try {
+            if (!this.writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                this.writer.shutdownNow(); // drop what is queued; the running write (if any) keeps its store
+            }
+        } catch (InterruptedException ie) {
+            this.writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        BarterStoreKey busy = this.writing;
+        for (BarterStore pending : this.pendingWrites.values()) {
+            if (!pending.getKey().equals(busy)) this.write(pending);
+        }
+        this.pendingWrites.clear();
+    }
+
+    /** Detached copy of a store's persistent state (cloned items, price and rules, locations and supply links). */
+    private static BarterStore detach(BarterStore store) {
+        return new BarterStoreImpl(
+                store.getKey(),
+                store.getPlayerProfile(),
+                cloneContents(store.getSaleStorage().getContents()),
+                cloneContents(store.getCurrencyStorage().getContents()),
+                store.getCurrentItemPrice(),
+                cloneLocations(store.getLocations()),
+                cloneLocations(store.getSupplyLocations()),
+                store.getPriceRules().copy()
+        );
+    }
+
+    private static List<Location> cloneLocations(List<Location> locations) {
+        List<Location> copy = new ArrayList<>(locations.size());
+        for (Location location : locations) {
+            copy.add(location.clone());
+        }
+        return copy;
+    }
+
+    private static List<ItemStack> cloneContents(ItemStack[] contents) {
+        List<ItemStack> copy = new ArrayList<>(contents.length);
+        for (ItemStack stack : contents) {
+            copy.add(stack == null ? null : stack.clone());
+        }
+        return copy;
+    }
+
     /**
      * Asynchronously resolves all shops owned by a player based on persistent storage enumeration.
      * Implementation:
@@ -0,0 +1,280 @@
+package com.stifflered.bartercontainer.barter;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.store.BarterStore;
+import com.stifflered.bartercontainer.store.BarterStoreKey;
+import com.stifflered.bartercontainer.util.ItemFingerprint;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resident, read-only index of every shop's listing used by the catalogue.
+
+ * Why:
+ *  - The catalogue used to call {@link BarterManager#getAll()} on every open, which deserializes every
+ *    store file from disk just to read the sale slots.
+ *  - This index keeps one immutable {@link Listing} per store (stock, effective prices, locations, owner) so
+ *    the catalogue can rank "cheapest diamonds" without loading a single store.
+ *  - Prices are the ones a buyer actually pays: each slot's price rule (slot → item → default) is resolved
+ *    when the snapshot is taken, not just the store's default price.
+ *  - Prices in different currencies are never compared (1 netherite ingot is not "cheaper" than 2 dirt):
+ *    each entry keeps its best-value slot per price material, like {@link com.stifflered.bartercontainer.util.analytics.MarketIndex}.
+
+ * Lifecycle:
+ *  - {@link #seedAsync()} fills the index once from storage on enable.
+ *  - {@link BarterManager} pushes fresh snapshots whenever a store is created, loaded or saved,
+ *    and drops them when a store is removed.
+ *  - Every mutation bumps {@link #generation()} so derived views (e.g., search caches) can detect staleness.
+
+ * Fingerprints:
+ *  - Each store's last per-slot (template, fingerprint) pairs are kept, so a save only hashes slots whose
+ *    item changed; a slot whose item is still {@link ItemStack#isSimilar similar} (e.g., only its amount
+ *    moved after a purchase) reuses its fingerprint.
+
+ * Threading:
+ *  - Backed by a ConcurrentHashMap of immutable records; safe to read from any thread.
+ *  - {@link #update(BarterStore)} copies inventory contents, so call it from the thread that owns the store
+ *    (main thread for live stores; any thread for stores freshly loaded from disk).
+ */
+public final class CatalogueIndex {
+
+    /** Global singleton, mirroring {@link BarterManager#INSTANCE}. */
+    public static final CatalogueIndex INSTANCE = new CatalogueIndex();
+
+    /** Store key → latest immutable listing snapshot. */
+    private final Map<BarterStoreKey, Listing> listings = new ConcurrentHashMap<>();
+
+    /** Store key → per-slot fingerprints from the last snapshot (null = empty slot). */
+    private final Map<BarterStoreKey, SlotPrint[]> slotPrints = new ConcurrentHashMap<>();
+
+    /** Monotonic counter bumped on every change to the index. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private CatalogueIndex() {
+    }
+
+    /**
+     * Loads every store from persistent storage on an async task and indexes it.
+     * Stores already pushed by live updates are left alone (they are newer than disk), and stores removed
+     * while the seed was reading are never added back.
+     */
+    public void seedAsync() {
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                for (BarterStore store : BarterManager.INSTANCE.getAll()) {
+                    if (BarterManager.INSTANCE.isRemoved(store.getKey())) continue;
+                    Listing listing = snapshot(store);
+                    if (listings.putIfAbsent(listing.key(), listing) == null) {
+                        generation.incrementAndGet();
+                        // Removed between the check and the insert: remove() may have run before we put
+                        if (BarterManager.INSTANCE.isRemoved(listing.key())) {
+                            remove(listing.key());
+                        }
+                    }
+                }
+            }
+        }.runTaskAsynchronously(BarterContainer.INSTANCE);
+    }
+
+    /**
+     * Replace the snapshot for a store with its current price, stock and locations.
+     * The generation only moves when the listing actually differs, so saves that touch
+     * nothing the catalogue shows (e.g., bank-only edits) keep search caches warm.
+     */
+    public void update(BarterStore store) {
+        Listing listing = this.snapshot(store);
+        Listing previous = this.listings.put(listing.key(), listing);
+        if (!listing.equals(previous)) {
+            this.generation.incrementAndGet();
+        }
+    }
+
+    /** Drop a store from the index (e.g., the barrel was broken). */
+    public void remove(BarterStoreKey key) {
+        this.slotPrints.remove(key);
+        if (this.listings.remove(key) != null) {
+            this.generation.incrementAndGet();
+        }
+    }
+
+    /** Build a listing, re-fingerprinting only the slots whose item changed since the last snapshot. */
+    private Listing snapshot(BarterStore store) {
+        ItemStack[] contents = store.getSaleStorage().getContents();
+        SlotPrint[] previous = this.slotPrints.get(store.getKey());
+        SlotPrint[] prints = new SlotPrint[contents.length];
+
+        for (int slot = 0; slot < contents.length; slot++) {
+            ItemStack stack = contents[slot];
+            if (stack == null || stack.isEmpty()) continue;
+
+            SlotPrint cached = previous != null && slot < previous.length ? previous[slot] : null;
+            if (cached != null && cached.template().isSimilar(stack)) {
+                prints[slot] = cached;
+            } else {
+                ItemStack template = stack.clone();
+                template.setAmount(1);
+                prints[slot] = new SlotPrint(template, ItemFingerprint.of(template));
+            }
+        }
+
+        this.slotPrints.put(store.getKey(), prints);
+        return Listing.of(store, contents, prints);
+    }
+
+    /** Point-in-time view of all listings. The returned collection is a copy. */
+    public List<Listing> snapshot() {
+        return List.copyOf(this.listings.values());
+    }
+
+    /** Current generation; changes whenever any listing is added, replaced or removed. */
+    public long generation() {
+        return this.generation.get();
+    }
+
+    /**
+     * Immutable per-store catalogue record.
+     *
+     * @param key        store identity
+     * @param ownerId    owner UUID
+     * @param ownerName  owner display name (may be null for unresolved profiles)
+     * @param locations  cloned block locations of the barrel
+     * @param entries    one entry per distinct item on sale (amount-1 template, total quantity, best price per currency)
+     */
+    public record Listing(BarterStoreKey key,
+                          UUID ownerId,
+                          @Nullable String ownerName,
+                          List<Location> locations,
+                          List<Entry> entries) {
+
+        static Listing of(BarterStore store, ItemStack[] contents, SlotPrint[] prints) {
+            // Merge identical items across slots (by fingerprint) so each store contributes one entry per item.
+            Map<ItemFingerprint, Accumulator> items = new LinkedHashMap<>();
+            for (int slot = 0; slot < contents.length; slot++) {
+                SlotPrint print = prints[slot];
+                if (print == null) continue;
+                ItemStack stack = contents[slot];
+
+                Accumulator item = items.computeIfAbsent(print.fingerprint(), k -> new Accumulator(print.template()));
+                item.stock += stack.getAmount();
+
+                // One purchase = one slot at that slot's own price (rules resolved; tiers need a batch)
+                ItemStack price = store.getPrice(slot, print.fingerprint(), 1);
+                if (price.getType() == Material.AIR || price.isEmpty()) continue;
+
+                // Best value is only meaningful within one currency
+                PriceOffer offer = new PriceOffer(price, stack.getAmount());
+                item.best.merge(price.getType(), offer, (a, b) -> b.unitPrice() < a.unitPrice() ? b : a);
+            }
+
+            List<Entry> entries = new ArrayList<>(items.size());
+            items.forEach((fingerprint, item) ->
+                    entries.add(new Entry(fingerprint, item.template, item.stock, List.copyOf(item.best.values()))));
+
+            List<Location> locations = new ArrayList<>(store.getLocations().size());
+            for (Location location : store.getLocations()) {
+                locations.add(location.clone());
+            }
+
+            return new Listing(
+                    store.getKey(),
+                    store.getPlayerProfile().getId(),
+                    store.getPlayerProfile().getName(),
+                    List.copyOf(locations),
+                    List.copyOf(entries)
+            );
+        }
+
+        /**
+         * Squared distance from the reference to this store's closest location,
+         * or {@link Double#MAX_VALUE} if none are in the reference's world.
+         */
+        public double distanceSquared(@Nullable Location reference) {
+            if (reference == null || reference.getWorld() == null) return Double.MAX_VALUE;
+
+            double best = Double.MAX_VALUE;
+            for (Location location : this.locations) {
+                if (!reference.getWorld().equals(location.getWorld())) continue;
+                best = Math.min(best, location.distanceSquared(reference));
+            }
+            return best;
+        }
+    }
+
+    /** One sale slot's amount-1 template (shared, never mutated) and its fingerprint. */
+    private record SlotPrint(ItemStack template, ItemFingerprint fingerprint) {
+    }
+
+    /** Per-item accumulator while a listing is built. */
+    private static final class Accumulator {
+
+        private final ItemStack template;
+        private int stock;
+
+        /** Price material → best-value slot priced in it (ordered by material, so listings compare stably). */
+        private final Map<Material, PriceOffer> best = new EnumMap<>(Material.class);
+
+        Accumulator(ItemStack template) {
+            this.template = template;
+        }
+    }
+
+    /**
+     * What one purchase of a store's best-value slot costs in one currency.
+     *
+     * @param price what one purchase costs (that slot's own price rule applied)
+     * @param stack size of that slot's stack (one purchase = one slot)
+     */
+    public record PriceOffer(ItemStack price, int stack) {
+
+        /** The price material; unit prices are only comparable between offers with the same currency. */
+        public Material currency() {
+            return this.price.getType();
+        }
+
+        /** Price per single unit, in {@link #currency()}. */
+        public double unitPrice() {
+            return (double) this.price.getAmount() / this.stack;
+        }
+    }
+
+    /**
+     * A distinct item on sale in a store.
+     *
+     * @param fingerprint cached item identity (computed once per snapshot; used for grouping/equality)
+     * @param template    amount-1 clone used for display
+     * @param stock       total quantity across all slots
+     * @param offers      best-value slot per currency (one per price material, ordered by material); empty if no
+     *                    slot holding this item has a price
+     */
+    public record Entry(ItemFingerprint fingerprint, ItemStack template, int stock, List<PriceOffer> offers) {
+
+        /** True if at least one slot holding this item can be bought. */
+        public boolean hasPrice() {
+            return !this.offers.isEmpty();
+        }
+
+        /** Equality by fingerprint + stock + offers; avoids deep ItemStack meta comparison of the template. */
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry other
+                    && this.stock == other.stock
+                    && this.fingerprint.equals(other.fingerprint)
+                    && this.offers.equals(other.offers);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * this.fingerprint.hashCode() + this.stock) + this.offers.hashCode();
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.stifflered.bartercontainer.barter;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.event.BarterPurchaseEvent;
+import com.stifflered.bartercontainer.gui.tree.buttons.SetPriceGuiItem;
+import com.stifflered.bartercontainer.store.BarterStore;
+import com.stifflered.bartercontainer.store.BarterStoreKey;
+import com.stifflered.bartercontainer.store.OwnerLedger;
+import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
+import com.stifflered.bartercontainer.util.ItemFingerprint;
+import com.stifflered.bartercontainer.util.ItemUtil;
+import com.stifflered.bartercontainer.util.analytics.MarketIndex;
+import com.stifflered.bartercontainer.util.analytics.SalesHistograms;
+
+import me.sashak.inventoryutil.ItemRemover;
+import me.sashak.inventoryutil.slotgroup.SlotGroups;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a purchase as one unit against a versioned view of the store.
+
+ * Model:
+ *  - Every store has a monotonically increasing version. It moves on every purchase and on every other
+ *    change to the sale slots, bank or price ({@link #markChanged(BarterStoreKey)}): owner edits, hopper
+ *    moves, restocks, bank collection, a reload of the store from disk, and config reloads.
+ *  - A buyer's preview captures (version, slot, fingerprint, amount). At commit time:
+ *      • same version → nothing changed since the preview, skip re-validation;
+ *      • different version → re-validate only the previewed slot (fingerprint + amount);
+ *      • the version is then claimed with compare-and-set before any inventory is touched.
+ *  - All checks (stock, funds, bank room) run BEFORE mutation, so a failed purchase never leaves a
+ *    half-applied state (e.g., payment deposited but item not removed).
+ *  - {@link #purchaseBulk} buys several slots of the same item as one batch through the same commit path.
+ *  - The amount charged comes from {@link #quote}: per-slot / per-item price rules and quantity tiers
+ *    (see {@link com.stifflered.bartercontainer.store.PriceRules}), summed over the batch.
+ *  - With the owner bank ledger enabled ({@link BankLedger}), payment is credited to the owner's ledger
+ *    and the bank-room check is skipped (the ledger has no slot limit).
+ *  - Slots reserved by another buyer ({@link SlotReservations}) cannot be bought; a sale ends the
+ *    reservation line of every slot it took.
+
+ * Side effects after commit:
+ *  - A single {@link BarterPurchaseEvent} on the main thread.
+ *  - Owner log append (one batch per transaction) on a dedicated writer thread, together with the
+ *    rolling daily sale counts ({@link SalesHistograms}) and the market-wide price index ({@link MarketIndex});
+ *    store persistence via {@link BarterManager#saveAsync}.
+
+ * Hot-path allocations:
+ *  - Each purchased stack is copied once; the event, the result and the log writer share that copy.
+ *  - The logged price (display item + its Base64 blob) is cached per store and reused while the unit
+ *    price stays the same, so repeat sales skip the MiniMessage render and the ObjectOutputStream encode.
+
+ * Threading:
+ *  - {@link #purchase} must be called on the main server thread (it touches Bukkit inventories).
+ */
+public final class PurchaseService {
+
+    /** Global singleton, mirroring {@link BarterManager#INSTANCE}. */
+    public static final PurchaseService INSTANCE = new PurchaseService();
+
+    /** Store key → version counter. */
+    private final Map<BarterStoreKey, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /** Store key → last logged price (display item + encoded blob); replaced when the unit price changes. */
+    private final Map<BarterStoreKey, LoggedPrice> loggedPrices = new ConcurrentHashMap<>();
+
+    /** Single writer so log lines for a store are appended in purchase order. */
+    private final ExecutorService logWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "BarterContainer-PurchaseLog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PurchaseService() {
+    }
+
+    /** Current version for a store (0 until the first change is observed). */
+    public long version(BarterStoreKey key) {
+        return this.counter(key).get();
+    }
+
+    /** Record an out-of-band change (owner edit, price change, restock) and return the new version. */
+    public long markChanged(BarterStoreKey key) {
+        return this.counter(key).incrementAndGet();
+    }
+
+    /** Move every known store's version (e.g., after a config reload that can change how purchases settle). */
+    public void markAllChanged() {
+        this.versions.values().forEach(AtomicLong::incrementAndGet);
+    }
+
+    /**
+     * Attempt to buy the item in {@code slot}.
+     *
+     * @param buyer           purchasing player
+     * @param store           store to buy from
+     * @param slot            sale-storage slot shown in the preview
+     * @param expected        fingerprint of the previewed item
+     * @param expectedAmount  amount of the previewed item
+     * @param expectedVersion store version when the preview was taken
+     * @return typed outcome; on {@link Status#SUCCESS} the result carries the delivered item and price paid
+     */
+    public PurchaseResult purchase(Player buyer, BarterStore store, int slot,
+                                   ItemFingerprint expected, int expectedAmount, long expectedVersion) {
+        ItemStack current = store.getSaleStorage().getItem(slot);
+        if (current == null || current.isEmpty()) {
+            return PurchaseResult.failed(Status.STALE);
+        }
+
+        if (SlotReservations.INSTANCE.isReservedByOther(store.getKey(), slot, buyer.getUniqueId())) {
+            return PurchaseResult.failed(Status.RESERVED);
+        }
+
+        long seen = this.version(store.getKey());
+        if (seen != expectedVersion
+                && (current.getAmount() != expectedAmount || !expected.equals(ItemFingerprint.of(current)))) {
+            return PurchaseResult.failed(Status.STALE);
+        }
+
+        return this.commit(buyer, store, expected, List.of(slot), seen);
+    }
+
+    /**
+     * Bulk purchase: buy up to {@code quantity} sale slots holding the given item as ONE transaction
+     * (one payment removal, one bank deposit, one log batch, one save, one event).
+     * Slots are selected live ({@link #bulkSlots}): only slots holding the previewed item in the previewed
+     * amount qualify, since each slot costs a full purchase price whatever its stack size. Slots reserved
+     * by other buyers are left out.
+     * The preview is validated like {@link #purchase}: if the version moved, the anchor slot must still hold
+     * exactly what the buyer saw.
+     * All-or-nothing: if the buyer cannot pay for every selected slot, nothing is bought.
+     *
+     * @param buyer           purchasing player
+     * @param store           store to buy from
+     * @param item            fingerprint of the item to buy
+     * @param anchorSlot      previewed slot; bought first, and its price currency decides which other slots qualify
+     * @param expectedAmount  amount of the previewed item (every bought slot must hold exactly this many)
+     * @param expectedVersion store version when the preview was taken
+     * @param quantity        number of slots (purchases) wanted; {@link Integer#MAX_VALUE} = all matching
+     */
+    public PurchaseResult purchaseBulk(Player buyer, BarterStore store, ItemFingerprint item, int anchorSlot,
+                                       int expectedAmount, long expectedVersion, int quantity) {
+        long seen = this.version(store.getKey());
+        if (seen != expectedVersion) {
+            ItemStack anchor = store.getSaleStorage().getItem(anchorSlot);
+            if (anchor == null || anchor.getAmount() != expectedAmount || !item.equals(ItemFingerprint.of(anchor))) {
+                return PurchaseResult.failed(Status.STALE);
+            }
+        }
+
+        List<Integer> candidates = SlotReservations.INSTANCE.available(store.getKey(),
+                matchingSlots(store, item, expectedAmount, Integer.MAX_VALUE), buyer.getUniqueId());
+        if (!candidates.contains(anchorSlot)) {
+            return PurchaseResult.failed(Status.STALE);
+        }
+        List<Integer> slots = bulkSlots(store, item, candidates, anchorSlot, quantity);
+        return this.commit(buyer, store, item, slots, seen);
+    }
+
+    /**
+     * Sale slots (in order) holding exactly {@code amount} of the given item, capped at {@code limit}.
+     * The amount is compared first, so only same-sized stacks are fingerprinted.
+     */
+    public static List<Integer> matchingSlots(BarterStore store, ItemFingerprint item, int amount, int limit) {
+        List<Integer> slots = new ArrayList<>();
+        ItemStack[] contents = store.getSaleStorage().getContents();
+        for (int slot = 0; slot < contents.length && slots.size() < limit; slot++) {
+            ItemStack stack = contents[slot];
+            if (stack != null && stack.getAmount() == amount && item.equals(ItemFingerprint.of(stack))) {
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Order and filter candidate slots for one bulk transaction.
+
+     * Rules:
+     *  - The anchor slot goes first when it is among the candidates; the rest keep slot order.
+     *  - One transaction pays in ONE currency item: only slots whose price uses the same currency as the
+     *    first slot qualify (price rules may give slots different currencies).
+     *  - Capped at {@code limit}.
+     */
+    public static List<Integer> bulkSlots(BarterStore store, ItemFingerprint item, List<Integer> candidates, int anchorSlot, int limit) {
+        List<Integer> ordered = new ArrayList<>(candidates.size());
+        if (candidates.contains(anchorSlot)) {
+            ordered.add(anchorSlot);
+        }
+        for (int slot : candidates) {
+            if (slot != anchorSlot) ordered.add(slot);
+        }
+
+        List<Integer> slots = new ArrayList<>();
+        ItemStack currency = null;
+        for (int slot : ordered) {
+            if (slots.size() >= limit) break;
+
+            ItemStack unit = store.getPrice(slot, item, 1);
+            if (currency == null) {
+                currency = unit;
+            } else if (!unit.isSimilar(currency)) {
+                continue;
+            }
+            slots.add(slot);
+        }
+        return slots;
+    }
+
+    /**
+     * Total price for buying {@code slots} (all holding {@code item}) in one transaction, with quantity tiers
+     * applied for {@code slots.size()}.
+     *
+     * @return the currency item with the summed amount (may exceed its max stack size; descriptive only),
+     *         or null if a slot has no price or the slots do not share one currency
+     */
+    public static @Nullable ItemStack quote(BarterStore store, ItemFingerprint item, List<Integer> slots) {
+        ItemStack total = null;
+        int amount = 0;
+        for (int slot : slots) {
+            ItemStack unit = store.getPrice(slot, item, slots.size());
+            if (unit.isEmpty()) return null;
+
+            if (total == null) {
+                total = unit;
+            } else if (!unit.isSimilar(total)) {
+                return null;
+            }
+            amount += unit.getAmount();
+        }
+        if (total == null) return null;
+
+        total.setAmount(amount);
+        return total;
+    }
+
+    /**
+     * Shared commit path for single and bulk purchases.
+     * Runs every check before mutating, claims {@code seen → seen + 1}, then applies the whole batch.
+     */
+    private PurchaseResult commit(Player buyer, BarterStore store, ItemFingerprint item, List<Integer> slots, long seen) {
+        ItemStack paid = quote(store, item, slots);
+        if (paid == null) {
+            return PurchaseResult.failed(Status.NO_PRICE);
+        }
+
+        ItemStack[] payment = split(paid);
+        if (!me.sashak.inventoryutil.ItemUtil.hasAllItems(buyer, SlotGroups.PLAYER_ENTIRE_INV, payment)) {
+            return PurchaseResult.failed(Status.INSUFFICIENT_FUNDS);
+        }
+        // Owner ledger: loaded now so a broken ledger file refuses the sale before anything moves
+        OwnerLedger ledger = null;
+        if (BankLedger.INSTANCE.isEnabled()) {
+            ledger = BankLedger.INSTANCE.ledger(store).orElse(null);
+            if (ledger == null) {
+                return PurchaseResult.failed(Status.BANK_UNAVAILABLE);
+            }
+        } else if (!me.sashak.inventoryutil.ItemUtil.hasRoomForItems(store.getCurrencyStorage(), SlotGroups.ENTIRE_INV, payment)) {
+            return PurchaseResult.failed(Status.SHOP_FULL);
+        }
+
+        // Claim this version; any concurrent commit against the same view loses here
+        if (!this.counter(store.getKey()).compareAndSet(seen, seen + 1)) {
+            return PurchaseResult.failed(Status.STALE);
+        }
+
+        // ---- Commit (all checks passed; nothing below can fail half-way for lack of room/funds) ----
+        // Per-line price actually charged (rules may price each slot differently; tiers applied for the batch)
+        List<ItemStack> purchased = new ArrayList<>(slots.size());
+        List<ItemStack> unitPrices = new ArrayList<>(slots.size());
+        for (int slot : slots) {
+            ItemStack stack = store.getSaleStorage().getItem(slot);
+            if (stack != null && !stack.isEmpty()) {
+                purchased.add(stack.clone());
+                unitPrices.add(store.getPrice(slot, item, slots.size()));
+            }
+        }
+
+        ItemRemover.removeItems(buyer, SlotGroups.PLAYER_ENTIRE_INV, payment);
+        if (ledger != null) {
+            BankLedger.INSTANCE.deposit(ledger, cloneAll(payment)); // owner-level, no slot limit
+        } else {
+            store.getCurrencyStorage().addItem(cloneAll(payment));
+        }
+        for (int slot : slots) {
+            store.getSaleStorage().setItem(slot, null);
+        }
+        SlotReservations.INSTANCE.sold(store.getKey(), slots);
+        for (ItemStack stack : purchased) {
+            ItemUtil.giveItemOrThrow(buyer, stack.clone());
+        }
+
+        long committed = seen + 1;
+        List<ItemStack> delivered = List.copyOf(purchased);
+        // Listeners get their own copies: the log writer reads {@code delivered} off-thread after this returns
+        new BarterPurchaseEvent(buyer, store, List.copyOf(slots),
+                delivered.stream().map(ItemStack::clone).toList(), paid.clone(), committed).callEvent();
+
+        this.handOff(buyer, store, delivered, List.copyOf(unitPrices));
+        return new PurchaseResult(Status.SUCCESS, delivered, paid, committed);
+    }
+
+    /**
+     * Queue the owner log lines (one batch) and a write-behind save; nothing here blocks the main thread on disk.
+     * {@code unitPrices} is parallel to {@code purchased}: each line is logged at its own slot's price.
+     */
+    private void handOff(Player buyer, BarterStore store, List<ItemStack> purchased, List<ItemStack> unitPrices) {
+        final BarterStoreKey key = store.getKey();
+        final long timestamp = System.currentTimeMillis();
+        final UUID buyerId = buyer.getUniqueId();
+        final String buyerName = buyer.getName();
+        final UUID ownerId = store.getPlayerProfile().getId();
+
+        // Displays built on main; blobs encoded on the writer. Equal neighbours share one instance.
+        final List<LoggedPrice> prices = new ArrayList<>(unitPrices.size());
+        LoggedPrice last = null;
+        for (ItemStack unit : unitPrices) {
+            if (last == null || !last.unit().equals(unit)) {
+                last = this.loggedPrice(key, unit);
+            }
+            prices.add(last);
+        }
+
+        this.logWriter.execute(() -> {
+            try {
+                // Daily sale counts, unique buyers and top sellers move with the log lines, in the same step
+                SalesHistograms.INSTANCE.logged(key, ownerId, timestamp, buyerId, purchased,
+                        () -> BarterShopOwnerLogManager.addLogs(key, timestamp, buyerId, buyerName, purchased,
+                                prices.stream().map(LoggedPrice::blob).toList()));
+                // Only once the lines are on disk: the index is rebuilt from the logs on restart
+                MarketIndex.INSTANCE.record(timestamp, purchased, unitPrices);
+            } catch (IOException ioe) {
+                // Non-fatal: purchase succeeded; just log the failure to write the log line
+                BarterContainer.INSTANCE.getLogger().warning("Failed to append purchase log: " + ioe.getMessage());
+            }
+        });
+
+        BarterManager.INSTANCE.saveAsync(store);
+    }
+
+    /** A (possibly oversized) total price split into legal stack sizes so inventory checks/removal see real stacks. */
+    private static ItemStack[] split(ItemStack total) {
+        int remaining = total.getAmount();
+        int max = Math.max(1, total.getMaxStackSize());
+
+        List<ItemStack> stacks = new ArrayList<>((remaining + max - 1) / max);
+        while (remaining > 0) {
+            ItemStack part = total.clone();
+            part.setAmount(Math.min(max, remaining));
+            stacks.add(part);
+            remaining -= part.getAmount();
+        }
+        return stacks.toArray(new ItemStack[0]);
+    }
+
+    private static ItemStack[] cloneAll(ItemStack[] stacks) {
+        ItemStack[] copy = new ItemStack[stacks.length];
+        for (int i = 0; i < stacks.length; i++) {
+            copy[i] = stacks[i].clone();
+        }
+        return copy;
+    }
+
+    /** Cached logged price for the store, rebuilt only when the unit price differs from the last sale's. */
+    private LoggedPrice loggedPrice(BarterStoreKey key, ItemStack unitPaid) {
+        LoggedPrice cached = this.loggedPrices.get(key);
+        if (cached != null && cached.unit().equals(unitPaid)) {
+            return cached;
+        }
+        LoggedPrice fresh = new LoggedPrice(unitPaid.clone(), SetPriceGuiItem.getPriceItem(unitPaid));
+        this.loggedPrices.put(key, fresh);
+        return fresh;
+    }
+
+    /** Drain queued log lines; call from onDisable(). */
+    public void shutdown() {
+        this.logWriter.shutdown();
+        try {
+            if (!this.logWriter.awaitTermination(3, TimeUnit.SECONDS)) {
+                this.logWriter.shutdownNow();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            this.logWriter.shutdownNow();
+        }
+    }
+
+    private AtomicLong counter(BarterStoreKey key) {
+        return this.versions.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    /**
+     * A unit price as written to the owner log: the UI-facing display item and its PRICE_BASE64 blob.
+     * The blob is encoded lazily on the log writer thread, once per instance.
+     */
+    private static final class LoggedPrice {
+
+        private final ItemStack unit;
+        private final ItemStack display;
+        private volatile @Nullable String blob;
+
+        LoggedPrice(ItemStack unit, ItemStack display) {
+            this.unit = unit;
+            this.display = display;
+        }
+
+        ItemStack unit() {
+            return this.unit;
+        }
+
+        String blob() {
+            String encoded = this.blob;
+            if (encoded == null) {
+                encoded = BarterShopOwnerLogManager.encodePrice(this.display);
+                this.blob = encoded;
+            }
+            return encoded;
+        }
+    }
+
+    /** Outcome of a purchase attempt. */
+    public enum Status {
+        /** Committed: payment taken, item delivered. */
+        SUCCESS,
+        /** The previewed slot changed or emptied (another buyer or the owner got there first). */
+        STALE,
+        /** The store has no price configured. */
+        NO_PRICE,
+        /** The buyer cannot pay the price. */
+        INSUFFICIENT_FUNDS,
+        /** The store's bank cannot accept the payment (only without the owner bank ledger). */
+        SHOP_FULL,
+        /** The owner's bank ledger file could not be loaded; nothing was charged (only with the owner bank ledger). */
+        BANK_UNAVAILABLE,
+        /** Another buyer holds a reservation on the slot. */
+        RESERVED
+    }
+
+    /**
+     * Typed purchase result.
+     *
+     * @param status    outcome
+     * @param purchased delivered stacks, one per bought slot (empty unless SUCCESS)
+     * @param price     total price paid (null unless SUCCESS)
+     * @param version   store version after the commit (-1 unless SUCCESS)
+     */
+    public record PurchaseResult(Status status, List<ItemStack> purchased, @Nullable ItemStack price, long version) {
+
+        static PurchaseResult failed(Status status) {
+            return new PurchaseResult(status, List.of(), null, -1L);
+        }
+
+        public boolean success() {
+            return this.status == Status.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.stifflered.bartercontainer.barter;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.BarterContainerConfiguration;
+import com.stifflered.bartercontainer.event.SupplyRestockEvent;
+import com.stifflered.bartercontainer.gui.tree.ShopSession;
+import com.stifflered.bartercontainer.store.BarterStore;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Container;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background auto-restock: tops up shops from their linked supply containers.
+
+ * How a pass works:
+ *  - Every {@code restock.interval-ticks}, take the shops currently loaded in {@link BarterManager}
+ *    that have at least one supply link.
+ *  - Handle at most {@code restock.stores-per-pass} of them, round-robin, so a server with hundreds
+ *    of linked shops spreads the work over many passes instead of spiking one tick.
+ *  - For each shop, move at most {@code restock.stacks-per-store} stacks from the supply containers
+ *    into the sale inventory (merging into partial stacks first, then empty slots).
+
+ * Chunk awareness:
+ *  - A supply container whose chunk is not loaded is skipped (never force-loads chunks).
+
+ * Access:
+ *  - Linking only checked access once, so every pull re-checks: the block must still be a container,
+ *    not a shop, within {@code restock.link-range}, and no listener may cancel the {@link SupplyRestockEvent}
+ *    (protection integrations veto pulls from containers the owner lost access to). Failing containers
+ *    are skipped, not unlinked.
+
+ * Side effects per restocked shop (only if something moved):
+ *  - Purchase version bump (open previews re-validate), live buy GUIs refresh, write-behind save.
+
+ * Threading:
+ *  - Runs on the main thread because it touches Bukkit inventories; the per-pass caps bound the cost.
+ */
+public final class RestockScheduler {
+
+    /** Global singleton, mirroring {@link BarterManager#INSTANCE}. */
+    public static final RestockScheduler INSTANCE = new RestockScheduler();
+
+    private @Nullable BukkitTask task;
+
+    /** Round-robin position across passes. */
+    private int cursor;
+
+    private RestockScheduler() {
+    }
+
+    /** Start the repeating pass if enabled in config; safe to call again (restarts). */
+    public void start(BarterContainerConfiguration.RestockConfiguration config) {
+        this.stop();
+        if (!config.enabled()) return;
+
+        this.task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                pass(config);
+            }
+        }.runTaskTimer(BarterContainer.INSTANCE, config.intervalTicks(), config.intervalTicks());
+    }
+
+    /** Cancel the repeating pass (onDisable / reload). */
+    public void stop() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+    }
+
+    private void pass(BarterContainerConfiguration.RestockConfiguration config) {
+        List<BarterStore> linked = new ArrayList<>();
+        for (BarterStore store : BarterManager.INSTANCE.getLoadedStores()) {
+            if (!store.getSupplyLocations().isEmpty()) {
+                linked.add(store);
+            }
+        }
+        if (linked.isEmpty()) return;
+
+        int count = Math.min(config.storesPerPass(), linked.size());
+        int start = this.cursor % linked.size();
+        for (int i = 0; i < count; i++) {
+            BarterStore store = linked.get((start + i) % linked.size());
+            if (restock(store, config) > 0) {
+                PurchaseService.INSTANCE.markChanged(store.getKey());
+                ShopSession.scheduleRefresh(store.getKey());
+                BarterManager.INSTANCE.saveAsync(store);
+            }
+        }
+        this.cursor = (start + count) % linked.size();
+    }
+
+    /**
+     * Move up to {@code restock.stacks-per-store} stacks from the store's loaded, still accessible supply
+     * containers into its sale inventory.
+     *
+     * @return number of stacks (fully or partly) moved
+     */
+    private static int restock(BarterStore store, BarterContainerConfiguration.RestockConfiguration config) {
+        Inventory sale = store.getSaleStorage();
+        int budget = config.stacksPerStore();
+        int moved = 0;
+
+        for (Location location : List.copyOf(store.getSupplyLocations())) {
+            if (moved >= budget) break;
+
+            Inventory supply = loadedContainer(location);
+            if (supply == null || !mayPull(store, location, config)) continue;
+
+            ItemStack[] contents = supply.getContents();
+            for (int slot = 0; slot < contents.length && moved < budget; slot++) {
+                ItemStack stack = contents[slot];
+                if (stack == null || stack.isEmpty()) continue;
+
+                Map<Integer, ItemStack> leftover = sale.addItem(stack.clone());
+                int remaining = leftover.isEmpty() ? 0 : leftover.values().iterator().next().getAmount();
+                if (remaining == stack.getAmount()) {
+                    // Nothing fit; the sale inventory is full for this item (and maybe entirely)
+                    if (sale.firstEmpty() == -1) return moved;
+                    continue;
+                }
+
+                if (remaining == 0) {
+                    supply.setItem(slot, null);
+                } else {
+                    ItemStack rest = stack.clone();
+                    rest.setAmount(remaining);
+                    supply.setItem(slot, rest);
+                }
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    /** Re-check a supply link before pulling from it (see "Access" above). */
+    private static boolean mayPull(BarterStore store, Location location, BarterContainerConfiguration.RestockConfiguration config) {
+        if (BarterManager.INSTANCE.getBarter(location).isPresent()) return false;
+        if (!SupplyLinkService.withinRange(store, location, config.linkRange())) return false;
+        return new SupplyRestockEvent(store, location).callEvent();
+    }
+
+    /** Live inventory of a container at the location, or null if its chunk is unloaded / it is gone. */
+    private static @Nullable Inventory loadedContainer(Location location) {
+        World world = location.getWorld();
+        if (world == null || !world.isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+            return null;
+        }
+
+        BlockState state = location.getBlock().getState(false); // no snapshot; live tile entity
+        return (state instanceof Container container) ? container.getInventory() : null;
+    }
+}
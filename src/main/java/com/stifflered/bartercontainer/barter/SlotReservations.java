@@ -0,0 +1,243 @@
+package com.stifflered.bartercontainer.barter;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.BarterContainerConfiguration;
+import com.stifflered.bartercontainer.gui.tree.ShopSession;
+import com.stifflered.bartercontainer.store.BarterStoreKey;
+import com.stifflered.bartercontainer.util.Messages;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Short-lived, buyer-side reservations of sale slots, with a first-come-first-served line per slot.
+
+ * Why:
+ *  - When a rare item is listed, many buyers pick it in the same moment. Without reservations all but one
+ *    of them click "Confirm" only to get {@code buy.already_taken}.
+ *  - Picking an item (the preview click in {@link com.stifflered.bartercontainer.gui.tree.BarterBuyGui})
+ *    now claims its slot: the first buyer holds it for {@code reservations.ttl-seconds}, later buyers
+ *    wait in line and see the cell as reserved.
+
+ * Hand-off:
+ *  - The holder buys → the slot is sold; everyone in line is told and the line is dropped.
+ *  - The holder lets go (picks another item, closes the shop, a purchase attempt fails, or they can no longer
+ *    afford it) or the reservation lapses → the slot passes to the next buyer in line who is still viewing
+ *    the shop; their confirm tile opens automatically. Routine GUI refreshes never let go of a hold.
+
+ * Enforcement:
+ *  - {@link PurchaseService} refuses a single purchase of a slot reserved by someone else
+ *    ({@link PurchaseService.Status#RESERVED}) and leaves such slots out of bulk purchases.
+
+ * Threading:
+ *  - Main thread only (called from GUI clicks, purchases and scheduler ticks).
+ */
+public final class SlotReservations {
+
+    /** Global singleton, mirroring {@link BarterManager#INSTANCE}. */
+    public static final SlotReservations INSTANCE = new SlotReservations();
+
+    /** Store key → slot → reservation line. Entries exist only while a slot has a holder. */
+    private final Map<BarterStoreKey, Map<Integer, Line>> lines = new HashMap<>();
+
+    private SlotReservations() {
+    }
+
+    /** How a claim went. */
+    public enum Outcome {
+        /** The buyer holds the slot (fresh, renewed, or reservations are disabled). */
+        GRANTED,
+        /** Someone else holds it; the buyer is waiting in line ({@link Claim#position()}). */
+        QUEUED,
+        /** Someone else holds it and the line is full. */
+        REFUSED
+    }
+
+    /**
+     * Result of {@link #claim}.
+     *
+     * @param outcome  what happened
+     * @param position 1-based place in line when QUEUED, otherwise 0
+     */
+    public record Claim(Outcome outcome, int position) { }
+
+    /**
+     * Reserve {@code slot} for {@code buyer}, or put them in line behind the current holder.
+     * Claiming a slot the buyer already holds renews its time only while nobody is waiting; once someone
+     * is in line the original expiry stands, so a holder cannot keep a slot forever by re-clicking it.
+     */
+    public Claim claim(BarterStoreKey key, int slot, UUID buyer) {
+        BarterContainerConfiguration.ReservationConfiguration config = config();
+        if (!config.enabled()) {
+            return new Claim(Outcome.GRANTED, 0);
+        }
+
+        Map<Integer, Line> store = this.lines.computeIfAbsent(key, k -> new HashMap<>());
+        Line line = store.get(slot);
+        if (line == null) {
+            line = new Line();
+            store.put(slot, line);
+            this.hold(key, slot, line, buyer, config);
+            changed(key, slot);
+            return new Claim(Outcome.GRANTED, 0);
+        }
+
+        if (line.holder.equals(buyer)) {
+            if (line.queue.isEmpty()) {
+                this.hold(key, slot, line, buyer, config);
+            }
+            return new Claim(Outcome.GRANTED, 0);
+        }
+
+        int position = 0;
+        for (UUID waiting : line.queue) {
+            position++;
+            if (waiting.equals(buyer)) return new Claim(Outcome.QUEUED, position);
+        }
+        if (line.queue.size() >= config.maxQueue()) {
+            return new Claim(Outcome.REFUSED, 0);
+        }
+        line.queue.addLast(buyer);
+        return new Claim(Outcome.QUEUED, line.queue.size());
+    }
+
+    /** True if the slot is currently held by a buyer other than {@code buyer}. */
+    public boolean isReservedByOther(BarterStoreKey key, int slot, UUID buyer) {
+        Map<Integer, Line> store = this.lines.get(key);
+        Line line = store == null ? null : store.get(slot);
+        return line != null && !line.holder.equals(buyer);
+    }
+
+    /** The given slots minus those held by other buyers (order kept). */
+    public List<Integer> available(BarterStoreKey key, List<Integer> slots, UUID buyer) {
+        Map<Integer, Line> store = this.lines.get(key);
+        if (store == null || store.isEmpty()) return slots;
+
+        List<Integer> free = new ArrayList<>(slots.size());
+        for (int slot : slots) {
+            Line line = store.get(slot);
+            if (line == null || line.holder.equals(buyer)) free.add(slot);
+        }
+        return free;
+    }
+
+    /**
+     * The buyer no longer wants the slot: a holder passes it to the next in line,
+     * a waiting buyer leaves the line.
+     */
+    public void release(BarterStoreKey key, int slot, UUID buyer) {
+        Map<Integer, Line> store = this.lines.get(key);
+        Line line = store == null ? null : store.get(slot);
+        if (line == null) return;
+
+        if (line.holder.equals(buyer)) {
+            this.handOff(key, slot, line);
+        } else {
+            line.queue.remove(buyer);
+        }
+    }
+
+    /** The buyer left the shop: release every slot they hold or wait for there. */
+    public void releaseAll(BarterStoreKey key, UUID buyer) {
+        Map<Integer, Line> store = this.lines.get(key);
+        if (store == null) return;
+
+        for (int slot : List.copyOf(store.keySet())) {
+            this.release(key, slot, buyer);
+        }
+    }
+
+    /** The slots were bought: drop their lines and tell whoever was still waiting. */
+    public void sold(BarterStoreKey key, Collection<Integer> slots) {
+        Map<Integer, Line> store = this.lines.get(key);
+        if (store == null) return;
+
+        for (int slot : slots) {
+            Line line = store.remove(slot);
+            if (line == null) continue;
+
+            line.cancelExpiry();
+            for (UUID waiting : line.queue) {
+                Player player = Bukkit.getPlayer(waiting);
+                if (player != null) {
+                    Messages.error(player, "buy.reservation.sold");
+                }
+            }
+        }
+        if (store.isEmpty()) {
+            this.lines.remove(key);
+        }
+    }
+
+    /** Give the slot to the next buyer in line who is still viewing the shop, or drop the line. */
+    private void handOff(BarterStoreKey key, int slot, Line line) {
+        line.cancelExpiry();
+
+        ShopSession session = ShopSession.find(key);
+        UUID next;
+        while ((next = line.queue.pollFirst()) != null) {
+            if (session == null || session.item(slot) == null) break; // nobody viewing / nothing left to reserve
+
+            this.hold(key, slot, line, next, config());
+            if (session.grant(next, slot)) {
+                changed(key, slot);
+                return;
+            }
+        }
+
+        line.cancelExpiry(); // a tentative hold above may have started a timer
+        Map<Integer, Line> store = this.lines.get(key);
+        if (store != null) {
+            store.remove(slot, line);
+            if (store.isEmpty()) this.lines.remove(key);
+        }
+        changed(key, slot);
+    }
+
+    /** Make {@code buyer} the holder and (re)start the expiry timer. */
+    private void hold(BarterStoreKey key, int slot, Line line, UUID buyer, BarterContainerConfiguration.ReservationConfiguration config) {
+        line.cancelExpiry();
+        line.holder = buyer;
+        line.expiry = Bukkit.getScheduler().runTaskLater(BarterContainer.INSTANCE, () -> {
+            line.expiry = null;
+            this.handOff(key, slot, line);
+
+            ShopSession session = ShopSession.find(key);
+            if (session != null) {
+                session.revoke(buyer, slot);
+            }
+        }, config.ttlSeconds() * 20L);
+    }
+
+    /** Redraw the slot's cell for every viewer (reserved marker on/off). */
+    private static void changed(BarterStoreKey key, int slot) {
+        ShopSession session = ShopSession.find(key);
+        if (session != null) {
+            session.reservationChanged(slot);
+        }
+    }
+
+    private static BarterContainerConfiguration.ReservationConfiguration config() {
+        return BarterContainer.INSTANCE.getConfiguration().getReservationConfiguration();
+    }
+
+    /** Holder + waiting buyers of one slot. */
+    private static final class Line {
+
+        private UUID holder;
+        private final Deque<UUID> queue = new ArrayDeque<>();
+        private @Nullable BukkitTask expiry;
+
+        private void cancelExpiry() {
+            if (this.expiry != null) {
+                this.expiry.cancel();
+                this.expiry = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.stifflered.bartercontainer.barter;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.BarterContainerConfiguration;
+import com.stifflered.bartercontainer.store.BarterStore;
+import com.stifflered.bartercontainer.util.Messages;
+import com.stifflered.bartercontainer.util.Sounds;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.Container;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.inventory.EquipmentSlot;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Linking/unlinking of supply containers for auto-restock ({@link RestockScheduler}).
+
+ * Flow:
+ *  1) Owner clicks "Link Supply Chest" in the shop menu → {@link #begin(Player, BarterStore)}.
+ *  2) The next container they right-click within {@code restock.link-timeout-seconds} is toggled:
+ *     linked if new, unlinked if already linked.
+
+ * Broken supply containers:
+ *  - Arming link mode drops every link whose (loaded) block is no longer a container.
+ *  - While armed, right-clicking whatever block now stands where a linked container was unlinks it.
+
+ * Rules:
+ *  - The click must survive protection plugins ({@link com.stifflered.bartercontainer.listeners.SupplyLinkListener}
+ *    runs after them), and a new link additionally fires a plain right-click {@link PlayerInteractEvent} for
+ *    the owner on the container, exactly as opening it would; if any plugin (claims, regions, locks) cancels
+ *    or denies it, the container is not linked.
+ *  - Target must be a container block that is not itself a shop.
+ *  - Must be in the shop's world and within {@code restock.link-range} of one of its locations.
+ *  - At most {@code restock.max-supply-containers} links per shop.
+ */
+public final class SupplyLinkService {
+
+    /** Global singleton, mirroring {@link BarterManager#INSTANCE}. */
+    public static final SupplyLinkService INSTANCE = new SupplyLinkService();
+
+    /** Player UUID → shop awaiting a container click. */
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+
+    private SupplyLinkService() {
+    }
+
+    /** Arm link mode for this player and shop. */
+    public void begin(Player player, BarterStore store) {
+        BarterContainerConfiguration.RestockConfiguration config = config();
+        long expiresAt = System.currentTimeMillis() + config.linkTimeoutSeconds() * 1000L;
+        this.pending.put(player.getUniqueId(), new Pending(store, expiresAt));
+
+        player.closeInventory();
+        int pruned = pruneBroken(store);
+        if (pruned > 0) {
+            BarterManager.INSTANCE.saveAsync(store);
+            Messages.send(player, "restock.link.pruned", "count", pruned);
+        }
+        Messages.send(player, "restock.link.armed",
+                "seconds", config.linkTimeoutSeconds(),
+                "range", (int) config.linkRange());
+    }
+
+    /**
+     * Handle a right-click on a block while link mode may be armed.
+     *
+     * @param face the clicked face, forwarded to the access check
+     * @param hand the hand that clicked, forwarded to the access check
+     * @return true if the click was consumed by link mode (caller should cancel the interaction)
+     */
+    public boolean handleClick(Player player, Block block, BlockFace face, EquipmentSlot hand) {
+        Pending armed = this.pending.get(player.getUniqueId());
+        if (armed == null) return false;
+        if (armed.expiresAt() < System.currentTimeMillis()) {
+            this.pending.remove(player.getUniqueId());
+            return false;
+        }
+
+        BarterStore store = armed.store();
+        BarterContainerConfiguration.RestockConfiguration config = config();
+        Location target = block.getLocation();
+
+        if (!(block.getState(false) instanceof Container)) {
+            // The linked container was broken (and maybe replaced): clicking its spot unlinks it
+            if (!store.getSupplyLocations().removeIf(location -> sameBlock(location, target))) return false;
+            this.pending.remove(player.getUniqueId());
+            BarterManager.INSTANCE.saveAsync(store);
+            Sounds.choose(player);
+            Messages.send(player, "restock.link.unlinked",
+                    "count", store.getSupplyLocations().size(),
+                    "max", config.maxSupplyContainers());
+            return true;
+        }
+
+        this.pending.remove(player.getUniqueId());
+
+        if (BarterManager.INSTANCE.getBarter(target).isPresent()) {
+            Messages.error(player, "restock.link.is_shop");
+            return true;
+        }
+
+        // Toggle off if already linked
+        if (store.getSupplyLocations().removeIf(location -> sameBlock(location, target))) {
+            BarterManager.INSTANCE.saveAsync(store);
+            Sounds.choose(player);
+            Messages.send(player, "restock.link.unlinked",
+                    "count", store.getSupplyLocations().size(),
+                    "max", config.maxSupplyContainers());
+            return true;
+        }
+
+        if (!withinRange(store, target, config.linkRange())) {
+            Messages.error(player, "restock.link.too_far", "range", (int) config.linkRange());
+            return true;
+        }
+        if (store.getSupplyLocations().size() >= config.maxSupplyContainers()) {
+            Messages.error(player, "restock.link.too_many", "max", config.maxSupplyContainers());
+            return true;
+        }
+        if (!mayOpen(player, block, face, hand)) {
+            Messages.error(player, "restock.link.no_access");
+            return true;
+        }
+
+        store.getSupplyLocations().add(target.clone());
+        BarterManager.INSTANCE.saveAsync(store);
+        Sounds.choose(player);
+        Messages.send(player, "restock.link.linked",
+                "count", store.getSupplyLocations().size(),
+                "max", config.maxSupplyContainers());
+        return true;
+    }
+
+    /** Drop any armed state (e.g., on quit). */
+    public void cancel(UUID playerId) {
+        this.pending.remove(playerId);
+    }
+
+    /**
+     * Ask protection plugins whether the player may open the container, the same way the server does: fire an
+     * empty-handed right-click on it and see whether anything cancelled it or denied the block interaction.
+     * Link mode is already disarmed here, so our own listener ignores this event.
+     */
+    private static boolean mayOpen(Player player, Block block, BlockFace face, EquipmentSlot hand) {
+        PlayerInteractEvent check = new PlayerInteractEvent(player, Action.RIGHT_CLICK_BLOCK, null, block, face, hand);
+        check.callEvent();
+        return !check.isCancelled() && check.useInteractedBlock() != Event.Result.DENY;
+    }
+
+    /** Drop links whose block is loaded and no longer a container (broken or replaced); unloaded ones are kept. */
+    private static int pruneBroken(BarterStore store) {
+        int before = store.getSupplyLocations().size();
+        store.getSupplyLocations().removeIf(location -> {
+            World world = location.getWorld();
+            if (world == null || !world.isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) return false;
+            return !(location.getBlock().getState(false) instanceof Container);
+        });
+        return before - store.getSupplyLocations().size();
+    }
+
+    /** True if the target is within {@code range} blocks of one of the store's locations (also re-checked on restock). */
+    static boolean withinRange(BarterStore store, Location target, double range) {
+        double rangeSquared = range * range;
+        for (Location location : store.getLocations()) {
+            if (location.getWorld() != null && location.getWorld().equals(target.getWorld())
+                    && location.distanceSquared(target) <= rangeSquared) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean sameBlock(Location a, Location b) {
+        return a.getWorld() != null && a.getWorld().equals(b.getWorld())
+                && a.getBlockX() == b.getBlockX()
+                && a.getBlockY() == b.getBlockY()
+                && a.getBlockZ() == b.getBlockZ();
+    }
+
+    private static BarterContainerConfiguration.RestockConfiguration config() {
+        return BarterContainer.INSTANCE.getConfiguration().getRestockConfiguration();
+    }
+
+    private record Pending(BarterStore store, long expiresAt) {
+    }
+}
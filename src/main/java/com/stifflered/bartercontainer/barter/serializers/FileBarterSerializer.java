@@ -5,10 +5,13 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import com.stifflered.bartercontainer.BarterContainer;
 import com.stifflered.bartercontainer.barter.BarterStoreKeyImpl;
 import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.store.BarterStoreImpl;
 import com.stifflered.bartercontainer.store.BarterStoreKey;
+import com.stifflered.bartercontainer.store.PriceRules;
+import com.stifflered.bartercontainer.util.Messages;
 import com.stifflered.bartercontainer.util.source.codec.*;
 
 import org.bukkit.*;
@@ -31,6 +34,10 @@ import java.util.*;
  *  - currency_storage: JSON array of Base64-encoded ItemStacks (one per slot)
  *  - price_item:       Base64-encoded ItemStack (the current price item)
  *  - locations:        JSON array of {x,y,z,world} objects (block coords only)
+ *  - supply_locations: JSON array of {x,y,z,world} objects for linked restock containers (optional)
+ *  - price_rules:      {slots:[{slot,item,price,tiers}], items:[{item,price,tiers}]} overrides (optional; omitted when empty)
+ *                      where tiers is a JSON array of {min, amount}; a slot rule's item is the item it was set for
+ *                      (older files without it bind the rule to whatever the slot holds on load)
 
  * Item serialization:
  *  - Uses Bukkit ItemStack#serializeAsBytes + Base64 to produce strings.
@@ -58,7 +65,9 @@ public class FileBarterSerializer {
 
         // Current price item serialized as Base64 (single stack)
         container.addProperty("price_item", Base64.getEncoder().encodeToString(barterStore.getCurrentItemPrice().serializeAsBytes()));
-        this.storeLocations(container, barterStore.getLocations());
+        this.storeLocations(container, "locations", barterStore.getLocations());
+        this.storeLocations(container, "supply_locations", barterStore.getSupplyLocations());
+        this.storePriceRules(container, barterStore.getPriceRules());
     }
 
     /**
@@ -69,6 +78,8 @@ public class FileBarterSerializer {
      *  - sale + currency inventories (lists of ItemStacks)
      *  - price item
      *  - bound locations
+     *  - linked supply locations (absent in older files → none)
+     *  - price rules (absent → default price everywhere)
      */
     public BarterStore getBarterStore(JsonObject container) {
         BarterStoreKey barterStoreKey = new BarterStoreKeyImpl(UUID.fromString(container.get("key").getAsString()));
@@ -81,9 +92,12 @@ public class FileBarterSerializer {
         List<ItemStack> currencyStorage = this.getItems(container,"currency_storage");
 
         ItemStack priceItem = ItemStack.deserializeBytes(Base64.getDecoder().decode(container.get("price_item").getAsString()));
-        List<Location> locations = this.getLocations(container);
+        List<Location> locations = this.getLocations(container, "locations");
+        List<Location> supplyLocations = this.getLocations(container, "supply_locations");
 
-        return new BarterStoreImpl(barterStoreKey, playerProfile, saleItems, currencyStorage, priceItem, locations);
+        PriceRules priceRules = this.getPriceRules(container, barterStoreKey, saleItems);
+
+        return new BarterStoreImpl(barterStoreKey, playerProfile, saleItems, currencyStorage, priceItem, locations, supplyLocations, priceRules);
     }
 
     /**
@@ -130,9 +144,9 @@ public class FileBarterSerializer {
      * Serialize locations to a JSON array using block coordinates and world key.
      * Null entries are ignored.
      */
-    private void storeLocations(JsonObject main, List<Location> locs) {
+    private void storeLocations(JsonObject main, String name, List<Location> locs) {
         JsonArray array = new JsonArray();
-        main.add("locations", array);
+        main.add(name, array);
         for (Location location :  locs) {
             if (location != null) {
                 array.add(BlockLocationSerializer.INSTANCE.encode(location));
@@ -145,13 +159,13 @@ public class FileBarterSerializer {
      * - Any decode failures are caught and printed, and that entry is skipped.
      * - Missing arrays produce an empty list.
      */
-    private List<Location> getLocations(JsonObject container) {
+    private List<Location> getLocations(JsonObject container, String name) {
         List<Location> locations = new ArrayList<>();
-        if (!container.has("locations")) {
+        if (!container.has(name)) {
             return locations;
         }
 
-        for (JsonElement obj : container.getAsJsonArray("locations")) {
+        for (JsonElement obj : container.getAsJsonArray(name)) {
             try {
                 locations.add(BlockLocationSerializer.INSTANCE.decode(obj.getAsJsonObject()));
             } catch (Exception e) {
@@ -161,4 +175,123 @@ public class FileBarterSerializer {
 
         return locations;
     }
+
+    /**
+     * Serialize price rules; nothing is written when the store only uses its default price.
+     */
+    private void storePriceRules(JsonObject main, PriceRules rules) {
+        if (rules.isEmpty()) {
+            return;
+        }
+
+        JsonArray slots = new JsonArray();
+        rules.slotRules().forEach((slot, slotRule) -> {
+            JsonObject object = this.encodeRule(slotRule.rule());
+            object.addProperty("slot", slot);
+            object.addProperty("item", encodeItem(slotRule.item()));
+            slots.add(object);
+        });
+
+        JsonArray items = new JsonArray();
+        for (PriceRules.ItemRule itemRule : rules.itemRules()) {
+            JsonObject object = this.encodeRule(itemRule.rule());
+            object.addProperty("item", encodeItem(itemRule.item()));
+            items.add(object);
+        }
+
+        JsonObject object = new JsonObject();
+        object.add("slots", slots);
+        object.add("items", items);
+        main.add("price_rules", object);
+    }
+
+    /**
+     * Deserialize price rules; a rule that fails to decode is skipped with a warning (the default price applies).
+     * A slot rule saved without its item is bound to the item now in that slot, or dropped if the slot is empty.
+     */
+    private PriceRules getPriceRules(JsonObject container, BarterStoreKey key, List<ItemStack> saleItems) {
+        PriceRules rules = new PriceRules();
+        if (!container.has("price_rules")) {
+            return rules;
+        }
+
+        JsonObject object = container.getAsJsonObject("price_rules");
+        if (object.has("slots")) {
+            for (JsonElement element : object.getAsJsonArray("slots")) {
+                String slotLabel = "?";
+                try {
+                    JsonObject rule = element.getAsJsonObject();
+                    int slot = rule.get("slot").getAsInt();
+                    slotLabel = String.valueOf(slot);
+                    ItemStack item = rule.has("item")
+                            ? decodeItem(rule.get("item").getAsString())
+                            : (slot >= 0 && slot < saleItems.size() ? saleItems.get(slot) : null);
+                    if (item == null || item.isEmpty()) continue;
+                    rules.setSlotRule(slot, item, this.decodeRule(rule));
+                } catch (Exception e) {
+                    BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                            "storage.barter.price_rule_slot_dropped",
+                            "key", String.valueOf(key),
+                            "slot", slotLabel,
+                            "detail", String.valueOf(e.getMessage())
+                    ));
+                }
+            }
+        }
+        if (object.has("items")) {
+            int index = 0;
+            for (JsonElement element : object.getAsJsonArray("items")) {
+                String itemLabel = "#" + index++;
+                try {
+                    JsonObject rule = element.getAsJsonObject();
+                    ItemStack item = decodeItem(rule.get("item").getAsString());
+                    itemLabel = item.getType().getKey().asString();
+                    rules.setItemRule(item, this.decodeRule(rule));
+                } catch (Exception e) {
+                    BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                            "storage.barter.price_rule_item_dropped",
+                            "key", String.valueOf(key),
+                            "item", itemLabel,
+                            "detail", String.valueOf(e.getMessage())
+                    ));
+                }
+            }
+        }
+
+        return rules;
+    }
+
+    private JsonObject encodeRule(PriceRules.PriceRule rule) {
+        JsonObject object = new JsonObject();
+        object.addProperty("price", encodeItem(rule.price()));
+
+        JsonArray tiers = new JsonArray();
+        for (PriceRules.PriceTier tier : rule.tiers()) {
+            JsonObject tierObject = new JsonObject();
+            tierObject.addProperty("min", tier.minQuantity());
+            tierObject.addProperty("amount", tier.amount());
+            tiers.add(tierObject);
+        }
+        object.add("tiers", tiers);
+        return object;
+    }
+
+    private PriceRules.PriceRule decodeRule(JsonObject object) {
+        List<PriceRules.PriceTier> tiers = new ArrayList<>();
+        if (object.has("tiers")) {
+            for (JsonElement element : object.getAsJsonArray("tiers")) {
+                JsonObject tier = element.getAsJsonObject();
+                tiers.add(new PriceRules.PriceTier(tier.get("min").getAsInt(), tier.get("amount").getAsInt()));
+            }
+        }
+        return new PriceRules.PriceRule(decodeItem(object.get("price").getAsString()), tiers);
+    }
+
+    private static String encodeItem(ItemStack itemStack) {
+        return Base64.getEncoder().encodeToString(itemStack.serializeAsBytes());
+    }
+
+    private static ItemStack decodeItem(String value) {
+        return ItemStack.deserializeBytes(Base64.getDecoder().decode(value));
+    }
 }
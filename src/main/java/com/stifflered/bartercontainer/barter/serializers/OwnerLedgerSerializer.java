@@ -0,0 +1,59 @@
+package com.stifflered.bartercontainer.barter.serializers;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import com.stifflered.bartercontainer.store.OwnerLedger;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JSON (de)serializer for {@link OwnerLedger}.
+
+ * JSON shape:
+ *  - owner:    UUID string
+ *  - balances: JSON array of { "item": Base64 ItemStack (amount 1), "amount": long }
+
+ * Notes:
+ *  - Item encoding matches {@link FileBarterSerializer} (serializeAsBytes + Base64).
+ *  - Entries with a non-positive amount are dropped on load.
+ */
+public class OwnerLedgerSerializer {
+
+    /** Write a ledger into the provided JSON object. */
+    public void saveLedger(OwnerLedger ledger, JsonObject container) {
+        container.addProperty("owner", ledger.getOwner().toString());
+
+        JsonArray balances = new JsonArray();
+        container.add("balances", balances);
+        for (Map.Entry<ItemStack, Long> entry : ledger.entries()) {
+            JsonObject balance = new JsonObject();
+            balance.addProperty("item", Base64.getEncoder().encodeToString(entry.getKey().serializeAsBytes()));
+            balance.addProperty("amount", entry.getValue());
+            balances.add(balance);
+        }
+    }
+
+    /** Rebuild a ledger from its JSON representation. */
+    public OwnerLedger getLedger(JsonObject container) {
+        OwnerLedger ledger = new OwnerLedger(UUID.fromString(container.get("owner").getAsString()));
+        if (!container.has("balances")) {
+            return ledger;
+        }
+
+        for (JsonElement element : container.getAsJsonArray("balances")) {
+            JsonObject balance = element.getAsJsonObject();
+            long amount = balance.get("amount").getAsLong();
+            if (amount <= 0) continue;
+
+            ItemStack item = ItemStack.deserializeBytes(Base64.getDecoder().decode(balance.get("item").getAsString()));
+            ledger.deposit(item, amount);
+        }
+        return ledger;
+    }
+}
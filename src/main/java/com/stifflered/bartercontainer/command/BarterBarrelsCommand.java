@@ -1,9 +1,13 @@
 package com.stifflered.bartercontainer.command;
 
 import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.BarterContainerConfiguration;
+import com.stifflered.bartercontainer.barter.PurchaseService;
+import com.stifflered.bartercontainer.barter.RestockScheduler;
 import com.stifflered.bartercontainer.item.ItemInstances;
 import com.stifflered.bartercontainer.util.Messages;
 import com.stifflered.bartercontainer.util.TimeUtil;
+import com.stifflered.bartercontainer.util.analytics.TransactionExporter;
 
 import net.kyori.adventure.text.Component;
 
@@ -20,18 +24,21 @@ import java.util.List;
 /**
  * Root admin command entrypoint registered via plugin.yml:
 
- *   /barterbarrels <reload|givelister|givefixer>
+ *   /barterbarrels <reload|givelister|givefixer|export>
 
  * Subcommands:
- *  - reload                          → hot-reloads config.yml, messages.yml, and TimeUtil (UTC formatter)
+ *  - reload                          → hot-reloads config.yml, messages.yml, TimeUtil (UTC formatter), and
+ *                                      restarts the restock and export timers with the new settings
  *  - givelister <player> <amount?>   → give Shop Lister item (default amount = 1)
  *  - givefixer  <player> <amount?>   → give Fixer Stick item (default amount = 1)
+ *  - export                          → export new purchase records now (see TransactionExporter)
 
  * Permission model (matches plugin.yml):
  *  - barterbarrels.admin : base node, default op (optional—kept for safety)
  *      - barterbarrels.reload     (default op)
  *      - barterbarrels.givelister (default op)
  *      - barterbarrels.givefixer  (default op)
+ *      - barterbarrels.export     (default op)
 
  * Implementation notes:
  *  - The class implements TabExecutor to provide tab completion.
@@ -61,7 +68,7 @@ public final class BarterBarrelsCommand implements TabExecutor {
 
         // No subcommand → quick usage hint (kept as a plain component for simplicity).
         if (args.length == 0) {
-            sender.sendMessage(Component.text("Usage: /" + label + " <reload|givelister|givefixer>"));
+            sender.sendMessage(Component.text("Usage: /" + label + " <reload|givelister|givefixer|export>"));
             return true;
         }
 
@@ -82,8 +89,9 @@ public final class BarterBarrelsCommand implements TabExecutor {
                 int steps = 0;
 
                 try {
-                    // (1) Reload config.yml so new values are in memory.
+                    // (1) Reload config.yml so new values are in memory (raw and typed views).
                     BarterContainer.INSTANCE.reloadConfig();
+                    BarterContainerConfiguration configuration = BarterContainer.INSTANCE.reloadConfiguration();
                     FileConfiguration cfg = BarterContainer.INSTANCE.getConfig();
                     steps++;
 
@@ -95,6 +103,15 @@ public final class BarterBarrelsCommand implements TabExecutor {
                     TimeUtil.reloadFromConfig(cfg);
                     steps++;
 
+                    // (4) Config can change how purchases settle (e.g., bank ledger); previews must re-validate.
+                    PurchaseService.INSTANCE.markAllChanged();
+                    steps++;
+
+                    // (5) Timers read their settings once when started: restart them with the new values.
+                    RestockScheduler.INSTANCE.start(configuration.getRestockConfiguration());
+                    TransactionExporter.INSTANCE.reconfigure(configuration.getAnalyticsExportConfiguration());
+                    steps++;
+
                     long tookMs = (System.nanoTime() - start) / 1_000_000L;
                     Component ok = Messages.mm("commands.reload.success",
                             "ms", String.valueOf(tookMs),
@@ -190,6 +207,35 @@ public final class BarterBarrelsCommand implements TabExecutor {
                 return true;
             }
 
+            // --------------------------------------------
+            // /barterbarrels export
+            // --------------------------------------------
+            case "export" -> {
+                if (!can(sender, "barterbarrels.export")) {
+                    sender.sendMessage(Messages.mm("commands.common.no_permission"));
+                    return true;
+                }
+
+                sender.sendMessage(Messages.mm("commands.export.started"));
+                // Runs on the exporter's thread; report back on the main thread.
+                TransactionExporter.INSTANCE.exportNow().whenComplete((result, error) ->
+                        Bukkit.getScheduler().runTask(BarterContainer.INSTANCE, () -> {
+                            if (error != null) {
+                                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                                sender.sendMessage(Messages.mm("commands.export.failed",
+                                        "detail", String.valueOf(cause.getMessage())));
+                            } else if (result.run() == null) {
+                                sender.sendMessage(Messages.mm("commands.export.nothing_new"));
+                            } else {
+                                sender.sendMessage(Messages.mm("commands.export.done",
+                                        "rows", String.valueOf(result.rows()),
+                                        "stores", String.valueOf(result.stores()),
+                                        "run", result.run()));
+                            }
+                        }));
+                return true;
+            }
+
             // --------------------------------------------
             // Unknown subcommand
             // --------------------------------------------
@@ -205,7 +251,7 @@ public final class BarterBarrelsCommand implements TabExecutor {
     // ---------------------------------------------------------------------
 
     // Keeping this just for static reference; we’ll still gate suggestions by perms below.
-    private static final List<String> SUBS = List.of("reload", "givelister", "givefixer");
+    private static final List<String> SUBS = List.of("reload", "givelister", "givefixer", "export");
 
     @Override
     public @NotNull List<String> onTabComplete(@NotNull CommandSender sender,
@@ -219,6 +265,7 @@ public final class BarterBarrelsCommand implements TabExecutor {
             if (can(sender, "barterbarrels.reload")     && "reload".startsWith(p))     out.add("reload");
             if (can(sender, "barterbarrels.givelister") && "givelister".startsWith(p)) out.add("givelister");
             if (can(sender, "barterbarrels.givefixer")  && "givefixer".startsWith(p))  out.add("givefixer");
+            if (can(sender, "barterbarrels.export")     && "export".startsWith(p))     out.add("export");
             return out;
         }
 
@@ -1,6 +1,7 @@
 package com.stifflered.bartercontainer.command;
 
 import com.stifflered.bartercontainer.gui.catalogue.CatalogueGui;
+import com.stifflered.bartercontainer.gui.catalogue.CatalogueSort;
 import com.stifflered.bartercontainer.util.Messages;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -8,11 +9,15 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Optional;
+
 /**
  * Command: /catalog
 
  * Purpose:
  *  - Opens the catalogue GUI for the player, showing available barter shops/items.
+ *  - Optional argument selects the initial sort: alphabetical | cheapest | most_stock | nearest.
+ *    Unknown values fall back to the player's last sort.
 
  * Permissions:
  *  - Requires "barterchests.catalog". If missing, sends NO_PERMISSION message.
@@ -40,6 +45,15 @@ public class CatalogueCommand implements CommandExecutor {
             return true;
         }
 
+        // Optional first argument picks the initial ranking (e.g. /catalog cheapest)
+        if (args.length > 0) {
+            Optional<CatalogueSort> sort = CatalogueSort.parse(args[0]);
+            if (sort.isPresent()) {
+                new CatalogueGui().show(player, sort.get());
+                return true;
+            }
+        }
+
         new CatalogueGui().show(player);
         return true;
     }
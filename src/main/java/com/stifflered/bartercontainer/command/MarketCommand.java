@@ -0,0 +1,102 @@
+package com.stifflered.bartercontainer.command;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.gui.market.MarketGui;
+import com.stifflered.bartercontainer.util.Messages;
+import com.stifflered.bartercontainer.util.analytics.MarketIndex;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Clock;
+import java.util.List;
+
+/**
+ * Command: /market [days] | /market &lt;item&gt; [days]
+
+ * Purpose:
+ *  - No item → opens {@link MarketGui} (most traded items over the window; default 7 days).
+ *  - With an item (e.g. {@code /market diamond 30}) → prints that item's volume and price percentiles
+ *    in chat, one line per currency it was sold for. Works from the console too.
+
+ * Permissions:
+ *  - Requires "barterbarrels.market".
+ */
+public class MarketCommand implements CommandExecutor {
+
+    private static final int DEFAULT_WINDOW = 7;
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender,
+                             @NotNull Command command,
+                             @NotNull String label,
+                             @NotNull String[] args) {
+        if (!sender.hasPermission("barterbarrels.market")) {
+            sender.sendMessage(Messages.mm("commands.common.no_permission"));
+            return true;
+        }
+
+        // /market [days]
+        if (args.length == 0 || parseDays(args[0]) != null) {
+            if (!(sender instanceof Player player)) {
+                sender.sendMessage(Messages.mm("commands.common.players_only"));
+                return true;
+            }
+            Integer days = args.length == 0 ? Integer.valueOf(DEFAULT_WINDOW) : parseDays(args[0]);
+            MarketGui.open(player, days);
+            return true;
+        }
+
+        // /market <item> [days]
+        Material item = Material.matchMaterial(args[0]);
+        if (item == null) {
+            sender.sendMessage(Messages.mm("commands.market.unknown_item", "input", args[0]));
+            return true;
+        }
+        Integer days = args.length > 1 ? parseDays(args[1]) : Integer.valueOf(DEFAULT_WINDOW);
+        if (days == null) {
+            sender.sendMessage(Messages.mm("commands.market.usage", "max", MarketIndex.HISTORY_DAYS));
+            return true;
+        }
+
+        // Digest merges are cheap but not free; keep them off the main thread
+        Bukkit.getScheduler().runTaskAsynchronously(BarterContainer.INSTANCE, () -> {
+            List<MarketIndex.MarketStats> markets = MarketIndex.INSTANCE.item(item, days, Clock.systemUTC());
+            boolean ready = MarketIndex.INSTANCE.isReady();
+
+            Bukkit.getScheduler().runTask(BarterContainer.INSTANCE, () -> {
+                if (markets.isEmpty()) {
+                    sender.sendMessage(Messages.mm("commands.market.no_trades",
+                            "item", item.name().toLowerCase(), "days", days));
+                } else {
+                    for (MarketIndex.MarketStats stats : markets) {
+                        for (var line : Messages.mmList("commands.market.item_lines", MarketGui.placeholders(stats, days))) {
+                            sender.sendMessage(line);
+                        }
+                    }
+                }
+                if (!ready) {
+                    sender.sendMessage(Messages.mm("commands.market.loading"));
+                }
+            });
+        });
+        return true;
+    }
+
+    /** Window length in days (1..HISTORY_DAYS), accepting "7" or "7d"; null if not a window. */
+    private static Integer parseDays(String raw) {
+        String digits = raw.endsWith("d") || raw.endsWith("D") ? raw.substring(0, raw.length() - 1) : raw;
+        try {
+            int days = Integer.parseInt(digits);
+            return days >= 1 && days <= MarketIndex.HISTORY_DAYS ? days : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.stifflered.bartercontainer.event;
+
+import com.stifflered.bartercontainer.store.BarterStore;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Custom Bukkit event fired exactly once after a purchase has been committed
+ * (a bulk purchase of several slots is one transaction and fires one event).
+
+ * Purpose:
+ *  - Single integration point for anything that reacts to sales (analytics, notifications, other plugins).
+ *  - Fired by {@link com.stifflered.bartercontainer.barter.PurchaseService} on the main thread,
+ *    after payment, stock removal and delivery have all succeeded.
+
+ * Notes:
+ *  - Not cancellable: the transaction is already applied when listeners run.
+ *  - Item stacks are copies made for this event, detached from the store, the purchase result and the
+ *    owner-log writer (which still reads its own stacks off-thread), so a listener mutating them cannot
+ *    corrupt the purchase log or analytics.
+ *  - {@code version} is the store's purchase version after this sale.
+ *  - {@code slots} and {@code purchased} are parallel lists (one entry per bought sale slot).
+ */
+public class BarterPurchaseEvent extends Event {
+
+    /** Required boilerplate handler list for all Bukkit events. */
+    private static final HandlerList handlers = new HandlerList();
+
+    private final Player buyer;
+    private final BarterStore store;
+    private final List<Integer> slots;
+    private final List<ItemStack> purchased;
+    private final ItemStack price;
+    private final long version;
+
+    public BarterPurchaseEvent(Player buyer, BarterStore store, List<Integer> slots, List<ItemStack> purchased, ItemStack price, long version) {
+        this.buyer = buyer;
+        this.store = store;
+        this.slots = slots;
+        this.purchased = purchased;
+        this.price = price;
+        this.version = version;
+    }
+
+    /** The player who bought the item. */
+    public Player getBuyer() {
+        return buyer;
+    }
+
+    /** The store the item was bought from. */
+    public BarterStore getStore() {
+        return store;
+    }
+
+    /** Sale-storage slots the items were taken from. */
+    public List<Integer> getSlots() {
+        return slots;
+    }
+
+    /** The delivered item stacks (one per slot; copies, list is unmodifiable). */
+    public List<ItemStack> getPurchased() {
+        return purchased;
+    }
+
+    /** The total price that was paid (a copy; amount = sum of per-slot prices; may exceed max stack size). */
+    public ItemStack getPrice() {
+        return price;
+    }
+
+    /** Store purchase version after this sale. */
+    public long getVersion() {
+        return version;
+    }
+
+    /** Required Bukkit API method for handler list resolution. */
+    public @NotNull HandlerList getHandlers() {
+        return handlers;
+    }
+
+    /** Required Bukkit API static method for handler list resolution. */
+    public static @NotNull HandlerList getHandlerList() {
+        return handlers;
+    }
+}
@@ -0,0 +1,75 @@
+package com.stifflered.bartercontainer.event;
+
+import com.stifflered.bartercontainer.store.BarterStore;
+
+import org.bukkit.Location;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Custom Bukkit event fired before auto-restock pulls items out of a linked supply container.
+
+ * Purpose:
+ *  - Access was checked when the owner linked the container, but it can change afterwards
+ *    (claim trusted/untrusted, region flags, the container replaced by someone else's).
+ *  - Protection integrations cancel this event to stop the pull; the link itself is kept.
+
+ * Lifecycle:
+ *  - Fired by {@link com.stifflered.bartercontainer.barter.RestockScheduler} on the main thread,
+ *    once per supply container per restock pass, after the built-in checks (loaded, still a
+ *    container, not a shop, within link range) have passed.
+
+ * Notes:
+ *  - Follows standard Bukkit custom event boilerplate with static HandlerList.
+ */
+public class SupplyRestockEvent extends Event implements Cancellable {
+
+    /** Required boilerplate handler list for Bukkit events. */
+    private static final HandlerList handlers = new HandlerList();
+
+    /** The shop being restocked. */
+    private final BarterStore store;
+
+    /** Block location of the supply container. */
+    private final Location supply;
+
+    private boolean cancelled;
+
+    public SupplyRestockEvent(BarterStore store, Location supply) {
+        this.store = store;
+        this.supply = supply;
+    }
+
+    /** The shop being restocked (its owner is the player the pull acts for). */
+    public BarterStore getStore() {
+        return store;
+    }
+
+    /** Block location of the supply container (a copy). */
+    public Location getSupply() {
+        return supply.clone();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    /** Required Bukkit API method for handler list resolution. */
+    public @NotNull HandlerList getHandlers() {
+        return handlers;
+    }
+
+    /** Required Bukkit API static method for handler list resolution. */
+    public static @NotNull HandlerList getHandlerList() {
+        return handlers;
+    }
+}
@@ -5,10 +5,10 @@ import com.github.stefvanschie.inventoryframework.gui.GuiItem;
 import com.github.stefvanschie.inventoryframework.gui.type.ChestGui;
 
 import com.stifflered.bartercontainer.BarterContainer;
-import com.stifflered.bartercontainer.barter.BarterManager;
+import com.stifflered.bartercontainer.barter.CatalogueIndex;
 import com.stifflered.bartercontainer.gui.common.SimplePaginator;
-import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.util.Components;
+import com.stifflered.bartercontainer.util.ItemFingerprint;
 import com.stifflered.bartercontainer.util.ItemUtil;
 import com.stifflered.bartercontainer.util.Messages;
 import com.stifflered.bartercontainer.util.TrackingManager;
@@ -16,7 +16,6 @@ import com.stifflered.bartercontainer.util.TrackingManager;
 import io.papermc.paper.event.player.AsyncChatEvent;
 
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 
 import org.bukkit.Bukkit;
@@ -59,6 +58,9 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Aggregates sale items from all BarterStores on the server.
  * - Displays a paginated chest GUI of unique items being sold.
  * - Clicking an item begins tracking to the nearest shop location that sells it.
+ * - Reads from the resident {@link CatalogueIndex}; every shop line shows its price and stock.
+ * - Repeated queries are served from an LRU cache keyed by normalized query (see {@link CatalogueSearchCache}).
+ * - Footer toggle ranks tiles/lines by {@link CatalogueSort} (A–Z, cheapest per unit, most stock, nearest).
 
  * Search:
  * - Fuzzy matching against material + custom name + potion effects (incl. 1.21+ Potion Contents) + enchantments.
@@ -74,6 +76,12 @@ public class CatalogueGui extends ChestGui {
         return new NamespacedKey(BarterContainer.INSTANCE, "catalog_search_button");
     }
 
+    /** Last sort mode chosen per viewer, so searches and reopens keep the player's ranking. */
+    private static final Map<UUID, CatalogueSort> LAST_SORT = new ConcurrentHashMap<>();
+
+    /** Recent query → grouped results, invalidated by the catalogue index generation. */
+    private static final CatalogueSearchCache SEARCH_CACHE = new CatalogueSearchCache(64);
+
     public CatalogueGui() {
         super(6, ComponentHolder.of(Messages.mm("gui.catalogue.title")));
         this.setOnGlobalClick(event -> event.setCancelled(true));
@@ -87,83 +95,199 @@ public class CatalogueGui extends ChestGui {
         buildAndOpen((Player) humanEntity, null);
     }
 
+    /** Open the catalogue for a viewer with an explicit sort mode (remembered for later searches). */
+    public void show(@NotNull Player viewer, @NotNull CatalogueSort sort) {
+        LAST_SORT.put(viewer.getUniqueId(), sort);
+        this.show(viewer);
+    }
+
     private void buildAndOpen(Player viewer, String filterQuery) {
+        buildAndOpen(viewer, filterQuery, LAST_SORT.getOrDefault(viewer.getUniqueId(), CatalogueSort.ALPHABETICAL));
+    }
+
+    /**
+     * Builds the catalogue from the resident {@link CatalogueIndex} (no store loads) and opens it.
+
+     * Flow:
+     *  - Cache hit (same normalized query, same index generation) → rank + open right here on the main thread.
+     *  - Cache miss → filter/group off-thread as a parallel (fork-join) pipeline over index snapshots,
+     *    cache the groups, then hop back to main to open.
+     */
+    private void buildAndOpen(Player viewer, String filterQuery, CatalogueSort sort) {
+        LAST_SORT.put(viewer.getUniqueId(), sort);
+        // Capture the viewer position on the main thread for NEAREST ranking
+        final Location reference = viewer.getLocation().clone();
+        final String cacheKey = (filterQuery == null) ? "" : normalize(filterQuery);
+
+        List<CatalogueSearchCache.Group> cached = SEARCH_CACHE.get(cacheKey, CatalogueIndex.INSTANCE.generation());
+        if (cached != null) {
+            open(viewer, filterQuery, sort, rank(cached, sort, reference));
+            return;
+        }
+
         new BukkitRunnable() {
             @Override
             public void run() {
-                Map<ItemStack, List<BarterStore>> sellRegistry = new HashMap<>();
-                List<BarterStore> containers = BarterManager.INSTANCE.getAll();
+                // Read the generation BEFORE the snapshot so a concurrent change can only make the entry look stale
+                long generation = CatalogueIndex.INSTANCE.generation();
+                // Sharded build: each fork-join worker fills a partial registry from immutable listing
+                // snapshots (filtering included), then the partials are merged pairwise.
+                Map<ItemFingerprint, List<Hit>> sellRegistry = CatalogueIndex.INSTANCE.snapshot()
+                        .parallelStream()
+                        .collect(
+                                HashMap::new,
+                                (registry, listing) -> accumulate(registry, listing, filterQuery),
+                                CatalogueGui::mergeRegistries
+                        );
+
+                List<CatalogueSearchCache.Group> groups = new ArrayList<>(sellRegistry.size());
+                sellRegistry.values().forEach(hits -> groups.add(new CatalogueSearchCache.Group(hits.get(0).entry().template(), hits)));
+                SEARCH_CACHE.put(cacheKey, generation, groups);
+
+                List<CatalogueSearchCache.Group> ranked = rank(groups, sort, reference);
 
-                for (BarterStore store : containers) {
-                    for (ItemStack itemStack : store.getSaleStorage().getContents()) {
-                        if (itemStack != null && !itemStack.isEmpty()) {
-                            ItemStack checkItem = itemStack.clone();
-                            checkItem.setAmount(1);
+                new BukkitRunnable() {
+                    @Override
+                    public void run() {
+                        open(viewer, filterQuery, sort, ranked);
+                    }
+                }.runTask(BarterContainer.INSTANCE);
+            }
+        }.runTaskAsynchronously(BarterContainer.INSTANCE);
+    }
 
-                            if (filterQuery != null && !matchesQuery(checkItem, filterQuery)) {
-                                continue;
-                            }
+    /** Shard accumulator: add one listing's matching entries to a partial registry. */
+    private static void accumulate(Map<ItemFingerprint, List<Hit>> registry, CatalogueIndex.Listing listing, String filterQuery) {
+        for (CatalogueIndex.Entry entry : listing.entries()) {
+            if (filterQuery != null && !matchesQuery(entry.template(), filterQuery)) {
+                continue;
+            }
 
-                            List<BarterStore> storesForItem =
-                                    sellRegistry.computeIfAbsent(checkItem, k -> new ArrayList<>());
+            // Listings already merge identical slots, so each store appears once per item and currency
+            List<Hit> hits = registry.computeIfAbsent(entry.fingerprint(), k -> new ArrayList<>());
+            if (!entry.hasPrice()) {
+                hits.add(new Hit(listing, entry, null));
+            }
+            for (CatalogueIndex.PriceOffer offer : entry.offers()) {
+                hits.add(new Hit(listing, entry, offer));
+            }
+        }
+    }
 
-                            boolean shouldRegister = true;
-                            for (BarterStore oldStore : storesForItem) {
-                                if (oldStore.getKey().equals(store.getKey())) {
-                                    shouldRegister = false;
-                                    break;
-                                }
-                            }
-                            if (shouldRegister) {
-                                storesForItem.add(store);
-                            }
-                        }
-                    }
-                }
+    /** Shard combiner: fold the right partial registry into the left one. */
+    private static void mergeRegistries(Map<ItemFingerprint, List<Hit>> left, Map<ItemFingerprint, List<Hit>> right) {
+        right.forEach((fingerprint, hits) -> left.merge(fingerprint, hits, (a, b) -> {
+            a.addAll(b);
+            return a;
+        }));
+    }
 
-                List<GuiItem> items = new ArrayList<>();
-                for (Map.Entry<ItemStack, List<BarterStore>> entry : sellRegistry.entrySet()) {
-                    items.add(formatItem(entry.getKey().clone(), entry.getValue()));
-                }
+    /**
+     * Main-thread tail of {@link #buildAndOpen}: handles the empty-search fallback and shows the paginator.
+     * Tiles are formatted lazily by the paginator, one page at a time.
+     */
+    private void open(Player viewer, String filterQuery, CatalogueSort sort, List<CatalogueSearchCache.Group> ranked) {
+        if (filterQuery != null && ranked.isEmpty()) {
+            viewer.sendMessage(Messages.mm("gui.catalogue.search.no_results", "query", filterQuery));
+            buildAndOpen(viewer, null, sort);
+            return;
+        }
 
-                items.sort(Comparator.comparing(o -> o.getItem().getType().key().toString()));
+        ItemStack searchButton = buildSearchButton();
+
+        new SimplePaginator(
+                6,
+                ComponentHolder.of(Messages.mm("gui.catalogue.title")),
+                ranked.size(),
+                index -> formatItem(ranked.get(index).template().clone(), ranked.get(index).hits()),
+                null,
+                searchButton,
+                buildSortButton(filterQuery, sort)
+        ).show(viewer);
+    }
 
-                new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        if (filterQuery != null && items.isEmpty()) {
-                            viewer.sendMessage(Messages.mm("gui.catalogue.search.no_results", "query", filterQuery));
-                            buildAndOpen(viewer, null);
-                            return;
-                        }
+    /** Rank cached groups for this viewer/sort (cached lists are never mutated; ranked copies are returned). */
+    private static List<CatalogueSearchCache.Group> rank(List<CatalogueSearchCache.Group> groups, CatalogueSort sort, Location reference) {
+        Comparator<Hit> hitOrder = hitComparator(sort, reference);
+
+        List<CatalogueSearchCache.Group> ranked = new ArrayList<>(groups.size());
+        for (CatalogueSearchCache.Group group : groups) {
+            List<Hit> hits = new ArrayList<>(group.hits());
+            hits.sort(hitOrder);
+            ranked.add(new CatalogueSearchCache.Group(group.template(), hits));
+        }
+        ranked.sort(groupComparator(sort, hitOrder));
+        return ranked;
+    }
 
-                        ItemStack searchButton = buildSearchButton();
+    /** One store's offer of one item in one currency ({@code offer} is null if the store set no price for it). */
+    protected record Hit(CatalogueIndex.Listing listing, CatalogueIndex.Entry entry, CatalogueIndex.PriceOffer offer) {
+    }
 
-                        new SimplePaginator(
-                                6,
-                                ComponentHolder.of(Messages.mm("gui.catalogue.title")),
-                                items,
-                                null,
-                                searchButton
-                        ).show(viewer);
-                    }
-                }.runTask(BarterContainer.INSTANCE);
-            }
-        }.runTaskAsynchronously(BarterContainer.INSTANCE);
+    /**
+     * Price order that never compares amounts of different currencies: lines are grouped by price material
+     * (alphabetically), cheapest per unit first within each, and unpriced lines go last.
+     */
+    private static final Comparator<Hit> BY_PRICE = Comparator.comparing((Hit h) -> h.offer() == null)
+            .thenComparing(h -> h.offer() == null ? "" : h.offer().currency().key().toString())
+            .thenComparingDouble(h -> h.offer() == null ? 0 : h.offer().unitPrice());
+
+    /** Order of shop lines inside a single item tile. */
+    private static Comparator<Hit> hitComparator(CatalogueSort sort, Location reference) {
+        Comparator<Hit> byDistance = Comparator.comparingDouble(h -> h.listing().distanceSquared(reference));
+        return switch (sort) {
+            case CHEAPEST -> BY_PRICE
+                    .thenComparing(Comparator.comparingInt((Hit h) -> h.entry().stock()).reversed());
+            case MOST_STOCK -> Comparator.comparingInt((Hit h) -> h.entry().stock()).reversed()
+                    .thenComparing(BY_PRICE);
+            case NEAREST, ALPHABETICAL -> byDistance;
+        };
+    }
+
+    /** Order of item tiles; ranks each tile by its best (first) shop line under {@code hitOrder}. */
+    private static Comparator<CatalogueSearchCache.Group> groupComparator(CatalogueSort sort, Comparator<Hit> hitOrder) {
+        Comparator<CatalogueSearchCache.Group> byMaterial =
+                Comparator.comparing(g -> g.template().getType().key().toString());
+
+        return switch (sort) {
+            case ALPHABETICAL -> byMaterial;
+            case MOST_STOCK -> Comparator.comparingInt((CatalogueSearchCache.Group g) -> totalStock(g.hits()))
+                    .reversed()
+                    .thenComparing(byMaterial);
+            case CHEAPEST, NEAREST -> Comparator.<CatalogueSearchCache.Group, Hit>comparing(g -> g.hits().get(0), hitOrder)
+                    .thenComparing(byMaterial);
+        };
+    }
+
+    /** Stock across the tile's stores (a store listed in several currencies is counted once). */
+    private static int totalStock(List<Hit> hits) {
+        int total = 0;
+        Set<CatalogueIndex.Entry> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Hit hit : hits) {
+            if (counted.add(hit.entry())) total += hit.entry().stock();
+        }
+        return total;
     }
 
-    protected GuiItem formatItem(ItemStack baseItem, List<BarterStore> items) {
+    protected GuiItem formatItem(ItemStack baseItem, List<Hit> hits) {
         ItemUtil.wrapEdit(baseItem, (meta) -> {
-            List<Component> lore = new ArrayList<>(items.size());
+            List<Component> lore = new ArrayList<>(hits.size() + 2);
             lore.addAll(Messages.mmList("gui.catalogue.item_lore"));
             lore.add(Component.empty());
 
-            for (BarterStore store : items) {
-                if (!store.getLocations().isEmpty()) {
-                    Location location = store.getLocations().get(0);
-                    String text = location.getBlockX() + " " + location.getBlockY() + " " + location.getBlockZ();
-                    lore.add(Component.text("~ " + text, NamedTextColor.GREEN));
-                }
+            for (Hit hit : hits) {
+                CatalogueIndex.Listing listing = hit.listing();
+                if (listing.locations().isEmpty()) continue;
+
+                Location location = listing.locations().get(0);
+                lore.add(Messages.mm(
+                        "gui.catalogue.listing_line",
+                        "x", location.getBlockX(),
+                        "y", location.getBlockY(),
+                        "z", location.getBlockZ(),
+                        "price", priceComponent(hit.offer()),
+                        "stock", hit.entry().stock()
+                ));
             }
 
             Components.lore(meta, lore);
@@ -175,14 +299,13 @@ public class CatalogueGui extends ChestGui {
             Location closestLocation = null;
             double smallestDistance = Double.MAX_VALUE;
 
-            for (BarterStore store : items) {
-                if (!store.getLocations().isEmpty()) {
-                    for (Location location : store.getLocations()) {
-                        double distance = location.distance(reference);
-                        if (distance < smallestDistance) {
-                            smallestDistance = distance;
-                            closestLocation = location;
-                        }
+            for (Hit hit : hits) {
+                for (Location location : hit.listing().locations()) {
+                    if (location.getWorld() != null && !location.getWorld().equals(reference.getWorld())) continue;
+                    double distance = location.distanceSquared(reference);
+                    if (distance < smallestDistance) {
+                        smallestDistance = distance;
+                        closestLocation = location;
                     }
                 }
             }
@@ -193,6 +316,36 @@ public class CatalogueGui extends ChestGui {
         });
     }
 
+    /** "<amount>× <currency>" for a store's best-value slot of an item in one currency, or the no-price label. */
+    private static Component priceComponent(CatalogueIndex.PriceOffer offer) {
+        if (offer == null) {
+            return Messages.mm("gui.catalogue.listing_no_price");
+        }
+        ItemStack price = offer.price();
+        return Messages.mm(
+                "gui.catalogue.listing_price",
+                "amount", price.getAmount(),
+                "currency", Component.translatable(price.getType().translationKey())
+        );
+    }
+
+    /** Footer toggle that cycles {@link CatalogueSort} and rebuilds with the current query. */
+    private GuiItem buildSortButton(String filterQuery, CatalogueSort current) {
+        ItemStack button = ItemUtil.wrapEdit(new ItemStack(Material.HOPPER), meta -> {
+            Components.name(meta, Messages.mm("gui.catalogue.sort.button_name",
+                    "mode", Messages.mm(current.messageKey())));
+            Components.lore(meta, Messages.mmList("gui.catalogue.sort.button_lore",
+                    "next", Messages.mm(current.next().messageKey())));
+        });
+
+        return new GuiItem(button, event -> {
+            event.setCancelled(true);
+            if (event.getWhoClicked() instanceof Player player) {
+                buildAndOpen(player, filterQuery, current.next());
+            }
+        });
+    }
+
     private ItemStack buildSearchButton() {
         ItemStack button = BarterContainer.INSTANCE.getConfiguration().getCatalogueSearchItem();
 
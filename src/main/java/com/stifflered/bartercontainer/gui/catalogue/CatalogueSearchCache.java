@@ -0,0 +1,67 @@
+package com.stifflered.bartercontainer.gui.catalogue;
+
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of catalogue search results.
+
+ * Key:
+ *  - Normalized query text ("" for the unfiltered catalogue). Sorting is applied per open,
+ *    so one entry serves every sort mode and viewer position.
+
+ * Invalidation:
+ *  - Each entry remembers the {@code CatalogueIndex} generation it was built from.
+ *  - A lookup with a different generation is a miss and evicts the stale entry, so any change to
+ *    a shop's sale slots, price or location naturally invalidates every cached query.
+
+ * Threading:
+ *  - Guarded by the instance monitor; lookups happen on the main thread, inserts on async builders.
+ *  - Cached groups are immutable; callers must copy before sorting.
+ */
+final class CatalogueSearchCache {
+
+    /** One item tile: amount-1 template + the shops offering it (unsorted). */
+    record Group(ItemStack template, List<CatalogueGui.Hit> hits) {
+        Group {
+            hits = List.copyOf(hits);
+        }
+    }
+
+    private record Cached(long generation, List<Group> groups) {
+    }
+
+    private final Map<String, Cached> entries;
+
+    CatalogueSearchCache(int maxEntries) {
+        // accessOrder=true → iteration order is least-recently-used first; evict the eldest on overflow
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return this.size() > maxEntries;
+            }
+        };
+    }
+
+    /** Cached groups for the query if they were built at {@code generation}; otherwise null. */
+    synchronized @Nullable List<Group> get(String normalizedQuery, long generation) {
+        Cached cached = this.entries.get(normalizedQuery);
+        if (cached == null) return null;
+
+        if (cached.generation() != generation) {
+            this.entries.remove(normalizedQuery);
+            return null;
+        }
+        return cached.groups();
+    }
+
+    /** Store groups built from the index at {@code generation}. */
+    synchronized void put(String normalizedQuery, long generation, List<Group> groups) {
+        this.entries.put(normalizedQuery, new Cached(generation, List.copyOf(groups)));
+    }
+}
@@ -0,0 +1,48 @@
+package com.stifflered.bartercontainer.gui.catalogue;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Ordering modes for the catalogue.
+
+ * Each mode ranks both the item groups (one tile per distinct item) and the shop lines inside a tile:
+ *  - ALPHABETICAL → by material key (legacy behavior).
+ *  - CHEAPEST     → lowest price per single unit first (price amount ÷ largest stack on sale).
+ *  - MOST_STOCK   → highest total quantity on sale first.
+ *  - NEAREST      → closest shop to the viewer first (same world only).
+
+ * Labels live in messages.yml under gui.catalogue.sort.modes.<id>.
+ */
+public enum CatalogueSort {
+    ALPHABETICAL,
+    CHEAPEST,
+    MOST_STOCK,
+    NEAREST;
+
+    /** Lowercase id used for messages.yml keys and the /catalog argument. */
+    public String id() {
+        return this.name().toLowerCase(Locale.ROOT);
+    }
+
+    /** messages.yml path for this mode's display label. */
+    public String messageKey() {
+        return "gui.catalogue.sort.modes." + this.id();
+    }
+
+    /** Next mode in declaration order (wraps around); used by the footer toggle. */
+    public CatalogueSort next() {
+        CatalogueSort[] values = values();
+        return values[(this.ordinal() + 1) % values.length];
+    }
+
+    /** Parse a user-supplied id (case-insensitive, '-' tolerated for '_'). */
+    public static Optional<CatalogueSort> parse(String raw) {
+        if (raw == null) return Optional.empty();
+        String id = raw.trim().toLowerCase(Locale.ROOT).replace('-', '_');
+        for (CatalogueSort sort : values()) {
+            if (sort.id().equals(id)) return Optional.of(sort);
+        }
+        return Optional.empty();
+    }
+}
@@ -4,7 +4,6 @@ import com.github.stefvanschie.inventoryframework.gui.GuiItem;
 
 import com.stifflered.bartercontainer.BarterContainer;
 import com.stifflered.bartercontainer.player.ShoppingListManager;
-import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.util.Components;
 import com.stifflered.bartercontainer.util.ItemUtil;
 import com.stifflered.bartercontainer.util.Messages;
@@ -46,7 +45,7 @@ public class ShoppingListGui extends CatalogueGui {
      *  - gui.shopping.not_removed (no placeholders)
      */
     @Override
-    protected GuiItem formatItem(ItemStack baseItem, List<BarterStore> items) {
+    protected GuiItem formatItem(ItemStack baseItem, List<Hit> items) {
         return new GuiItem(ItemUtil.wrapEdit(baseItem.clone(), (meta) -> {
             // Apply lore lines defined for the shopping list context (from messages.yml)
             Components.lore(meta, Messages.mmList("gui.shopping.lore"));
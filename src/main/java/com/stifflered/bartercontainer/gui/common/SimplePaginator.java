@@ -6,10 +6,12 @@ import com.github.stefvanschie.inventoryframework.gui.type.ChestGui;
 import com.github.stefvanschie.inventoryframework.pane.PaginatedPane;
 import com.github.stefvanschie.inventoryframework.pane.StaticPane;
 
+import com.stifflered.bartercontainer.BarterContainer;
 import com.stifflered.bartercontainer.util.Components;
 import com.stifflered.bartercontainer.util.ItemUtil;
 import com.stifflered.bartercontainer.util.Messages;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.Material;
 import org.bukkit.inventory.Inventory;
@@ -20,7 +22,11 @@ import org.bukkit.inventory.meta.PotionMeta;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
 
 /**
  * A simple chest GUI with built-in pagination support.
@@ -31,6 +37,10 @@ import java.util.List;
  *  - Displays a header row filled with blank items (cosmetic divider).
  *  - Optionally includes a "Back" button if a parent inventory is supplied.
  *  - NEW: optional footer item placed at bottom-right (slot x=8,y=0 of the nav row).
+ *  - NEW: optional clickable footer action placed just left of it (slot x=7,y=0), e.g. a sort toggle.
+ *  - NEW: lazy mode (item count + index → GuiItem factory). Only the visible page is materialized,
+ *    the next page is prefetched on the following tick, and pages far from the cursor are released,
+ *    so very large listings open in constant time and memory.
 
  * Structure of the GUI:
  *  - Row 0 → Header (blank filler items).
@@ -55,6 +65,18 @@ public class SimplePaginator extends ChestGui {
     // NEW: optional footer item shown in the bottom-right corner of the nav row
     private final @Nullable ItemStack footerRightItem;
 
+    // Optional clickable footer action shown next to the footer item (x=7 on the nav row)
+    private final @Nullable GuiItem footerActionItem;
+
+    // Slots per page in the content area (9 wide × 4 tall)
+    private static final int PAGE_SIZE = 36;
+
+    // Lazy mode only: index → GuiItem factory, total item count, one (initially empty) pane per page
+    private final @Nullable IntFunction<GuiItem> itemFactory;
+    private final int itemCount;
+    private final List<StaticPane> lazyPages = new ArrayList<>();
+    private final Set<Integer> materializedPages = new HashSet<>();
+
     /**
      * Backward-compatible constructor (no footer).
      *
@@ -78,12 +100,57 @@ public class SimplePaginator extends ChestGui {
      */
     public SimplePaginator(int rows, @NotNull TextHolder textHolder, List<GuiItem> guiItemList,
                            @Nullable Inventory parent, @Nullable ItemStack footerRightItem) {
+        this(rows, textHolder, guiItemList, parent, footerRightItem, null);
+    }
+
+    /**
+     * Constructor with both footer slots.
+     *
+     * @param rows              number of rows in the GUI
+     * @param textHolder        GUI title
+     * @param guiItemList       list of items to paginate
+     * @param parent            optional parent inventory (adds back button if present)
+     * @param footerRightItem   optional item to render at (8,0) on the navigation row
+     * @param footerActionItem  optional clickable item to render at (7,0) on the navigation row
+     */
+    public SimplePaginator(int rows, @NotNull TextHolder textHolder, List<GuiItem> guiItemList,
+                           @Nullable Inventory parent, @Nullable ItemStack footerRightItem,
+                           @Nullable GuiItem footerActionItem) {
+        this(rows, textHolder, guiItemList, guiItemList.size(), null, parent, footerRightItem, footerActionItem);
+    }
+
+    /**
+     * Lazy constructor: GuiItems are built on demand, one page at a time.
+     * The factory is called on the main thread with indexes in [0, itemCount).
+     *
+     * @param rows              number of rows in the GUI
+     * @param textHolder        GUI title
+     * @param itemCount         total number of entries
+     * @param itemFactory       builds the GuiItem for an entry index (only for visible/prefetched pages)
+     * @param parent            optional parent inventory (adds back button if present)
+     * @param footerRightItem   optional item to render at (8,0) on the navigation row
+     * @param footerActionItem  optional clickable item to render at (7,0) on the navigation row
+     */
+    public SimplePaginator(int rows, @NotNull TextHolder textHolder, int itemCount,
+                           @NotNull IntFunction<GuiItem> itemFactory,
+                           @Nullable Inventory parent, @Nullable ItemStack footerRightItem,
+                           @Nullable GuiItem footerActionItem) {
+        this(rows, textHolder, null, itemCount, itemFactory, parent, footerRightItem, footerActionItem);
+    }
+
+    private SimplePaginator(int rows, @NotNull TextHolder textHolder, @Nullable List<GuiItem> guiItemList,
+                            int itemCount, @Nullable IntFunction<GuiItem> itemFactory,
+                            @Nullable Inventory parent, @Nullable ItemStack footerRightItem,
+                            @Nullable GuiItem footerActionItem) {
         super(rows, textHolder);
 
         // Prevents players from moving items in/out of the GUI
         this.setOnTopClick((event) -> event.setCancelled(true));
         this.parent = parent;
         this.footerRightItem = footerRightItem;
+        this.footerActionItem = footerActionItem;
+        this.itemFactory = itemFactory;
+        this.itemCount = Math.max(0, itemCount);
 
         // Build arrow items with display names from messages.yml
         this.pageUpItem = ItemUtil.wrapEdit(new ItemStack(Material.TIPPED_ARROW), (meta) -> {
@@ -99,7 +166,18 @@ public class SimplePaginator extends ChestGui {
 
         // Initialize the main pageable area (9 wide × 4 tall, starting at row 1)
         this.paginatedPane = new PaginatedPane(0, 1, 9, 4);
-        this.paginatedPane.populateWithGuiItems(guiItemList);
+        if (guiItemList != null) {
+            this.paginatedPane.populateWithGuiItems(guiItemList);
+        } else {
+            // Lazy: register one empty pane per page; contents are filled when the page is shown
+            int pageCount = (this.itemCount + PAGE_SIZE - 1) / PAGE_SIZE;
+            for (int page = 0; page < pageCount; page++) {
+                StaticPane pane = new StaticPane(0, 0, 9, 4);
+                this.lazyPages.add(pane);
+                this.paginatedPane.addPane(page, pane);
+            }
+            materialize(0);
+        }
         this.addPane(this.paginatedPane);
 
         // Header row (row 0) filled with blanks to visually separate UI
@@ -113,6 +191,46 @@ public class SimplePaginator extends ChestGui {
 
         // Initial render of navigation
         update();
+        prefetch(1);
+    }
+
+    /**
+     * Switches to the given page: materializes it (lazy mode), releases pages that are no longer
+     * adjacent, re-renders, and prefetches the following page on the next tick.
+     */
+    private void showPage(int page) {
+        this.paginatedPane.setPage(page);
+        if (this.itemFactory != null) {
+            materialize(page);
+            for (Integer built : List.copyOf(this.materializedPages)) {
+                if (Math.abs(built - page) > 1) {
+                    this.lazyPages.get(built).clear();
+                    this.materializedPages.remove(built);
+                }
+            }
+        }
+        this.update();
+        prefetch(page + 1);
+    }
+
+    /** Lazy mode: build the GuiItems for one page into its pane (no-op if already built or out of range). */
+    private void materialize(int page) {
+        if (this.itemFactory == null || page < 0 || page >= this.lazyPages.size()) return;
+        if (!this.materializedPages.add(page)) return;
+
+        StaticPane pane = this.lazyPages.get(page);
+        int from = page * PAGE_SIZE;
+        int to = Math.min(this.itemCount, from + PAGE_SIZE);
+        for (int i = from; i < to; i++) {
+            int local = i - from;
+            pane.addItem(this.itemFactory.apply(i), local % 9, local / 9);
+        }
+    }
+
+    /** Lazy mode: schedule building a page on the next tick so the following page click is instant. */
+    private void prefetch(int page) {
+        if (this.itemFactory == null || page >= this.lazyPages.size() || this.materializedPages.contains(page)) return;
+        Bukkit.getScheduler().runTask(BarterContainer.INSTANCE, () -> materialize(page));
     }
 
     /**
@@ -129,8 +247,7 @@ public class SimplePaginator extends ChestGui {
         if (pages.getPage() > 0) {
             navigation.addItem(new com.github.stefvanschie.inventoryframework.gui.GuiItem(pageDownItem, event -> {
                 if (pages.getPage() > 0) {
-                    pages.setPage(pages.getPage() - 1);
-                    this.update(); // Refresh GUI after page change
+                    this.showPage(pages.getPage() - 1); // Refresh GUI after page change
                 }
             }), 3, 0);
         }
@@ -139,8 +256,7 @@ public class SimplePaginator extends ChestGui {
         if (pages.getPage() < pages.getPages() - 1) {
             navigation.addItem(new com.github.stefvanschie.inventoryframework.gui.GuiItem(pageUpItem, event -> {
                 if (pages.getPage() < pages.getPages() - 1) {
-                    pages.setPage(pages.getPage() + 1);
-                    this.update(); // Refresh GUI after page change
+                    this.showPage(pages.getPage() + 1); // Refresh GUI after page change
                 }
             }), 5, 0);
         }
@@ -155,6 +271,11 @@ public class SimplePaginator extends ChestGui {
             navigation.addItem(new com.github.stefvanschie.inventoryframework.gui.GuiItem(footerRightItem), 8, 0);
         }
 
+        // Place the clickable footer action (e.g., catalogue sort toggle) just left of the footer item
+        if (footerActionItem != null) {
+            navigation.addItem(footerActionItem, 7, 0);
+        }
+
         // Call superclass update to finalize changes
         super.update();
     }
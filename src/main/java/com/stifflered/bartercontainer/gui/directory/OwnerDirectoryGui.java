@@ -4,13 +4,14 @@ import com.github.stefvanschie.inventoryframework.adventuresupport.TextHolder;
 import com.github.stefvanschie.inventoryframework.gui.GuiItem;
 
 import com.stifflered.bartercontainer.BarterContainer;
-import com.stifflered.bartercontainer.barter.BarterManager;
-import com.stifflered.bartercontainer.store.BarterStore;
-import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
+import com.stifflered.bartercontainer.barter.CatalogueIndex;
+import com.stifflered.bartercontainer.store.BarterStoreKey;
 import com.stifflered.bartercontainer.util.Components;
 import com.stifflered.bartercontainer.util.ItemUtil;
 import com.stifflered.bartercontainer.util.Messages;
 import com.stifflered.bartercontainer.util.TrackingManager;
+import com.stifflered.bartercontainer.util.analytics.SalesHistograms;
+import com.stifflered.bartercontainer.util.analytics.TopSellers;
 
 import com.destroystokyo.paper.profile.PlayerProfile;
 import com.destroystokyo.paper.profile.ProfileProperty;
@@ -35,8 +36,13 @@ import java.util.stream.Collectors;
  * OwnerDirectoryGui
 
  * Shows a paginated list of unique shop owners (as player heads).
+ * - Owners and their barrels come from the resident {@link CatalogueIndex}, so opening the directory
+ *   never loads a store from storage.
  * - Clicking a head starts a particle trail to the nearest barrel owned by that player.
- * - Lore on each head includes top sellers across all of that owner's barrels (by Material).
+ * - Lore on each head includes top sellers across all of that owner's barrels (by Material), read from
+ *   the owner's live top-seller summary ({@link SalesHistograms#ownerTopSellers}).
+ * - Heads are materialized lazily per page, so the first-use log reads behind those summaries scale
+ *   with what the viewer actually sees.
 
  * Network-quiet rules:
  * - Never call SkullMeta#setOwningPlayer.
@@ -59,78 +65,83 @@ public class OwnerDirectoryGui {
         plugin.getLogger().fine("Opening OwnerDirectoryGui for " + viewer.getName());
 
         Component title = Messages.mm("gui.directory.title");
-        List<GuiItem> items = buildOwnerItems();
+        List<Map.Entry<UUID, List<CatalogueIndex.Listing>>> owners = resolveOwners();
 
         TextHolder titleHolder =
                 com.github.stefvanschie.inventoryframework.adventuresupport.ComponentHolder.of(title);
 
+        if (owners.isEmpty()) {
+            new com.stifflered.bartercontainer.gui.common.SimplePaginator(
+                    ROWS,
+                    titleHolder,
+                    List.of(buildNoOwnersItem()),
+                    null
+            ).show(viewer);
+            return;
+        }
+
+        // Heads (and their top-seller log reads) are only built for the page being viewed
         var gui = new com.stifflered.bartercontainer.gui.common.SimplePaginator(
                 ROWS,
                 titleHolder,
-                items,
+                owners.size(),
+                index -> buildOwnerItem(owners.get(index)),
+                null,
+                null,
                 null
         );
         gui.show(viewer);
     }
 
-    private List<GuiItem> buildOwnerItems() {
-        Map<UUID, List<BarterStore>> byOwner = BarterManager.INSTANCE.getAll()
+    /** Owner UUID → their stores, sorted with known names first (case-insensitive). */
+    private List<Map.Entry<UUID, List<CatalogueIndex.Listing>>> resolveOwners() {
+        Map<UUID, List<CatalogueIndex.Listing>> byOwner = CatalogueIndex.INSTANCE.snapshot()
                 .stream()
-                .filter(Objects::nonNull)
-                .map(store -> new AbstractMap.SimpleEntry<>(ownerIdOrNull(store), store))
-                .filter(e -> e.getKey() != null)
-                .collect(Collectors.groupingBy(
-                        Map.Entry::getKey,
-                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())
-                ));
-
-        List<Map.Entry<UUID, List<BarterStore>>> owners = byOwner.entrySet()
+                .filter(listing -> listing.ownerId() != null)
+                .collect(Collectors.groupingBy(CatalogueIndex.Listing::ownerId));
+
+        return byOwner.entrySet()
                 .stream()
                 .filter(e -> e.getValue() != null && !e.getValue().isEmpty())
                 .sorted(
                         Comparator
-                                .comparing((Map.Entry<UUID, List<BarterStore>> e) -> rawName(e.getKey()) == null)
+                                .comparing((Map.Entry<UUID, List<CatalogueIndex.Listing>> e) -> rawName(e.getKey()) == null)
                                 .thenComparing(e -> {
                                     String n = rawName(e.getKey());
                                     return (n == null) ? "" : n;
                                 }, String.CASE_INSENSITIVE_ORDER)
                 )
                 .toList();
+    }
 
-        List<GuiItem> items = new ArrayList<>(owners.size());
-
-        for (Map.Entry<UUID, List<BarterStore>> entry : owners) {
-            UUID ownerId = entry.getKey();
-            List<BarterStore> stores = entry.getValue();
-
-            String ownerName = displayName(ownerId);
-
-            ItemStack head = buildOwnerHead(ownerId, ownerName, stores);
+    /** One clickable owner head: tracks to the nearest barrel of that owner. */
+    private GuiItem buildOwnerItem(Map.Entry<UUID, List<CatalogueIndex.Listing>> entry) {
+        UUID ownerId = entry.getKey();
+        List<CatalogueIndex.Listing> stores = entry.getValue();
 
-            GuiItem guiItem = new GuiItem(head, click -> {
-                click.setCancelled(true);
+        String ownerName = displayName(ownerId);
 
-                Location nearest = findNearestOwnedLocation(stores, viewer.getWorld(), viewer.getLocation().toVector());
-                if (nearest == null) {
-                    viewer.sendMessage(Messages.mm("gui.directory.no_barrels"));
-                    return;
-                }
+        ItemStack head = buildOwnerHead(ownerId, ownerName, stores);
 
-                TrackingManager.instance().track(viewer, nearest);
-                viewer.closeInventory();
-            });
+        return new GuiItem(head, click -> {
+            click.setCancelled(true);
 
-            items.add(guiItem);
-        }
+            Location nearest = findNearestOwnedLocation(stores, viewer.getWorld(), viewer.getLocation().toVector());
+            if (nearest == null) {
+                viewer.sendMessage(Messages.mm("gui.directory.no_barrels"));
+                return;
+            }
 
-        if (items.isEmpty()) {
-            items.add(new GuiItem(ItemUtil.wrapEdit(new ItemStack(Material.BARRIER), meta -> {
-                Components.name(meta, Messages.mm("gui.directory.no_owners_name"));
-                Components.lore(meta, Messages.mm("gui.directory.no_owners_lore"));
-            })));
-        }
+            TrackingManager.instance().track(viewer, nearest);
+            viewer.closeInventory();
+        });
+    }
 
-        return items;
+    private GuiItem buildNoOwnersItem() {
+        return new GuiItem(ItemUtil.wrapEdit(new ItemStack(Material.BARRIER), meta -> {
+            Components.name(meta, Messages.mm("gui.directory.no_owners_name"));
+            Components.lore(meta, Messages.mm("gui.directory.no_owners_lore"));
+        }));
     }
 
     /**
@@ -141,7 +152,7 @@ public class OwnerDirectoryGui {
      */
     private @NotNull ItemStack buildOwnerHead(@NotNull UUID ownerId,
                                               @NotNull String ownerName,
-                                              @NotNull List<BarterStore> stores) {
+                                              @NotNull List<CatalogueIndex.Listing> stores) {
         ItemStack skull = new ItemStack(Material.PLAYER_HEAD);
         SkullMeta meta = (SkullMeta) skull.getItemMeta();
 
@@ -174,13 +185,13 @@ public class OwnerDirectoryGui {
 
         // Lore: top 3 sellers (by Material name only)
         List<Component> lore = new ArrayList<>();
-        List<ItemSummary> top3 = resolveTopSellers(stores);
+        List<TopSellers.Seller> top3 = resolveTopSellers(ownerId, stores);
         if (top3.isEmpty()) {
             lore.add(Messages.mm("gui.directory.head_lore_no_sales"));
         } else {
             lore.add(Messages.mm("gui.directory.head_lore_top_header"));
-            for (ItemSummary s : top3) {
-                lore.add(Messages.mm("gui.directory.head_lore_top_item", "item", prettyMaterial(s.material())));
+            for (TopSellers.Seller s : top3) {
+                lore.add(Messages.mm("gui.directory.head_lore_top_item", "item", prettyMaterial(s.item())));
             }
         }
         meta.lore(lore);
@@ -211,15 +222,15 @@ public class OwnerDirectoryGui {
         return Character.toUpperCase(name.charAt(0)) + name.substring(1);
     }
 
-    private Location findNearestOwnedLocation(@NotNull List<BarterStore> stores,
+    private Location findNearestOwnedLocation(@NotNull List<CatalogueIndex.Listing> stores,
                                               @NotNull World preferredWorld,
                                               @NotNull Vector viewerPos) {
         Location best = null;
         double bestDist = Double.MAX_VALUE;
 
         // Prefer same-world barrels first
-        for (BarterStore s : stores) {
-            for (Location loc : safeLocations(s)) {
+        for (CatalogueIndex.Listing s : stores) {
+            for (Location loc : s.locations()) {
                 if (!Objects.equals(loc.getWorld(), preferredWorld)) continue;
                 double d = loc.toVector().distanceSquared(viewerPos);
                 if (d < bestDist) { best = loc; bestDist = d; }
@@ -228,8 +239,8 @@ public class OwnerDirectoryGui {
         if (best != null) return best;
 
         // Fallback: any world
-        for (BarterStore s : stores) {
-            for (Location loc : safeLocations(s)) {
+        for (CatalogueIndex.Listing s : stores) {
+            for (Location loc : s.locations()) {
                 double d = loc.toVector().distanceSquared(viewerPos);
                 if (d < bestDist) { best = loc; bestDist = d; }
             }
@@ -237,53 +248,23 @@ public class OwnerDirectoryGui {
         return best;
     }
 
-    private List<Location> safeLocations(BarterStore s) {
-        try {
-            List<Location> locs = s.getLocations();
-            return (locs == null) ? List.of() : locs.stream().filter(Objects::nonNull).toList();
-        } catch (Throwable t) {
-            return List.of();
-        }
-    }
-
     /**
-     * Aggregate "top 3" materials sold across the provided stores.
-     * Reads persisted transaction logs (all-time) and sums amounts by Material.
+     * "Top 3" materials sold (all-time) across the owner's stores, from the owner's live top-seller
+     * summary (built from the store summaries on first use; see {@link SalesHistograms}).
      */
-    private List<ItemSummary> resolveTopSellers(@NotNull List<BarterStore> ownersStores) {
+    private List<TopSellers.Seller> resolveTopSellers(@NotNull UUID ownerId, @NotNull List<CatalogueIndex.Listing> ownersStores) {
         final int TOP_N = 3;
 
-        Map<Material, Long> counts = new HashMap<>();
-
-        for (BarterStore store : ownersStores) {
-            try {
-                var records = BarterShopOwnerLogManager.listAllEntries(store.getKey());
-                for (var rec : records) {
-                    Material mat = rec.itemType();
-                    if (mat == null) mat = Material.AIR;
-                    counts.merge(mat, (long) Math.max(0, rec.amount()), Long::sum);
-                }
-            } catch (Exception e) {
-                BarterContainer.INSTANCE.getLogger().warning(
-                        "Failed to read logs for store " + store.getKey() + ": " + e.getMessage()
-                );
-            }
-        }
+        List<BarterStoreKey> keys = new ArrayList<>(ownersStores.size());
+        for (CatalogueIndex.Listing store : ownersStores) keys.add(store.key());
 
-        return counts.entrySet()
-                .stream()
-                .filter(e -> e.getKey() != Material.AIR && e.getValue() > 0)
-                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-                .limit(TOP_N)
-                .map(e -> new ItemSummary(e.getKey(), e.getValue()))
-                .toList();
-    }
-
-    private static UUID ownerIdOrNull(BarterStore store) {
         try {
-            return store.getPlayerProfile().getId();
-        } catch (Throwable t) {
-            return null;
+            return SalesHistograms.INSTANCE.ownerTopSellers(ownerId, keys, TOP_N);
+        } catch (Exception e) {
+            BarterContainer.INSTANCE.getLogger().warning(
+                    "Failed to read top sellers for owner " + ownerId + ": " + e.getMessage()
+            );
+            return List.of();
         }
     }
 
@@ -323,6 +304,4 @@ public class OwnerDirectoryGui {
         profile.getProperties().clear();
         profile.setProperty(new ProfileProperty("textures", base64Value, signatureOrNull));
     }
-
-    private record ItemSummary(Material material, long count) {}
 }
@@ -0,0 +1,132 @@
+package com.stifflered.bartercontainer.gui.market;
+
+import com.github.stefvanschie.inventoryframework.adventuresupport.ComponentHolder;
+import com.github.stefvanschie.inventoryframework.gui.GuiItem;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.gui.common.SimplePaginator;
+import com.stifflered.bartercontainer.util.Components;
+import com.stifflered.bartercontainer.util.ItemUtil;
+import com.stifflered.bartercontainer.util.Messages;
+import com.stifflered.bartercontainer.util.analytics.MarketIndex;
+
+import net.kyori.adventure.text.Component;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Market-wide overview: one tile per traded item (per currency), most traded first, with volume and
+ * price percentiles from {@link MarketIndex}.
+
+ * Layout:
+ *  - {@link SimplePaginator} listing (6 rows).
+ *  - Footer action (x=7): cycles the window (today → 7 days → 30 days).
+ *  - Footer info (x=8): current window and whether history is still loading.
+
+ * Threading:
+ *  - The window is aggregated off the main thread (digest merges); the GUI opens on the main thread.
+ */
+public final class MarketGui {
+
+    /** Windows the footer toggle cycles through (days, today included). */
+    public static final int[] WINDOWS = {1, 7, MarketIndex.HISTORY_DAYS};
+
+    private MarketGui() {
+    }
+
+    /** Aggregate the window asynchronously, then open the listing for {@code player}. */
+    public static void open(Player player, int windowDays) {
+        Bukkit.getScheduler().runTaskAsynchronously(BarterContainer.INSTANCE, () -> {
+            List<MarketIndex.MarketStats> markets = MarketIndex.INSTANCE.top(windowDays, Clock.systemUTC());
+            boolean ready = MarketIndex.INSTANCE.isReady();
+
+            Bukkit.getScheduler().runTask(BarterContainer.INSTANCE, () -> {
+                if (!player.isOnline()) return;
+                show(player, windowDays, markets, ready);
+            });
+        });
+    }
+
+    /** The window after {@code windowDays} in {@link #WINDOWS} (wraps around). */
+    public static int nextWindow(int windowDays) {
+        for (int i = 0; i < WINDOWS.length; i++) {
+            if (WINDOWS[i] == windowDays) return WINDOWS[(i + 1) % WINDOWS.length];
+        }
+        return WINDOWS[0];
+    }
+
+    /** Chat-friendly unit price: whole numbers from 10 up, two decimals below (prices are often fractions). */
+    public static String price(double unitPrice) {
+        if (Double.isNaN(unitPrice)) return "-";
+        return String.format(Locale.US, unitPrice >= 10 ? "%.0f" : "%.2f", unitPrice);
+    }
+
+    /** Placeholders shared by the tile lore and the /market chat lines. */
+    public static Object[] placeholders(MarketIndex.MarketStats stats, int windowDays) {
+        return new Object[]{
+                "item", Component.translatable(stats.market().item().translationKey()),
+                "currency", Component.translatable(stats.market().currency().translationKey()),
+                "volume", stats.volume(),
+                "trades", stats.trades(),
+                "median", price(stats.median()),
+                "p25", price(stats.p25()),
+                "p75", price(stats.p75()),
+                "low", price(stats.low()),
+                "high", price(stats.high()),
+                "days", windowDays
+        };
+    }
+
+    private static void show(Player player, int windowDays, List<MarketIndex.MarketStats> markets, boolean ready) {
+        new SimplePaginator(
+                6,
+                ComponentHolder.of(Messages.mm("gui.market.title", "days", windowDays)),
+                markets.size(),
+                index -> tile(markets.get(index), windowDays),
+                null,
+                infoItem(windowDays, markets.size(), ready),
+                windowButton(windowDays)
+        ).show(player);
+    }
+
+    private static GuiItem tile(MarketIndex.MarketStats stats, int windowDays) {
+        Material icon = stats.market().item().isItem() ? stats.market().item() : Material.PAPER;
+        Object[] placeholders = placeholders(stats, windowDays);
+
+        ItemStack item = ItemUtil.wrapEdit(new ItemStack(icon), meta -> {
+            Components.name(meta, Messages.mm("gui.market.tile_name", placeholders));
+            Components.lore(meta, Messages.mmList("gui.market.tile_lore", placeholders));
+        });
+        return new GuiItem(item, event -> event.setCancelled(true));
+    }
+
+    private static ItemStack infoItem(int windowDays, int markets, boolean ready) {
+        return ItemUtil.wrapEdit(new ItemStack(Material.CLOCK), meta -> {
+            Components.name(meta, Messages.mm("gui.market.info_name", "days", windowDays));
+            Components.lore(meta, Messages.mmList(ready ? "gui.market.info_lore" : "gui.market.info_lore_loading",
+                    "markets", markets));
+        });
+    }
+
+    private static GuiItem windowButton(int windowDays) {
+        int next = nextWindow(windowDays);
+        ItemStack button = ItemUtil.wrapEdit(new ItemStack(Material.HOPPER), meta -> {
+            Components.name(meta, Messages.mm("gui.market.window_button_name", "days", windowDays));
+            Components.lore(meta, Messages.mmList("gui.market.window_button_lore", "next", next));
+        });
+
+        return new GuiItem(button, event -> {
+            event.setCancelled(true);
+            if (event.getWhoClicked() instanceof Player player) {
+                open(player, next);
+            }
+        });
+    }
+}
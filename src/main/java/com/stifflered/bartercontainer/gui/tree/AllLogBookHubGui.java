@@ -2,9 +2,9 @@ package com.stifflered.bartercontainer.gui.tree;
 
 import com.stifflered.bartercontainer.BarterContainer;
 import com.stifflered.bartercontainer.store.BarterStoreKey;
-import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
-import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager.TransactionRecord;
 import com.stifflered.bartercontainer.util.Messages;
+import com.stifflered.bartercontainer.util.analytics.SalesHistograms;
+import com.stifflered.bartercontainer.util.analytics.TopSellers;
 
 import net.kyori.adventure.text.Component;
 
@@ -134,41 +134,34 @@ public final class AllLogBookHubGui {
     /* ----------------------------- helpers ----------------------------- */
 
     /**
-     * Builds the lore block for the "Top Selling Items" tile using messages.yml keys:
+     * Builds the lore block for the "Top Selling Items" tile from the stores' merged top-seller summaries
+     * (see {@link SalesHistograms#topSellers}) using messages.yml keys:
      *   - top_items_ready_lore_header
      *   - top_items_ready_row (<item>, <amount>)
+     *   - top_items_ready_row_approx (<item>, <amount>) when the count is an upper bound
      *   - top_items_error_lore
      *   - top_items_empty_lore
      */
     private static List<Component> buildTopSellingLoreAcrossKeys(Collection<BarterStoreKey> keys) {
-        Map<Material, Integer> totals = new EnumMap<>(Material.class);
+        List<TopSellers.Seller> top;
         try {
-            for (BarterStoreKey k : keys) {
-                for (TransactionRecord r : BarterShopOwnerLogManager.listAllEntries(k)) {
-                    Material m = r.itemType();
-                    if (m == null || m == Material.AIR) continue;
-                    totals.merge(m, Math.max(0, r.amount()), Integer::sum);
-                }
-            }
+            top = SalesHistograms.INSTANCE.topSellers(keys, 3);
         } catch (Exception e) {
             return Messages.mmList("gui.all_log_book_hub.top_items_error_lore");
         }
 
-        if (totals.isEmpty()) {
+        if (top.isEmpty()) {
             return Messages.mmList("gui.all_log_book_hub.top_items_empty_lore");
         }
 
-        List<Map.Entry<Material,Integer>> top = totals.entrySet().stream()
-                .sorted((a,b)->Integer.compare(b.getValue(), a.getValue()))
-                .limit(3)
-                .toList();
-
         List<Component> lore = new ArrayList<>(1 + top.size());
         lore.add(Messages.mm("gui.all_log_book_hub.top_items_ready_lore_header"));
-        for (var e : top) {
-            lore.add(Messages.mm("gui.all_log_book_hub.top_items_ready_row",
-                    "item", pretty(e.getKey()),
-                    "amount", e.getValue()));
+        for (var seller : top) {
+            lore.add(Messages.mm(seller.isExact()
+                            ? "gui.all_log_book_hub.top_items_ready_row"
+                            : "gui.all_log_book_hub.top_items_ready_row_approx",
+                    "item", pretty(seller.item()),
+                    "amount", seller.amount()));
         }
         return lore;
     }
@@ -5,6 +5,9 @@ import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.store.BarterStoreKey;
 import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
 import com.stifflered.bartercontainer.util.analytics.ConsistencyScoreCalculator;
+import com.stifflered.bartercontainer.util.analytics.SalesHistograms;
+import com.stifflered.bartercontainer.util.analytics.TopSellers;
+import com.stifflered.bartercontainer.util.analytics.UniqueBuyers;
 import com.stifflered.bartercontainer.util.Messages;
 
 import net.kyori.adventure.text.Component;
@@ -186,13 +189,14 @@ public final class AllShopStatsGui {
                 top.setItem(5, button(Material.ENDER_EYE,
                         MM("unique_purchasers_name"),
                         ats != null
-                                ? List.of(MM("unique_purchasers_lore", "count", ats.uniqueBuyerCount()))
+                                ? List.of(MM(ats.uniqueBuyers().approximate() ? "unique_purchasers_lore_approx" : "unique_purchasers_lore",
+                                        "count", ats.uniqueBuyers().count()))
                                 : List.of(MM("unique_purchasers_no_data"))));
 
                 top.setItem(7, button(Material.GLOW_ITEM_FRAME,
                         MM("top_item_name"),
                         ats != null && ats.topItem() != null ? List.of(
-                                MM("top_item_lore_row",
+                                MM(ats.topItemExact() ? "top_item_lore_row" : "top_item_lore_row_approx",
                                         "item",  humanMaterialName(ats.topItem()),
                                         "units", ats.topItemUnits()),
                                 MM("top_item_lore_footer")
@@ -240,9 +244,10 @@ public final class AllShopStatsGui {
             int totalUnits,
             int transactionCount,
             Instant lastSale,
-            int uniqueBuyerCount,
+            UniqueBuyers.Estimate uniqueBuyers,
             Material topItem,
             int topItemUnits,
+            boolean topItemExact,
             BarterShopOwnerLogManager.TransactionRecord lastRecord
     ) {}
 
@@ -253,9 +258,6 @@ public final class AllShopStatsGui {
         Instant last = null;
         BarterShopOwnerLogManager.TransactionRecord lastRec = null;
 
-        Set<UUID> buyers = new HashSet<>();
-        Map<Material, Integer> byMat = new EnumMap<>(Material.class);
-
         try {
             for (BarterStore s : stores) {
                 List<BarterShopOwnerLogManager.TransactionRecord> entries =
@@ -269,47 +271,54 @@ public final class AllShopStatsGui {
                         last = ts;
                         lastRec = r;
                     }
-                    buyers.add(r.purchaserUuid());
-
-                    Material m = r.itemType();
-                    if (m != null) byMat.merge(m, Math.max(0, r.amount()), Integer::sum);
                 }
             }
         } catch (IOException e) {
             return null;
         }
 
-        Material topMat = null;
-        int topUnits = 0;
-        for (var e : byMat.entrySet()) {
-            if (e.getValue() > topUnits) {
-                topUnits = e.getValue();
-                topMat = e.getKey();
-            }
+        // Unique buyers and the top item come from the live summaries (owner-wide when one owner, else merged)
+        List<BarterStoreKey> keys = new ArrayList<>(stores.size());
+        Set<UUID> owners = new HashSet<>();
+        for (BarterStore s : stores) {
+            keys.add(s.getKey());
+            owners.add(s.getPlayerProfile().getId());
+        }
+
+        UniqueBuyers.Estimate buyers;
+        List<TopSellers.Seller> top;
+        if (owners.size() == 1) {
+            UUID owner = owners.iterator().next();
+            buyers = SalesHistograms.INSTANCE.ownerUniqueBuyers(owner, keys);
+            top = SalesHistograms.INSTANCE.ownerTopSellers(owner, keys, 1);
+        } else {
+            buyers = SalesHistograms.INSTANCE.uniqueBuyers(keys);
+            top = SalesHistograms.INSTANCE.topSellers(keys, 1);
         }
+        Material topMat = top.isEmpty() ? null : top.get(0).item();
+        int topUnits = top.isEmpty() ? 0 : (int) top.get(0).amount();
+        boolean topExact = top.isEmpty() || top.get(0).isExact();
 
-        return new AllTimeStats(units, transactions, last, buyers.size(), topMat, topUnits, lastRec);
+        return new AllTimeStats(units, transactions, last, buyers, topMat, topUnits, topExact, lastRec);
     }
 
     private static ConsistencyScoreCalculator.Result computeConsistencyAcross(
             List<BarterStore> stores,
             ConsistencyScoreCalculator.Params params
     ) {
-        try {
-            List<Instant> instants = new ArrayList<>();
-            for (BarterStore s : stores) {
-                List<BarterShopOwnerLogManager.TransactionRecord> entries =
-                        BarterShopOwnerLogManager.listAllEntries(s.getKey());
-                for (var r : entries) instants.add(Instant.ofEpochMilli(r.timestamp()));
-            }
-            if (instants.isEmpty()) return null;
+        List<BarterStoreKey> keys = new ArrayList<>(stores.size());
+        Set<UUID> owners = new HashSet<>();
+        for (BarterStore s : stores) {
+            keys.add(s.getKey());
+            owners.add(s.getPlayerProfile().getId());
+        }
 
-            return ConsistencyScoreCalculator.calculateFromInstants(
-                    instants, params, Clock.systemUTC(), ZoneId.systemDefault()
-            );
-        } catch (IOException e) {
-            return null;
+        // One owner's barrels (the usual case): read their live owner score
+        if (owners.size() == 1) {
+            if (SalesHistograms.INSTANCE.sumTotals(keys) == 0) return null;
+            return SalesHistograms.INSTANCE.ownerConsistency(owners.iterator().next(), keys, params, Clock.systemUTC());
         }
+        return computeConsistencyAcrossKeys(keys, params);
     }
 
     // ----- Tiny UI helpers (copied to match single-shop style) -----
@@ -499,21 +508,11 @@ public final class AllShopStatsGui {
             Collection<BarterStoreKey> keys,
             ConsistencyScoreCalculator.Params params
     ) {
-        try {
-            List<Instant> instants = new ArrayList<>();
-            for (BarterStoreKey k : keys) {
-                List<BarterShopOwnerLogManager.TransactionRecord> entries =
-                        BarterShopOwnerLogManager.listAllEntries(k);
-                for (var r : entries) instants.add(Instant.ofEpochMilli(r.timestamp()));
-            }
-            if (instants.isEmpty()) return null;
+        // Summed rolling daily counts (no log reads); null if none of the shops ever sold anything
+        if (SalesHistograms.INSTANCE.sumTotals(keys) == 0) return null;
 
-            return ConsistencyScoreCalculator.calculateFromInstants(
-                    instants, params, Clock.systemUTC(), ZoneId.systemDefault()
-            );
-        } catch (IOException e) {
-            return null;
-        }
+        int[] daily = SalesHistograms.INSTANCE.sumCounts(keys, params.windowDays(), Clock.systemUTC());
+        return ConsistencyScoreCalculator.calculateFromDailyCounts(daily, params);
     }
 
     // ----- Math / formatting helpers (local copies to match single-shop behavior exactly) -----
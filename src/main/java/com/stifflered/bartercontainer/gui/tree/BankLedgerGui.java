@@ -0,0 +1,168 @@
+package com.stifflered.bartercontainer.gui.tree;
+
+import com.github.stefvanschie.inventoryframework.adventuresupport.ComponentHolder;
+import com.github.stefvanschie.inventoryframework.gui.GuiItem;
+import com.github.stefvanschie.inventoryframework.pane.StaticPane;
+
+import com.stifflered.bartercontainer.barter.BankLedger;
+import com.stifflered.bartercontainer.gui.common.SimpleInnerGui;
+import com.stifflered.bartercontainer.gui.tree.buttons.ViewCurrencyGuiItem;
+import com.stifflered.bartercontainer.store.BarterStore;
+import com.stifflered.bartercontainer.store.OwnerLedger;
+import com.stifflered.bartercontainer.util.Components;
+import com.stifflered.bartercontainer.util.ItemCountSummary;
+import com.stifflered.bartercontainer.util.ItemFingerprint;
+import com.stifflered.bartercontainer.util.ItemUtil;
+import com.stifflered.bartercontainer.util.Messages;
+import com.stifflered.bartercontainer.util.Sounds;
+
+import org.bukkit.Color;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.PotionMeta;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Owner bank ledger view (opened from any of the owner's barrels when {@code bank-ledger.enabled}, or while the
+ * owner still has a ledger balance after the ledger was turned off).
+
+ * Layout (4 rows):
+ *  - Rows 0..2: one tile per currency item held, showing the total balance (27 per page).
+ *  - Row 3: Prev / Next page arrows (only when there is more than one page), Back (bottom-right) to {@link BarterGui}.
+ *    With the ledger turned off, a "Barrel bank" button (bottom-left) opens this barrel's own bank slots,
+ *    where new payments land again.
+ *  - If the owner's ledger file could not be loaded, a single "unavailable" tile is shown instead.
+
+ * Clicks on a balance tile:
+ *  - Left-click  → withdraw one stack.
+ *  - Shift-click → withdraw as much as fits in the player's inventory.
+ *  - Anything that does not fit stays in the ledger.
+ */
+public class BankLedgerGui extends SimpleInnerGui {
+
+    private static final int BALANCE_SLOTS = 27;
+
+    private final BarterStore store;
+    private final UUID owner;
+    private final StaticPane balances;
+    private final StaticPane navigation;
+
+    /** Current page (0-based); clamped on every draw since withdrawals can empty the last page. */
+    private int page;
+
+    public BankLedgerGui(BarterStore store) {
+        super(4, ComponentHolder.of(Messages.mm("gui.tree.bank_ledger.title")), () -> new BarterGui(store));
+        this.store = store;
+        this.owner = Objects.requireNonNull(store.getPlayerProfile().getId());
+        this.balances = ItemUtil.wrapGui(this.getInventoryComponent(), 0, 0, 9, 3);
+        this.navigation = ItemUtil.wrapGui(this.getInventoryComponent(), 0, 3, 8, 1); // x=8 is the Back button
+        this.draw();
+    }
+
+    /** Rebuild the balance tiles of the current page and the page arrows from the ledger. */
+    private void draw() {
+        for (int slot = 0; slot < BALANCE_SLOTS; slot++) {
+            this.balances.removeItem(slot % 9, slot / 9);
+        }
+        this.navigation.clear();
+        if (!BankLedger.INSTANCE.isEnabled()) {
+            // Payments go to the barrel again; keep its bank one click away
+            this.navigation.addItem(new GuiItem(ItemUtil.wrapEdit(new ItemStack(Material.BARREL), meta -> {
+                Components.name(meta, Messages.mm("gui.tree.bank_ledger.barrel_bank_name"));
+                Components.lore(meta, Messages.mmList("gui.tree.bank_ledger.barrel_bank_lore"));
+            }), event -> {
+                event.setCancelled(true);
+                if (event.getWhoClicked() instanceof Player player) {
+                    ViewCurrencyGuiItem.openBarrelBank(player, this.store);
+                }
+            }), 0, 0);
+        }
+
+        OwnerLedger ledger = BankLedger.INSTANCE.ledger(this.owner).orElse(null);
+        if (ledger == null) {
+            this.balances.addItem(new GuiItem(ItemUtil.wrapEdit(new ItemStack(Material.BARRIER), meta -> {
+                Components.name(meta, Messages.mm("gui.tree.bank_ledger.unavailable_name"));
+                Components.lore(meta, Messages.mmList("gui.tree.bank_ledger.unavailable_lore"));
+            })), 4, 1);
+            return;
+        }
+        if (ledger.isEmpty()) {
+            this.balances.addItem(new GuiItem(ItemUtil.wrapEdit(new ItemStack(Material.BARRIER), meta -> {
+                Components.name(meta, Messages.mm("gui.tree.bank_ledger.empty_name"));
+                Components.lore(meta, Messages.mmList("gui.tree.bank_ledger.empty_lore"));
+            })), 4, 1);
+            return;
+        }
+
+        List<ItemFingerprint> items = ledger.items();
+        int pages = Math.max(1, (items.size() + BALANCE_SLOTS - 1) / BALANCE_SLOTS);
+        this.page = Math.min(this.page, pages - 1);
+
+        int from = this.page * BALANCE_SLOTS;
+        for (int slot = 0; slot < BALANCE_SLOTS && from + slot < items.size(); slot++) {
+            ItemFingerprint item = items.get(from + slot);
+            ItemStack template = ledger.template(item);
+            if (template == null) continue;
+
+            long amount = ledger.balance(item);
+            ItemStack tile = template.clone();
+            tile.setAmount((int) Math.max(1, Math.min(amount, tile.getMaxStackSize())));
+            ItemUtil.wrapEdit(tile, meta -> Components.lore(meta, Messages.mmList(
+                    "gui.tree.bank_ledger.balance_lore",
+                    "amount", amount
+            )));
+
+            this.balances.addItem(new GuiItem(tile, event -> this.withdraw(event, item, template)), slot % 9, slot / 9);
+        }
+
+        if (this.page > 0) {
+            this.navigation.addItem(new GuiItem(arrow("gui.paginator.prev", Color.RED), event -> this.turn(-1)), 3, 0);
+        }
+        if (this.page < pages - 1) {
+            this.navigation.addItem(new GuiItem(arrow("gui.paginator.next", Color.GREEN), event -> this.turn(1)), 5, 0);
+        }
+    }
+
+    private void turn(int delta) {
+        this.page = Math.max(0, this.page + delta);
+        this.draw();
+        this.update();
+    }
+
+    /** Page arrow, styled like {@link com.stifflered.bartercontainer.gui.common.SimplePaginator}'s. */
+    private static ItemStack arrow(String nameKey, Color color) {
+        return ItemUtil.wrapEdit(new ItemStack(Material.TIPPED_ARROW), meta -> {
+            Components.name(meta, Messages.mm(nameKey));
+            ((PotionMeta) meta).setColor(color);
+            meta.addItemFlags(ItemFlag.values());
+        });
+    }
+
+    private void withdraw(InventoryClickEvent event, ItemFingerprint item, ItemStack template) {
+        event.setCancelled(true);
+        if (!(event.getWhoClicked() instanceof Player player)) return;
+
+        // Never take more out of the ledger than the inventory can hold
+        int room = ItemCountSummary.of(player.getInventory().getStorageContents()).roomFor(template);
+        long requested = event.isShiftClick() ? room : Math.min(room, Math.max(1, template.getMaxStackSize()));
+        long delivered = requested > 0 ? BankLedger.INSTANCE.withdraw(player, this.owner, item, requested) : 0L;
+        if (delivered <= 0) {
+            Messages.error(player, "gui.tree.bank_ledger.inventory_full");
+            return;
+        }
+
+        Sounds.choose(player);
+        Messages.send(player, "gui.tree.bank_ledger.withdrawn",
+                "amount", delivered,
+                "item", template.displayName());
+
+        this.draw();
+        this.update();
+    }
+}
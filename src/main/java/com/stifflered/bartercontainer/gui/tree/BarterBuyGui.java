@@ -6,27 +6,30 @@ import com.github.stefvanschie.inventoryframework.gui.type.ChestGui;
 import com.github.stefvanschie.inventoryframework.pane.StaticPane;
 
 import com.stifflered.bartercontainer.BarterContainer;
-import com.stifflered.bartercontainer.barter.BarterManager;
+import com.stifflered.bartercontainer.barter.BankLedger;
+import com.stifflered.bartercontainer.barter.PurchaseService;
+import com.stifflered.bartercontainer.barter.SlotReservations;
 import com.stifflered.bartercontainer.gui.tree.buttons.SetPriceGuiItem;
 import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.util.Components;
+import com.stifflered.bartercontainer.util.ItemCountSummary;
+import com.stifflered.bartercontainer.util.ItemFingerprint;
 import com.stifflered.bartercontainer.util.ItemUtil;
 import com.stifflered.bartercontainer.util.Sounds;
-import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
 import com.stifflered.bartercontainer.util.Messages;
 
-import me.sashak.inventoryutil.ItemRemover;
-import me.sashak.inventoryutil.slotgroup.SlotGroups;
-
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
+import org.jetbrains.annotations.NotNull;
+
 import java.util.*;
 
 /**
@@ -41,12 +44,22 @@ import java.util.*;
 
  * Interaction flow:
  *  1) On first click of a specific item, show a green "☑ Confirm Purchase" in the center.
- *  2) On clicking that confirm item, run {@link #buy(Player, ItemStack, BuySlot, BarterStore)}.
+ *  2) Optionally pick a quantity on the selector next to it (left +1, right -1, shift = all matching).
+ *  3) On clicking that confirm item, run {@link #buy(Player)}.
 
  * Safety checks before enabling purchase:
  *  - Player must have the required price item(s).
  *  - Store's currency inventory must have room to accept payment.
  *  - Store must have at least one sale item.
+
+ * Live updates:
+ *  - All viewers of a store share one {@link ShopSession}: grid cells are drawn from its immutable
+ *    snapshot, and purchases/restocks arrive as slot deltas redrawn in place, with no reopen.
+
+ * Contention:
+ *  - Picking an item reserves its slot ({@link SlotReservations}); others who pick it wait in line and
+ *    see it marked as reserved. When the holder lets go or the reservation lapses, the next buyer's
+ *    confirm tile opens by itself.
  */
 public class BarterBuyGui extends ChestGui {
 
@@ -67,214 +80,549 @@ public class BarterBuyGui extends ChestGui {
             .getConfiguration()
             .getNotEnoughPriceItemConfiguration();
 
+    /** Grid geometry: sale slot i is shown at (i % GRID_WIDTH, i / GRID_WIDTH) of the item grid. */
+    private static final int GRID_WIDTH = 9;
+    private static final int GRID_HEIGHT = 3;
+
+    private final Player player;
+    private final BarterStore store;
+
+    /**
+     * Shared live view of the store (viewer registry + immutable slot snapshot). Acquired and joined in
+     * {@link #show(HumanEntity)} and left on close, so a GUI that is never shown holds no session.
+     */
+    private ShopSession session;
+
+    /** Framing pane (price tile at (4,0), status/confirm tile at (4,1)). */
+    private final StaticPane pane;
+
+    /** Positional item grid (rows 2..4). */
+    private final StaticPane itemDisplay;
+
     /** Gate to prevent confirming when pre-checks fail. */
     private boolean canBuy = false;
 
+    /** Column of the bulk quantity selector in row 1 (next to the confirm tile). */
+    private static final int QUANTITY_X = 5;
+
+    /** Sale slot currently shown in the confirm tile, or -1. */
+    private int previewSlot = -1;
+
+    /** Preview state captured on the first click (valid while previewSlot != -1); no item copy is kept. */
+    private Material previewType;
+    private int previewAmount;
+    private ItemFingerprint previewFingerprint;
+    private long previewVersion;
+
+    /** Number of matching slots to buy in one transaction (1 = plain single purchase). */
+    private int quantity = 1;
+
+    /** Purchases this viewer can pay for / the bank can accept, from the last status refresh (default price). */
+    private int affordable;
+    private int bankFits;
+
+    /** Buyer inventory summary from the last status refresh (per-item price checks read it). */
+    private ItemCountSummary wallet;
+
     /**
      * Build a 5-row purchase UI for this store, titled with the shop's styled name.
 
      * Layout:
      *  - Row 0..1: Grey glass framing + price item at (4,0)
-     *  - Row 2..4: Clickable grid of items for sale
+     *  - Row 2..4: Clickable grid of items for sale, one cell per sale slot (positional, so a
+     *    single slot can be redrawn without touching the rest)
      *  - Center slot (4,1): Primary action / status (depends on checks)
+
+     * The price tile, grid and status are drawn from the store's session when the GUI is shown.
      */
     public BarterBuyGui(Player player, BarterStore store) {
         super(5, ComponentHolder.of(store.getNameStyled()));
+        this.player = player;
+        this.store = store;
+
         // Make inventory read-only except for our handlers
         this.setOnGlobalClick((event) -> event.setCancelled(true));
+        this.setOnClose((event) -> {
+            SlotReservations.INSTANCE.releaseAll(store.getKey(), player.getUniqueId());
+            this.previewSlot = -1;
+            if (this.session != null) {
+                this.session.leave(this);
+            }
+        });
 
         // Top framing rows
-        StaticPane pane = ItemUtil.wrapGui(this.getInventoryComponent(), 9, 5);
+        this.pane = ItemUtil.wrapGui(this.getInventoryComponent(), 9, 5);
         for (int i = 0; i < 9; i++) {
             GuiItem item = new GuiItem(new ItemStack(Material.GRAY_STAINED_GLASS_PANE));
-            pane.addItem(item, i, 0);
-            pane.addItem(item, i, 1);
+            this.pane.addItem(item, i, 0);
+            this.pane.addItem(item, i, 1);
         }
 
-        // Show the current price item (read-only) in top-center
-        pane.addItem(new GuiItem(SetPriceGuiItem.getPriceItem(store)),4, 0);
         // pane.addItem(new GuiItem(BUY_ITEM_ARROW),0, 1);
 
         // Item display grid (3 rows starting at y=2). Each item sets up a confirm button in (4,1).
-        StaticPane itemDisplay = ItemUtil.wrapGui(this.getInventoryComponent(), 0, 2, 9, 3);
-        {
-            ItemUtil.listItems(itemDisplay, getBuyItems(store).stream().filter(Objects::nonNull).map(buySlot -> new GuiItem(buySlot.item(), mainBuyClick -> {
+        this.itemDisplay = ItemUtil.wrapGui(this.getInventoryComponent(), 0, 2, GRID_WIDTH, GRID_HEIGHT);
+    }
 
-                if (!this.canBuy) {
-                    // Guard: do nothing if purchase is disabled by pre-checks
-                    return;
-                }
-                Sounds.choose(player);
-
-                // Snapshot the item currently in that slot to avoid race conditions
-                ItemStack previewItem = Objects.requireNonNullElse(
-                        store.getSaleStorage().getItem(buySlot.slot()),
-                        new ItemStack(Material.AIR)
-                ).clone();
-
-                // Place a "Confirm Purchase" button in center (4,1)
-                // NOTE: Do NOT reuse the preview item's meta — build a clean icon so name/lore stick (fixes candle cases).
-                ItemStack confirmIcon = new ItemStack(previewItem.getType(), Math.max(1, previewItem.getAmount()));
-                ItemUtil.wrapEdit(confirmIcon, (meta) -> {
-                    // NAME via messages.yml (fallbacks to path string if key missing)
-                    Components.name(meta, Messages.mm("buy.confirm_name"));
-                    // LORE via messages.yml list (never null)
-                    java.util.List<Component> loreLines = Messages.mmList("buy.confirm_lore");
-                    if (loreLines.isEmpty()) {
-                        // Safe fallback (kept minimal)
-                        Components.lore(meta, Components.miniSplit("""
-                                <gray>Click to <green>confirm</green>
-                                <gray>your purchase."""));
-                    } else {
-                        meta.lore(loreLines);
-                    }
-                    ItemUtil.glow(meta); // Visual emphasis
-                });
-
-                pane.addItem(new GuiItem(
-                        confirmIcon,
-                        (event) -> this.buy((Player) event.getWhoClicked(), previewItem, buySlot, store)
-                ), 4, 1);
-
-                BarterBuyGui.this.update();
-            })).toList());
+    /**
+     * Joins the store's live session (the active one, or a fresh one if the previous was dropped while this
+     * GUI was closed) and draws everything from it before opening, so the viewer starts from the session's
+     * current snapshot and receives every push after it.
+     */
+    @Override
+    public void show(@NotNull HumanEntity humanEntity) {
+        this.session = ShopSession.of(this.store);
+        this.session.join(this);
+
+        // Show the current price item (read-only) in top-center
+        this.pane.addItem(new GuiItem(this.session.priceTile().clone()), 4, 0);
+        int size = Math.min(this.session.size(), GRID_WIDTH * GRID_HEIGHT);
+        for (int slot = 0; slot < size; slot++) {
+            this.placeSlot(slot);
         }
 
         // Pre-purchase checks determine the center action/status item
-        boolean hasSlots = me.sashak.inventoryutil.ItemUtil.hasAllItems(player, SlotGroups.PLAYER_ENTIRE_INV, store.getCurrentItemPrice());
-        if (!hasSlots) {
-            pane.addItem(notEnoughPriceItem(), 4, 1);
-            return;
+        this.refreshStatus();
+        super.show(humanEntity);
+    }
+
+    /**
+     * Apply a delta pushed by the {@link ShopSession}: redraw only the changed grid cells (and the price
+     * tile if the price moved), then update the open inventory in place (no reopen).
+     * The preview (and its reservation) survives unless its own slot no longer holds the previewed item;
+     * a price change only redraws the confirm tile.
+     */
+    void applyDelta(Set<Integer> slots, boolean priceChanged) {
+        for (int slot : slots) {
+            this.placeSlot(slot);
+        }
+        if (priceChanged) {
+            this.pane.addItem(new GuiItem(this.session.priceTile().clone()), 4, 0);
+            // Rule edits can change any cell's price line
+            int size = Math.min(this.session.size(), GRID_WIDTH * GRID_HEIGHT);
+            for (int slot = 0; slot < size; slot++) {
+                this.placeSlot(slot);
+            }
+        }
+        if (this.previewSlot != -1 && slots.contains(this.previewSlot) && !this.previewStillListed()) {
+            this.releasePreview(); // sold or replaced under us; nothing left to hold
         }
-        boolean hasRoom = me.sashak.inventoryutil.ItemUtil.hasRoomForItems(store.getCurrencyStorage(), SlotGroups.ENTIRE_INV, store.getCurrentItemPrice());
-        if (!hasRoom) {
-            pane.addItem(shopFullItem(), 4, 1);
+        if (this.previewSlot == -1 || priceChanged) {
+            this.refreshStatus();
+        } else {
+            this.drawPreview(); // matching stock may have changed; re-clamp the quantity selector
+        }
+        this.update();
+    }
+
+    /** The buyer this GUI belongs to. */
+    UUID viewerId() {
+        return this.player.getUniqueId();
+    }
+
+    /** Redraw one grid cell in place (reservation marker changed); the confirm tile is left alone. */
+    void redrawCell(int slot) {
+        this.placeSlot(slot);
+        this.update();
+    }
+
+    /** This buyer reached the front of the line for {@code slot}: open its confirm tile. */
+    void reservationGranted(int slot) {
+        if (this.session.item(slot) == null) return;
+
+        this.releasePreview();
+        Messages.send(this.player, "buy.reservation.your_turn",
+                "seconds", BarterContainer.INSTANCE.getConfiguration().getReservationConfiguration().ttlSeconds());
+        Sounds.choose(this.player);
+        this.openPreview(slot);
+        this.update();
+    }
+
+    /** This buyer's reservation of {@code slot} lapsed (it already passed on): drop the confirm tile. */
+    void reservationLost(int slot) {
+        if (this.previewSlot != slot) return;
+
+        this.previewSlot = -1; // already released; nothing to hand back
+        Messages.error(this.player, "buy.reservation.expired");
+        this.refreshStatus();
+        this.update();
+    }
+
+    /** Draw (or clear) the grid cell for a sale slot from the session's snapshot. */
+    private void placeSlot(int slot) {
+        int x = slot % GRID_WIDTH;
+        int y = slot / GRID_WIDTH;
+        if (y >= GRID_HEIGHT) return;
+
+        ItemStack item = this.session.item(slot);
+        if (item == null) {
+            this.itemDisplay.removeItem(x, y);
             return;
         }
 
-        boolean isEmpty = store.getSaleStorage().isEmpty();
-        if (isEmpty) {
-            pane.addItem(outOfStockItem(), 4, 1);
+        // GuiItem tags its stack, so each viewer wraps its own copy of the shared snapshot cell
+        ItemStack cell = item.clone();
+        boolean priced = !this.store.getPriceRules().isEmpty();
+        boolean reserved = SlotReservations.INSTANCE.isReservedByOther(this.store.getKey(), slot, this.viewerId());
+        if (priced || reserved) {
+            ItemUtil.wrapEdit(cell, meta -> {
+                List<Component> lore = new ArrayList<>(Objects.requireNonNullElse(meta.lore(), List.of()));
+                if (priced) {
+                    // Prices differ per slot/item: show each cell's own price
+                    ItemStack price = this.store.getPrice(slot, this.session.fingerprint(slot), 1);
+                    lore.addAll(Messages.mmList("buy.slot_price_lore",
+                            "price", SetPriceGuiItem.getItemDescription(price)));
+                }
+                if (reserved) {
+                    lore.addAll(Messages.mmListCached("buy.reservation.reserved_lore"));
+                }
+                meta.lore(lore);
+            });
+        }
+        BuySlot buySlot = new BuySlot(slot, cell);
+        this.itemDisplay.addItem(new GuiItem(buySlot.item(), mainBuyClick -> this.preview(buySlot)), x, y);
+    }
+
+    /**
+     * First click on an item: reserve its slot, then snapshot it and place a "Confirm Purchase" button +
+     * quantity selector. If another buyer holds the slot, join the line instead (no redraw).
+     */
+    private void preview(BuySlot buySlot) {
+        if (!this.canBuy) {
+            // Guard: do nothing if purchase is disabled by pre-checks
             return;
         }
 
-        // All good → show the green "Open Shop" (confirm-able) item and allow buy flow
-        pane.addItem(openShopItem(), 4, 1);
-        this.canBuy = true;
+        SlotReservations.Claim claim = SlotReservations.INSTANCE.claim(this.store.getKey(), buySlot.slot(), this.viewerId());
+        switch (claim.outcome()) {
+            case QUEUED -> {
+                Messages.send(this.player, "buy.reservation.queued", "position", claim.position());
+                Sounds.error(this.player);
+                return;
+            }
+            case REFUSED -> {
+                Messages.error(this.player, "buy.reservation.line_full");
+                return;
+            }
+            case GRANTED -> {
+                if (this.previewSlot != -1 && this.previewSlot != buySlot.slot()) {
+                    this.releasePreview(); // switching items: let the previous one go to whoever waits
+                }
+            }
+        }
+
+        Sounds.choose(this.player);
+        this.openPreview(buySlot.slot());
+        this.update();
     }
 
+    /** True if the session snapshot still shows the previewed item, in the previewed amount, in the previewed slot. */
+    private boolean previewStillListed() {
+        ItemStack now = this.session.item(this.previewSlot);
+        return now != null && now.getAmount() == this.previewAmount
+                && this.previewFingerprint.equals(this.session.fingerprint(this.previewSlot));
+    }
 
     /**
-     * Finalize a purchase after the player has clicked "Confirm Purchase".
-
-     * Safeguards:
-     *  - Re-verify that the previewed item still matches the slot's current item (no race).
-     *  - Ensure the player's payment can be deposited; otherwise stop.
-     *  - Remove payment from player, remove item from store, deliver item to player.
-     *  - Log transaction + notify store owner if online.
-     *  - Attempt to progress the player's shopping list based on item received.
-     *  - Save store state and refresh the GUI.
+     * Give back the reservation of the slot currently previewed (if any) and forget the preview.
+     * Only for explicit let-gos: switching items, a finished or failed purchase, an unaffordable or vanished
+     * item, closing the shop. Status refreshes keep the hold.
      */
-    private void buy(Player player, ItemStack previewItem, BuySlot buySlot, BarterStore store) {
-        // Re-check: the item hasn't changed since preview (another buyer might have grabbed it)
-        ItemStack itemStack = Objects.requireNonNullElse(
-                store.getSaleStorage().getItem(buySlot.slot()),
+    private void releasePreview() {
+        if (this.previewSlot == -1) return;
+
+        int slot = this.previewSlot;
+        this.previewSlot = -1;
+        SlotReservations.INSTANCE.release(this.store.getKey(), slot, this.viewerId());
+    }
+
+    /** Snapshot the (already reserved) slot and draw its confirm tile + quantity selector. */
+    private void openPreview(int slot) {
+        // Snapshot what the slot holds right now (type, amount, fingerprint) to avoid race conditions;
+        // the live stack is only read here, never copied
+        ItemStack live = Objects.requireNonNullElse(
+                this.store.getSaleStorage().getItem(slot),
                 new ItemStack(Material.AIR)
-        ).clone();
+        );
+        // Fingerprint + store version at preview time; the purchase only re-validates if the version moved
+        this.previewSlot = slot;
+        this.previewType = live.getType();
+        this.previewAmount = live.getAmount();
+        this.previewFingerprint = ItemFingerprint.of(live);
+        this.previewVersion = PurchaseService.INSTANCE.version(this.store.getKey());
+        this.quantity = 1;
+
+        this.drawPreview();
+    }
 
-        if (!previewItem.equals(itemStack)) {
-            // messages.yml-driven error with sound
-            Messages.error(player, "buy.already_taken");
-            player.closeInventory();
+    /**
+     * Draw the confirm tile (4,1) and the quantity selector (QUANTITY_X,1) for the current preview.
+     * Prices come from {@link PurchaseService#quote} (price rules + quantity tiers), over the same slots
+     * {@link PurchaseService#bulkSlots} will pick at commit time.
+     */
+    private void drawPreview() {
+        List<Integer> candidates = PurchaseService.bulkSlots(this.store, this.previewFingerprint,
+                SlotReservations.INSTANCE.available(this.store.getKey(), this.session.slotsWith(this.previewFingerprint, this.previewAmount), this.viewerId()),
+                this.previewSlot, Integer.MAX_VALUE);
+        if (candidates.isEmpty()) {
+            candidates = List.of(this.previewSlot);
+        }
+
+        // Cap the bulk quantity by stock, what the buyer can afford and what the bank can take
+        int max = this.maxQuantity(candidates);
+        if (max < 1) {
+            // Cannot buy even one of THIS item (its price may differ from the shop default); let the next buyer have it
+            this.releasePreview();
+            this.pane.addItem(new GuiItem(new ItemStack(Material.GRAY_STAINED_GLASS_PANE)), QUANTITY_X, 1);
+            this.pane.addItem(notEnoughPriceItem(), 4, 1);
             return;
         }
+        this.quantity = Math.min(this.quantity, max);
+        ItemStack total = PurchaseService.quote(this.store, this.previewFingerprint, candidates.subList(0, this.quantity));
+
+        // Place a "Confirm Purchase" button in center (4,1)
+        // NOTE: Do NOT reuse the preview item's meta — build a clean icon so name/lore stick (fixes candle cases).
+        ItemStack confirmIcon = new ItemStack(this.previewType, Math.max(1, this.previewAmount));
+        ItemUtil.wrapEdit(confirmIcon, (meta) -> {
+            // NAME via messages.yml (fallbacks to path string if key missing); static text is parsed once
+            Components.name(meta, Messages.mmCached("buy.confirm_name"));
+            // LORE via messages.yml list (never null)
+            java.util.List<Component> loreLines = new ArrayList<>(this.quantity > 1
+                    ? Messages.mmList("buy.confirm_bulk_lore", "quantity", this.quantity)
+                    : Messages.mmListCached("buy.confirm_lore"));
+            if (total != null && !loreLines.isEmpty()) {
+                loreLines.addAll(Messages.mmList("buy.confirm_price_lore",
+                        "price", SetPriceGuiItem.getItemDescription(total)));
+            }
+            if (loreLines.isEmpty()) {
+                // Safe fallback (kept minimal)
+                Components.lore(meta, Components.miniSplit("""
+                        <gray>Click to <green>confirm</green>
+                        <gray>your purchase."""));
+            } else {
+                meta.lore(loreLines);
+            }
+            ItemUtil.glow(meta); // Visual emphasis
+        });
 
-        Sounds.purchase(player);
-
-        // Ensure player still has the required price items
-        if (me.sashak.inventoryutil.ItemUtil.hasAllItems(player, SlotGroups.PLAYER_ENTIRE_INV, store.getCurrentItemPrice())) {
-            // Try to deposit payment into the shop's currency inventory
-            HashMap<Integer, ItemStack> leftOver = store.getCurrencyStorage().addItem(store.getCurrentItemPrice());
-            if (leftOver.isEmpty()) {
-                // Remove payment from player
-                ItemRemover.removeItems(player, SlotGroups.PLAYER_ENTIRE_INV, store.getCurrentItemPrice());
-                // Remove the purchased item from the store
-                store.getSaleStorage().setItem(buySlot.slot(), null);
-
-                // Give the item to the buyer (drop if inventory full)
-                ItemUtil.giveItemOrThrow(player, itemStack);
-
-                // ---------------------------------------------------------------------------------
-                // Append a single v3 transaction line with the full purchased ItemStack (meta/NBT)
-                // and a representative "price display" snapshot. This is the canonical log.
-                // ---------------------------------------------------------------------------------
-                ItemStack priceDisplay = SetPriceGuiItem.getPriceItem(store); // UI-facing price snapshot
-                try {
-                    BarterShopOwnerLogManager.addLog(
-                            store.getKey(),
-                            System.currentTimeMillis(),
-                            player.getUniqueId(),
-                            player.getName(),
-                            itemStack,     // exact delivered item (with meta)
-                            priceDisplay   // decorative/representative price item
-                    );
-                } catch (java.io.IOException ioe) {
-                    // Non-fatal: purchase succeeded; just log the failure to write the log line
-                    BarterContainer.INSTANCE.getLogger().warning("Failed to append purchase log: " + ioe.getMessage());
-                }
+        this.pane.addItem(new GuiItem(confirmIcon, (event) -> this.buy((Player) event.getWhoClicked())), 4, 1);
 
-                // Notify owner if they are online
-                UUID ownerId = null;
-                try {
-                    if (store.getPlayerProfile() != null) {
-                        ownerId = store.getPlayerProfile().getId();
-                    }
-                } catch (Throwable ignored) {
-                    // be defensive against API differences
-                }
-                if (ownerId != null) {
-                    Player owner = Bukkit.getPlayer(ownerId);
-                    if (owner != null) {
-                        // The visible label for <type> — prefer custom display name if present
-                        String typeLabel = Optional.ofNullable(itemStack.getItemMeta())
-                                .map(ItemMeta::displayName)
-                                .map(PlainTextComponentSerializer.plainText()::serialize)
-                                .map(String::trim)
-                                .filter(s -> !s.isBlank())
-                                .orElse(pretty(itemStack.getType()));
-
-                        // Build <type> component with conditional hover (shows only if there are details)
-                        Component typeBase = Component.text(typeLabel, net.kyori.adventure.text.format.NamedTextColor.WHITE);
-                        Component hover = buildItemHover(itemStack); // null when nothing to show
-                        Component typeWithHover = (hover != null)
-                                ? typeBase.hoverEvent(net.kyori.adventure.text.event.HoverEvent.showText(hover))
-                                : typeBase;
-
-                        // message via messages.yml path "buy.owner_notify"
-                        owner.sendMessage(Messages.mm(
-                                "buy.owner_notify",
-                                "type", typeWithHover,
-                                "count", String.valueOf(itemStack.getAmount()),
-                                "purchaser", player.getName()
-                        ));
-                    }
-                }
+        // Quantity selector: left +1, right -1, shift = every matching slot
+        ItemStack quantityIcon = new ItemStack(Material.COMPARATOR, Math.min(this.quantity, 64));
+        ItemUtil.wrapEdit(quantityIcon, (meta) -> {
+            Components.name(meta, Messages.mm("buy.quantity_name", "quantity", this.quantity, "max", max));
+            java.util.List<Component> lore = Messages.mmListCached("buy.quantity_lore");
+            if (!lore.isEmpty()) meta.lore(lore);
+        });
+        this.pane.addItem(new GuiItem(quantityIcon, (event) -> {
+            if (event.isShiftClick()) {
+                this.quantity = max;
+            } else if (event.isRightClick()) {
+                this.quantity = Math.max(1, this.quantity - 1);
+            } else {
+                this.quantity = Math.min(max, this.quantity + 1);
+            }
+            Sounds.choose(this.player);
+            this.drawPreview();
+            this.update();
+        }), QUANTITY_X, 1);
+    }
 
-                // Try to update the buyer's shopping list based on the received item
-                Component message = switch (BarterContainer.INSTANCE.getShoppingListManager().receive(player, itemStack)) {
-                    case MODIFIED -> BarterContainer.INSTANCE.getConfiguration().getShoppingListProgress();
-                    case REMOVED -> BarterContainer.INSTANCE.getConfiguration().getShoppingListCheckedOff();
-                    case NOTHING -> null;
-                };
-                if (message != null) {
-                    player.sendMessage(message);
-                }
+    /**
+     * Largest quantity (prefix of {@code candidates}) the buyer can pay for and the bank can accept.
+     * Checked per quantity because a tier can make a larger batch cheaper than a smaller one.
+     */
+    private int maxQuantity(List<Integer> candidates) {
+        boolean ledger = BankLedger.INSTANCE.isEnabled();
+        ItemFingerprint currency = null;
+        int best = 0;
+        for (int quantity = 1; quantity <= candidates.size(); quantity++) {
+            ItemStack total = PurchaseService.quote(this.store, this.previewFingerprint, candidates.subList(0, quantity));
+            if (total == null) {
+                // No price: leave the gate open for a single purchase; it reports NO_PRICE
+                return quantity == 1 ? 1 : best;
+            }
+            if (currency == null) {
+                currency = ItemFingerprint.of(total);
+            }
+
+            if (this.wallet.count(currency) < total.getAmount()) continue;
+            if (!ledger && this.session.bank().roomFor(total) < total.getAmount()) continue;
+            best = quantity;
+        }
+        return best;
+    }
+
+    /**
+     * Recompute the pre-purchase checks for this viewer and redraw the center status tile.
+     * Both checks are lookups on {@link ItemCountSummary}s: the buyer's inventory is summarized once here
+     * (only the shop's currencies are counted, so unrelated stacks are never fingerprinted), the bank
+     * summary is shared by every viewer through the {@link ShopSession}.
+     * An open preview is kept (its confirm tile is redrawn) unless the checks fail; refreshing never hands
+     * a reservation to the next buyer on its own, which would cascade through every viewer in line.
+     */
+    private void refreshStatus() {
+        this.canBuy = false;
+        this.pane.addItem(new GuiItem(new ItemStack(Material.GRAY_STAINED_GLASS_PANE)), QUANTITY_X, 1); // hide selector
+
+        ItemStack price = this.store.getCurrentItemPrice();
+        List<ItemStack> currencies = this.store.getPriceRules().currencies();
+        currencies.add(price);
+        this.wallet = ItemCountSummary.of(this.player.getInventory().getContents(), currencies);
+
+        if (price.isEmpty() || !this.store.getPriceRules().isEmpty()) {
+            // No default price, or prices differ per item: the per-item check runs on preview (drawPreview)
+            this.affordable = Integer.MAX_VALUE;
+            this.bankFits = Integer.MAX_VALUE;
+        } else {
+            this.affordable = this.wallet.timesAffordable(price);
+            this.bankFits = BankLedger.INSTANCE.isEnabled()
+                    ? Integer.MAX_VALUE // owner ledger has no slot limit
+                    : this.session.bank().timesFits(price);
+        }
 
-                // Persist store changes
-                BarterManager.INSTANCE.save(store);
+        if (this.affordable < 1) {
+            this.releasePreview();
+            this.pane.addItem(notEnoughPriceItem(), 4, 1);
+            return;
+        }
+        if (this.bankFits < 1) {
+            this.releasePreview();
+            this.pane.addItem(shopFullItem(), 4, 1);
+            return;
+        }
+
+        if (this.session.isEmpty()) {
+            this.releasePreview();
+            this.pane.addItem(outOfStockItem(), 4, 1);
+            return;
+        }
+
+        this.canBuy = true;
+        if (this.previewSlot != -1) {
+            // Still holding a slot: keep its confirm tile (re-quoted; releases it if no longer affordable)
+            this.drawPreview();
+            return;
+        }
+
+        // All good → show the green "Open Shop" (confirm-able) item and allow buy flow
+        this.pane.addItem(openShopItem(this.affordable), 4, 1);
+    }
+
+    /**
+     * Finalize a purchase after the player has clicked "Confirm Purchase".
+
+     * Safeguards:
+     *  - The transaction itself (re-validation, payment, stock removal, delivery, log + save) runs in
+     *    {@link PurchaseService}; a single purchase re-checks the previewed slot only if the store's version moved.
+     *  - Quantity > 1 runs {@link PurchaseService#purchaseBulk} instead: every slot holding the previewed item in
+     *    the previewed amount, up to the quantity, paid, logged and saved as one batch (same version check).
+     *  - This method maps the typed result to buyer feedback.
+     *  - On success: notify the store owner if online and progress the buyer's shopping list.
+     *  - Refresh in place: the purchase event makes the {@link ShopSession} push the bought slots to
+     *    every viewer of the store; this viewer's status tile is redrawn for its new balance.
+     */
+    private void buy(Player player) {
+        if (this.previewSlot == -1) return;
+
+        PurchaseService.PurchaseResult result = this.quantity > 1
+                ? PurchaseService.INSTANCE.purchaseBulk(player, this.store, this.previewFingerprint, this.previewSlot,
+                        this.previewAmount, this.previewVersion, this.quantity)
+                : PurchaseService.INSTANCE.purchase(player, this.store, this.previewSlot,
+                        this.previewFingerprint, this.previewAmount, this.previewVersion);
+
+        switch (result.status()) {
+            case STALE -> {
+                // Another buyer (or the owner) changed the slot since preview; the session has
+                // (or is about to) redraw the grid, so keep the GUI open and just reset the confirm tile
+                Messages.error(player, "buy.already_taken");
+            }
+            case RESERVED -> {
+                // Our reservation lapsed and the slot went to the next buyer in line
+                Messages.error(player, "buy.reservation.reserved");
+            }
+            case BANK_UNAVAILABLE -> {
+                // The owner's ledger file is broken; refuse rather than take payment we cannot record
+                Messages.error(player, "buy.bank_unavailable");
+            }
+            case SUCCESS -> {
+                Sounds.purchase(player);
+                afterPurchase(player, this.session, this.previewFingerprint, result.purchased());
+            }
+            default -> {
+                // NO_PRICE / INSUFFICIENT_FUNDS / SHOP_FULL: the status tile below explains why
             }
-            // Refresh the GUI for the buyer (reflects stock/payment changes)
-            new BarterBuyGui(player, store).show(player);
+        }
+
+        // Done with this preview either way: sold slots have no line left; a failed attempt lets the next buyer in
+        this.releasePreview();
+        this.refreshStatus();
+        this.update();
+    }
+
+    /**
+     * Buyer/owner feedback for a committed purchase (owner notify + shopping list progress).
+     * The owner message (label + item hover) is only built when the owner is online; the hover is
+     * cached per item in the {@link ShopSession}, so repeat sales of the same item reuse it.
+     */
+    private static void afterPurchase(Player player, ShopSession session, ItemFingerprint item, List<ItemStack> purchased) {
+        if (purchased.isEmpty()) return;
+        BarterStore store = session.store();
+        ItemStack itemStack = purchased.get(0); // bulk purchases are all the same item
+        int count = 0;
+        for (ItemStack stack : purchased) {
+            count += stack.getAmount();
+        }
+
+        // Notify owner if they are online
+        UUID ownerId = null;
+        try {
+            if (store.getPlayerProfile() != null) {
+                ownerId = store.getPlayerProfile().getId();
+            }
+        } catch (Throwable ignored) {
+            // be defensive against API differences
+        }
+        if (ownerId != null) {
+            Player owner = Bukkit.getPlayer(ownerId);
+            if (owner != null) {
+                // The visible label for <type> — prefer custom display name if present
+                String typeLabel = Optional.ofNullable(itemStack.getItemMeta())
+                        .map(ItemMeta::displayName)
+                        .map(PlainTextComponentSerializer.plainText()::serialize)
+                        .map(String::trim)
+                        .filter(s -> !s.isBlank())
+                        .orElse(pretty(itemStack.getType()));
+
+                // Build <type> component with conditional hover (shows only if there are details)
+                Component typeBase = Component.text(typeLabel, net.kyori.adventure.text.format.NamedTextColor.WHITE);
+                Component hover = session.ownerHover(item, () -> buildItemHover(itemStack)); // null when nothing to show
+                Component typeWithHover = (hover != null)
+                        ? typeBase.hoverEvent(net.kyori.adventure.text.event.HoverEvent.showText(hover))
+                        : typeBase;
+
+                // message via messages.yml path "buy.owner_notify"
+                owner.sendMessage(Messages.mm(
+                        "buy.owner_notify",
+                        "type", typeWithHover,
+                        "count", String.valueOf(count),
+                        "purchaser", player.getName()
+                ));
+            }
+        }
+
+        // Try to update the buyer's shopping list based on the received items
+        Component message = null;
+        for (ItemStack stack : purchased) {
+            Component progress = switch (BarterContainer.INSTANCE.getShoppingListManager().receive(player, stack)) {
+                case MODIFIED -> BarterContainer.INSTANCE.getConfiguration().getShoppingListProgress();
+                case REMOVED -> BarterContainer.INSTANCE.getConfiguration().getShoppingListCheckedOff();
+                case NOTHING -> null;
+            };
+            if (progress != null) message = progress;
+        }
+        if (message != null) {
+            player.sendMessage(message);
         }
     }
 
@@ -516,12 +864,15 @@ public class BarterBuyGui extends ChestGui {
 
     /* ------------------------------- UI Item Builders ------------------------------- */
 
-    /** Wraps the configured "Open Shop" icon with name/lore from messages.yml. */
-    private static GuiItem openShopItem() {
+    /** Wraps the configured "Open Shop" icon with name/lore from messages.yml, plus "you can afford N". */
+    private static GuiItem openShopItem(int affordable) {
         ItemStack base = BUY_ITEM.clone();
         ItemUtil.wrapEdit(base, meta -> {
-            Components.name(meta, Messages.mm("gui.main.open_shop_name"));
-            java.util.List<Component> lore = Messages.mmList("gui.main.open_shop_lore");
+            Components.name(meta, Messages.mmCached("gui.main.open_shop_name"));
+            java.util.List<Component> lore = new ArrayList<>(Messages.mmListCached("gui.main.open_shop_lore"));
+            if (affordable != Integer.MAX_VALUE) {
+                lore.add(Messages.mm("buy.can_afford", "count", affordable));
+            }
             if (!lore.isEmpty()) meta.lore(lore);
         });
         return new GuiItem(base);
@@ -531,8 +882,8 @@ public class BarterBuyGui extends ChestGui {
     private static GuiItem outOfStockItem() {
         ItemStack base = OUT_OF_STOCK.clone();
         ItemUtil.wrapEdit(base, meta -> {
-            Components.name(meta, Messages.mm("gui.main.out_of_stock_name"));
-            java.util.List<Component> lore = Messages.mmList("gui.main.out_of_stock_lore");
+            Components.name(meta, Messages.mmCached("gui.main.out_of_stock_name"));
+            java.util.List<Component> lore = Messages.mmListCached("gui.main.out_of_stock_lore");
             if (!lore.isEmpty()) meta.lore(lore);
         });
         return new GuiItem(base);
@@ -542,8 +893,8 @@ public class BarterBuyGui extends ChestGui {
     private static GuiItem shopFullItem() {
         ItemStack base = SHOP_FULL.clone();
         ItemUtil.wrapEdit(base, meta -> {
-            Components.name(meta, Messages.mm("gui.main.shop_full_name"));
-            java.util.List<Component> lore = Messages.mmList("gui.main.shop_full_lore");
+            Components.name(meta, Messages.mmCached("gui.main.shop_full_name"));
+            java.util.List<Component> lore = Messages.mmListCached("gui.main.shop_full_lore");
             if (!lore.isEmpty()) meta.lore(lore);
         });
         return new GuiItem(base);
@@ -553,8 +904,8 @@ public class BarterBuyGui extends ChestGui {
     private static GuiItem notEnoughPriceItem() {
         ItemStack base = NOT_ENOUGH_PRICE.clone();
         ItemUtil.wrapEdit(base, meta -> {
-            Components.name(meta, Messages.mm("gui.main.not_enough_price_name"));
-            java.util.List<Component> lore = Messages.mmList("gui.main.not_enough_price_lore");
+            Components.name(meta, Messages.mmCached("gui.main.not_enough_price_name"));
+            java.util.List<Component> lore = Messages.mmListCached("gui.main.not_enough_price_lore");
             if (!lore.isEmpty()) meta.lore(lore);
         });
         return new GuiItem(base);
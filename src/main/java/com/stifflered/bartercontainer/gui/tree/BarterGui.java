@@ -6,6 +6,7 @@ import com.github.stefvanschie.inventoryframework.pane.Pane;
 import com.github.stefvanschie.inventoryframework.pane.StaticPane;
 
 import com.stifflered.bartercontainer.barter.BarterManager;
+import com.stifflered.bartercontainer.gui.tree.buttons.LinkSupplyGuiItem;
 import com.stifflered.bartercontainer.gui.tree.buttons.SetPriceGuiItem;
 import com.stifflered.bartercontainer.gui.tree.buttons.ViewContentsGuiItem;
 import com.stifflered.bartercontainer.gui.tree.buttons.ViewCurrencyGuiItem;
@@ -85,6 +86,9 @@ public class BarterGui extends ChestGui {
         // (8,0) View logs
         pane.addItem(new ViewLogsGuiItem(barterStore), 8, 0);
 
+        // (0,0) Link supply containers (auto-restock)
+        pane.addItem(new LinkSupplyGuiItem(barterStore), 0, 0);
+
         // Persist when closed
         this.setOnClose(event -> BarterManager.INSTANCE.save(barterStore));
     }
@@ -2,9 +2,9 @@ package com.stifflered.bartercontainer.gui.tree;
 
 import com.stifflered.bartercontainer.BarterContainer;
 import com.stifflered.bartercontainer.store.BarterStore;
-import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
-import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager.TransactionRecord;
 import com.stifflered.bartercontainer.util.Messages;
+import com.stifflered.bartercontainer.util.analytics.SalesHistograms;
+import com.stifflered.bartercontainer.util.analytics.TopSellers;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -39,7 +39,7 @@ import java.util.*;
  * Items:
  *   0 = Barrier      → "Back to Main Menu" (handled by listener; routes back to main GUI)
  *   2 = Barrel       → "This Shop's Stats"
- *   4 = Gold Ingot   → "Top Selling Items" (dynamic lore from logs)
+ *   4 = Gold Ingot   → "Top Selling Items" (dynamic lore from the live top-seller summary)
  *   6 = Compass      → "Buyer History"
  *   8 = Beacon       → "All Barrels Mode"
  *   1,3,5,7 = Gray panes as visual separators
@@ -156,7 +156,7 @@ public final class LogBookHubGui {
 
         // Compute top sellers off-thread, then safely update slot 4 on main
         Bukkit.getScheduler().runTaskAsynchronously(BarterContainer.INSTANCE, () -> {
-            List<Component> lore = buildTopSellingLoreFromLogs(store);
+            List<Component> lore = buildTopSellingLore(store);
             Bukkit.getScheduler().runTask(BarterContainer.INSTANCE, () -> {
                 if (!player.isOnline()) return;
                 Inventory top = player.getOpenInventory().getTopInventory();
@@ -190,45 +190,38 @@ public final class LogBookHubGui {
     }
 
     /**
-     * Reads this store's persisted purchase log and returns up to 3 lore lines
+     * Reads this store's live top-seller summary (see {@link SalesHistograms}) and returns up to 3 lore lines
      * using messages.yml keys for header/rows:
      *  - buy.log_book_hub.top_items_ready_lore_header
      *  - buy.log_book_hub.top_items_ready_row (<item>, <amount>)
+     *  - buy.log_book_hub.top_items_ready_row_approx (<item>, <amount>) when the count is an upper bound
 
      * If I/O fails: buy.log_book_hub.top_items_error_lore
      * If empty:     buy.log_book_hub.top_items_empty_lore
 
-     * This runs off-thread (safe, file I/O) and only its result is pushed back
-     * onto the main thread to update the GUI item.
+     * This runs off-thread (the first use of a store may still read its log once) and only its result is
+     * pushed back onto the main thread to update the GUI item.
      */
-    private static List<Component> buildTopSellingLoreFromLogs(BarterStore store) {
-        Map<Material, Integer> totals = new EnumMap<>(Material.class);
+    private static List<Component> buildTopSellingLore(BarterStore store) {
+        List<TopSellers.Seller> top;
         try {
-            for (TransactionRecord r : BarterShopOwnerLogManager.listAllEntries(store.getKey())) {
-                Material mat = r.itemType();
-                if (mat == null || mat == Material.AIR) continue;
-                totals.merge(mat, Math.max(0, r.amount()), Integer::sum);
-            }
-        } catch (Exception io) {
+            top = SalesHistograms.INSTANCE.storeTopSellers(store.getKey(), 3);
+        } catch (Exception e) {
             return Messages.mmList("buy.log_book_hub.top_items_error_lore");
         }
 
-        if (totals.isEmpty()) {
+        if (top.isEmpty()) {
             return Messages.mmList("buy.log_book_hub.top_items_empty_lore");
         }
 
-        // Sort by quantity desc and pick 3
-        List<Map.Entry<Material,Integer>> top = totals.entrySet().stream()
-                .sorted((a,b) -> Integer.compare(b.getValue(), a.getValue()))
-                .limit(3)
-                .toList();
-
         List<Component> lore = new ArrayList<>(1 + top.size());
         lore.addAll(Messages.mmList("buy.log_book_hub.top_items_ready_lore_header"));
-        for (Map.Entry<Material,Integer> e : top) {
-            lore.add(Messages.mm("buy.log_book_hub.top_items_ready_row",
-                    "item", pretty(e.getKey()),
-                    "amount", e.getValue()));
+        for (TopSellers.Seller seller : top) {
+            lore.add(Messages.mm(seller.isExact()
+                            ? "buy.log_book_hub.top_items_ready_row"
+                            : "buy.log_book_hub.top_items_ready_row_approx",
+                    "item", pretty(seller.item()),
+                    "amount", seller.amount()));
         }
         return lore;
     }
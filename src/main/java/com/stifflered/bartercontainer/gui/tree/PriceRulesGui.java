@@ -0,0 +1,225 @@
+package com.stifflered.bartercontainer.gui.tree;
+
+import com.github.stefvanschie.inventoryframework.adventuresupport.ComponentHolder;
+import com.github.stefvanschie.inventoryframework.gui.GuiItem;
+import com.github.stefvanschie.inventoryframework.pane.StaticPane;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.barter.BarterManager;
+import com.stifflered.bartercontainer.barter.PurchaseService;
+import com.stifflered.bartercontainer.gui.common.SimpleInnerGui;
+import com.stifflered.bartercontainer.gui.tree.buttons.SetPriceGuiItem;
+import com.stifflered.bartercontainer.store.BarterStore;
+import com.stifflered.bartercontainer.store.PriceRules;
+import com.stifflered.bartercontainer.util.Components;
+import com.stifflered.bartercontainer.util.ItemFingerprint;
+import com.stifflered.bartercontainer.util.ItemUtil;
+import com.stifflered.bartercontainer.util.Messages;
+import com.stifflered.bartercontainer.util.Sounds;
+
+import net.kyori.adventure.text.Component;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owner editor for per-slot / per-item price rules ({@link PriceRules}).
+
+ * Layout (4 rows):
+ *  - Rows 0..2: mirror of the sale inventory; each tile shows its effective price and where it comes from.
+ *  - Row 3: help tile at (0,3), Back at (8,3) to {@link BarterGui}.
+
+ * Clicks on a sale tile:
+ *  - Left-click with a currency item on the cursor  → price for EVERY slot holding this item.
+ *  - Right-click with a currency item on the cursor → price for THIS slot only.
+ *  - Left-click with an empty cursor                → edit quantity tiers of the rule in effect.
+ *  - Right-click with an empty cursor               → remove the slot rule (or, if none, the item rule).
+ *  - The cursor item is never consumed (same as the Set Price editor).
+ *  - A slot rule is bound to the item it was set for; once the slot holds another item it stops applying
+ *    (see {@link PriceRules}) and is replaced by the next slot rule set there.
+
+ * Every change bumps the store version, refreshes open buy GUIs and queues a write-behind save.
+ */
+public class PriceRulesGui extends SimpleInnerGui {
+
+    private static final int SALE_SLOTS = 27;
+
+    private final BarterStore store;
+    private final StaticPane grid;
+
+    public PriceRulesGui(BarterStore store) {
+        super(4, ComponentHolder.of(Messages.mm("gui.tree.price_rules.title")), () -> new BarterGui(store));
+        this.store = store;
+        this.grid = ItemUtil.wrapGui(this.getInventoryComponent(), 0, 0, 9, 3);
+
+        StaticPane footer = ItemUtil.wrapGui(this.getInventoryComponent(), 0, 3, 1, 1);
+        footer.addItem(new GuiItem(ItemUtil.wrapEdit(new ItemStack(Material.BOOK), meta -> {
+            Components.name(meta, Messages.mm("gui.tree.price_rules.help_name"));
+            Components.lore(meta, Messages.mmList("gui.tree.price_rules.help_lore"));
+        })), 0, 0);
+
+        this.draw();
+    }
+
+    /** Rebuild the sale mirror from the live inventory and rules. */
+    private void draw() {
+        PriceRules rules = this.store.getPriceRules();
+        for (int slot = 0; slot < SALE_SLOTS; slot++) {
+            int x = slot % 9;
+            int y = slot / 9;
+
+            ItemStack item = this.store.getSaleStorage().getItem(slot);
+            if (item == null || item.isEmpty()) {
+                this.grid.removeItem(x, y);
+                continue;
+            }
+
+            final int saleSlot = slot;
+            ItemFingerprint fingerprint = ItemFingerprint.of(item);
+            String source = rules.getSlotRule(slot, fingerprint) != null ? "slot"
+                    : rules.getItemRule(fingerprint) != null ? "item"
+                    : "default";
+            PriceRules.PriceRule rule = rules.ruleFor(slot, fingerprint);
+
+            ItemStack tile = ItemUtil.wrapEdit(item.clone(), meta -> {
+                List<Component> lore = new ArrayList<>(Messages.mmList(
+                        "gui.tree.price_rules.tile_lore",
+                        "price", SetPriceGuiItem.getItemDescription(this.store.getPrice(saleSlot, fingerprint, 1)),
+                        "source", Messages.mm("gui.tree.price_rules.source_" + source),
+                        "tiers", rule == null ? 0 : rule.tiers().size()
+                ));
+                lore.addAll(Messages.mmList("gui.tree.price_rules.tile_actions"));
+                meta.lore(lore);
+            });
+
+            this.grid.addItem(new GuiItem(tile, event -> this.click(event, saleSlot, item, fingerprint)), x, y);
+        }
+    }
+
+    private void click(InventoryClickEvent event, int slot, ItemStack item, ItemFingerprint fingerprint) {
+        event.setCancelled(true);
+        if (!(event.getWhoClicked() instanceof Player player)) return;
+
+        ClickType click = event.getClick();
+        if (click != ClickType.LEFT && click != ClickType.RIGHT) return;
+
+        PriceRules rules = this.store.getPriceRules();
+        ItemStack cursor = event.getCursor();
+        boolean hasCursor = !cursor.getType().isAir();
+
+        if (hasCursor && click == ClickType.LEFT) {
+            PriceRules.PriceRule current = rules.getItemRule(fingerprint);
+            rules.setItemRule(item, current == null ? PriceRules.PriceRule.of(cursor) : current.withPrice(cursor));
+        } else if (hasCursor) {
+            PriceRules.PriceRule current = rules.getSlotRule(slot, fingerprint);
+            rules.setSlotRule(slot, item, current == null ? PriceRules.PriceRule.of(cursor) : current.withPrice(cursor));
+        } else if (click == ClickType.LEFT) {
+            if (rules.getSlotRule(slot, fingerprint) != null) {
+                openTiers(player, this.store, slot, item);
+            } else if (rules.getItemRule(fingerprint) != null) {
+                openTiers(player, this.store, -1, item);
+            } else {
+                Messages.error(player, "gui.tree.price_rules.no_rule");
+            }
+            return;
+        } else if (!(rules.getSlotRule(slot, fingerprint) != null && rules.clearSlotRule(slot))
+                && !rules.clearItemRule(fingerprint)) {
+            return;
+        }
+
+        changed(this.store);
+        Sounds.choose(player);
+        this.draw();
+        this.update();
+    }
+
+    /**
+     * One-row tier editor for the rule of a slot ({@code slot >= 0}, while it holds {@code item}) or of an item
+     * ({@code slot == -1}).
+
+     * Layout:
+     *  - One tile per configured tier quantity (config: price-tiers.quantities), Back at (8,0).
+     *  - Click with the rule's currency on the cursor → "from N purchases, each costs <cursor amount>".
+     *  - Right-click with an empty cursor → remove that tier.
+     */
+    private static void openTiers(Player player, BarterStore store, int slot, ItemStack item) {
+        SimpleInnerGui gui = new SimpleInnerGui(1, ComponentHolder.of(Messages.mm("gui.tree.price_rules.tiers_title")),
+                () -> new PriceRulesGui(store));
+        StaticPane pane = ItemUtil.wrapGui(gui.getInventoryComponent(), 0, 0, 8, 1);
+
+        PriceRules.PriceRule rule = currentRule(store, slot, item);
+        if (rule == null) {
+            new PriceRulesGui(store).show(player);
+            return;
+        }
+
+        List<Integer> quantities = BarterContainer.INSTANCE.getConfiguration().getPriceTierQuantities();
+        for (int i = 0; i < quantities.size(); i++) {
+            int quantity = quantities.get(i);
+            PriceRules.PriceTier tier = rule.tierAt(quantity);
+
+            ItemStack tile = rule.price();
+            tile.setAmount(Math.max(1, Math.min(tile.getMaxStackSize(), tier == null ? tile.getAmount() : tier.amount())));
+            ItemUtil.wrapEdit(tile, meta -> {
+                Components.name(meta, Messages.mm("gui.tree.price_rules.tier_name", "quantity", quantity));
+                Components.lore(meta, tier == null
+                        ? Messages.mmList("gui.tree.price_rules.tier_unset_lore")
+                        : Messages.mmList("gui.tree.price_rules.tier_lore",
+                        "price", SetPriceGuiItem.getItemDescription(rule.unitPrice(quantity))));
+            });
+
+            pane.addItem(new GuiItem(tile, event -> {
+                event.setCancelled(true);
+                PriceRules.PriceRule latest = currentRule(store, slot, item);
+                if (latest == null) return;
+
+                ItemStack cursor = event.getCursor();
+                PriceRules.PriceRule next;
+                if (!cursor.getType().isAir() && event.getClick() == ClickType.LEFT) {
+                    if (!cursor.isSimilar(latest.price())) {
+                        Messages.error(player, "gui.tree.price_rules.tier_currency");
+                        return;
+                    }
+                    next = latest.withTier(new PriceRules.PriceTier(quantity, cursor.getAmount()));
+                } else if (cursor.getType().isAir() && event.getClick() == ClickType.RIGHT && latest.tierAt(quantity) != null) {
+                    next = latest.withoutTier(quantity);
+                } else {
+                    return;
+                }
+
+                if (slot >= 0) {
+                    store.getPriceRules().setSlotRule(slot, item, next);
+                } else {
+                    store.getPriceRules().setItemRule(item, next);
+                }
+                changed(store);
+                Sounds.choose(player);
+                openTiers(player, store, slot, item);
+            }), i, 0);
+        }
+
+        gui.show(player);
+    }
+
+    private static @Nullable PriceRules.PriceRule currentRule(BarterStore store, int slot, ItemStack item) {
+        ItemFingerprint fingerprint = ItemFingerprint.of(item);
+        return slot >= 0
+                ? store.getPriceRules().getSlotRule(slot, fingerprint)
+                : store.getPriceRules().getItemRule(fingerprint);
+    }
+
+    /** Prices moved: open previews re-validate, open buy GUIs redraw, the store is saved. */
+    private static void changed(BarterStore store) {
+        PurchaseService.INSTANCE.markChanged(store.getKey());
+        ShopSession.scheduleRefresh(store.getKey());
+        BarterManager.INSTANCE.saveAsync(store);
+    }
+}
@@ -0,0 +1,295 @@
+package com.stifflered.bartercontainer.gui.tree;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.gui.tree.buttons.SetPriceGuiItem;
+import com.stifflered.bartercontainer.store.BarterStore;
+import com.stifflered.bartercontainer.store.BarterStoreKey;
+import com.stifflered.bartercontainer.util.ItemCountSummary;
+import com.stifflered.bartercontainer.util.ItemFingerprint;
+
+import net.kyori.adventure.text.Component;
+
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Live view of one shop shared by every buyer who has its {@link BarterBuyGui} open.
+
+ * Responsibilities:
+ *  - Tracks the open viewers of a store.
+ *  - Holds ONE immutable snapshot of the sale slots (cloned once per change, not once per viewer);
+ *    viewers draw their grid cells from it.
+ *  - Pushes slot deltas to every viewer after a purchase ({@link #publish(Collection)}) or an owner
+ *    restock / price edit ({@link #scheduleRefresh(BarterStoreKey)}), so nobody clicks on an item
+ *    that is already gone.
+ *  - Relays slot reservation changes (reserved markers, hand-offs, lapses) to the affected viewers.
+ *  - Caches the per-store render work every viewer would otherwise repeat: the price tile and the
+ *    owner-notification hover of each sold item.
+
+ * Lifecycle:
+ *  - Created on demand by {@link #of(BarterStore)} and dropped when the last viewer leaves.
+
+ * Threading:
+ *  - Main thread only (reads Bukkit inventories and updates open GUIs).
+ */
+public final class ShopSession {
+
+    /** Store key → active session. */
+    private static final Map<BarterStoreKey, ShopSession> SESSIONS = new ConcurrentHashMap<>();
+
+    private final BarterStore store;
+    private final Set<BarterBuyGui> viewers = new LinkedHashSet<>();
+
+    /** Immutable per-slot snapshot (null = empty slot). Replaced wholesale; never mutated. */
+    private Cell[] snapshot;
+
+    /** Price at snapshot time; a change forces every viewer to redraw its price/status tiles. */
+    private ItemStack price;
+
+    /** Price-rules revision at snapshot time; a change counts as a price change. */
+    private int rulesRevision;
+
+    /** Lazily built summary of the bank (currency storage); dropped whenever the store changes. */
+    private @Nullable ItemCountSummary bank;
+
+    /** Rendered price tile (shared; viewers clone it); dropped when the price changes. */
+    private @Nullable ItemStack priceTile;
+
+    /** Owner-notification hover per item; {@link Component#empty()} marks "nothing to show". */
+    private final Map<ItemFingerprint, Component> hovers = new HashMap<>();
+
+    /** Debounce flag so a burst of owner clicks in one tick produces one refresh. */
+    private boolean refreshQueued;
+
+    private ShopSession(BarterStore store) {
+        this.store = store;
+        this.snapshot = capture(store);
+        this.price = store.getCurrentItemPrice();
+        this.rulesRevision = store.getPriceRules().revision();
+    }
+
+    /** Session for the store, created (and snapshotted) if none is active. */
+    public static ShopSession of(BarterStore store) {
+        return SESSIONS.computeIfAbsent(store.getKey(), k -> new ShopSession(store));
+    }
+
+    /** Active session for the key, or null if nobody is viewing that shop. */
+    public static @Nullable ShopSession find(BarterStoreKey key) {
+        return SESSIONS.get(key);
+    }
+
+    /**
+     * Re-snapshot the whole store on the next tick and push whatever changed.
+     * Used for owner edits (inventory events fire before the change is applied) and restocks.
+     */
+    public static void scheduleRefresh(BarterStoreKey key) {
+        ShopSession session = SESSIONS.get(key);
+        if (session == null || session.refreshQueued) return;
+
+        session.refreshQueued = true;
+        Bukkit.getScheduler().runTask(BarterContainer.INSTANCE, () -> {
+            session.refreshQueued = false;
+            session.refresh();
+        });
+    }
+
+    /** The store this session mirrors. */
+    public BarterStore store() {
+        return this.store;
+    }
+
+    /** Snapshot item for a slot (shared; do not mutate), or null if the slot is empty. */
+    public @Nullable ItemStack item(int slot) {
+        Cell cell = (slot >= 0 && slot < this.snapshot.length) ? this.snapshot[slot] : null;
+        return cell == null ? null : cell.item();
+    }
+
+    /** Fingerprint of a snapshot slot's item (computed once per snapshot), or {@link ItemFingerprint#EMPTY}. */
+    public ItemFingerprint fingerprint(int slot) {
+        Cell cell = (slot >= 0 && slot < this.snapshot.length) ? this.snapshot[slot] : null;
+        return cell == null ? ItemFingerprint.EMPTY : cell.fingerprint();
+    }
+
+    /** Snapshot slots (in order) holding exactly {@code amount} of the given item (bulk purchase candidates). */
+    public List<Integer> slotsWith(ItemFingerprint item, int amount) {
+        List<Integer> slots = new ArrayList<>();
+        for (int slot = 0; slot < this.snapshot.length; slot++) {
+            Cell cell = this.snapshot[slot];
+            if (cell != null && cell.amount() == amount && cell.fingerprint().equals(item)) slots.add(slot);
+        }
+        return slots;
+    }
+
+    /** True if no snapshot slot holds an item. */
+    public boolean isEmpty() {
+        for (Cell cell : this.snapshot) {
+            if (cell != null) return false;
+        }
+        return true;
+    }
+
+    /** Shared bank summary for affordability/room checks (built once per change, not per viewer). */
+    public ItemCountSummary bank() {
+        if (this.bank == null) {
+            this.bank = ItemCountSummary.of(this.store.getCurrencyStorage().getContents());
+        }
+        return this.bank;
+    }
+
+    /** Shared price tile for the top of the buy GUI (built once per price change; clone before wrapping in a GuiItem). */
+    public ItemStack priceTile() {
+        if (this.priceTile == null) {
+            this.priceTile = SetPriceGuiItem.getPriceItem(this.store);
+        }
+        return this.priceTile;
+    }
+
+    /**
+     * Owner-notification hover for an item, built by {@code builder} on first use and reused for later sales
+     * of the same item.
+     *
+     * @return the hover, or null if {@code builder} had nothing to show
+     */
+    public @Nullable Component ownerHover(ItemFingerprint item, Supplier<@Nullable Component> builder) {
+        Component hover = this.hovers.computeIfAbsent(item, k -> Objects.requireNonNullElse(builder.get(), Component.empty()));
+        return hover.equals(Component.empty()) ? null : hover;
+    }
+
+    /** Number of sale slots in the snapshot. */
+    public int size() {
+        return this.snapshot.length;
+    }
+
+    /**
+     * A slot's reservation moved ({@link com.stifflered.bartercontainer.barter.SlotReservations}):
+     * redraw only that cell for every viewer, without touching anyone's confirm tile.
+     */
+    public void reservationChanged(int slot) {
+        for (BarterBuyGui viewer : List.copyOf(this.viewers)) {
+            viewer.redrawCell(slot);
+        }
+    }
+
+    /**
+     * Hand a reserved slot to a waiting buyer: opens their confirm tile for it.
+     *
+     * @return false if that buyer is no longer viewing this shop
+     */
+    public boolean grant(UUID buyer, int slot) {
+        for (BarterBuyGui viewer : List.copyOf(this.viewers)) {
+            if (viewer.viewerId().equals(buyer)) {
+                viewer.reservationGranted(slot);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** A buyer's reservation lapsed: close their confirm tile if it still shows that slot. */
+    public void revoke(UUID buyer, int slot) {
+        for (BarterBuyGui viewer : List.copyOf(this.viewers)) {
+            if (viewer.viewerId().equals(buyer)) {
+                viewer.reservationLost(slot);
+            }
+        }
+    }
+
+    void join(BarterBuyGui viewer) {
+        this.viewers.add(viewer);
+    }
+
+    void leave(BarterBuyGui viewer) {
+        this.viewers.remove(viewer);
+        if (this.viewers.isEmpty()) {
+            SESSIONS.remove(this.store.getKey(), this);
+        }
+    }
+
+    /** Some sale slots changed (e.g., they were just bought): re-snapshot only those and push them to every viewer. */
+    public void publish(Collection<Integer> slots) {
+        Cell[] next = this.snapshot.clone(); // shallow: untouched cells are shared
+        Set<Integer> changed = new HashSet<>();
+        for (int slot : slots) {
+            if (slot < 0 || slot >= next.length) continue;
+            next[slot] = Cell.of(this.store.getSaleStorage().getItem(slot));
+            changed.add(slot);
+        }
+        this.snapshot = next;
+        this.bank = null; // a purchase always deposits into the bank
+
+        if (!changed.isEmpty()) {
+            this.push(changed, false);
+        }
+    }
+
+    /**
+     * Re-snapshot every slot, the price (default + rules) and the bank; push only the slots that differ.
+     * Viewers are always notified so their status tiles pick up bank changes.
+     */
+    public void refresh() {
+        Cell[] next = capture(this.store);
+        Set<Integer> changed = new HashSet<>();
+        for (int slot = 0; slot < next.length; slot++) {
+            if (!Objects.equals(slot < this.snapshot.length ? this.snapshot[slot] : null, next[slot])) {
+                changed.add(slot);
+            }
+        }
+        this.snapshot = next;
+
+        ItemStack currentPrice = this.store.getCurrentItemPrice();
+        int currentRules = this.store.getPriceRules().revision();
+        boolean priceChanged = !currentPrice.equals(this.price) || currentRules != this.rulesRevision;
+        this.price = currentPrice;
+        this.rulesRevision = currentRules;
+        this.bank = null;
+        if (priceChanged) {
+            this.priceTile = null;
+        }
+        this.hovers.clear(); // cheap to rebuild; also picks up messages.yml reloads
+
+        this.push(changed, priceChanged);
+    }
+
+    private void push(Set<Integer> slots, boolean priceChanged) {
+        for (BarterBuyGui viewer : List.copyOf(this.viewers)) {
+            viewer.applyDelta(slots, priceChanged);
+        }
+    }
+
+    private static Cell[] capture(BarterStore store) {
+        ItemStack[] contents = store.getSaleStorage().getContents();
+        Cell[] cells = new Cell[contents.length];
+        for (int i = 0; i < contents.length; i++) {
+            cells[i] = Cell.of(contents[i]);
+        }
+        return cells;
+    }
+
+    /**
+     * One snapshot cell; compared by fingerprint + amount so unchanged slots are never redrawn.
+     * The item is a private clone and must not be mutated.
+     */
+    private record Cell(ItemStack item, ItemFingerprint fingerprint, int amount) {
+
+        static @Nullable Cell of(@Nullable ItemStack stack) {
+            if (stack == null || stack.isEmpty()) return null;
+            return new Cell(stack.clone(), ItemFingerprint.of(stack), stack.getAmount());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Cell other && this.amount == other.amount && this.fingerprint.equals(other.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.fingerprint.hashCode() + this.amount;
+        }
+    }
+}
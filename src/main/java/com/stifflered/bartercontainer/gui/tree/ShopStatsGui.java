@@ -4,6 +4,9 @@ import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
 import com.stifflered.bartercontainer.util.Messages;
 import com.stifflered.bartercontainer.util.analytics.ConsistencyScoreCalculator;
+import com.stifflered.bartercontainer.util.analytics.SalesHistograms;
+import com.stifflered.bartercontainer.util.analytics.TopSellers;
+import com.stifflered.bartercontainer.util.analytics.UniqueBuyers;
 
 import net.kyori.adventure.text.Component;
 
@@ -19,7 +22,6 @@ import org.bukkit.inventory.meta.ItemMeta;
 import java.io.IOException;
 import java.time.*;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static net.kyori.adventure.text.Component.text;
 
@@ -108,7 +110,10 @@ public final class ShopStatsGui {
             inv.setItem(5, button(
                     Material.ENDER_EYE,
                     Messages.mm("shop_stats.unique_purchasers_name"),
-                    List.of(Messages.mm("shop_stats.unique_purchasers_lore", "count", ats.uniqueBuyerCount()))
+                    List.of(Messages.mm(ats.uniqueBuyers().approximate()
+                                    ? "shop_stats.unique_purchasers_lore_approx"
+                                    : "shop_stats.unique_purchasers_lore",
+                            "count", ats.uniqueBuyers().count()))
             ));
 
             if (ats.topItem() != null) {
@@ -116,7 +121,9 @@ public final class ShopStatsGui {
                         Material.GLOW_ITEM_FRAME,
                         Messages.mm("shop_stats.top_item_name"),
                         List.of(
-                                Messages.mm("shop_stats.top_item_lore_row",
+                                Messages.mm(ats.topItemExact()
+                                                ? "shop_stats.top_item_lore_row"
+                                                : "shop_stats.top_item_lore_row_approx",
                                         "item",  humanMaterialName(ats.topItem()),
                                         "units", ats.topItemUnits()),
                                 Messages.mm("shop_stats.top_item_lore_footer")
@@ -296,7 +303,7 @@ public final class ShopStatsGui {
 
     private record AllTimeStats(
             int totalUnits, int transactionCount, Instant lastSale,
-            int uniqueBuyerCount, Material topItem, int topItemUnits,
+            UniqueBuyers.Estimate uniqueBuyers, Material topItem, int topItemUnits, boolean topItemExact,
             BarterShopOwnerLogManager.TransactionRecord lastRecord) {}
 
     private static AllTimeStats readAllTimeStats(BarterStore store) {
@@ -310,22 +317,20 @@ public final class ShopStatsGui {
             Instant last = null;
             BarterShopOwnerLogManager.TransactionRecord lastRec = null;
 
-            Set<UUID> buyers = new HashSet<>();
-            Map<Material, Integer> byMat = new EnumMap<>(Material.class);
-
             for (var r : entries) {
                 units += r.amount();
                 Instant ts = Instant.ofEpochMilli(r.timestamp());
                 if (last == null || ts.isAfter(last)) { last = ts; lastRec = r; }
-                buyers.add(r.purchaserUuid());
-                Material m = r.itemType();
-                if (m != null) byMat.merge(m, r.amount(), Integer::sum);
             }
 
-            Material topMat = null; int topUnits = 0;
-            for (var e : byMat.entrySet()) if (e.getValue() > topUnits) { topUnits = e.getValue(); topMat = e.getKey(); }
+            // Unique buyers and the top item come from the store's live summaries, not from per-record maps
+            UniqueBuyers.Estimate buyers = SalesHistograms.INSTANCE.storeUniqueBuyers(store.getKey());
+            List<TopSellers.Seller> top = SalesHistograms.INSTANCE.storeTopSellers(store.getKey(), 1);
+            Material topMat = top.isEmpty() ? null : top.get(0).item();
+            int topUnits = top.isEmpty() ? 0 : (int) top.get(0).amount();
+            boolean topExact = top.isEmpty() || top.get(0).isExact();
 
-            return new AllTimeStats(units, tx, last, buyers.size(), topMat, topUnits, lastRec);
+            return new AllTimeStats(units, tx, last, buyers, topMat, topUnits, topExact, lastRec);
         } catch (IOException e) {
             return null;
         }
@@ -334,20 +339,10 @@ public final class ShopStatsGui {
     private static ConsistencyScoreCalculator.Result computeConsistency(
             BarterStore store, ConsistencyScoreCalculator.Params params
     ) {
-        try {
-            List<BarterShopOwnerLogManager.TransactionRecord> entries =
-                    BarterShopOwnerLogManager.listAllEntries(store.getKey());
-            if (entries.isEmpty()) return null;
+        // Live rolling score (no log read, O(1) for the default window); null if the shop never sold anything
+        if (SalesHistograms.INSTANCE.storeTotal(store.getKey()) == 0) return null;
 
-            List<Instant> instants = entries.stream()
-                    .map(r -> Instant.ofEpochMilli(r.timestamp()))
-                    .collect(Collectors.toCollection(ArrayList::new));
-
-            return ConsistencyScoreCalculator.calculateFromInstants(
-                    instants, params, Clock.systemUTC(), ZoneId.systemDefault());
-        } catch (IOException e) {
-            return null;
-        }
+        return SalesHistograms.INSTANCE.storeConsistency(store.getKey(), params, Clock.systemUTC());
     }
 
     // -------- tiny UI + math helpers --------
@@ -0,0 +1,44 @@
+package com.stifflered.bartercontainer.gui.tree.buttons;
+
+import com.github.stefvanschie.inventoryframework.gui.GuiItem;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.barter.SupplyLinkService;
+import com.stifflered.bartercontainer.store.BarterStore;
+import com.stifflered.bartercontainer.util.Components;
+import com.stifflered.bartercontainer.util.ItemUtil;
+import com.stifflered.bartercontainer.util.Messages;
+
+import org.bukkit.entity.Player;
+
+/**
+ * GUI button that arms "link supply chest" mode for auto-restock.
+
+ * Behavior:
+ *  - Lore shows how many supply containers are linked out of the configured maximum.
+ *  - Clicking closes the menu; the owner's next container right-click links/unlinks it
+ *    (see {@link SupplyLinkService}).
+ */
+public class LinkSupplyGuiItem extends GuiItem {
+
+    public LinkSupplyGuiItem(BarterStore store) {
+        super(
+                ItemUtil.wrapEdit(
+                        BarterContainer.INSTANCE.getConfiguration().getLinkSupplyItem(),
+                        meta -> {
+                            Components.name(meta, Messages.mm("gui.tree.link_supply.name"));
+                            Components.lore(meta, Messages.mmList(
+                                    "gui.tree.link_supply.lore",
+                                    "count", store.getSupplyLocations().size(),
+                                    "max", BarterContainer.INSTANCE.getConfiguration().getRestockConfiguration().maxSupplyContainers()
+                            ));
+                        }
+                ),
+                event -> {
+                    if (event.getWhoClicked() instanceof Player player) {
+                        SupplyLinkService.INSTANCE.begin(player, store);
+                    }
+                }
+        );
+    }
+}
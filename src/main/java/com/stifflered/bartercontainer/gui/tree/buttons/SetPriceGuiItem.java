@@ -6,8 +6,11 @@ import com.github.stefvanschie.inventoryframework.gui.type.ChestGui;
 import com.github.stefvanschie.inventoryframework.pane.StaticPane;
 
 import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.barter.PurchaseService;
 import com.stifflered.bartercontainer.gui.common.SimpleInnerGui;
 import com.stifflered.bartercontainer.gui.tree.BarterGui;
+import com.stifflered.bartercontainer.gui.tree.PriceRulesGui;
+import com.stifflered.bartercontainer.gui.tree.ShopSession;
 import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.util.Components;
 import com.stifflered.bartercontainer.util.ItemUtil;
@@ -29,9 +32,10 @@ import org.bukkit.inventory.ItemStack;
  *   menu where they can override the current price item.
  * - Uses a {@link SimpleInnerGui} to create a 1-row editor:
  *      Layout (row y=0):
- *        [0] filler  [1] filler  [2] filler  [3] filler  [4] PRICE  [5] filler  [6] filler  [7] filler  [8] BACK
+ *        [0] RULES   [1] filler  [2] filler  [3] filler  [4] PRICE  [5] filler  [6] filler  [7] filler  [8] BACK
  *   • Only slot 4 (center) accepts an overwrite from the cursor item (without consuming it).
  *   • Slot 8 is a Barrier “Back” that returns to {@link BarterGui}.
+ *   • Slot 0 opens {@link PriceRulesGui} (per-slot / per-item prices and quantity tiers).
  *   • All other top slots are locked filler.
  *   • Number-key hotbar swaps / SWAP_OFFHAND are blocked across the top.
 
@@ -46,6 +50,7 @@ public class SetPriceGuiItem extends GuiItem {
     // Single-row layout constants
     private static final int PRICE_SLOT = 4; // center of row
     private static final int BACK_SLOT  = 8; // rightmost
+    private static final int RULES_SLOT = 0; // leftmost
 
     /**
      * Constructs a clickable "Set Price" item for the given store.
@@ -98,7 +103,7 @@ public class SetPriceGuiItem extends GuiItem {
         ItemStack filler = new ItemStack(Material.GRAY_STAINED_GLASS_PANE);
         ItemUtil.wrapEdit(filler, meta -> Components.name(meta, Component.text(" ")));
         for (int x = 0; x < 9; x++) {
-            if (x == PRICE_SLOT || x == BACK_SLOT) continue;
+            if (x == PRICE_SLOT || x == BACK_SLOT || x == RULES_SLOT) continue;
             pane.addItem(new GuiItem(filler), x, 0);
         }
 
@@ -109,6 +114,13 @@ public class SetPriceGuiItem extends GuiItem {
         });
         pane.addItem(new GuiItem(priceItem), PRICE_SLOT, 0);
 
+        // ── Price rules (per-slot / per-item overrides + tiers) in slot 0
+        ItemStack rules = ItemUtil.wrapEdit(BarterContainer.INSTANCE.getConfiguration().getPriceRulesItem(), meta -> {
+            Components.name(meta, Messages.mm("gui.tree.price_rules.button_name"));
+            Components.lore(meta, Messages.mmList("gui.tree.price_rules.button_lore"));
+        });
+        pane.addItem(new GuiItem(rules, e -> new PriceRulesGui(store).show(player)), RULES_SLOT, 0);
+
         // ── Back in slot 8
         ItemStack back = new ItemStack(Material.BARRIER);
         ItemUtil.wrapEdit(back, meta -> {
@@ -130,7 +142,7 @@ public class SetPriceGuiItem extends GuiItem {
             }
 
             // Back button handled by its own GuiItem click; make sure default top action is cancelled here.
-            if (slot == BACK_SLOT) {
+            if (slot == BACK_SLOT || slot == RULES_SLOT) {
                 e.setCancelled(true);
                 return;
             }
@@ -140,6 +152,8 @@ public class SetPriceGuiItem extends GuiItem {
                 ItemStack cursor = e.getCursor();
                 if (!cursor.getType().isAir()) { // safe null + air check
                     store.setCurrentItemPrice(cursor.clone());
+                    PurchaseService.INSTANCE.markChanged(store.getKey()); // open previews must re-validate
+                    ShopSession.scheduleRefresh(store.getKey());          // redraw price on open buy GUIs
                     Sounds.choose(e.getWhoClicked());
                     openEditMenu(store, player);
                 }
@@ -169,7 +183,7 @@ public class SetPriceGuiItem extends GuiItem {
      * @param currentItemPrice Item currently set as price
      * @return Adventure Component representing the item + amount
      */
-    private static Component getItemDescription(ItemStack currentItemPrice) {
+    public static Component getItemDescription(ItemStack currentItemPrice) {
         return currentItemPrice.displayName()
                 .append(Component.text(" x" + currentItemPrice.getAmount()));
     }
@@ -182,11 +196,21 @@ public class SetPriceGuiItem extends GuiItem {
      * @return ItemStack representing the price
      */
     public static ItemStack getPriceItem(BarterStore store) {
-        return ItemUtil.wrapEdit(store.getCurrentItemPrice(), (meta) -> {
+        return getPriceItem(store.getCurrentItemPrice());
+    }
+
+    /**
+     * Same rendering for an explicit price (e.g., a rule or tier price rather than the store default).
+     *
+     * @param price The price item (not mutated)
+     * @return ItemStack representing the price
+     */
+    public static ItemStack getPriceItem(ItemStack price) {
+        return ItemUtil.wrapEdit(price.clone(), (meta) -> {
             Components.name(meta, Messages.mm("gui.tree.set_price.price_item_name"));
             Components.lore(meta, Messages.mm(
                     "gui.tree.set_price.price_item_lore",
-                    "item", getItemDescription(store.getCurrentItemPrice())
+                    "item", getItemDescription(price)
             ));
         });
     }
@@ -6,7 +6,12 @@ import com.github.stefvanschie.inventoryframework.gui.type.ChestGui;
 import com.github.stefvanschie.inventoryframework.pane.StaticPane;
 
 import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.barter.BankLedger;
+import com.stifflered.bartercontainer.barter.BarterManager;
+import com.stifflered.bartercontainer.barter.PurchaseService;
+import com.stifflered.bartercontainer.gui.tree.BankLedgerGui;
 import com.stifflered.bartercontainer.gui.tree.BarterGui;
+import com.stifflered.bartercontainer.gui.tree.ShopSession;
 import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.util.Components;
 import com.stifflered.bartercontainer.util.ItemUtil;
@@ -41,6 +46,12 @@ import java.util.EnumSet;
  *   • Row 3 is locked filler with center Barrier “Back” to {@link BarterGui}.
  *   • After allowed withdrawals, rows 0..2 are synced back to the real currency storage.
  *   • Hotbar swaps (NUMBER_KEY) and SWAP_OFFHAND are blocked across the top inventory.
+
+ * 🏦 Owner bank ledger (config: bank-ledger.enabled):
+ *   • The barrel's bank slots are swept into the owner's ledger and {@link BankLedgerGui} opens instead,
+ *     showing the balance across ALL of the owner's barrels.
+ *   • With the ledger turned off, {@link BankLedgerGui} still opens (without sweeping) while the owner has a
+ *     ledger balance left, and links to this barrel's bank; otherwise the barrel's bank opens directly.
  */
 public class ViewCurrencyGuiItem extends GuiItem {
 
@@ -55,18 +66,36 @@ public class ViewCurrencyGuiItem extends GuiItem {
                         }
                 ),
                 (event) -> {
-                    if (event.getWhoClicked() instanceof Player player) {
-                        openWithdrawOnlyWithBack(
-                                player,
-                                store,
-                                store.getCurrencyStorage(),
-                                Messages.mm("gui.tree.view_currency.title")
-                        );
+                    if (!(event.getWhoClicked() instanceof Player player)) return;
+
+                    if (BankLedger.INSTANCE.isEnabled()) {
+                        // Owner ledger: sweep this barrel's leftover bank slots in, then show the owner-wide balances
+                        if (BankLedger.INSTANCE.collect(store)) {
+                            PurchaseService.INSTANCE.markChanged(store.getKey());
+                            BarterManager.INSTANCE.saveAsync(store);
+                            ShopSession.scheduleRefresh(store.getKey());
+                        }
+                        new BankLedgerGui(store).show(player);
+                    } else if (BankLedger.INSTANCE.hasBalance(store)) {
+                        // Ledger turned off after deposits: balances must stay withdrawable
+                        new BankLedgerGui(store).show(player);
+                    } else {
+                        openBarrelBank(player, store);
                     }
                 }
         );
     }
 
+    /** Open the withdraw-only view of this barrel's own bank slots. */
+    public static void openBarrelBank(Player player, BarterStore store) {
+        openWithdrawOnlyWithBack(
+                player,
+                store,
+                store.getCurrencyStorage(),
+                Messages.mm("gui.tree.view_currency.title")
+        );
+    }
+
     // Actions that represent withdrawing from the top (bank) inventory
     private static final EnumSet<InventoryAction> ALLOWED_WITHDRAW_ACTIONS = EnumSet.of(
             InventoryAction.PICKUP_ALL,
@@ -100,7 +129,7 @@ public class ViewCurrencyGuiItem extends GuiItem {
         // Helper: schedule a next-tick flush + save
         Runnable saveStore = () -> BarterContainer.INSTANCE.getServer().getScheduler().runTask(
                 BarterContainer.INSTANCE,
-                () -> com.stifflered.bartercontainer.barter.BarterManager.INSTANCE.save(store)
+                () -> BarterManager.INSTANCE.save(store)
         );
         java.util.function.BiConsumer<InventoryView, Boolean> scheduleFlush = (view, alsoSave) -> BarterContainer.INSTANCE.getServer().getScheduler().runTask(
                 BarterContainer.INSTANCE,
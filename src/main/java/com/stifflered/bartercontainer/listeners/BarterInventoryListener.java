@@ -2,11 +2,13 @@ package com.stifflered.bartercontainer.listeners;
 
 import com.stifflered.bartercontainer.BarterContainer;
 import com.stifflered.bartercontainer.barter.BarterManager;
+import com.stifflered.bartercontainer.barter.PurchaseService;
 import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.store.BarterStoreKey;
 import com.stifflered.bartercontainer.store.owners.BankOwner;
 import com.stifflered.bartercontainer.store.owners.SaveOnClose;
 import com.stifflered.bartercontainer.gui.tree.BarterGui;
+import com.stifflered.bartercontainer.gui.tree.ShopSession;
 import com.stifflered.bartercontainer.gui.tree.LogBookHubGui;
 import com.stifflered.bartercontainer.gui.tree.ShopStatsGui;
 import com.stifflered.bartercontainer.gui.tree.BuyerHistoryGui;
@@ -22,6 +24,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryAction;
 import org.bukkit.event.inventory.InventoryClickEvent;
@@ -647,6 +650,54 @@ public class BarterInventoryListener implements Listener {
         }
     }
 
+    /**
+     * Owner edits to a shop's sale items or bank move the store's purchase version, so buyers holding an
+     * older preview get their slot re-validated before they can pay, and live buy GUIs get the new contents
+     * on the next tick. Runs after all protection handlers.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void version(InventoryClickEvent event) {
+        final Object topHolder = event.getView().getTopInventory().getHolder();
+        if (topHolder instanceof SaveOnClose save) {
+            PurchaseService.INSTANCE.markChanged(save.getContainer().getKey());
+            ShopSession.scheduleRefresh(save.getContainer().getKey()); // push the restock to open buy GUIs
+        } else if (topHolder instanceof BankOwner bank) {
+            PurchaseService.INSTANCE.markChanged(bank.getContainer().getKey());
+            ShopSession.scheduleRefresh(bank.getContainer().getKey()); // bank room changed ("shop full" status)
+        }
+    }
+
+    /** Drag counterpart of {@link #version(InventoryClickEvent)}. */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void version(InventoryDragEvent event) {
+        final Object topHolder = event.getView().getTopInventory().getHolder();
+        if (topHolder instanceof SaveOnClose save) {
+            PurchaseService.INSTANCE.markChanged(save.getContainer().getKey());
+            ShopSession.scheduleRefresh(save.getContainer().getKey()); // push the restock to open buy GUIs
+        } else if (topHolder instanceof BankOwner bank) {
+            PurchaseService.INSTANCE.markChanged(bank.getContainer().getKey());
+            ShopSession.scheduleRefresh(bank.getContainer().getKey());
+        }
+    }
+
+    /** Automation (hoppers, droppers, other plugins) moving items in or out of a shop's inventories. */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void version(InventoryMoveItemEvent event) {
+        for (Inventory inventory : List.of(event.getSource(), event.getDestination())) {
+            final Object holder = inventory.getHolder(false);
+            BarterStore store = null;
+            if (holder instanceof SaveOnClose save) {
+                store = save.getContainer();
+            } else if (holder instanceof BankOwner bank) {
+                store = bank.getContainer();
+            }
+            if (store != null) {
+                PurchaseService.INSTANCE.markChanged(store.getKey());
+                ShopSession.scheduleRefresh(store.getKey());
+            }
+        }
+    }
+
     /**
      * When a SaveOnClose inventory (shop’s sale items) is closed,
      * trigger an immediate save of its owning container.
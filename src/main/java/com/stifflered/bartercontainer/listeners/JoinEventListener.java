@@ -1,6 +1,7 @@
 package com.stifflered.bartercontainer.listeners;
 
 import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.barter.BankLedger;
 import com.stifflered.bartercontainer.barter.BarterManager;
 import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
@@ -20,6 +21,7 @@ import java.io.IOException;
  * Responsibilities:
  *  - On join:
  *      * Notify shop owners of any purchases that occurred while they were offline.
+ *      * Preload the player's bank ledger off the main thread.
  *      * Warm Bedrock skin cache so GUI heads render without Steve/Alex (config-gated).
  *  - On quit:
  *      * For each shop owned by the player, acknowledge any unacknowledged purchase logs.
@@ -36,6 +38,9 @@ public class JoinEventListener implements Listener {
         // Notify shop owners of purchases while they were offline.
         BarterShopOwnerLogManager.notifyNewPurchases(event.getPlayer());
 
+        // Owner bank ledger: read from disk now, not during the first purchase/bank click.
+        BankLedger.INSTANCE.preload(event.getPlayer().getUniqueId());
+
         // Preload Bedrock head textures on join (fire-and-forget), if enabled.
         // Config key: head-cache.preload-on-join (default true).
         var plugin = BarterContainer.INSTANCE;
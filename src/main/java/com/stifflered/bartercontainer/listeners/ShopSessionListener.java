@@ -0,0 +1,30 @@
+package com.stifflered.bartercontainer.listeners;
+
+import com.stifflered.bartercontainer.event.BarterPurchaseEvent;
+import com.stifflered.bartercontainer.gui.tree.ShopSession;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Keeps live {@link ShopSession}s in sync with committed purchases.
+
+ * Context:
+ *  - Every sale (single or bulk, from any GUI) fires exactly one {@link BarterPurchaseEvent}.
+ *  - Pushing the sold slots from here means every open buy GUI of that shop sees the change,
+ *    not only the buyer's.
+
+ * Owner edits/restocks are pushed separately via {@link ShopSession#scheduleRefresh}.
+ */
+public class ShopSessionListener implements Listener {
+
+    /** Push the sold slots to every viewer of the shop (no-op if nobody is viewing it). */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPurchase(BarterPurchaseEvent event) {
+        ShopSession session = ShopSession.find(event.getStore().getKey());
+        if (session != null) {
+            session.publish(event.getSlots());
+        }
+    }
+}
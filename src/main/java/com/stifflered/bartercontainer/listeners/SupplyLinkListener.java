@@ -0,0 +1,48 @@
+package com.stifflered.bartercontainer.listeners;
+
+import com.stifflered.bartercontainer.barter.SupplyLinkService;
+
+import org.bukkit.block.Block;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.EquipmentSlot;
+
+/**
+ * Routes container clicks to {@link SupplyLinkService} while an owner is linking supply chests.
+
+ * Ordering:
+ *  - Runs at HIGH priority with ignoreCancelled, i.e. after protection plugins (claims, regions, locks)
+ *    have had their say: a click they cancelled or denied never links a container the owner could not open.
+ *  - Still before {@link BarterBlockListener} (HIGHEST, ignoreCancelled), so a consumed click is cancelled
+ *    before a barrel would be treated as a shop, and before vanilla opens the container.
+ */
+public class SupplyLinkListener implements Listener {
+
+    /** Toggle the clicked container's link if link mode is armed for this player. */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void interact(PlayerInteractEvent event) {
+        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) return;
+        if (event.useInteractedBlock() == Event.Result.DENY) return; // protection denied opening it
+
+        Block block = event.getClickedBlock();
+        if (block == null) return;
+
+        if (SupplyLinkService.INSTANCE.handleClick(event.getPlayer(), block, event.getBlockFace(),
+                event.getHand() == null ? EquipmentSlot.HAND : event.getHand())) {
+            event.setUseInteractedBlock(Event.Result.DENY);
+            event.setUseItemInHand(Event.Result.DENY);
+            event.setCancelled(true);
+        }
+    }
+
+    /** Forget armed link mode when the player leaves. */
+    @EventHandler
+    public void quit(PlayerQuitEvent event) {
+        SupplyLinkService.INSTANCE.cancel(event.getPlayer().getUniqueId());
+    }
+}
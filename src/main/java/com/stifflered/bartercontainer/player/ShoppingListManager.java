@@ -1,6 +1,7 @@
 package com.stifflered.bartercontainer.player;
 
 import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.util.ItemFingerprint;
 import com.stifflered.bartercontainer.util.Messages;
 
 import net.kyori.adventure.text.Component;
@@ -30,7 +31,7 @@ import java.util.*;
 
  * Runtime model:
  *  - In-memory Map<Player, ShoppingList> cache, populated on join and saved on quit.
- *  - ShoppingList maps ItemStack → needed amount. (Equality relies on ItemStack.equals semantics.)
+ *  - ShoppingList maps ItemFingerprint → (template, needed amount); identity ignores stack size.
 
  * Notes:
  *  - The class is a Listener and self-registers in the constructor.
@@ -72,34 +73,45 @@ public class ShoppingListManager implements Listener {
 
     /**
      * Immutable-ish wrapper for a player's shopping list.
-     * Map<ItemStack, Integer> indicates required quantities per exact ItemStack (includes meta).
+     * Keyed by {@link ItemFingerprint} (item identity without amount); each value keeps a display
+     * template plus the required quantity. Lookups hash a 128-bit fingerprint instead of deep ItemStack meta.
      */
-    public record ShoppingList(Map<ItemStack, Integer> items) {
+    public record ShoppingList(Map<ItemFingerprint, Need> items) {
 
         /** Increment or insert an item requirement. */
         public void addItem(ItemStack itemStack, int amount) {
-            this.items.put(itemStack, this.items.getOrDefault(itemStack, 0) + amount);
+            ItemFingerprint fingerprint = ItemFingerprint.of(itemStack);
+            Need current = this.items.get(fingerprint);
+            if (current == null) {
+                ItemStack template = itemStack.clone();
+                template.setAmount(1);
+                this.items.put(fingerprint, new Need(template, amount));
+            } else {
+                this.items.put(fingerprint, new Need(current.template(), current.amount() + amount));
+            }
         }
 
         /** Remove an item requirement entirely. */
         public void removeItem(ItemStack material) {
-            this.items.remove(material);
+            this.items.remove(ItemFingerprint.of(material));
         }
 
         /**
          * Decrement needed amount for the given item by amountReceived.
          * When it reaches zero, the item is removed from the list.
+         * Matching ignores the stack size, so receiving a full purchased stack counts toward the entry.
          * @return MutateState indicating what happened.
          */
         public MutateState receiveItem(ItemStack material, int amountReceived) {
-            if (items.containsKey(material)) {
-                int current = items.get(material);
-                int updated = Math.max(current - amountReceived, 0);
+            ItemFingerprint fingerprint = ItemFingerprint.of(material);
+            Need current = items.get(fingerprint);
+            if (current != null) {
+                int updated = Math.max(current.amount() - amountReceived, 0);
                 if (updated == 0) {
-                    removeItem(material);
+                    items.remove(fingerprint);
                     return MutateState.REMOVED;
                 } else {
-                    items.put(material, updated);
+                    items.put(fingerprint, new Need(current.template(), updated));
                     return MutateState.MODIFIED;
                 }
             }
@@ -117,15 +129,19 @@ public class ShoppingListManager implements Listener {
          */
         public List<ShoppingListEntry> toDisplayList() {
             List<ShoppingListEntry> display = new ArrayList<>();
-            for (Map.Entry<ItemStack, Integer> e : items.entrySet()) {
-                Component name = Component.translatable(e.getKey()); // localized item name
-                Component suffix = Messages.mm("shopping.list.entry_suffix", "amount", e.getValue());
-                display.add(new ShoppingListEntry(name.append(suffix), e.getKey()));
+            for (Need need : items.values()) {
+                Component name = Component.translatable(need.template()); // localized item name
+                Component suffix = Messages.mm("shopping.list.entry_suffix", "amount", need.amount());
+                display.add(new ShoppingListEntry(name.append(suffix), need.template()));
             }
 
             return display;
         }
 
+        /** Required quantity of one item; template is an amount-1 copy used for display/persistence. */
+        public record Need(ItemStack template, int amount) {
+        }
+
         /** Simple record for UI rendering: pre-styled text + reference ItemStack. */
         public record ShoppingListEntry(Component styled, ItemStack itemStack) {
         }
@@ -182,7 +198,7 @@ public class ShoppingListManager implements Listener {
      *  - Skip invalid/empty payloads safely.
      */
     private void loadShoppingList(Player player) {
-        Map<ItemStack, Integer> itemMap = new HashMap<>();
+        ShoppingList list = new ShoppingList(new HashMap<>());
         PersistentDataContainer pdc = player.getPersistentDataContainer();
 
         PersistentDataContainer shoppingList = pdc.get(KEY, PersistentDataType.TAG_CONTAINER);
@@ -202,7 +218,7 @@ public class ShoppingListManager implements Listener {
                     try {
                         ItemStack itemStack = ItemStack.deserializeBytes(Base64.getDecoder().decode(itemStackBase64));
                         if (!itemStack.getType().isEmpty()) {
-                            itemMap.put(itemStack, amount);
+                            list.addItem(itemStack, amount);
                         }
                     } catch (IllegalArgumentException | IllegalStateException ignored) {
                         // Corrupt or incompatible payload; skip gracefully
@@ -211,7 +227,7 @@ public class ShoppingListManager implements Listener {
             }
         }
 
-        this.shoppingLists.put(player, new ShoppingList(itemMap));
+        this.shoppingLists.put(player, list);
     }
 
 
@@ -229,9 +245,9 @@ public class ShoppingListManager implements Listener {
         PersistentDataContainer shoppingListContainer = pdc.getAdapterContext().newPersistentDataContainer();
         List<PersistentDataContainer> itemContainers = new ArrayList<>();
 
-        for (Map.Entry<ItemStack, Integer> entry : list.items().entrySet()) {
-            int amount = entry.getValue();
-            ItemStack itemStack = entry.getKey();
+        for (ShoppingList.Need need : list.items().values()) {
+            int amount = need.amount();
+            ItemStack itemStack = need.template();
 
             PersistentDataContainer itemContainer = pdc.getAdapterContext().newPersistentDataContainer();
             itemContainer.set(new NamespacedKey(plugin, "amount"), PersistentDataType.INTEGER, amount);
@@ -2,6 +2,7 @@ package com.stifflered.bartercontainer.store;
 
 import com.destroystokyo.paper.profile.PlayerProfile;
 import com.stifflered.bartercontainer.barter.permission.BarterRole;
+import com.stifflered.bartercontainer.util.ItemFingerprint;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
@@ -70,4 +71,23 @@ public interface BarterStore {
      */
     List<Location> getLocations();
 
+    /**
+     * Linked supply containers (chests/barrels near the shop) that the restock scheduler pulls from.
+     * Mutable; empty when the owner has not linked any.
+     */
+    List<Location> getSupplyLocations();
+
+    /**
+     * Per-slot / per-item price overrides and quantity tiers (mutable; empty = default price everywhere).
+     */
+    PriceRules getPriceRules();
+
+    /**
+     * Effective price of ONE purchase of the item in {@code slot}, when {@code quantity} are bought in one
+     * transaction: slot rule, then item rule, then {@link #getCurrentItemPrice()}.
+     */
+    default ItemStack getPrice(int slot, ItemFingerprint item, int quantity) {
+        return this.getPriceRules().resolve(slot, item, this.getCurrentItemPrice(), quantity);
+    }
+
 }
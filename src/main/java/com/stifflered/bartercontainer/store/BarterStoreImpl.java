@@ -18,6 +18,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,7 +29,8 @@ import java.util.List;
  *  - Maintain two inventories:
  *      * itemStacks: items for sale (27 slots), with a custom InventoryHolder that saves on close.
  *      * currencyHolder: received currency/bank inventory (27 slots), with a custom holder for bank semantics.
- *  - Maintain the current "price" of the trade as an ItemStack (not hard-coded currency).
+ *  - Maintain the current "price" of the trade as an ItemStack (not hard-coded currency),
+ *    plus optional per-slot / per-item overrides ({@link PriceRules}).
  *  - Provide role-based checks and a styled shop title.
 
  * Notes:
@@ -56,6 +58,12 @@ public class BarterStoreImpl implements BarterStore {
     /** World locations associated with this shop (e.g., barrel block, attached sign, etc.). */
     private final List<Location> locations;
 
+    /** Linked supply containers the restock scheduler draws from (mutable). */
+    private final List<Location> supplyLocations;
+
+    /** Per-slot / per-item price overrides and tiers (mutable). */
+    private final PriceRules priceRules;
+
     /**
      * Constructs a store with existing content snapshots.
      *
@@ -73,9 +81,25 @@ public class BarterStoreImpl implements BarterStore {
      *  - Copies provided lists into these inventories via setContents.
      */
     public BarterStoreImpl(BarterStoreKey barterStoreKey, PlayerProfile playerProfile, List<ItemStack> itemStacks, List<ItemStack> currencyItems, ItemStack itemStack, List<Location> locations) {
+        this(barterStoreKey, playerProfile, itemStacks, currencyItems, itemStack, locations, List.of());
+    }
+
+    /**
+     * Same as above, plus the linked supply container locations used for auto-restock.
+     */
+    public BarterStoreImpl(BarterStoreKey barterStoreKey, PlayerProfile playerProfile, List<ItemStack> itemStacks, List<ItemStack> currencyItems, ItemStack itemStack, List<Location> locations, List<Location> supplyLocations) {
+        this(barterStoreKey, playerProfile, itemStacks, currencyItems, itemStack, locations, supplyLocations, new PriceRules());
+    }
+
+    /**
+     * Same as above, plus per-slot / per-item price rules.
+     */
+    public BarterStoreImpl(BarterStoreKey barterStoreKey, PlayerProfile playerProfile, List<ItemStack> itemStacks, List<ItemStack> currencyItems, ItemStack itemStack, List<Location> locations, List<Location> supplyLocations, PriceRules priceRules) {
         this.barterStoreKey = barterStoreKey;
         this.playerProfile = playerProfile;
         this.locations = locations;
+        this.supplyLocations = new ArrayList<>(supplyLocations);
+        this.priceRules = priceRules;
         this.itemStacks = Bukkit.createInventory(new SaveOnClose(this, () -> this.itemStacks), 27);
         this.itemStacks.setContents(itemStacks.toArray(new ItemStack[0]));
         this.currencyHolder = Bukkit.createInventory(new BankOwner(this), 27);
@@ -219,4 +243,16 @@ public class BarterStoreImpl implements BarterStore {
         return this.locations;
     }
 
+    /** Linked supply containers (mutable; persisted as "supply_locations"). */
+    @Override
+    public List<Location> getSupplyLocations() {
+        return this.supplyLocations;
+    }
+
+    /** Price overrides and tiers (mutable; persisted as "price_rules"). */
+    @Override
+    public PriceRules getPriceRules() {
+        return this.priceRules;
+    }
+
 }
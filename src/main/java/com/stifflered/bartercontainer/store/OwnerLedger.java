@@ -0,0 +1,151 @@
+package com.stifflered.bartercontainer.store;
+
+import com.stifflered.bartercontainer.util.ItemFingerprint;
+
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Owner-level bank: currency received by ALL of an owner's shops, kept as item → count.
+
+ * Why:
+ *  - The per-barrel bank is a 27-slot inventory; once it fills up every purchase fails with "shop full"
+ *    until the owner empties it.
+ *  - A count map has no slot limit and a deposit is one map update instead of an addItem() slot scan.
+
+ * Model:
+ *  - Keyed by {@link ItemFingerprint} (amount-independent identity); each balance keeps one amount-1
+ *    template stack so withdrawals can rebuild real ItemStacks.
+ *  - Balances are longs; a withdrawal hands out max-stack-size pieces.
+
+ * Threading:
+ *  - Main thread only; persistence works on a {@link #copy()} (see BankLedger).
+ */
+public class OwnerLedger {
+
+    /** Owner UUID (the file key). */
+    private final UUID owner;
+
+    /** Fingerprint → balance, in first-deposit order (stable GUI layout). */
+    private final Map<ItemFingerprint, Balance> balances = new LinkedHashMap<>();
+
+    public OwnerLedger(UUID owner) {
+        this.owner = owner;
+    }
+
+    /** Owner this ledger belongs to. */
+    public UUID getOwner() {
+        return this.owner;
+    }
+
+    /** Add {@code amount} of the given item (the stack's own amount is ignored). */
+    public void deposit(ItemStack item, long amount) {
+        if (item == null || item.isEmpty() || amount <= 0) return;
+
+        Balance balance = this.balances.get(ItemFingerprint.of(item));
+        if (balance == null) {
+            ItemStack template = item.clone();
+            template.setAmount(1);
+            this.balances.put(ItemFingerprint.of(template), new Balance(template, amount));
+        } else {
+            balance.amount += amount;
+        }
+    }
+
+    /** Deposit a whole stack (its amount counts). */
+    public void deposit(ItemStack stack) {
+        if (stack == null || stack.isEmpty()) return;
+        this.deposit(stack, stack.getAmount());
+    }
+
+    /** Current balance of an item (0 if none). */
+    public long balance(ItemFingerprint item) {
+        Balance balance = this.balances.get(item);
+        return balance == null ? 0L : balance.amount;
+    }
+
+    /**
+     * Take up to {@code amount} of an item out of the ledger.
+     *
+     * @return stacks (max-stack-size pieces) actually taken; empty if nothing was available
+     */
+    public List<ItemStack> withdraw(ItemFingerprint item, long amount) {
+        Balance balance = this.balances.get(item);
+        if (balance == null || amount <= 0) return List.of();
+
+        long take = Math.min(amount, balance.amount);
+        balance.amount -= take;
+        if (balance.amount <= 0) {
+            this.balances.remove(item);
+        }
+
+        List<ItemStack> stacks = new ArrayList<>();
+        int max = Math.max(1, balance.template.getMaxStackSize());
+        while (take > 0) {
+            ItemStack part = balance.template.clone();
+            part.setAmount((int) Math.min(max, take));
+            stacks.add(part);
+            take -= part.getAmount();
+        }
+        return stacks;
+    }
+
+    /** Put back stacks that could not be delivered (e.g., the player's inventory filled up). */
+    public void refund(List<ItemStack> stacks) {
+        for (ItemStack stack : stacks) {
+            this.deposit(stack);
+        }
+    }
+
+    /** Template (amount 1) for an item, or null if there is no balance. */
+    public @Nullable ItemStack template(ItemFingerprint item) {
+        Balance balance = this.balances.get(item);
+        return balance == null ? null : balance.template.clone();
+    }
+
+    /** Fingerprints with a balance, in display order. */
+    public List<ItemFingerprint> items() {
+        return List.copyOf(this.balances.keySet());
+    }
+
+    /** True if nothing is held. */
+    public boolean isEmpty() {
+        return this.balances.isEmpty();
+    }
+
+    /** Detached copy (cloned templates) for off-thread serialization. */
+    public OwnerLedger copy() {
+        OwnerLedger copy = new OwnerLedger(this.owner);
+        for (Map.Entry<ItemFingerprint, Balance> entry : this.balances.entrySet()) {
+            copy.balances.put(entry.getKey(), new Balance(entry.getValue().template.clone(), entry.getValue().amount));
+        }
+        return copy;
+    }
+
+    /** Read-only view of every balance as (template, amount) pairs, for serialization. */
+    public List<Map.Entry<ItemStack, Long>> entries() {
+        List<Map.Entry<ItemStack, Long>> entries = new ArrayList<>(this.balances.size());
+        for (Balance balance : this.balances.values()) {
+            entries.add(Map.entry(balance.template, balance.amount));
+        }
+        return entries;
+    }
+
+    /** Mutable balance cell; the template is never handed out without cloning. */
+    private static final class Balance {
+        private final ItemStack template;
+        private long amount;
+
+        private Balance(ItemStack template, long amount) {
+            this.template = template;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.stifflered.bartercontainer.store;
+
+import com.stifflered.bartercontainer.util.ItemFingerprint;
+
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-slot and per-item price overrides for one shop, with optional quantity tiers.
+
+ * Resolution order for a sale slot holding item X ({@link #resolve}):
+ *  1) a rule for that exact slot, as long as the slot still holds the item the rule was set for;
+ *  2) a rule for item X (matched by {@link ItemFingerprint}, so every slot holding X shares it);
+ *  3) the shop's default price ({@link BarterStore#getCurrentItemPrice()}).
+
+ * Slot binding:
+ *  - A slot rule remembers the item it was priced for. Once that slot is emptied and refilled with a
+ *    different item (by a purchase, the owner, a hopper or auto-restock), the old rule no longer applies
+ *    and the next rule in line does; restocking the same item brings it back.
+
+ * Tiers:
+ *  - A rule may carry tiers "from N purchases in one transaction, each costs M" (same currency item).
+ *  - The tier with the highest {@code minQuantity <= quantity} wins; below every tier the rule's base price applies.
+
+ * Why:
+ *  - One barrel can sell differently priced goods, instead of one barrel (store file, chunk index entry,
+ *    cache entry) per price.
+
+ * Threading:
+ *  - Main thread only; {@link #revision()} moves on every change so viewers can detect edits cheaply.
+ */
+public class PriceRules {
+
+    /** Slot index → (item the rule was set for, rule), sorted for stable serialization. */
+    private final Map<Integer, SlotRule> slotRules = new TreeMap<>();
+
+    /** Item fingerprint → (item template, rule), in creation order. */
+    private final Map<ItemFingerprint, ItemRule> itemRules = new LinkedHashMap<>();
+
+    /** Bumped on every mutation. */
+    private int revision;
+
+    /** Price for one purchase of the item in {@code slot} when {@code quantity} are bought together. */
+    public ItemStack resolve(int slot, ItemFingerprint item, ItemStack defaultPrice, int quantity) {
+        PriceRule rule = this.ruleFor(slot, item);
+        return rule == null ? defaultPrice.clone() : rule.unitPrice(quantity);
+    }
+
+    /** The rule that applies to a slot/item (slot first), or null if the default price applies. */
+    public @Nullable PriceRule ruleFor(int slot, ItemFingerprint item) {
+        PriceRule rule = this.getSlotRule(slot, item);
+        if (rule != null) return rule;
+
+        ItemRule itemRule = this.itemRules.get(item);
+        return itemRule == null ? null : itemRule.rule();
+    }
+
+    /** The slot's rule if it was set for {@code item}, or null (no rule, or one left over from another item). */
+    public @Nullable PriceRule getSlotRule(int slot, ItemFingerprint item) {
+        SlotRule slotRule = this.slotRules.get(slot);
+        return slotRule == null || !slotRule.fingerprint().equals(item) ? null : slotRule.rule();
+    }
+
+    public @Nullable PriceRule getItemRule(ItemFingerprint item) {
+        ItemRule itemRule = this.itemRules.get(item);
+        return itemRule == null ? null : itemRule.rule();
+    }
+
+    /** Set the rule for one slot while it holds the same item as {@code item} (amount ignored). */
+    public void setSlotRule(int slot, ItemStack item, PriceRule rule) {
+        ItemStack template = item.clone();
+        template.setAmount(1);
+        this.slotRules.put(slot, new SlotRule(ItemFingerprint.of(template), new ItemRule(template, rule)));
+        this.revision++;
+    }
+
+    /** Set the rule for every slot holding the same item as {@code item} (amount ignored). */
+    public void setItemRule(ItemStack item, PriceRule rule) {
+        ItemStack template = item.clone();
+        template.setAmount(1);
+        this.itemRules.put(ItemFingerprint.of(template), new ItemRule(template, rule));
+        this.revision++;
+    }
+
+    public boolean clearSlotRule(int slot) {
+        boolean removed = this.slotRules.remove(slot) != null;
+        if (removed) this.revision++;
+        return removed;
+    }
+
+    public boolean clearItemRule(ItemFingerprint item) {
+        boolean removed = this.itemRules.remove(item) != null;
+        if (removed) this.revision++;
+        return removed;
+    }
+
+    /** True if only the default price is in effect. */
+    public boolean isEmpty() {
+        return this.slotRules.isEmpty() && this.itemRules.isEmpty();
+    }
+
+    /** Changes whenever a rule is set or cleared. */
+    public int revision() {
+        return this.revision;
+    }
+
+    /** Slot rules as slot → (template of the item it was set for, rule) (for serialization). */
+    public Map<Integer, ItemRule> slotRules() {
+        Map<Integer, ItemRule> view = new TreeMap<>();
+        this.slotRules.forEach((slot, slotRule) -> view.put(slot, slotRule.itemRule()));
+        return Collections.unmodifiableMap(view);
+    }
+
+    /** Item rules as (template, rule) pairs (for serialization). */
+    public List<ItemRule> itemRules() {
+        return List.copyOf(this.itemRules.values());
+    }
+
+    /**
+     * Every currency item a rule can charge in (one clone per rule; tiers share their rule's currency).
+     * Together with the default price, these are the only items a buyer's wallet needs counted.
+     */
+    public List<ItemStack> currencies() {
+        List<ItemStack> currencies = new ArrayList<>(this.slotRules.size() + this.itemRules.size());
+        this.slotRules.values().forEach(slotRule -> currencies.add(slotRule.rule().price()));
+        this.itemRules.values().forEach(itemRule -> currencies.add(itemRule.rule().price()));
+        return currencies;
+    }
+
+    /** Detached copy with cloned stacks (for off-thread serialization). */
+    public PriceRules copy() {
+        PriceRules copy = new PriceRules();
+        this.slotRules.forEach((slot, slotRule) -> copy.slotRules.put(slot, new SlotRule(slotRule.fingerprint(),
+                new ItemRule(slotRule.itemRule().item().clone(), slotRule.rule().copy()))));
+        this.itemRules.forEach((key, itemRule) -> copy.itemRules.put(key,
+                new ItemRule(itemRule.item().clone(), itemRule.rule().copy())));
+        copy.revision = this.revision;
+        return copy;
+    }
+
+    /**
+     * One price override.
+     *
+     * @param price base price for one purchase (currency item + amount)
+     * @param tiers quantity tiers in the same currency, sorted by minQuantity
+     */
+    public record PriceRule(ItemStack price, List<PriceTier> tiers) {
+
+        public PriceRule {
+            price = price.clone();
+            List<PriceTier> sorted = new ArrayList<>(tiers);
+            sorted.sort(Comparator.comparingInt(PriceTier::minQuantity));
+            tiers = List.copyOf(sorted);
+        }
+
+        public static PriceRule of(ItemStack price) {
+            return new PriceRule(price, List.of());
+        }
+
+        /** Price for one purchase when {@code quantity} are bought in one transaction (clone). */
+        public ItemStack unitPrice(int quantity) {
+            ItemStack unit = this.price.clone();
+            for (PriceTier tier : this.tiers) {
+                if (tier.minQuantity() <= quantity) {
+                    unit.setAmount(tier.amount());
+                }
+            }
+            return unit;
+        }
+
+        /** Tier starting at exactly {@code minQuantity}, or null. */
+        public @Nullable PriceTier tierAt(int minQuantity) {
+            for (PriceTier tier : this.tiers) {
+                if (tier.minQuantity() == minQuantity) return tier;
+            }
+            return null;
+        }
+
+        /** Copy with the tier at {@code tier.minQuantity()} replaced (or added). */
+        public PriceRule withTier(PriceTier tier) {
+            List<PriceTier> next = new ArrayList<>(this.tiers);
+            next.removeIf(existing -> existing.minQuantity() == tier.minQuantity());
+            next.add(tier);
+            return new PriceRule(this.price, next);
+        }
+
+        /** Copy without the tier starting at {@code minQuantity}. */
+        public PriceRule withoutTier(int minQuantity) {
+            List<PriceTier> next = new ArrayList<>(this.tiers);
+            next.removeIf(existing -> existing.minQuantity() == minQuantity);
+            return new PriceRule(this.price, next);
+        }
+
+        /** Copy with a new base price; tiers are kept only if the currency item is unchanged. */
+        public PriceRule withPrice(ItemStack price) {
+            boolean sameCurrency = ItemFingerprint.sameItem(price, this.price);
+            return new PriceRule(price, sameCurrency ? this.tiers : List.of());
+        }
+
+        PriceRule copy() {
+            return new PriceRule(this.price, this.tiers);
+        }
+
+        /** Returns a clone so callers cannot mutate the rule. */
+        @Override
+        public ItemStack price() {
+            return this.price.clone();
+        }
+    }
+
+    /**
+     * Quantity tier: from {@code minQuantity} purchases in one transaction, each costs {@code amount}.
+     */
+    public record PriceTier(int minQuantity, int amount) {
+
+        public PriceTier {
+            if (minQuantity < 2) throw new IllegalArgumentException("minQuantity must be >= 2");
+            if (amount < 1) throw new IllegalArgumentException("amount must be >= 1");
+        }
+    }
+
+    /** Item rule with the item it matches (amount 1), kept so the fingerprint can be recomputed on load. */
+    public record ItemRule(ItemStack item, PriceRule rule) {
+    }
+
+    /** A slot rule bound to the fingerprint of the item it was set for. */
+    private record SlotRule(ItemFingerprint fingerprint, ItemRule itemRule) {
+
+        PriceRule rule() {
+            return this.itemRule.rule();
+        }
+    }
+}
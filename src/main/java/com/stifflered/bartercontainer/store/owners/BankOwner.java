@@ -30,6 +30,11 @@ public class BankOwner implements InventoryHolder {
         this.container = container;
     }
 
+    /** Returns the barter store that owns this bank inventory. */
+    public BarterStore getContainer() {
+        return this.container;
+    }
+
     /** Required Bukkit API method; delegates to the store’s currency storage. */
     @Override
     public @NotNull Inventory getInventory() {
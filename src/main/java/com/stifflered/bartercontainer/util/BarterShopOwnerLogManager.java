@@ -17,9 +17,15 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.RandomAccessFile;
 
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -49,6 +55,9 @@ import java.util.Base64;
  * - ackRecords(...)      : Deduplicate "new" vs "seen" lines by rewriting file and appending "ACK".
  * - getPreAckedEntries() : Return only the entries that appeared after the last ACK.
  * - listAllEntries()     : Return all entries (except ACK lines), oldest to newest.
+ * - forEachPurchase() / forEachSale() : Stream just the fields analytics need, without building records.
+ * - openRecords() / forEachRecord() : Pin a log's current length, then stream records from a resume point
+ *                        (incremental exports).
  * - notifyNewPurchases() : On player join, summarizes number of post-ACK entries across their shops.
 
  * MiniMessage formatting:
@@ -146,6 +155,55 @@ public class BarterShopOwnerLogManager {
                               String purchaserName,
                               org.bukkit.inventory.ItemStack purchasedStack,
                               org.bukkit.inventory.ItemStack priceStack) throws java.io.IOException {
+        addLog(key, toRecord(timestamp, purchaserUuid, purchaserName, purchasedStack, priceStack));
+    }
+
+    /**
+     * Batch variant for bulk purchases: one v3 line per delivered stack, all appended in a single write.
+     * Each line carries the same timestamp, purchaser and price snapshot.
+     */
+    public static void addLogs(BarterStoreKey key,
+                               long timestamp,
+                               java.util.UUID purchaserUuid,
+                               String purchaserName,
+                               List<org.bukkit.inventory.ItemStack> purchasedStacks,
+                               org.bukkit.inventory.ItemStack priceStack) throws java.io.IOException {
+        addLogs(key, timestamp, purchaserUuid, purchaserName, purchasedStacks,
+                Collections.nCopies(purchasedStacks.size(), encodePrice(priceStack)));
+    }
+
+    /**
+     * Same as above with each line's price already encoded ({@link #encodePrice(ItemStack)}).
+     * {@code priceB64s} is parallel to {@code purchasedStacks}: price rules can charge each slot of one
+     * bulk purchase differently, so every line records what its own slot cost. Prices repeat within a
+     * batch (and usually across batches of one store), so the purchase path encodes each once and reuses
+     * the blob; only the purchased stacks are encoded here.
+     */
+    public static void addLogs(BarterStoreKey key,
+                               long timestamp,
+                               java.util.UUID purchaserUuid,
+                               String purchaserName,
+                               List<org.bukkit.inventory.ItemStack> purchasedStacks,
+                               List<String> priceB64s) throws java.io.IOException {
+        if (purchasedStacks.isEmpty()) return;
+
+        List<String> lines = new ArrayList<>(purchasedStacks.size());
+        for (int i = 0; i < purchasedStacks.size(); i++) {
+            lines.add(TransactionRecord.serialize(
+                    toRecord(timestamp, purchaserUuid, purchaserName, purchasedStacks.get(i), null), priceB64s.get(i)));
+        }
+
+        Path file = getFile(key);
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /** Build a v3 record with PURCHASED_BASE64 populated where possible. */
+    private static TransactionRecord toRecord(long timestamp,
+                                              java.util.UUID purchaserUuid,
+                                              String purchaserName,
+                                              org.bukkit.inventory.ItemStack purchasedStack,
+                                              org.bukkit.inventory.ItemStack priceStack) {
         org.bukkit.Material itemType = (purchasedStack == null ? org.bukkit.Material.AIR : purchasedStack.getType());
         int amount = (purchasedStack == null ? 0 : Math.max(0, purchasedStack.getAmount()));
 
@@ -157,7 +215,7 @@ public class BarterShopOwnerLogManager {
             BarterContainer.INSTANCE.getLogger().warning("Failed to serialize purchased ItemStack: " + e.getMessage());
         }
 
-        TransactionRecord rec = new TransactionRecord(
+        return new TransactionRecord(
                 timestamp,
                 purchaserUuid,
                 purchaserName,
@@ -166,8 +224,6 @@ public class BarterShopOwnerLogManager {
                 priceStack,   // may be null; serializer tolerates it
                 purchasedB64  // full purchased stack (meta/NBT preserved)
         );
-
-        addLog(key, rec);
     }
 
     /**
@@ -324,6 +380,285 @@ public class BarterShopOwnerLogManager {
         return records;
     }
 
+    /** Receives the timestamp, purchaser and delivered stack of one logged sale from {@link #forEachPurchase}. */
+    @FunctionalInterface
+    public interface PurchaseVisitor {
+        /**
+         * @param purchaser the buyer, or null if the line's PURCHASER_UUID is malformed
+         * @param itemType  the delivered material, or null if unknown to this server version
+         * @param amount    delivered amount (0 if malformed)
+         */
+        void accept(long timestamp, UUID purchaser, Material itemType, int amount);
+    }
+
+    /**
+     * Streams just the TIMESTAMP, PURCHASER_UUID, ITEM_TYPE and AMOUNT fields of every record
+     * (oldest → newest), skipping ACK, blank and malformed lines. The Base64 fields are never touched, so
+     * this is far cheaper than {@link #listAllEntries(BarterStoreKey)} for counting sales, buyers and
+     * best sellers over time.
+     */
+    public static void forEachPurchase(BarterStoreKey key, PurchaseVisitor visitor) throws IOException {
+        Path file = getFile(key);
+        if (Files.notExists(file)) return;
+
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                int colon = line.indexOf(':');
+                if (colon <= 0) continue; // ACK, blank or malformed
+
+                long timestamp;
+                try {
+                    timestamp = Long.parseLong(line.substring(0, colon).trim());
+                } catch (NumberFormatException ignored) {
+                    continue; // Malformed line; same leniency as listAllEntries
+                }
+
+                // TIMESTAMP:PURCHASER_UUID:PURCHASER_NAME:ITEM_TYPE:AMOUNT[:...]
+                int uuidEnd = line.indexOf(':', colon + 1);
+                int nameEnd = uuidEnd < 0 ? -1 : line.indexOf(':', uuidEnd + 1);
+                int typeEnd = nameEnd < 0 ? -1 : line.indexOf(':', nameEnd + 1);
+                int amountEnd = typeEnd < 0 ? -1 : line.indexOf(':', typeEnd + 1);
+                if (amountEnd < 0 && typeEnd >= 0) amountEnd = line.length(); // v1 line ends at AMOUNT
+
+                UUID purchaser = null;
+                Material itemType = null;
+                int amount = 0;
+                try {
+                    if (uuidEnd > 0) purchaser = UUID.fromString(line.substring(colon + 1, uuidEnd));
+                } catch (IllegalArgumentException ignored) {
+                    // Still a sale; just not attributable to a buyer
+                }
+                if (amountEnd > 0) {
+                    itemType = Material.matchMaterial(line.substring(nameEnd + 1, typeEnd));
+                    try {
+                        amount = Integer.parseInt(line.substring(typeEnd + 1, amountEnd));
+                    } catch (NumberFormatException ignored) {
+                        // Counted as a sale without units
+                    }
+                }
+                visitor.accept(timestamp, purchaser, itemType, amount);
+            }
+        }
+    }
+
+    /** Receives one logged sale from {@link #forEachSale}. */
+    @FunctionalInterface
+    public interface SaleVisitor {
+        /**
+         * @param price the per-purchase price charged (shared between lines; do not mutate), or null for legacy v1 lines
+         */
+        void accept(long timestamp, Material itemType, int amount, ItemStack price);
+    }
+
+    /**
+     * Streams the sales logged in {@code [since, until)} (oldest → newest), skipping ACK, blank and
+     * malformed lines. PURCHASED_BASE64 is never decoded, and each distinct PRICE_BASE64 is decoded only
+     * once per file (a store's price rarely changes), so this is far cheaper than
+     * {@link #listAllEntries(BarterStoreKey)} for market-wide aggregation.
+     */
+    public static void forEachSale(BarterStoreKey key, long since, long until, SaleVisitor visitor) throws IOException {
+        Path file = getFile(key);
+        if (Files.notExists(file)) return;
+
+        Map<String, Optional<ItemStack>> prices = new HashMap<>();
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(":");
+                if (parts.length < 5 || parts.length > 7) continue; // ACK, blank or malformed
+
+                try {
+                    long timestamp = Long.parseLong(parts[0].trim());
+                    if (timestamp < since || timestamp >= until) continue;
+
+                    Material itemType = Material.matchMaterial(parts[3]);
+                    if (itemType == null) continue;
+
+                    ItemStack price = parts.length >= 6
+                            ? prices.computeIfAbsent(parts[5], BarterShopOwnerLogManager::decodePriceQuietly).orElse(null)
+                            : null;
+                    visitor.accept(timestamp, itemType, Integer.parseInt(parts[4]), price);
+                } catch (NumberFormatException ignored) {
+                    // Malformed line; same leniency as listAllEntries
+                }
+            }
+        }
+    }
+
+    /** Receives one logged record from {@link #forEachRecord}. */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        /**
+         * @param purchaser the buyer, or null if the line's PURCHASER_UUID is malformed
+         * @param itemType  the delivered material, or null if unknown to this server version
+         * @param price     the per-purchase price charged (shared between lines; do not mutate), or null for legacy v1 lines
+         */
+        void accept(long timestamp, UUID purchaser, Material itemType, int amount, ItemStack price);
+    }
+
+    /**
+     * A store's log pinned at the moment {@link #openRecords} ran: an open handle plus the length it had then.
+
+     * Reading through it never sees later appends (they land past the pinned length) nor a later
+     * {@link #ackRecords} rewrite (that replaces the file; this handle stays on the old one), so a reader only
+     * has to keep writers out while opening it, not while streaming it.
+     */
+    public static final class RecordLog implements Closeable {
+
+        private final FileChannel channel; // null if the store has no log
+        private final long length;
+
+        private RecordLog(FileChannel channel, long length) {
+            this.channel = channel;
+            this.length = length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.channel != null) this.channel.close();
+        }
+    }
+
+    /** Open a store's log and pin its current length (cheap: no reading). Close the result when done. */
+    public static RecordLog openRecords(BarterStoreKey key) throws IOException {
+        Path file = getFile(key);
+        if (Files.notExists(file)) return new RecordLog(null, 0);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new RecordLog(channel, channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Streams every record of the pinned log after the first {@code skip} (oldest → newest) and returns how
+     * many records it holds, so callers can resume from that count next time (records are append-only and
+     * {@link #ackRecords} keeps their order; only ACK lines move).
+
+     * Skipped records are counted without being parsed; malformed records are counted but not visited.
+     * PURCHASED_BASE64 is never decoded, and each distinct PRICE_BASE64 is decoded once (cache capped, so
+     * memory stays bounded however long the log is).
+     */
+    public static long forEachRecord(RecordLog log, long skip, RecordVisitor visitor) throws IOException {
+        if (log.channel == null) return 0;
+
+        Map<String, Optional<ItemStack>> prices = new HashMap<>();
+        long records = 0;
+        // Position 0 up to the pinned length; closing the reader also closes the log's channel
+        InputStream in = new BoundedInputStream(Channels.newInputStream(log.channel.position(0)), log.length);
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isBlank() || line.trim().equals("ACK")) continue;
+                if (records++ < skip) continue;
+
+                String[] parts = line.split(":");
+                if (parts.length < 5 || parts.length > 7) continue; // malformed
+
+                try {
+                    long timestamp = Long.parseLong(parts[0].trim());
+                    UUID purchaser;
+                    try {
+                        purchaser = UUID.fromString(parts[1]);
+                    } catch (IllegalArgumentException e) {
+                        purchaser = null;
+                    }
+
+                    ItemStack price = null;
+                    if (parts.length >= 6) {
+                        if (prices.size() >= 256) prices.clear();
+                        price = prices.computeIfAbsent(parts[5], BarterShopOwnerLogManager::decodePriceQuietly).orElse(null);
+                    }
+                    visitor.accept(timestamp, purchaser, Material.matchMaterial(parts[3]), Integer.parseInt(parts[4]), price);
+                } catch (NumberFormatException ignored) {
+                    // Malformed line; same leniency as listAllEntries
+                }
+            }
+        }
+        return records;
+    }
+
+    /** Reads at most {@code remaining} bytes of the wrapped stream, then reports end of stream. */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (this.remaining <= 0) return -1;
+            int b = super.read();
+            if (b >= 0) this.remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (this.remaining <= 0) return -1;
+            int read = super.read(buffer, offset, (int) Math.min(length, this.remaining));
+            if (read > 0) this.remaining -= read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, this.remaining));
+            if (skipped > 0) this.remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), this.remaining);
+        }
+    }
+
+    /** Keys of every store that has a purchase log (including stores removed since). */
+    public static List<BarterStoreKey> loggedStores() throws IOException {
+        Path directory = BarterContainer.INSTANCE.getDataPath().resolve(DIRECTORY_NAME);
+        if (Files.notExists(directory)) return List.of();
+
+        List<BarterStoreKey> keys = new ArrayList<>();
+        try (var files = Files.newDirectoryStream(directory, "*.txt")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    keys.add(new com.stifflered.bartercontainer.barter.BarterStoreKeyImpl(
+                            UUID.fromString(name.substring(0, name.length() - ".txt".length()))));
+                } catch (IllegalArgumentException ignored) {
+                    // Not a store log
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static Optional<ItemStack> decodePriceQuietly(String base64) {
+        try {
+            return Optional.ofNullable(decodeItemStack(base64));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    /** Last-modified time of the store's log in epoch millis, or 0 if it has none. */
+    public static long lastModified(BarterStoreKey key) {
+        Path file = getFile(key);
+        try {
+            return Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0L;
+        } catch (IOException e) {
+            return Long.MAX_VALUE; // unknown: treat as changed so callers re-read it
+        }
+    }
+
     /**
      * Deletes the per-store log file if it exists.
      * (Used on cleanup or store deletion.)
@@ -372,6 +707,19 @@ public class BarterShopOwnerLogManager {
         }
     }
 
+    /**
+     * PRICE_BASE64 field for a price stack: {@link #encodeItemStack(ItemStack)}, or "" (logged) if it cannot be encoded.
+     * Exposed so callers can encode a price once and pass the blob to {@link #addLogs(BarterStoreKey, long, UUID, String, List, List)}.
+     */
+    public static String encodePrice(ItemStack price) {
+        try {
+            return encodeItemStack(price);
+        } catch (IOException ioe) {
+            BarterContainer.INSTANCE.getLogger().warning("Failed to serialize price ItemStack: " + ioe.getMessage());
+            return "";
+        }
+    }
+
     /**
      * Deserialize a Base64 string produced by {@link #encodeItemStack(ItemStack)}.
      * Returns null if the string is empty.
@@ -447,25 +795,21 @@ public class BarterShopOwnerLogManager {
          * BACKWARDS COMPATIBLE: We write v3 now. v1/v2 lines are still accepted on read (see deserialize).
          */
         public static String serialize(TransactionRecord record) {
-            String priceB64 = "";
-            try {
-                priceB64 = encodeItemStack(record.price);
-            } catch (IOException ioe) {
-                BarterContainer.INSTANCE.getLogger().warning("Failed to serialize price ItemStack: " + ioe.getMessage());
-            }
+            return serialize(record, encodePrice(record.price));
+        }
 
+        /** Same line format, with PRICE_BASE64 supplied pre-encoded (the record's own price is ignored). */
+        public static String serialize(TransactionRecord record, String priceB64) {
             String purchasedB64 = record.purchasedB64 == null ? "" : record.purchasedB64;
 
-            return String.format(
-                    "%d:%s:%s:%s:%d:%s:%s",
-                    record.timestamp,
-                    record.purchaserUuid.toString(),
-                    record.purchaserName,
-                    record.itemType.name(),
-                    record.amount,
-                    priceB64,
-                    purchasedB64
-            );
+            // Plain concatenation (same output as "%d:%s:%s:%s:%d:%s:%s") without a format-string parse per line
+            return record.timestamp
+                    + ":" + record.purchaserUuid
+                    + ":" + record.purchaserName
+                    + ":" + record.itemType.name()
+                    + ":" + record.amount
+                    + ":" + priceB64
+                    + ":" + purchasedB64;
         }
 
         /**
@@ -0,0 +1,125 @@
+package com.stifflered.bartercontainer.util;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * One-pass summary of an inventory's contents: item fingerprint → total amount, plus free space.
+
+ * Why:
+ *  - Buy GUIs used to call inventory-util's hasAllItems/hasRoomForItems (full inventory scans with
+ *    deep item comparison) on every open and after every purchase.
+ *  - With a summary, "can the buyer pay?" and "can the bank take it?" are map lookups, and the GUI
+ *    can say how many purchases the buyer can afford.
+
+ * Notes:
+ *  - Immutable once built; take a new summary when the inventory changes.
+ *  - Amount-independent identity via {@link ItemFingerprint}, matching isSimilar() semantics.
+ *  - Advisory only: the purchase commit still does an authoritative check before mutating.
+ *  - {@link #of(ItemStack[], Collection)} counts only the given items: other stacks are skipped by
+ *    Material / isSimilar() without being fingerprinted (a buyer's wallet only needs its currencies).
+ */
+public final class ItemCountSummary {
+
+    /** Fingerprint → total amount across all slots. */
+    private final Map<ItemFingerprint, Integer> totals = new HashMap<>();
+
+    /** Fingerprint → free room in partially filled stacks of that item. */
+    private final Map<ItemFingerprint, Integer> partialRoom = new HashMap<>();
+
+    /** Number of completely empty slots. */
+    private int emptySlots;
+
+    private ItemCountSummary() {
+    }
+
+    /** Summarize the given contents (e.g., {@code inventory.getContents()}). */
+    public static ItemCountSummary of(@Nullable ItemStack[] contents) {
+        ItemCountSummary summary = new ItemCountSummary();
+        if (contents == null) return summary;
+
+        for (ItemStack stack : contents) {
+            if (stack == null || stack.isEmpty()) {
+                summary.emptySlots++;
+                continue;
+            }
+
+            ItemFingerprint fingerprint = ItemFingerprint.of(stack);
+            summary.totals.merge(fingerprint, stack.getAmount(), Integer::sum);
+
+            int room = stack.getMaxStackSize() - stack.getAmount();
+            if (room > 0) {
+                summary.partialRoom.merge(fingerprint, room, Integer::sum);
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Summarize only the stacks similar to one of {@code wanted} (e.g., the currencies a shop charges in).
+     * Other stacks are rejected by Material first and never serialized; matching stacks are keyed by the
+     * wanted item's fingerprint, so nothing in {@code contents} is hashed at all. Empty slots still count.
+     */
+    public static ItemCountSummary of(@Nullable ItemStack[] contents, Collection<ItemStack> wanted) {
+        ItemCountSummary summary = new ItemCountSummary();
+        if (contents == null) return summary;
+
+        Map<Material, List<ItemStack>> byType = new EnumMap<>(Material.class);
+        Map<ItemStack, ItemFingerprint> prints = new IdentityHashMap<>();
+        for (ItemStack item : wanted) {
+            if (item == null || item.isEmpty()) continue;
+            byType.computeIfAbsent(item.getType(), k -> new ArrayList<>()).add(item);
+            prints.put(item, ItemFingerprint.of(item));
+        }
+
+        for (ItemStack stack : contents) {
+            if (stack == null || stack.isEmpty()) {
+                summary.emptySlots++;
+                continue;
+            }
+
+            List<ItemStack> candidates = byType.get(stack.getType());
+            if (candidates == null) continue;
+            for (ItemStack candidate : candidates) {
+                if (!candidate.isSimilar(stack)) continue;
+
+                ItemFingerprint fingerprint = prints.get(candidate);
+                summary.totals.merge(fingerprint, stack.getAmount(), Integer::sum);
+                int room = stack.getMaxStackSize() - stack.getAmount();
+                if (room > 0) {
+                    summary.partialRoom.merge(fingerprint, room, Integer::sum);
+                }
+                break;
+            }
+        }
+        return summary;
+    }
+
+    /** Total amount of the given item. */
+    public int count(ItemFingerprint item) {
+        return this.totals.getOrDefault(item, 0);
+    }
+
+    /** How many more of the given item fit (partial stacks + empty slots). */
+    public int roomFor(ItemStack item) {
+        long room = (long) this.emptySlots * Math.max(1, item.getMaxStackSize())
+                + this.partialRoom.getOrDefault(ItemFingerprint.of(item), 0);
+        return (int) Math.min(Integer.MAX_VALUE, room);
+    }
+
+    /** How many times the given price can be paid from these contents (0 if no price is set). */
+    public int timesAffordable(ItemStack price) {
+        if (price == null || price.isEmpty()) return 0;
+        return this.count(ItemFingerprint.of(price)) / price.getAmount();
+    }
+
+    /** How many payments of the given price fit into these contents (0 if no price is set). */
+    public int timesFits(ItemStack price) {
+        if (price == null || price.isEmpty()) return 0;
+        return this.roomFor(price) / price.getAmount();
+    }
+}
@@ -0,0 +1,76 @@
+package com.stifflered.bartercontainer.util;
+
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Canonical, amount-independent identity of an item: a 128-bit hash of the item's serialized form
+ * (material + all data components) taken at amount 1.
+
+ * Why:
+ *  - ItemStack.equals/hashCode walk the full meta every call and include the stack size, which makes
+ *    them slow map keys and wrong for "same item, different count" lookups.
+ *  - A fingerprint is computed once per item snapshot and then compared/hashes in O(1).
+
+ * Notes:
+ *  - Uses MD5 purely as a fast, well-distributed 128-bit digest (not for security).
+ *  - Empty/air stacks share {@link #EMPTY}.
+ *  - Safe to compute off the main thread for items that are not being mutated concurrently.
+ */
+public record ItemFingerprint(long hi, long lo) {
+
+    /** Fingerprint shared by null/air/empty stacks. */
+    public static final ItemFingerprint EMPTY = new ItemFingerprint(0L, 0L);
+
+    /** One digest per thread; MessageDigest instances are not thread-safe. */
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // MD5 is mandatory on every JRE
+        }
+    });
+
+    /** Fingerprint of the given stack, ignoring its amount. */
+    public static ItemFingerprint of(@Nullable ItemStack stack) {
+        if (stack == null || stack.isEmpty()) return EMPTY;
+
+        ItemStack single = stack;
+        if (stack.getAmount() != 1) {
+            single = stack.clone();
+            single.setAmount(1);
+        }
+
+        MessageDigest md = DIGEST.get();
+        byte[] hash = md.digest(single.serializeAsBytes()); // digest() also resets for reuse
+        return new ItemFingerprint(readLong(hash, 0), readLong(hash, 8));
+    }
+
+    /** True if both stacks are the same item (amount ignored). */
+    public static boolean sameItem(@Nullable ItemStack a, @Nullable ItemStack b) {
+        return of(a).equals(of(b));
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0L;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+
+    @Override
+    public int hashCode() {
+        // Bits are already uniformly distributed; fold them instead of re-hashing
+        return (int) (this.hi ^ (this.hi >>> 32) ^ this.lo ^ (this.lo >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", this.hi, this.lo);
+    }
+}
@@ -40,6 +40,9 @@ public class Messages {
     private static JavaPlugin plugin;
     private static FileConfiguration messagesConfig;
     private static final Map<String, String> cache = new HashMap<>();
+    /** Parsed, placeholder-free components for hot paths; Components are immutable, so one instance is shared. */
+    private static final Map<String, Component> componentCache = new java.util.concurrent.ConcurrentHashMap<>();
+    private static final Map<String, List<Component>> listCache = new java.util.concurrent.ConcurrentHashMap<>();
     private static final MiniMessage MM = MiniMessage.miniMessage();
 
     /** Initialize once in onEnable(): Messages.init(this); */
@@ -68,6 +71,8 @@ public class Messages {
         }
 
         cache.clear();
+        componentCache.clear();
+        listCache.clear();
     }
 
     /** Raw string fetch (used internally). Never null; falls back to the path key itself. */
@@ -138,6 +143,14 @@ public class Messages {
         return MM.deserialize(raw, tagsUnparsed(placeholders));
     }
 
+    /**
+     * Same as {@link #mm(String, Object...)} without placeholders, parsed once and reused until {@link #reload()}.
+     * For static text redrawn on hot paths (confirm tiles, status tiles).
+     */
+    public static Component mmCached(String path) {
+        return componentCache.computeIfAbsent(path, p -> mm(p));
+    }
+
     /** Deserialize a Component from messages.yml using PARSED placeholder substitution. */
     public static Component mmParsed(String path, Object... placeholders) {
         String raw = get(path);
@@ -205,6 +218,14 @@ public class Messages {
         return out;
     }
 
+    /**
+     * Same as {@link #mmList(String, Object...)} without placeholders, parsed once and reused until {@link #reload()}.
+     * The returned list is immutable; copy it before appending lines.
+     */
+    public static List<Component> mmListCached(String path) {
+        return listCache.computeIfAbsent(path, p -> List.copyOf(mmList(p)));
+    }
+
     /* --------------------------------------------------------------------
      * Internal: IDE-friendly wrappers for Placeholder.*
      * These concentrate the @Subst usage in one place.
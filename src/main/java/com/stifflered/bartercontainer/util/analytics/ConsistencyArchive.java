@@ -14,12 +14,20 @@ import java.util.*;
 
  * - "Grand" is recomputed = average of non-empty week scores (or your custom blend).
  * - Rows are kept sorted by Player (case-insensitive).
- * - Idempotent upsert: update the (Player, WeekIndex) cell.
+ * - Idempotent upsert: update the (Player, WeekIndex) cell (one row, or a whole batch per write).
+ * - Writes go to a temp file that is atomically renamed over the month file, so a crash mid-write
+ *   never leaves a truncated CSV.
+ * - The parsed rows of each month are cached in memory and only re-read if the file changed on disk
+ *   (e.g., edited by hand), so repeated snapshots (Monday timer, /consistency-snapshot) don't re-parse it.
+ * - Thread-safe: upserts are serialized per archive.
  */
 public final class ConsistencyArchive {
 
     private final Path baseDir;
 
+    /** Month → parsed rows plus the file stamp they were read/written at. */
+    private final Map<YearMonth, CachedMonth> cache = new HashMap<>();
+
     public ConsistencyArchive(Plugin plugin) {
         this.baseDir = plugin.getDataFolder().toPath().resolve("consistency");
     }
@@ -29,15 +37,25 @@ public final class ConsistencyArchive {
     }
 
     public void recordWeeklyScore(String playerName, YearMonth ym, int weekIndex, double weeklyScore) throws IOException {
+        recordWeeklyScores(Map.of(playerName, weeklyScore), ym, weekIndex);
+    }
+
+    /**
+     * Batch upsert: set the (Player, WeekIndex) cell for every entry of {@code scores}
+     * with a single read-modify-write of the month file.
+     */
+    public synchronized void recordWeeklyScores(Map<String, Double> scores, YearMonth ym, int weekIndex) throws IOException {
         if (weekIndex < 1 || weekIndex > 4) throw new IllegalArgumentException("weekIndex must be 1..4");
         Files.createDirectories(baseDir);
 
         Path file = monthFile(ym);
-        Map<String, Row> rows = Files.exists(file) ? read(file) : new LinkedHashMap<>();
+        Map<String, Row> rows = rows(ym, file);
 
-        Row r = rows.computeIfAbsent(playerName, Row::new);
-        r.setWeek(weekIndex, weeklyScore);
-        r.recomputeGrand();
+        for (Map.Entry<String, Double> score : scores.entrySet()) {
+            Row r = rows.computeIfAbsent(score.getKey(), Row::new);
+            r.setWeek(weekIndex, score.getValue());
+            r.recomputeGrand();
+        }
 
         // Maintain Month field for all rows.
         for (Row row : rows.values()) row.month = ym.toString();
@@ -46,7 +64,26 @@ public final class ConsistencyArchive {
         List<Row> sorted = new ArrayList<>(rows.values());
         sorted.sort(Comparator.comparing(a -> a.player.toLowerCase(Locale.ROOT)));
 
-        write(file, sorted);
+        try {
+            write(file, sorted);
+        } catch (IOException e) {
+            cache.remove(ym); // in-memory rows are ahead of the file now; re-read next time
+            throw e;
+        }
+        cache.put(ym, new CachedMonth(rows, FileStamp.of(file)));
+    }
+
+    /** Cached rows for the month, (re)read if the file was created, changed or deleted since. */
+    private Map<String, Row> rows(YearMonth ym, Path file) throws IOException {
+        FileStamp stamp = FileStamp.of(file);
+        CachedMonth cached = cache.get(ym);
+        if (cached != null && cached.stamp.equals(stamp)) {
+            return cached.rows;
+        }
+
+        Map<String, Row> rows = stamp.exists() ? read(file) : new LinkedHashMap<>();
+        cache.put(ym, new CachedMonth(rows, stamp));
+        return rows;
     }
 
     /* -------------------- CSV internals -------------------- */
@@ -75,7 +112,8 @@ public final class ConsistencyArchive {
     }
 
     private void write(Path file, List<Row> rows) throws IOException {
-        try (BufferedWriter bw = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter bw = Files.newBufferedWriter(temp, StandardCharsets.UTF_8,
                 StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
             bw.write(HEADER);
             bw.newLine();
@@ -92,6 +130,12 @@ public final class ConsistencyArchive {
                 bw.newLine();
             }
         }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
     private static String esc(String s) { return s == null ? "" : s; }
@@ -101,6 +145,19 @@ public final class ConsistencyArchive {
         try { return Double.parseDouble(s); } catch (Exception e) { return null; }
     }
 
+    /* -------------------- Month cache -------------------- */
+
+    private record CachedMonth(Map<String, Row> rows, FileStamp stamp) {}
+
+    /** Enough of a file's attributes to notice outside edits (missing file → {@code exists=false}). */
+    private record FileStamp(boolean exists, long modified, long size) {
+
+        static FileStamp of(Path file) throws IOException {
+            if (Files.notExists(file)) return new FileStamp(false, 0L, 0L);
+            return new FileStamp(true, Files.getLastModifiedTime(file).toMillis(), Files.size(file));
+        }
+    }
+
     /* -------------------- Row model -------------------- */
 
     private static final class Row {
@@ -143,14 +143,13 @@ public final class ConsistencyScoreCalculator {
      *   - Recency:   “Did most sales happen recently?” (recent = good)
      *   - Trend:     “Is the overall line fairly flat (or only gently sloped)?” (gentle = good)
 
+     * Every statistic below comes from one allocation-free pass over the window ({@link WindowMoments});
+     * the only allocations are the Result and its copy of the counts.
+
      * Requirements: dailySales.length >= 2
      */
     public static Result calculateFromDailyCounts(int[] dailySales, Params params) {
-        Objects.requireNonNull(dailySales, "dailySales");
-        Objects.requireNonNull(params, "params");
-        if (dailySales.length < 2) throw new IllegalArgumentException("dailySales must have length >= 2");
-
-        final int n = dailySales.length;
+        WindowMoments m = moments(dailySales, params);
 
         /* ------------------------------------------------------------------------------------------
          * 1) Stability — inverse of normalized std dev, computed on a dampened series
@@ -163,10 +162,6 @@ public final class ConsistencyScoreCalculator {
          *   raw:   [0, 1, 2, 10, 100]
          *   log1p: [0.00, 0.69, 1.10, 2.40, 4.62]  ← big numbers compress; small ones still differ
          */
-        double[] y = new double[n];
-        for (int i = 0; i < n; i++) {
-            y[i] = Math.log1p(Math.max(0, dailySales[i]));
-        }
 
         // meanLog = average level of the dampened series (what “a typical day” looks like after log1p).
         // stdLog  = how much the dampened series wiggles around that level.
@@ -180,10 +175,7 @@ public final class ConsistencyScoreCalculator {
         //   cv = 1   → stability = 0.50 (moderately uneven)
         //   cv = 3   → stability = 0.25 (very uneven, but not zero)
         // ε (like 1e-9) avoids division by zero if the window is all zeros.
-        double meanLog = mean(y);
-        double stdLog  = stdDev(y, meanLog);
-        double cv = Math.max(0.0, stdLog / (meanLog + 1e-9));  // coefficient of variation on dampened series
-        double stability = 1.0 / (1.0 + cv);
+        double stability = stabilityScore(m.meanLog(), m.stdLog());
 
         /* ------------------------------------------------------------------------------------------
          * 2) Recency — exponential decay by day index (0 = today)
@@ -209,12 +201,7 @@ public final class ConsistencyScoreCalculator {
          *   - If sales are older, they count less, so decayed < total → recency < 1.0
          *   - If no sales at all (total=0), we define recency = 0 to avoid NaN.
          */
-        double total = sum(dailySales);
-        double decayed = 0.0;
-        for (int d = 0; d < n; d++) {
-            decayed += dailySales[d] * Math.exp(-params.lambda * d);
-        }
-        double recency = total <= 0 ? 0.0 : clamp01(decayed / total);
+        double recency = m.recency();
 
         /* ------------------------------------------------------------------------------------------
          * 3) Trend — “How flat is the line?” measured as a relative slope on the dampened series
@@ -240,10 +227,7 @@ public final class ConsistencyScoreCalculator {
          *        - If relSlope ≫ maxSlope → trend decays toward 0 but never fully reaches it.
          *        - This avoids “all sales in one burst” dropping trend unfairly to 0.
          */
-        double slopeLog = regressionSlope(y);
-        double relSlope = (meanLog <= 0 ? 0.0 : slopeLog / (meanLog + 1e-9));
-        double steepness = Math.abs(relSlope) / params.maxSlope;
-        double trend = 1.0 / (1.0 + steepness);
+        double trend = trendScore(m.meanLog(), m.slopeLog(), params);
 
         /* ------------------------------------------------------------------------------------------
          * Final blend — weight and normalize the three component scores
@@ -251,18 +235,46 @@ public final class ConsistencyScoreCalculator {
          * You can change the Weights to tweak behavior (e.g., value Recency more during events).
          * We divide by the sum to keep the score in [0..1] without requiring weights to sum to 1.
          */
-        Weights w = params.weights;
-        double wsum = w.sum();
-        double finalScore = clamp01(
-                (w.stability * stability + w.recency * recency + w.trend * trend) / (wsum == 0 ? 1.0 : wsum)
-        );
+        double finalScore = blend(stability, recency, trend, params);
 
         // For the UI, we also expose raw descriptive stats (no dampening) so players see familiar numbers.
-        double meanRaw  = mean(dailySales);
-        double stdRaw   = stdDev(dailySales, meanRaw);
-        double slopeRaw = regressionSlope(dailySales);
+        return new Result(finalScore, stability, recency, trend,
+                m.meanRaw(), m.stdRaw(), m.slopeRaw(), dailySales.clone());
+    }
+
+    /**
+     * Just the final score of {@link #calculateFromDailyCounts(int[], Params)}, allocating nothing
+     * (no Result, no copy of the counts). Meant for mass rescoring, e.g., every owner in the weekly snapshot.
 
-        return new Result(finalScore, stability, recency, trend, meanRaw, stdRaw, slopeRaw, dailySales.clone());
+     * Requirements: dailySales.length >= 2
+     */
+    public static double score(int[] dailySales, Params params) {
+        WindowMoments m = moments(dailySales, params);
+        return blend(
+                stabilityScore(m.meanLog(), m.stdLog()),
+                m.recency(),
+                trendScore(m.meanLog(), m.slopeLog(), params),
+                params
+        );
+    }
+
+    /**
+     * Build a Result from window moments that were maintained incrementally (see {@link RollingConsistency}),
+     * using exactly the same component formulas as {@link #calculateFromDailyCounts(int[], Params)}.
+
+     * @param meanLog    mean of log1p(counts)
+     * @param stdLog     population std dev of log1p(counts)
+     * @param slopeLog   OLS slope of log1p(counts) vs day index
+     * @param recency    decayed total / total, already clamped
+     * @param dailySales raw counts (index 0 = today); kept in the Result as-is
+     */
+    static Result fromMoments(double meanLog, double stdLog, double slopeLog, double recency,
+                              double meanRaw, double stdRaw, double slopeRaw,
+                              int[] dailySales, Params params) {
+        double stability = stabilityScore(meanLog, stdLog);
+        double trend = trendScore(meanLog, slopeLog, params);
+        double finalScore = blend(stability, recency, trend, params);
+        return new Result(finalScore, stability, recency, trend, meanRaw, stdRaw, slopeRaw, dailySales);
     }
 
     /**
@@ -271,6 +283,9 @@ public final class ConsistencyScoreCalculator {
      * We drop events into day buckets relative to “today” in the given time zone,
      * then call {@link #calculateFromDailyCounts(int[], Params)}.
      *
+     * For shop sales prefer {@link SalesHistograms}, which keeps the daily buckets up to date as sales
+     * are logged and feeds {@link #calculateFromDailyCounts(int[], Params)} directly.
+     *
      * @param saleInstants Can be in any order. Only events within the window are counted.
      * @param params       See {@link Params}.
      * @param clock        The reference clock (use Clock.systemUTC() or your server clock).
@@ -321,105 +336,136 @@ public final class ConsistencyScoreCalculator {
         return counts;
     }
 
-    /* ----- small math utilities (int[] and double[] variants) ------------------------------------ */
+    /* ----- single-pass window kernel ------------------------------------------------------------- */
+
+    /** log1p(c) for counts below 1024 (nearly every day of every shop), so the kernel rarely calls Math.log1p. */
+    private static final double[] LOG1P = new double[1024];
 
-    /** Arithmetic average — int[]. Example: [2,4,6] → 4.0 */
-    private static double mean(int[] a) {
-        return a.length == 0 ? 0.0 : (double) sum(a) / a.length;
+    static {
+        for (int c = 0; c < LOG1P.length; c++) LOG1P[c] = Math.log1p(c);
     }
 
-    /** Arithmetic average — double[]. */
-    private static double mean(double[] a) {
-        if (a.length == 0) return 0.0;
-        double s = 0.0;
-        for (double v : a) s += v;
-        return s / a.length;
+    /** One scratch accumulator per thread (the weekly snapshot scores owners on several threads). */
+    private static final ThreadLocal<WindowMoments> SCRATCH = ThreadLocal.withInitial(WindowMoments::new);
+
+    /** Dampened count y = log1p(max(0, count)); bit-identical to Math.log1p, via table for small counts. */
+    static double dampen(int count) {
+        if (count <= 0) return 0.0;
+        return count < LOG1P.length ? LOG1P[count] : Math.log1p(count);
     }
 
-    /** Sum — int[]. Example: [2,4,6] → 12 */
-    private static int sum(int[] a) {
-        int s = 0;
-        for (int v : a) s += v;
-        return s;
+    private static WindowMoments moments(int[] dailySales, Params params) {
+        Objects.requireNonNull(dailySales, "dailySales");
+        Objects.requireNonNull(params, "params");
+        if (dailySales.length < 2) throw new IllegalArgumentException("dailySales must have length >= 2");
+
+        return SCRATCH.get().accumulate(dailySales, params.lambda);
     }
 
     /**
-     * Population standard deviation (not sample) — int[].
-     * Meaning: “typical distance from the average.”
-     * If all values are identical → std = 0. Bigger up/down swings → bigger std.
+     * Everything the scores need, from one pass over the window, for both the raw counts and the dampened
+     * series y = log1p(count):
+     *  - mean and population variance: sums of (v − v₀) and (v − v₀)², shifted by the first value so
+     *    the variance does not lose precision to cancellation;
+     *  - Σ(x·v) for the OLS slope (x = day index; Σx and Σx² are closed-form);
+     *  - total and recency-decayed total (weight e^(−λ·d) as a running product, no exp per day).
+
+     * OLS slope with x = 0..n-1:
+     *   slope = Σ(x − x̄)(y − ȳ) / Σ(x − x̄)²  =  (Σxy − Σx · ȳ) / (n(n² − 1) / 12)
+     *   - slope ≈ 0 → flat (consistent); > 0 → increasing each day; < 0 → decreasing.
+
+     * Reused per thread; read the results before the next {@link #accumulate} on the same thread.
      */
-    private static double stdDev(int[] a, double mean) {
-        if (a.length == 0) return 0.0;
-        double ss = 0.0;
-        for (int v : a) {
-            double d = v - mean;
-            ss += d * d;
-        }
-        return Math.sqrt(ss / a.length);
-    }
+    private static final class WindowMoments {
+        private int n;
+        private double rawShift, rawSum, rawSumSq, rawXY;
+        private double logShift, logSum, logSumSq, logXY;
+        private double total, decayed;
+
+        WindowMoments accumulate(int[] counts, double lambda) {
+            int n = counts.length;
+            double rawShift = counts[0], logShift = dampen(counts[0]);
+            double rawSum = 0, rawSumSq = 0, rawXY = 0;
+            double logSum = 0, logSumSq = 0, logXY = 0;
+            double total = 0, decayed = 0;
+
+            double step = Math.exp(-lambda);
+            double weight = 1.0;
+            for (int d = 0; d < n; d++) {
+                int c = counts[d];
+                double y = dampen(c);
+
+                double r = c - rawShift;
+                rawSum += r;
+                rawSumSq += r * r;
+                rawXY += d * (double) c;
+
+                double l = y - logShift;
+                logSum += l;
+                logSumSq += l * l;
+                logXY += d * y;
+
+                total += c;
+                decayed += c * weight;
+                weight *= step;
+            }
 
-    /** Population standard deviation — double[]. */
-    private static double stdDev(double[] a, double mean) {
-        if (a.length == 0) return 0.0;
-        double ss = 0.0;
-        for (double v : a) {
-            double d = v - mean;
-            ss += d * d;
+            this.n = n;
+            this.rawShift = rawShift; this.rawSum = rawSum; this.rawSumSq = rawSumSq; this.rawXY = rawXY;
+            this.logShift = logShift; this.logSum = logSum; this.logSumSq = logSumSq; this.logXY = logXY;
+            this.total = total;
+            this.decayed = decayed;
+            return this;
         }
-        return Math.sqrt(ss / a.length);
-    }
 
-    /**
-     * Ordinary Least Squares (OLS) slope with x = 0..n-1 and y = int[] (raw counts).
+        double meanRaw()  { return this.rawShift + this.rawSum / this.n; }
+        double meanLog()  { return this.logShift + this.logSum / this.n; }
+        double stdRaw()   { return std(this.rawSum, this.rawSumSq); }
+        double stdLog()   { return std(this.logSum, this.logSumSq); }
+        double slopeRaw() { return this.slope(this.meanRaw(), this.rawXY); }
+        double slopeLog() { return this.slope(this.meanLog(), this.logXY); }
+
+        /** Decayed total / total, clamped; 0 if nothing sold (avoids NaN). */
+        double recency() {
+            return this.total <= 0 ? 0.0 : clamp01(this.decayed / this.total);
+        }
 
-     * What does “slope” mean here?
-     *   - Draw the “best fit” straight line through points (dayIndex, sales).
-     *   - If slope ≈ 0 → the line is flat (consistent).
-     *   - If slope > 0 → the line trends upward (sales increasing each day).
-     *   - If slope < 0 → the line trends downward.
+        private double std(double sum, double sumSq) {
+            return Math.sqrt(Math.max(0.0, (sumSq - sum * sum / this.n) / this.n));
+        }
 
-     * Efficient formula (single pass for sums):
-     *   slope = (n * Σ(x*y) - Σx * Σy) / (n * Σ(x^2) - (Σx)^2)
-     */
-    private static double regressionSlope(int[] y) {
-        int n = y.length;
-        if (n < 2) return 0.0;
-
-        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
-        for (int i = 0; i < n; i++) {
-            sumX += i;
-            sumY += y[i];
-            sumXY += i * (double) y[i];
-            sumXX += i * (double) i;
+        private double slope(double mean, double sumXY) {
+            double n = this.n;
+            double sumX = n * (n - 1) / 2;
+            double sxx = n * (n * n - 1) / 12;
+            return (sumXY - sumX * mean) / sxx;
         }
-        double denom = n * sumXX - sumX * sumX;
-        if (denom == 0) return 0.0; // degenerate case
-        return (n * sumXY - sumX * sumY) / denom;
     }
 
-    /**
-     * Ordinary Least Squares (OLS) slope with x = 0..n-1 and y = double[] (dampened counts).
+    /** Stability = 1 / (1 + cv), cv = std/mean of the dampened series (see calculateFromDailyCounts). */
+    private static double stabilityScore(double meanLog, double stdLog) {
+        double cv = Math.max(0.0, stdLog / (meanLog + 1e-9));  // coefficient of variation on dampened series
+        return 1.0 / (1.0 + cv);
+    }
 
-     * Same idea as the int[] version, just operating on log1p(counts).
-     */
-    private static double regressionSlope(double[] y) {
-        int n = y.length;
-        if (n < 2) return 0.0;
-
-        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
-        for (int i = 0; i < n; i++) {
-            sumX  += i;
-            sumY  += y[i];
-            sumXY += i * y[i];
-            sumXX += i * (double) i;
-        }
-        double denom = n * sumXX - sumX * sumX;
-        if (denom == 0) return 0.0;
-        return (n * sumXY - sumX * sumY) / denom;
+    /** Trend = 1 / (1 + |relSlope| / maxSlope), relSlope = slope/mean of the dampened series. */
+    private static double trendScore(double meanLog, double slopeLog, Params params) {
+        double relSlope = (meanLog <= 0 ? 0.0 : slopeLog / (meanLog + 1e-9));
+        double steepness = Math.abs(relSlope) / params.maxSlope;
+        return 1.0 / (1.0 + steepness);
+    }
+
+    /** Weighted blend of the three components, normalized by the weight sum. */
+    private static double blend(double stability, double recency, double trend, Params params) {
+        Weights w = params.weights;
+        double wsum = w.sum();
+        return clamp01(
+                (w.stability * stability + w.recency * recency + w.trend * trend) / (wsum == 0 ? 1.0 : wsum)
+        );
     }
 
     /** Clamp into [0, 1]. Treats 0 = 0% and 1 = 100%. */
-    private static double clamp01(double v) {
+    static double clamp01(double v) {
         return Math.max(0.0, Math.min(1.0, v));
     }
 
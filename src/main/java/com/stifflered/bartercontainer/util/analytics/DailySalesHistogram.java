@@ -0,0 +1,205 @@
+package com.stifflered.bartercontainer.util.analytics;
+
+/**
+ * Fixed-size ring buffer of sale counts per calendar day.
+
+ * Layout:
+ *  - One int per day, indexed by {@code epochDay % capacity}; {@code headDay} is the newest day held.
+ *  - Adding a sale for a newer day first zeroes the days it skips over, so old days fall off the ring
+ *    without any per-sale objects or rescans.
+ *  - {@link #dailyCounts(long, int)} returns the window in the shape
+ *    {@link ConsistencyScoreCalculator#calculateFromDailyCounts} expects (index 0 = today).
+ *  - Optionally tracks one scoring window online ({@link RollingConsistency}), updated on every add and
+ *    day rollover, so {@link #consistency} answers without rescanning the window.
+
+ * Thread-safety:
+ *  - All methods are synchronized; the ring is tiny, so contention is negligible.
+ */
+public final class DailySalesHistogram {
+
+    private final int[] counts;
+    private long headDay;
+
+    /** Online moments of the tracked window ending at headDay, or null if none is tracked. */
+    private final RollingConsistency live;
+
+    /** Sales ever recorded (including days that have rotated out); tells "never sold" from "quiet lately". */
+    private long total;
+
+    /** Empty ring holding {@code capacity} days. */
+    public DailySalesHistogram(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Empty ring holding {@code capacity} days that also keeps {@code tracked}'s window scored online.
+     *
+     * @param tracked scoring params whose window/decay are maintained incrementally (null = none)
+     */
+    public DailySalesHistogram(int capacity, ConsistencyScoreCalculator.Params tracked) {
+        if (capacity < 2) throw new IllegalArgumentException("capacity must be >= 2");
+        if (tracked != null && tracked.windowDays() > capacity) {
+            throw new IllegalArgumentException("tracked window must fit the ring");
+        }
+        this.counts = new int[capacity];
+        this.headDay = Long.MIN_VALUE;
+        this.live = tracked == null ? null : new RollingConsistency(tracked.windowDays(), tracked.lambda());
+    }
+
+    /** Number of days the ring holds. */
+    public int capacity() {
+        return this.counts.length;
+    }
+
+    /** Count {@code sales} sales on {@code epochDay}; days older than the ring are only added to the total. */
+    public synchronized void add(long epochDay, int sales) {
+        if (sales <= 0) return;
+        this.total += sales;
+
+        this.advanceTo(epochDay);
+        if (epochDay <= this.headDay - this.counts.length) return; // rotated out already
+
+        int index = this.index(epochDay);
+        int before = this.counts[index];
+        this.counts[index] += sales;
+        if (this.live != null) {
+            this.live.changed((int) Math.min(Integer.MAX_VALUE, this.headDay - epochDay), before, this.counts[index]);
+        }
+    }
+
+    /** Add every day of {@code other} (same capacity) into this ring; used to build owner rings from store rings. */
+    public synchronized void addAll(DailySalesHistogram other) {
+        long otherHead;
+        int[] otherCounts;
+        long otherTotal;
+        synchronized (other) {
+            otherHead = other.headDay;
+            otherCounts = other.counts.clone();
+            otherTotal = other.total;
+        }
+        this.total += otherTotal;
+        if (otherHead == Long.MIN_VALUE) return;
+
+        this.advanceTo(otherHead);
+        for (int d = 0; d < otherCounts.length; d++) {
+            long day = otherHead - d;
+            if (day <= this.headDay - this.counts.length) break;
+            this.counts[this.index(day)] += otherCounts[Math.floorMod(day, otherCounts.length)];
+        }
+        this.rebuildLive();
+    }
+
+    /**
+     * Counts for the {@code windowDays} days ending at {@code today} (index 0 = today, 1 = yesterday, ...).
+     *
+     * @throws IllegalArgumentException if the window is longer than the ring
+     */
+    public synchronized int[] dailyCounts(long today, int windowDays) {
+        if (windowDays < 1 || windowDays > this.counts.length) {
+            throw new IllegalArgumentException("windowDays must be 1.." + this.counts.length);
+        }
+
+        int[] out = new int[windowDays];
+        if (this.headDay == Long.MIN_VALUE) return out;
+
+        for (int d = 0; d < windowDays; d++) {
+            long day = today - d;
+            // Only days still on the ring (not newer than head, not rotated out) have counts
+            if (day <= this.headDay && day > this.headDay - this.counts.length) {
+                out[d] = this.counts[this.index(day)];
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Consistency for the {@code params.windowDays()} days ending at {@code today}.
+
+     * Answered from the online moments when {@code params} is the tracked window (O(1) apart from copying
+     * the window's counts for the Result); otherwise computed from {@link #dailyCounts}.
+     */
+    public synchronized ConsistencyScoreCalculator.Result consistency(long today, ConsistencyScoreCalculator.Params params) {
+        if (this.live != null && this.headDay != Long.MIN_VALUE && this.headDay < today) {
+            this.advanceTo(today); // no sales yet today: roll the window so index 0 is today
+        }
+
+        int[] daily = this.dailyCounts(today, params.windowDays());
+        if (this.live != null && this.live.matches(params) && (this.headDay == today || this.headDay == Long.MIN_VALUE)) {
+            return this.live.result(daily, params);
+        }
+        return ConsistencyScoreCalculator.calculateFromDailyCounts(daily, params);
+    }
+
+    /** Sales ever recorded. */
+    public synchronized long total() {
+        return this.total;
+    }
+
+    /** Newest day held ({@link Long#MIN_VALUE} if empty); for persistence. */
+    synchronized long headDay() {
+        return this.headDay;
+    }
+
+    /** Raw counts newest-first (index 0 = headDay); for persistence. */
+    synchronized int[] newestFirst() {
+        int[] out = new int[this.counts.length];
+        if (this.headDay == Long.MIN_VALUE) return out;
+        for (int d = 0; d < out.length; d++) {
+            out[d] = this.counts[this.index(this.headDay - d)];
+        }
+        return out;
+    }
+
+    /** Restore a persisted ring (see {@link #headDay()} / {@link #newestFirst()}). */
+    synchronized void restore(long headDay, long total, int[] newestFirst) {
+        java.util.Arrays.fill(this.counts, 0);
+        this.headDay = headDay;
+        this.total = total;
+        if (headDay == Long.MIN_VALUE) return;
+        for (int d = 0; d < Math.min(newestFirst.length, this.counts.length); d++) {
+            this.counts[this.index(headDay - d)] = newestFirst[d];
+        }
+        this.rebuildLive();
+    }
+
+    /** Move the head forward to {@code day}, zeroing the days in between (at most one full lap). */
+    private void advanceTo(long day) {
+        if (this.headDay == Long.MIN_VALUE) {
+            this.headDay = day;
+            return;
+        }
+        if (day <= this.headDay) return;
+
+        long gap = day - this.headDay;
+        if (this.live != null && gap < this.live.windowDays()) {
+            // Roll the tracked window day by day; the leaving day's count must be read before its cell is reused
+            for (long i = 0; i < gap; i++) {
+                this.live.shift(this.counts[this.index(this.headDay - this.live.windowDays() + 1)]);
+                this.headDay++;
+                this.counts[this.index(this.headDay)] = 0;
+            }
+            return;
+        }
+
+        long steps = Math.min(gap, this.counts.length);
+        for (long i = 1; i <= steps; i++) {
+            this.counts[this.index(day - steps + i)] = 0;
+        }
+        this.headDay = day;
+        if (this.live != null) this.live.reset(); // the whole tracked window is newer than any sale held
+    }
+
+    /** Recompute the tracked window's moments from the ring (after bulk changes). */
+    private void rebuildLive() {
+        if (this.live == null) return;
+        this.live.reset();
+        if (this.headDay == Long.MIN_VALUE) return;
+        for (int age = 0; age < this.live.windowDays(); age++) {
+            this.live.changed(age, 0, this.counts[this.index(this.headDay - age)]);
+        }
+    }
+
+    private int index(long day) {
+        return (int) Math.floorMod(day, (long) this.counts.length);
+    }
+}
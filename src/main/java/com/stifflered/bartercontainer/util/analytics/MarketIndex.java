@@ -0,0 +1,261 @@
+package com.stifflered.bartercontainer.util.analytics;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.store.BarterStoreKey;
+import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
+import com.stifflered.bartercontainer.util.Messages;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Server-wide market analytics: traded volume and price percentiles per material, over sliding windows
+ * of whole days (today, last 7 days, last 30 days …).
+
+ * Model:
+ *  - A market is an (item material, price material) pair, e.g. "DIAMOND priced in EMERALD". Different
+ *    currencies are never mixed.
+ *  - Each logged sale line (one delivered stack) contributes:
+ *      volume += stack amount, trades += 1,
+ *      unit price = price amount / stack amount, weighted by the stack amount, to a {@link TDigest}.
+ *  - Data is kept per calendar day in a ring of {@link #HISTORY_DAYS} days; a window query merges the
+ *    days it covers (digests are mergeable), so any window up to the ring size is answered without logs.
+
+ * Where the data comes from:
+ *  - Live: {@link #record} on the purchase log writer, for every purchase from now on.
+ *  - Bootstrap: {@link #start()} streams the last {@link #HISTORY_DAYS} days of every store's log once,
+ *    in the background ({@link BarterShopOwnerLogManager#forEachSale}); only lines older than the moment
+ *    live recording started are taken, so nothing is counted twice. Queries during the bootstrap see
+ *    partial data ({@link #isReady()} is false).
+
+ * Threading:
+ *  - Safe from any thread (one lock; record/query work is tiny compared to a log read).
+ */
+public final class MarketIndex {
+
+    /** Global singleton, mirroring {@link com.stifflered.bartercontainer.barter.BarterManager#INSTANCE}. */
+    public static final MarketIndex INSTANCE = new MarketIndex();
+
+    /** Days held (the longest window a query may ask for). */
+    public static final int HISTORY_DAYS = 30;
+
+    private static final double COMPRESSION = 100;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    /** Ring of day buckets indexed by {@code epochDay % HISTORY_DAYS}; a bucket for another day is stale. */
+    private final DayBucket[] days = new DayBucket[HISTORY_DAYS];
+
+    /** Sales at or after this instant are recorded live; the bootstrap only reads older lines. */
+    private volatile long liveSince = Long.MAX_VALUE;
+    private volatile boolean ready;
+
+    private MarketIndex() {
+    }
+
+    /** An item priced in a currency. */
+    public record Market(Material item, Material currency) { }
+
+    /**
+     * Aggregates of one market over a window.
+     *
+     * @param volume  items sold
+     * @param trades  sale lines (one per delivered stack)
+     * @param p25     25th percentile unit price (in currency items per item)
+     * @param median  median unit price
+     * @param p75     75th percentile unit price
+     * @param low     lowest unit price seen
+     * @param high    highest unit price seen
+     */
+    public record MarketStats(Market market, long volume, int trades,
+                              double p25, double median, double p75, double low, double high) { }
+
+    /** Start recording live sales and bootstrap the history from the logs in the background. */
+    public void start() {
+        this.liveSince = System.currentTimeMillis();
+        Bukkit.getScheduler().runTaskAsynchronously(BarterContainer.INSTANCE, this::bootstrap);
+    }
+
+    /** False while the history is still being read from the logs. */
+    public boolean isReady() {
+        return this.ready;
+    }
+
+    /**
+     * Record one purchase (called on the purchase log writer, next to the log append).
+     *
+     * @param purchased  delivered stacks (one log line each)
+     * @param unitPrices price charged for each stack, parallel to {@code purchased} (rules may price slots differently)
+     */
+    public void record(long timestamp, List<ItemStack> purchased, List<ItemStack> unitPrices) {
+        for (int i = 0; i < purchased.size(); i++) {
+            ItemStack unitPaid = unitPrices.get(i);
+            if (unitPaid == null || unitPaid.isEmpty()) continue;
+            ItemStack stack = purchased.get(i);
+            this.add(timestamp, stack.getType(), stack.getAmount(), unitPaid);
+        }
+    }
+
+    /** Stats for one market over the last {@code windowDays} days (today included), or null if nothing traded. */
+    public MarketStats stats(Market market, int windowDays, Clock clock) {
+        Cell merged = null;
+        synchronized (this) {
+            for (DayBucket bucket : this.window(windowDays, clock)) {
+                Cell cell = bucket.cells.get(market);
+                if (cell == null) continue;
+                if (merged == null) merged = new Cell();
+                merged.add(cell);
+            }
+        }
+        return merged == null ? null : merged.stats(market);
+    }
+
+    /** Every market traded in the window, most traded (by volume) first. */
+    public List<MarketStats> top(int windowDays, Clock clock) {
+        Map<Market, Cell> merged = new HashMap<>();
+        synchronized (this) {
+            for (DayBucket bucket : this.window(windowDays, clock)) {
+                for (Map.Entry<Market, Cell> entry : bucket.cells.entrySet()) {
+                    merged.computeIfAbsent(entry.getKey(), k -> new Cell()).add(entry.getValue());
+                }
+            }
+        }
+
+        List<MarketStats> stats = new ArrayList<>(merged.size());
+        for (Map.Entry<Market, Cell> entry : merged.entrySet()) {
+            stats.add(entry.getValue().stats(entry.getKey()));
+        }
+        stats.sort(Comparator.comparingLong(MarketStats::volume).reversed()
+                .thenComparing(s -> s.market().item().name()));
+        return stats;
+    }
+
+    /** Every market for one item in the window (one per currency it was sold for), most traded first. */
+    public List<MarketStats> item(Material item, int windowDays, Clock clock) {
+        List<MarketStats> stats = new ArrayList<>();
+        for (MarketStats market : this.top(windowDays, clock)) {
+            if (market.market().item() == item) stats.add(market);
+        }
+        return stats;
+    }
+
+    /* ------------------------------------------------------------------------------------------------
+     * Internals
+     * ---------------------------------------------------------------------------------------------- */
+
+    private void add(long timestamp, Material item, int amount, ItemStack price) {
+        if (amount <= 0 || price == null || price.isEmpty()) return;
+
+        long day = this.epochDay(timestamp);
+        Market market = new Market(item, price.getType());
+        double unitPrice = (double) price.getAmount() / amount;
+
+        synchronized (this) {
+            DayBucket bucket = this.bucket(day, true);
+            if (bucket == null) return; // older than the ring
+            bucket.cells.computeIfAbsent(market, k -> new Cell()).add(unitPrice, amount);
+        }
+    }
+
+    /** The bucket for {@code day}, (re)created if asked to; null if the day is outside the ring. */
+    private DayBucket bucket(long day, boolean create) {
+        int index = (int) Math.floorMod(day, (long) HISTORY_DAYS);
+        DayBucket bucket = this.days[index];
+        if (bucket != null && bucket.day == day) return bucket;
+        if (!create) return null;
+
+        // Reuse the slot only for a newer day (a late, older sale must not wipe a newer day)
+        if (bucket != null && bucket.day > day) return null;
+        bucket = new DayBucket(day);
+        this.days[index] = bucket;
+        return bucket;
+    }
+
+    /** Buckets of the last {@code windowDays} days that exist. */
+    private List<DayBucket> window(int windowDays, Clock clock) {
+        if (windowDays < 1 || windowDays > HISTORY_DAYS) {
+            throw new IllegalArgumentException("windowDays must be 1.." + HISTORY_DAYS);
+        }
+        long today = LocalDate.now(clock.withZone(this.zone)).toEpochDay();
+        List<DayBucket> buckets = new ArrayList<>(windowDays);
+        for (int d = 0; d < windowDays; d++) {
+            DayBucket bucket = this.bucket(today - d, false);
+            if (bucket != null) buckets.add(bucket);
+        }
+        return buckets;
+    }
+
+    /** Read the ring's days from every store log (runs once, async). */
+    private void bootstrap() {
+        long until = this.liveSince;
+        long since = LocalDate.ofInstant(Instant.ofEpochMilli(until), this.zone)
+                .minusDays(HISTORY_DAYS - 1)
+                .atStartOfDay(this.zone).toInstant().toEpochMilli();
+
+        try {
+            for (BarterStoreKey key : BarterShopOwnerLogManager.loggedStores()) {
+                try {
+                    BarterShopOwnerLogManager.forEachSale(key, since, until, this::add);
+                } catch (IOException e) {
+                    BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                            "analytics.market.bootstrap_read_error_store",
+                            "key", String.valueOf(key),
+                            "detail", String.valueOf(e.getMessage())
+                    ));
+                }
+            }
+        } catch (IOException e) {
+            BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                    "analytics.market.bootstrap_failed", "detail", e.getMessage()));
+        } finally {
+            this.ready = true;
+        }
+    }
+
+    private long epochDay(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), this.zone).toEpochDay();
+    }
+
+    /** One calendar day of trades. */
+    private static final class DayBucket {
+        final long day;
+        final Map<Market, Cell> cells = new HashMap<>();
+
+        DayBucket(long day) {
+            this.day = day;
+        }
+    }
+
+    /** Volume, trade count and unit-price digest of one market (one day, or a merged window). */
+    private static final class Cell {
+        long volume;
+        int trades;
+        final TDigest prices = new TDigest(COMPRESSION);
+
+        void add(double unitPrice, int amount) {
+            this.volume += amount;
+            this.trades++;
+            this.prices.add(unitPrice, amount);
+        }
+
+        void add(Cell other) {
+            this.volume += other.volume;
+            this.trades += other.trades;
+            this.prices.add(other.prices);
+        }
+
+        MarketStats stats(Market market) {
+            return new MarketStats(market, this.volume, this.trades,
+                    this.prices.quantile(0.25), this.prices.quantile(0.5), this.prices.quantile(0.75),
+                    this.prices.min(), this.prices.max());
+        }
+    }
+}
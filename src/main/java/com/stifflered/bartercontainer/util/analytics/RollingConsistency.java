@@ -0,0 +1,140 @@
+package com.stifflered.bartercontainer.util.analytics;
+
+/**
+ * Online consistency moments for a sliding window of daily sale counts (index 0 = today),
+ * so a score can be read in O(1) instead of re-running the whole window through
+ * {@link ConsistencyScoreCalculator#calculateFromDailyCounts}.
+
+ * What is kept (for both the raw counts and the dampened series y = log1p(count)):
+ *  - Mean and M2 via Welford's update for a fixed-size window: changing one value from a to b is
+ *      mean' = mean + (b - a) / n
+ *      M2'   = M2 + (b - a) * (b - mean' + a - mean)
+ *    so both a sale (today's count goes up) and a day rolling over (oldest value leaves, a 0 enters)
+ *    are a single replacement.
+ *  - Σ(x·y) with x = day index, for the OLS slope. When the window moves one day every x grows by 1,
+ *    which adds Σy once:  Σ(x·y)' = Σ(x·y) - (n-1)·oldest + (Σy - oldest).
+ *  - Decayed total Σ count·e^(-λx) for Recency; a day rolling over multiplies it by e^(-λ).
+ *  - The exact integer total (Recency's denominator), which also decides when to zero everything
+ *    (an empty window resets accumulated floating-point drift).
+
+ * Owned by a {@link DailySalesHistogram}, which calls it under its own lock; not thread-safe by itself.
+ */
+final class RollingConsistency {
+
+    private final int n;
+    private final double lambda;
+    private final double decayStep;
+    private final double tailDecay;
+
+    /** Σx and n·Σx² − (Σx)² for x = 0..n-1 (constant for a fixed window). */
+    private final double sumX;
+    private final double slopeDenom;
+
+    private long total;
+    private double decayed;
+
+    private double rawMean, rawM2, rawXY;
+    private double logMean, logM2, logXY;
+
+    /**
+     * @param windowDays window length (≥ 2)
+     * @param lambda     recency decay per day (see {@link ConsistencyScoreCalculator.Params#lambda()})
+     */
+    RollingConsistency(int windowDays, double lambda) {
+        if (windowDays < 2) throw new IllegalArgumentException("windowDays must be >= 2");
+        this.n = windowDays;
+        this.lambda = lambda;
+        this.decayStep = Math.exp(-lambda);
+        this.tailDecay = Math.exp(-lambda * (windowDays - 1));
+
+        double sx = 0, sxx = 0;
+        for (int x = 0; x < windowDays; x++) {
+            sx += x;
+            sxx += (double) x * x;
+        }
+        this.sumX = sx;
+        this.slopeDenom = windowDays * sxx - sx * sx;
+    }
+
+    /** Window length in days. */
+    int windowDays() {
+        return this.n;
+    }
+
+    /** True if results for {@code params} can be read from this window (same length and decay). */
+    boolean matches(ConsistencyScoreCalculator.Params params) {
+        return params.windowDays() == this.n && Double.compare(params.lambda(), this.lambda) == 0;
+    }
+
+    /** The count of day {@code age} (0 = today) went from {@code before} to {@code after}. */
+    void changed(int age, int before, int after) {
+        if (age < 0 || age >= this.n || before == after) return;
+
+        this.total += after - before;
+        this.decayed += (after - before) * Math.exp(-this.lambda * age);
+
+        double a = before, b = after;
+        double oldMean = this.rawMean;
+        this.rawMean += (b - a) / this.n;
+        this.rawM2 += (b - a) * (b - this.rawMean + a - oldMean);
+        this.rawXY += age * (b - a);
+
+        double la = ConsistencyScoreCalculator.dampen(before), lb = ConsistencyScoreCalculator.dampen(after);
+        oldMean = this.logMean;
+        this.logMean += (lb - la) / this.n;
+        this.logM2 += (lb - la) * (lb - this.logMean + la - oldMean);
+        this.logXY += age * (lb - la);
+
+        if (this.total == 0) this.reset();
+    }
+
+    /** Move the window one day forward: {@code oldest} (count at age n-1) leaves, an empty today enters. */
+    void shift(int oldest) {
+        if (this.total == 0) return; // nothing in the window; still all zero after the move
+
+        double a = oldest;
+        this.rawXY += (this.rawMean * this.n - a) - (this.n - 1) * a;
+        this.decayed = (this.decayed - a * this.tailDecay) * this.decayStep;
+        this.total -= oldest;
+
+        double oldMean = this.rawMean;
+        this.rawMean -= a / this.n;
+        this.rawM2 += -a * (-this.rawMean + a - oldMean);
+
+        double la = ConsistencyScoreCalculator.dampen(oldest);
+        this.logXY += (this.logMean * this.n - la) - (this.n - 1) * la;
+        oldMean = this.logMean;
+        this.logMean -= la / this.n;
+        this.logM2 += -la * (-this.logMean + la - oldMean);
+
+        if (this.total == 0) this.reset();
+    }
+
+    /** Empty window. */
+    void reset() {
+        this.total = 0;
+        this.decayed = 0;
+        this.rawMean = this.rawM2 = this.rawXY = 0;
+        this.logMean = this.logM2 = this.logXY = 0;
+    }
+
+    /**
+     * Current scores.
+     *
+     * @param dailySales the window's counts (index 0 = today); stored in the Result for breakdowns
+     */
+    ConsistencyScoreCalculator.Result result(int[] dailySales, ConsistencyScoreCalculator.Params params) {
+        double recency = this.total <= 0 ? 0.0 : ConsistencyScoreCalculator.clamp01(this.decayed / this.total);
+        return ConsistencyScoreCalculator.fromMoments(
+                this.logMean, Math.sqrt(Math.max(0.0, this.logM2) / this.n), this.slope(this.logMean, this.logXY), recency,
+                this.rawMean, Math.sqrt(Math.max(0.0, this.rawM2) / this.n), this.slope(this.rawMean, this.rawXY),
+                dailySales, params
+        );
+    }
+
+    /** OLS slope from Σy = mean·n and Σ(x·y). */
+    private double slope(double mean, double sumXY) {
+        if (this.slopeDenom == 0) return 0.0;
+        return (this.n * sumXY - this.sumX * mean * this.n) / this.slopeDenom;
+    }
+}
@@ -0,0 +1,458 @@
+package com.stifflered.bartercontainer.util.analytics;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.barter.BarterStoreKeyImpl;
+import com.stifflered.bartercontainer.store.BarterStoreKey;
+import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
+import com.stifflered.bartercontainer.util.Messages;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling per-store and per-owner daily sale counts ({@link DailySalesHistogram}), distinct-buyer
+ * counters ({@link UniqueBuyers}) and best sellers ({@link TopSellers}), kept up to date as purchase log
+ * lines are written, so consistency scores, unique-purchaser and top-seller tiles need neither log reads
+ * nor per-sale objects:
+ *   {@code ConsistencyScoreCalculator.calculateFromDailyCounts(storeCounts(key, 7, clock), params)}.
+
+ * Where the counts come from:
+ *  - Live: {@link #logged} wraps the owner-log append on the purchase log writer; the sale is counted
+ *    if (and only if) its lines were written.
+ *  - Bootstrap: a store's tally is restored from data/consistency/daily_sales.txt, or rebuilt by
+ *    streaming the timestamp, purchaser and stack of every line of its log once
+ *    ({@link BarterShopOwnerLogManager#forEachPurchase}) if it has none or the log changed after the
+ *    file was saved (e.g., after a crash).
+ *  - Owner tallies are merged from their stores' when first asked for, then maintained live. Other
+ *    multi-store views merge store tallies per call ({@link #uniqueBuyers}, {@link #topSellers}).
+
+ * Live scores:
+ *  - Every ring also tracks {@link #LIVE_PARAMS}' window online (stability, recency and trend moments,
+ *    see {@link RollingConsistency}), so {@link #storeConsistency} / {@link #ownerConsistency} with those
+ *    params are O(1) reads; other params are computed from the ring's daily counts.
+
+ * Days are calendar days in the server's default time zone (same zone the stats GUIs and the weekly
+ * snapshot score in). Rings hold {@link #HISTORY_DAYS} days.
+
+ * Threading:
+ *  - Safe from any thread. Each store has its own lock around its log append and its bootstrap, so a sale
+ *    is never counted both from the log and live, while different stores bootstrap in parallel
+ *    (the weekly snapshot fans out across owners).
+ *  - The ring maps use one shared lock that is never held across file I/O. Lock order is always
+ *    store lock → shared lock.
+ */
+public final class SalesHistograms {
+
+    /** Global singleton, mirroring {@link com.stifflered.bartercontainer.barter.BarterManager#INSTANCE}. */
+    public static final SalesHistograms INSTANCE = new SalesHistograms();
+
+    /** Days each ring holds; the longest scoring window supported. */
+    public static final int HISTORY_DAYS = 32;
+
+    /** Scoring window every ring keeps up to date online (7 days, oldest day weighted ~10%). */
+    public static final ConsistencyScoreCalculator.Params LIVE_PARAMS = ConsistencyScoreCalculator.Params.DEFAULT();
+
+    private static final String FILE_NAME = "daily_sales.txt";
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Object lock = new Object();
+
+    /** Store UUID → lock serializing that store's log appends and bootstrap. */
+    private final Map<UUID, Object> storeLocks = new ConcurrentHashMap<>();
+
+    /** Store UUID → tally (materialized stores only). */
+    private final Map<UUID, Tally> stores = new HashMap<>();
+
+    /** Owner UUID → tally (materialized owners only). */
+    private final Map<UUID, Tally> owners = new HashMap<>();
+
+    /** Tallies read from disk but not yet checked against their logs, and when they were saved. */
+    private Map<UUID, Tally> persisted;
+    private long persistedAt;
+
+    private SalesHistograms() {
+    }
+
+    /** A log append whose success decides whether the sale is counted. */
+    @FunctionalInterface
+    public interface LogAppend {
+        void run() throws IOException;
+    }
+
+    /**
+     * Append purchase log lines and count the sales in the same step.
+     *
+     * @param key       store the sale happened in
+     * @param owner     store owner (their tally is updated too, if materialized)
+     * @param timestamp sale time in epoch millis
+     * @param buyer     purchaser
+     * @param purchased delivered stacks (one log line / sale each)
+     * @param append    the actual log write; if it throws, nothing is counted
+     */
+    public void logged(BarterStoreKey key, UUID owner, long timestamp, UUID buyer, List<ItemStack> purchased,
+                       LogAppend append) throws IOException {
+        synchronized (this.storeLock(key)) {
+            append.run();
+
+            long day = this.epochDay(timestamp);
+            synchronized (this.lock) {
+                // Unmaterialized store: its bootstrap will read these lines from the log, so don't count twice
+                Tally store = this.stores.get(key.key());
+                if (store != null) store.add(day, buyer, purchased);
+
+                Tally ownerTally = this.owners.get(owner);
+                if (ownerTally != null) ownerTally.add(day, buyer, purchased);
+            }
+        }
+    }
+
+    /** A read of a store's log that must not see a half-written append. */
+    @FunctionalInterface
+    public interface LogRead<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Run {@code read} while the store's log cannot grow: appends through {@link #logged} wait until it
+     * returns. Keep {@code read} short (e.g., pin the log's length, as {@link TransactionExporter} does)
+     * and stream the records afterwards, so purchases are never held up by a long read.
+     */
+    public <T> T withLogPaused(BarterStoreKey key, LogRead<T> read) throws IOException {
+        synchronized (this.storeLock(key)) {
+            return read.run();
+        }
+    }
+
+    /** Daily counts for one store (index 0 = today). */
+    public int[] storeCounts(BarterStoreKey key, int windowDays, Clock clock) {
+        return this.store(key).sales().dailyCounts(this.today(clock), windowDays);
+    }
+
+    /** Sales ever recorded for the store (0 = never sold). */
+    public long storeTotal(BarterStoreKey key) {
+        return this.store(key).sales().total();
+    }
+
+    /** Distinct players who ever bought from the store (exact up to {@link UniqueBuyers#EXACT_LIMIT}, ~1.6% error above). */
+    public UniqueBuyers.Estimate storeUniqueBuyers(BarterStoreKey key) {
+        Tally tally = this.store(key);
+        synchronized (this.lock) {
+            return tally.buyers().estimate();
+        }
+    }
+
+    /**
+     * Distinct players who ever bought from any of an owner's stores.
+     *
+     * @param keys the owner's stores; only used to build the owner's tally the first time
+     */
+    public UniqueBuyers.Estimate ownerUniqueBuyers(UUID owner, Collection<BarterStoreKey> keys) {
+        Tally tally = this.owner(owner, keys);
+        synchronized (this.lock) {
+            return tally.buyers().estimate();
+        }
+    }
+
+    /** Up to {@code limit} best-selling items of the store, most units sold first. */
+    public List<TopSellers.Seller> storeTopSellers(BarterStoreKey key, int limit) {
+        Tally tally = this.store(key);
+        synchronized (this.lock) {
+            return tally.sellers().top(limit);
+        }
+    }
+
+    /**
+     * Up to {@code limit} best-selling items across all of an owner's stores, most units sold first.
+     *
+     * @param keys the owner's stores; only used to build the owner's tally the first time
+     */
+    public List<TopSellers.Seller> ownerTopSellers(UUID owner, Collection<BarterStoreKey> keys, int limit) {
+        Tally tally = this.owner(owner, keys);
+        synchronized (this.lock) {
+            return tally.sellers().top(limit);
+        }
+    }
+
+    /** Up to {@code limit} best-selling items across the given stores, most units sold first. */
+    public List<TopSellers.Seller> topSellers(Collection<BarterStoreKey> keys, int limit) {
+        List<Tally> tallies = new ArrayList<>(keys.size());
+        for (BarterStoreKey key : keys) tallies.add(this.store(key));
+
+        TopSellers union = new TopSellers();
+        synchronized (this.lock) {
+            for (Tally tally : tallies) union.addAll(tally.sellers());
+        }
+        return union.top(limit);
+    }
+
+    /** Distinct players who ever bought from any of the given stores (e.g., every store for a server-wide view). */
+    public UniqueBuyers.Estimate uniqueBuyers(Collection<BarterStoreKey> keys) {
+        List<Tally> tallies = new ArrayList<>(keys.size());
+        for (BarterStoreKey key : keys) tallies.add(this.store(key));
+
+        UniqueBuyers union = new UniqueBuyers();
+        synchronized (this.lock) {
+            for (Tally tally : tallies) union.addAll(tally.buyers());
+        }
+        return union.estimate();
+    }
+
+    /**
+     * Daily counts across all of an owner's stores (index 0 = today).
+     *
+     * @param keys the owner's stores; only used to build the owner's ring the first time
+     */
+    public int[] ownerCounts(UUID owner, Collection<BarterStoreKey> keys, int windowDays, Clock clock) {
+        return this.owner(owner, keys).sales().dailyCounts(this.today(clock), windowDays);
+    }
+
+    /** Current consistency of one store; O(1) for {@link #LIVE_PARAMS}. */
+    public ConsistencyScoreCalculator.Result storeConsistency(BarterStoreKey key, ConsistencyScoreCalculator.Params params, Clock clock) {
+        return this.store(key).sales().consistency(this.today(clock), params);
+    }
+
+    /**
+     * Current consistency across all of an owner's stores; O(1) for {@link #LIVE_PARAMS}.
+     *
+     * @param keys the owner's stores; only used to build the owner's ring the first time
+     */
+    public ConsistencyScoreCalculator.Result ownerConsistency(UUID owner, Collection<BarterStoreKey> keys,
+                                                              ConsistencyScoreCalculator.Params params, Clock clock) {
+        return this.owner(owner, keys).sales().consistency(this.today(clock), params);
+    }
+
+    /** Daily counts summed over the given stores (index 0 = today); O(stores × windowDays). */
+    public int[] sumCounts(Collection<BarterStoreKey> keys, int windowDays, Clock clock) {
+        long today = this.today(clock);
+        int[] out = new int[windowDays];
+        for (BarterStoreKey key : keys) {
+            int[] counts = this.store(key).sales().dailyCounts(today, windowDays);
+            for (int d = 0; d < windowDays; d++) out[d] += counts[d];
+        }
+        return out;
+    }
+
+    /** Sales ever recorded across the given stores. */
+    public long sumTotals(Collection<BarterStoreKey> keys) {
+        long total = 0;
+        for (BarterStoreKey key : keys) total += this.store(key).sales().total();
+        return total;
+    }
+
+    /** Write every materialized store tally to disk (call from onDisable, after the purchase log is drained). */
+    public void save() {
+        synchronized (this.lock) {
+            Map<UUID, Tally> all = new HashMap<>();
+            if (this.persisted != null) {
+                // Not used this run: keep only tallies whose log has not changed since they were saved
+                for (Map.Entry<UUID, Tally> entry : this.persisted.entrySet()) {
+                    if (BarterShopOwnerLogManager.lastModified(new BarterStoreKeyImpl(entry.getKey())) <= this.persistedAt) {
+                        all.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            all.putAll(this.stores);
+            if (all.isEmpty()) return;
+
+            Path file = this.file();
+            Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+            try {
+                Files.createDirectories(file.getParent());
+                try (BufferedWriter bw = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    bw.write("# savedAt=" + System.currentTimeMillis());
+                    bw.newLine();
+                    for (Map.Entry<UUID, Tally> entry : all.entrySet()) {
+                        DailySalesHistogram ring = entry.getValue().sales();
+                        StringJoiner counts = new StringJoiner(",");
+                        for (int c : ring.newestFirst()) counts.add(Integer.toString(c));
+                        bw.write(entry.getKey() + ":" + ring.headDay() + ":" + ring.total() + ":" + counts
+                                + ":" + entry.getValue().buyers().serialize()
+                                + ":" + entry.getValue().sellers().serialize());
+                        bw.newLine();
+                    }
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                        "analytics.histogram.save_failed", "detail", e.getMessage()));
+            }
+        }
+    }
+
+    /* ------------------------------------------------------------------------------------------------
+     * Internals
+     * ---------------------------------------------------------------------------------------------- */
+
+    /** The store's tally, restored or bootstrapped from its log on first use. */
+    private Tally store(BarterStoreKey key) {
+        synchronized (this.lock) {
+            Tally tally = this.stores.get(key.key());
+            if (tally != null) return tally;
+        }
+
+        // Holding the store lock keeps its log from growing while we read it
+        synchronized (this.storeLock(key)) {
+            Tally tally;
+            long persistedAt;
+            synchronized (this.lock) {
+                tally = this.stores.get(key.key());
+                if (tally != null) return tally;
+
+                this.loadPersisted();
+                tally = this.persisted.remove(key.key());
+                persistedAt = this.persistedAt;
+            }
+
+            if (tally == null || BarterShopOwnerLogManager.lastModified(key) > persistedAt) {
+                tally = this.bootstrap(key);
+            }
+
+            synchronized (this.lock) {
+                this.stores.put(key.key(), tally);
+            }
+            return tally;
+        }
+    }
+
+    private Object storeLock(BarterStoreKey key) {
+        return this.storeLocks.computeIfAbsent(key.key(), k -> new Object());
+    }
+
+    /** The owner's tally, combined from their stores' tallies on first use. */
+    private Tally owner(UUID owner, Collection<BarterStoreKey> keys) {
+        Tally tally;
+        synchronized (this.lock) {
+            tally = this.owners.get(owner);
+        }
+        if (tally == null) {
+            // Materialize the store tallies first (may read logs; no shared lock held) ...
+            List<Tally> storeTallies = new ArrayList<>(keys.size());
+            for (BarterStoreKey key : keys) {
+                storeTallies.add(this.store(key));
+            }
+
+            // ... then combine them in one step, so no live sale lands between the sum and the put
+            synchronized (this.lock) {
+                tally = this.owners.get(owner);
+                if (tally == null) {
+                    tally = newTally();
+                    for (Tally storeTally : storeTallies) {
+                        tally.addAll(storeTally);
+                    }
+                    this.owners.put(owner, tally);
+                }
+            }
+        }
+        return tally;
+    }
+
+    /** Rebuild a tally by streaming the store's log lines (no records, Instants or ItemStacks are built). */
+    private Tally bootstrap(BarterStoreKey key) {
+        Tally tally = newTally();
+        try {
+            BarterShopOwnerLogManager.forEachPurchase(key, (timestamp, purchaser, itemType, amount) -> {
+                tally.sales().add(this.epochDay(timestamp), 1);
+                if (purchaser != null) tally.buyers().add(purchaser);
+                tally.sellers().add(itemType, amount);
+            });
+        } catch (IOException e) {
+            BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                    "analytics.consistency.snapshot_read_error_store",
+                    "key", String.valueOf(key),
+                    "detail", e.getMessage()
+            ));
+        }
+        return tally;
+    }
+
+    /** Read the persisted tallies once (missing/broken file → everything is bootstrapped from logs). */
+    private void loadPersisted() {
+        if (this.persisted != null) return;
+        this.persisted = new HashMap<>();
+
+        Path file = this.file();
+        if (Files.notExists(file)) return;
+
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.startsWith("# savedAt=")) {
+                    this.persistedAt = Long.parseLong(line.substring("# savedAt=".length()).trim());
+                    continue;
+                }
+
+                // Lines missing the buyers / sellers fields predate them: that store is bootstrapped instead
+                String[] parts = line.split(":", 6);
+                if (parts.length != 6) continue;
+                try {
+                    String[] raw = parts[3].isEmpty() ? new String[0] : parts[3].split(",");
+                    int[] counts = new int[raw.length];
+                    for (int i = 0; i < raw.length; i++) counts[i] = Integer.parseInt(raw[i]);
+
+                    DailySalesHistogram ring = newRing();
+                    ring.restore(Long.parseLong(parts[1]), Long.parseLong(parts[2]), counts);
+                    this.persisted.put(UUID.fromString(parts[0]), new Tally(ring,
+                            UniqueBuyers.deserialize(parts[4]), TopSellers.deserialize(parts[5])));
+                } catch (IllegalArgumentException ignored) {
+                    // Malformed line: that store is bootstrapped from its log instead
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            this.persisted.clear(); // bootstrap everything from logs
+            BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                    "analytics.histogram.load_failed", "detail", e.getMessage()));
+        }
+    }
+
+    /**
+     * A store's or owner's daily sales, distinct buyers and best sellers (buyers and sellers are guarded by
+     * the shared lock once published; the ring synchronizes itself).
+     */
+    private record Tally(DailySalesHistogram sales, UniqueBuyers buyers, TopSellers sellers) {
+
+        void add(long day, UUID buyer, List<ItemStack> purchased) {
+            this.sales.add(day, purchased.size());
+            if (buyer != null) this.buyers.add(buyer);
+            for (ItemStack stack : purchased) this.sellers.add(stack.getType(), stack.getAmount());
+        }
+
+        void addAll(Tally other) {
+            this.sales.addAll(other.sales);
+            this.buyers.addAll(other.buyers);
+            this.sellers.addAll(other.sellers);
+        }
+    }
+
+    private static Tally newTally() {
+        return new Tally(newRing(), new UniqueBuyers(), new TopSellers());
+    }
+
+    private static DailySalesHistogram newRing() {
+        return new DailySalesHistogram(HISTORY_DAYS, LIVE_PARAMS);
+    }
+
+    private long epochDay(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), this.zone).toEpochDay();
+    }
+
+    private long today(Clock clock) {
+        return LocalDate.now(clock.withZone(this.zone)).toEpochDay();
+    }
+
+    private Path file() {
+        return BarterContainer.INSTANCE.getDataFolder().toPath().resolve("consistency").resolve(FILE_NAME);
+    }
+}
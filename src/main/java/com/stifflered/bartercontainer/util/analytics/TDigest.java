@@ -0,0 +1,173 @@
+package com.stifflered.bartercontainer.util.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Small merging t-digest: a mergeable sketch of a distribution that answers quantiles (median, p25, p75 …)
+ * in bounded memory, with the best accuracy near the tails.
+
+ * How it works (Dunning's "merging" variant, k1 scale function):
+ *  - Points are buffered; when the buffer fills, buffer + existing centroids are sorted by value and
+ *    neighbours are merged greedily as long as the merged centroid spans at most one unit of
+ *    k(q) = compression / 2π · asin(2q − 1). Centroids near q = 0 / 1 stay small, the middle ones grow.
+ *  - {@link #add(TDigest)} feeds another digest's centroids in as weighted points, so per-day digests can be
+ *    combined into any window.
+ *  - {@link #quantile(double)} interpolates between centroid centres (min/max at the ends).
+
+ * Size: roughly {@code compression} centroids after compression (≈ 100 → a few KB), independent of how many
+ * points were added.
+
+ * Not thread-safe; owners synchronize.
+ */
+public final class TDigest {
+
+    private final double compression;
+
+    // Compressed centroids, sorted by mean
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private int centroids;
+
+    // Points not yet merged in
+    private final double[] bufferMeans;
+    private final double[] bufferWeights;
+    private int buffered;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /** @param compression accuracy/size trade-off (100 is a good default) */
+    public TDigest(double compression) {
+        if (compression < 10) throw new IllegalArgumentException("compression must be >= 10");
+        this.compression = compression;
+        int bufferSize = (int) (5 * compression);
+        this.bufferMeans = new double[bufferSize];
+        this.bufferWeights = new double[bufferSize];
+    }
+
+    /** Add one value with the given weight (e.g., a unit price weighted by the number of items sold at it). */
+    public void add(double value, double weight) {
+        if (Double.isNaN(value) || weight <= 0) return;
+        if (this.buffered == this.bufferMeans.length) this.compress();
+
+        this.bufferMeans[this.buffered] = value;
+        this.bufferWeights[this.buffered] = weight;
+        this.buffered++;
+        this.totalWeight += weight;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+    }
+
+    /** Merge another digest into this one (the other is left untouched). */
+    public void add(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.centroids; i++) {
+            this.add(other.means[i], other.weights[i]);
+        }
+        // Keep the exact extremes (centroid means are only approximations of them)
+        if (other.totalWeight > 0) {
+            this.min = Math.min(this.min, other.min);
+            this.max = Math.max(this.max, other.max);
+        }
+    }
+
+    /** Total weight added. */
+    public double size() {
+        return this.totalWeight;
+    }
+
+    /** Smallest value added (NaN if empty). */
+    public double min() {
+        return this.totalWeight == 0 ? Double.NaN : this.min;
+    }
+
+    /** Largest value added (NaN if empty). */
+    public double max() {
+        return this.totalWeight == 0 ? Double.NaN : this.max;
+    }
+
+    /** Estimated value at quantile {@code q} in [0, 1] (NaN if empty). */
+    public double quantile(double q) {
+        this.compress();
+        if (this.centroids == 0) return Double.NaN;
+        if (q <= 0) return this.min;
+        if (q >= 1) return this.max;
+        if (this.centroids == 1) return this.means[0];
+
+        double target = q * this.totalWeight;
+        double cumulative = 0;
+        for (int i = 0; i < this.centroids; i++) {
+            double mid = cumulative + this.weights[i] / 2;
+            if (target < mid) {
+                if (i == 0) {
+                    // Between the minimum and the first centroid's centre
+                    return this.min + (this.means[0] - this.min) * (mid == 0 ? 0 : target / mid);
+                }
+                double previousMid = cumulative - this.weights[i - 1] / 2;
+                double t = (target - previousMid) / (mid - previousMid);
+                return this.means[i - 1] + (this.means[i] - this.means[i - 1]) * t;
+            }
+            cumulative += this.weights[i];
+        }
+
+        // Between the last centroid's centre and the maximum
+        int last = this.centroids - 1;
+        double lastMid = this.totalWeight - this.weights[last] / 2;
+        double span = this.totalWeight - lastMid;
+        return this.means[last] + (this.max - this.means[last]) * (span == 0 ? 0 : (target - lastMid) / span);
+    }
+
+    /** Merge buffered points into the centroids. */
+    private void compress() {
+        if (this.buffered == 0) return;
+
+        int count = this.centroids + this.buffered;
+        double[] allMeans = Arrays.copyOf(this.means, count);
+        double[] allWeights = Arrays.copyOf(this.weights, count);
+        System.arraycopy(this.bufferMeans, 0, allMeans, this.centroids, this.buffered);
+        System.arraycopy(this.bufferWeights, 0, allWeights, this.centroids, this.buffered);
+        this.buffered = 0;
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+
+        double[] outMeans = new double[count];
+        double[] outWeights = new double[count];
+        int out = 0;
+
+        double mean = allMeans[order[0]];
+        double weight = allWeights[order[0]];
+        double weightSoFar = 0;
+        for (int i = 1; i < count; i++) {
+            int next = order[i];
+            double proposed = weight + allWeights[next];
+            double kLeft = this.k(weightSoFar / this.totalWeight);
+            double kRight = this.k((weightSoFar + proposed) / this.totalWeight);
+            if (kRight - kLeft <= 1) {
+                weight = proposed;
+                mean += (allMeans[next] - mean) * allWeights[next] / weight;
+            } else {
+                outMeans[out] = mean;
+                outWeights[out] = weight;
+                out++;
+                weightSoFar += weight;
+                mean = allMeans[next];
+                weight = allWeights[next];
+            }
+        }
+        outMeans[out] = mean;
+        outWeights[out] = weight;
+        out++;
+
+        this.means = Arrays.copyOf(outMeans, out);
+        this.weights = Arrays.copyOf(outWeights, out);
+        this.centroids = out;
+    }
+
+    /** k1 scale function. */
+    private double k(double q) {
+        return this.compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+}
@@ -0,0 +1,156 @@
+package com.stifflered.bartercontainer.util.analytics;
+
+import org.bukkit.Material;
+
+import java.util.*;
+
+/**
+ * Best-selling items in bounded memory: a Space-Saving heavy-hitter summary of units sold per material.
+
+ * How it works (Metwally et al., weighted):
+ *  - Up to {@link #CAPACITY} counters (material → units, error). A sale of a tracked material adds to its
+ *    counter; an untracked one takes over the smallest counter, inheriting its count as error.
+ *  - Counts never underestimate, and overestimate by at most the counter's error (≤ the smallest count).
+ *    While no counter was ever taken over (≤ {@link #CAPACITY} distinct materials, the usual case for a
+ *    shop) every count is exact.
+ *  - {@link #addAll} merges two summaries: a material missing from a full summary is credited with that
+ *    summary's smallest count (its upper bound), then the largest {@link #CAPACITY} counters are kept, so
+ *    store summaries combine into owner-wide and cross-store top lists with the same guarantees.
+
+ * Not thread-safe; owners synchronize.
+ */
+public final class TopSellers {
+
+    /** Counters kept (distinct materials tracked exactly before eviction starts). */
+    static final int CAPACITY = 32;
+
+    /**
+     * One ranked item.
+     *
+     * @param amount units sold (upper bound; exact when {@code error} is 0)
+     * @param error  maximum overestimate of {@code amount}
+     */
+    public record Seller(Material item, long amount, long error) {
+
+        /** True if {@code amount} is an exact count (the item was never evicted or merged in as an estimate). */
+        public boolean isExact() {
+            return this.error == 0;
+        }
+    }
+
+    private final Map<Material, long[]> counters = new HashMap<>(); // material → {count, error}
+
+    /** Count {@code amount} units of {@code item} sold (AIR / non-positive amounts are ignored). */
+    public void add(Material item, long amount) {
+        if (item == null || item == Material.AIR || amount <= 0) return;
+
+        long[] counter = this.counters.get(item);
+        if (counter != null) {
+            counter[0] += amount;
+            return;
+        }
+        if (this.counters.size() < CAPACITY) {
+            this.counters.put(item, new long[]{amount, 0});
+            return;
+        }
+
+        // Full: the new item replaces the smallest counter and inherits its count as error
+        Material smallest = this.smallest();
+        long[] evicted = this.counters.remove(smallest);
+        this.counters.put(item, new long[]{evicted[0] + amount, evicted[0]});
+    }
+
+    /** Merge another summary into this one (the other is left untouched). */
+    public void addAll(TopSellers other) {
+        if (other.counters.isEmpty()) return;
+
+        long thisFloor = this.floor();
+        long otherFloor = other.floor();
+
+        Map<Material, long[]> merged = new HashMap<>();
+        for (Map.Entry<Material, long[]> entry : this.counters.entrySet()) {
+            long[] theirs = other.counters.get(entry.getKey());
+            long[] mine = entry.getValue();
+            merged.put(entry.getKey(), theirs != null
+                    ? new long[]{mine[0] + theirs[0], mine[1] + theirs[1]}
+                    : new long[]{mine[0] + otherFloor, mine[1] + otherFloor});
+        }
+        for (Map.Entry<Material, long[]> entry : other.counters.entrySet()) {
+            if (this.counters.containsKey(entry.getKey())) continue;
+            long[] theirs = entry.getValue();
+            merged.put(entry.getKey(), new long[]{theirs[0] + thisFloor, theirs[1] + thisFloor});
+        }
+
+        this.counters.clear();
+        if (merged.size() <= CAPACITY) {
+            this.counters.putAll(merged);
+            return;
+        }
+        List<Map.Entry<Material, long[]>> ranked = new ArrayList<>(merged.entrySet());
+        ranked.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        for (int i = 0; i < CAPACITY; i++) {
+            this.counters.put(ranked.get(i).getKey(), ranked.get(i).getValue());
+        }
+    }
+
+    /** Up to {@code limit} best sellers, most units first (ties by material name). */
+    public List<Seller> top(int limit) {
+        List<Seller> sellers = new ArrayList<>(this.counters.size());
+        for (Map.Entry<Material, long[]> entry : this.counters.entrySet()) {
+            sellers.add(new Seller(entry.getKey(), entry.getValue()[0], entry.getValue()[1]));
+        }
+        sellers.sort(Comparator.comparingLong(Seller::amount).reversed()
+                .thenComparing(s -> s.item().name()));
+        return sellers.size() > limit ? List.copyOf(sellers.subList(0, limit)) : sellers;
+    }
+
+    /** Single-token form for persistence: comma-separated "MATERIAL=count~error" (empty if nothing sold). */
+    String serialize() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (Map.Entry<Material, long[]> entry : this.counters.entrySet()) {
+            joiner.add(entry.getKey().name() + "=" + entry.getValue()[0] + "~" + entry.getValue()[1]);
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Inverse of {@link #serialize()}; materials unknown to this server version are dropped.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static TopSellers deserialize(String token) {
+        TopSellers sellers = new TopSellers();
+        if (token.isEmpty()) return sellers;
+
+        for (String raw : token.split(",")) {
+            int equals = raw.indexOf('=');
+            int tilde = raw.indexOf('~', equals + 1);
+            if (equals <= 0 || tilde < 0) throw new IllegalArgumentException("bad seller counter: " + raw);
+
+            Material item = Material.matchMaterial(raw.substring(0, equals));
+            long count = Long.parseLong(raw.substring(equals + 1, tilde));
+            long error = Long.parseLong(raw.substring(tilde + 1));
+            if (item != null && sellers.counters.size() < CAPACITY) {
+                sellers.counters.put(item, new long[]{count, error});
+            }
+        }
+        return sellers;
+    }
+
+    /** Smallest tracked count if full (what an untracked material may have sold at most), else 0. */
+    private long floor() {
+        return this.counters.size() < CAPACITY ? 0 : this.counters.get(this.smallest())[0];
+    }
+
+    private Material smallest() {
+        Material smallest = null;
+        long min = Long.MAX_VALUE;
+        for (Map.Entry<Material, long[]> entry : this.counters.entrySet()) {
+            if (entry.getValue()[0] < min) {
+                min = entry.getValue()[0];
+                smallest = entry.getKey();
+            }
+        }
+        return smallest;
+    }
+}
@@ -0,0 +1,375 @@
+package com.stifflered.bartercontainer.util.analytics;
+
+import com.stifflered.bartercontainer.BarterContainer;
+import com.stifflered.bartercontainer.BarterContainerConfiguration;
+import com.stifflered.bartercontainer.barter.BarterManager;
+import com.stifflered.bartercontainer.store.BarterStore;
+import com.stifflered.bartercontainer.store.BarterStoreKey;
+import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
+import com.stifflered.bartercontainer.util.Messages;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports purchase records for offline analysis as compressed columnar files, incrementally.
+
+ * Output (data/analytics_export/):
+ *  - One directory per run, named by its UTC start time (e.g., 20250106-000500/), holding one gzip text
+ *    file per column ({@link #COLUMNS}) plus manifest.txt. Line i of every column file is row i, so each
+ *    file loads straight into a dataframe column (pandas/polars/R/DuckDB), no colon/Base64 parsing.
+ *  - Columns: timestamp (epoch millis), store, owner, buyer (UUIDs), material, amount (one row per
+ *    delivered stack), price_material, price_amount (price charged for the purchase; empty for legacy lines).
+ *  - A run directory appears only once complete (written as NAME.tmp, then renamed).
+
+ * Incremental:
+ *  - cursor.txt remembers how many records of each store's log were exported; a run streams only the
+ *    records after that ({@link BarterShopOwnerLogManager#forEachRecord}) and saves the new counts after its
+ *    directory is in place. A crash in between re-exports that run's rows next time (never loses any).
+ *  - Each store's log length is pinned while its appends are held ({@link SalesHistograms#withLogPaused},
+ *    {@link BarterShopOwnerLogManager#openRecords}); the records up to it are then streamed without the lock,
+ *    so a run never sees half a purchase and never stalls purchases while a long log is exported.
+
+ * Threading and memory:
+ *  - Runs on one daemon thread ("BarterContainer-AnalyticsExport"): on the configured interval and on
+ *    demand ({@link #exportNow()}, /barterbarrels export); runs never overlap.
+ *  - Rows are streamed from the logs into the gzip writers; memory is a few buffers whatever the log size.
+ */
+public final class TransactionExporter {
+
+    /** Global singleton, mirroring {@link com.stifflered.bartercontainer.barter.BarterManager#INSTANCE}. */
+    public static final TransactionExporter INSTANCE = new TransactionExporter();
+
+    /** Column files of every run, in row-field order. */
+    public static final List<String> COLUMNS = List.of(
+            "timestamp", "store", "owner", "buyer", "material", "amount", "price_material", "price_amount");
+
+    private static final String DIRECTORY = "analytics_export";
+    private static final String CURSOR_FILE = "cursor.txt";
+    private static final DateTimeFormatter RUN_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private ScheduledExecutorService executor;
+
+    /** The interval run, if enabled; replaced on {@link #reconfigure}. */
+    private ScheduledFuture<?> timer;
+
+    private TransactionExporter() {
+    }
+
+    /**
+     * Outcome of one run.
+     *
+     * @param run    the run directory's name, or null if there was nothing new to export
+     * @param rows   records exported
+     * @param stores stores that had new records
+     */
+    public record ExportResult(String run, long rows, int stores) { }
+
+    /** Start the export thread; exports run every {@code intervalMinutes} if enabled, and on demand regardless. */
+    public synchronized void start(BarterContainerConfiguration.AnalyticsExportConfiguration config) {
+        if (this.executor != null) return;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BarterContainer-AnalyticsExport");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.schedule(config);
+    }
+
+    /**
+     * Apply new settings (e.g., after /barterbarrels reload): the interval run is replaced, a run in progress
+     * finishes undisturbed. Starts the exporter if it is not running.
+     */
+    public synchronized void reconfigure(BarterContainerConfiguration.AnalyticsExportConfiguration config) {
+        if (this.executor == null) {
+            this.start(config);
+            return;
+        }
+        if (this.timer != null) this.timer.cancel(false);
+        this.schedule(config);
+    }
+
+    private void schedule(BarterContainerConfiguration.AnalyticsExportConfiguration config) {
+        this.timer = config.enabled()
+                ? this.executor.scheduleWithFixedDelay(this::runLogged,
+                        config.intervalMinutes(), config.intervalMinutes(), TimeUnit.MINUTES)
+                : null;
+    }
+
+    /** Queue an export now (after any run in progress); completes with its result or failure. */
+    public synchronized CompletableFuture<ExportResult> exportNow() {
+        if (this.executor == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("exporter is not running"));
+        }
+        CompletableFuture<ExportResult> result = new CompletableFuture<>();
+        this.executor.execute(() -> {
+            try {
+                result.complete(this.run());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result;
+    }
+
+    /** Cancel pending runs and stop the thread (a run in progress gets a moment to finish). */
+    public void stop() {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = this.executor;
+            this.executor = null;
+            this.timer = null;
+        }
+        if (stopping == null) return;
+
+        stopping.shutdownNow();
+        try {
+            stopping.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* ------------------------------------------------------------------------------------------------
+     * Internals
+     * ---------------------------------------------------------------------------------------------- */
+
+    /** Scheduled run: outcome goes to the server log. */
+    private void runLogged() {
+        try {
+            ExportResult result = this.run();
+            if (result.run() != null) {
+                BarterContainer.INSTANCE.getLogger().info(Messages.fmt("analytics.export.complete",
+                        "run", result.run(), "rows", result.rows(), "stores", result.stores()));
+            }
+        } catch (Throwable t) {
+            BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                    "analytics.export.failed", "detail", String.valueOf(t.getMessage())));
+        }
+    }
+
+    private ExportResult run() throws IOException {
+        Path root = BarterContainer.INSTANCE.getDataFolder().toPath().resolve(DIRECTORY);
+        Files.createDirectories(root);
+
+        Map<UUID, Long> cursor = readCursor(root.resolve(CURSOR_FILE));
+        Map<UUID, Long> next = new HashMap<>();
+        Map<UUID, UUID> owners = owners();
+
+        String name = runName(root);
+        Path staging = root.resolve(name + ".tmp");
+        long rows = 0;
+        int stores = 0;
+
+        try {
+            try (Columns columns = new Columns(staging)) {
+                for (BarterStoreKey key : BarterShopOwnerLogManager.loggedStores()) {
+                    long done = cursor.getOrDefault(key.key(), 0L);
+                    String store = key.key().toString();
+                    UUID ownerId = owners.get(key.key());
+                    String owner = ownerId == null ? "" : ownerId.toString();
+
+                    long before = columns.rows;
+                    long total;
+                    // Appends are held only while the log's length is pinned; the read itself runs unlocked
+                    try (BarterShopOwnerLogManager.RecordLog log = SalesHistograms.INSTANCE.withLogPaused(
+                            key, () -> BarterShopOwnerLogManager.openRecords(key))) {
+                        total = BarterShopOwnerLogManager.forEachRecord(log, done,
+                                (timestamp, buyer, itemType, amount, price) ->
+                                        columns.row(timestamp, store, owner, buyer, itemType, amount, price));
+                    }
+
+                    if (total < done) {
+                        // Log shrank (replaced or edited by hand): nothing to resume from, start over at its end
+                        BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                                "analytics.export.log_shrank", "key", store, "records", total, "cursor", done));
+                    }
+                    next.put(key.key(), total);
+
+                    if (columns.rows > before) stores++;
+                }
+                rows = columns.rows;
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            if (rows == 0) {
+                deleteRecursively(staging);
+                if (!next.equals(cursor)) writeCursor(root.resolve(CURSOR_FILE), next);
+                return new ExportResult(null, 0, 0);
+            }
+
+            writeManifest(staging.resolve("manifest.txt"), rows, stores);
+            Path target = root.resolve(name);
+            try {
+                Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(staging, target);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(staging); // cursor untouched: the next run exports these rows again
+            throw e;
+        }
+
+        writeCursor(root.resolve(CURSOR_FILE), next);
+        return new ExportResult(name, rows, stores);
+    }
+
+    /** Store UUID → owner UUID for stores that still exist (removed stores export with an empty owner). */
+    private static Map<UUID, UUID> owners() {
+        Map<UUID, UUID> owners = new HashMap<>();
+        for (BarterStore store : BarterManager.INSTANCE.getAll()) {
+            UUID ownerId = (store.getPlayerProfile() != null) ? store.getPlayerProfile().getId() : null;
+            if (ownerId != null) owners.put(store.getKey().key(), ownerId);
+        }
+        return owners;
+    }
+
+    /** Run directory name from the current UTC time, suffixed if a run already used that second. */
+    private static String runName(Path root) {
+        String base = RUN_NAME.format(Instant.now());
+        String name = base;
+        for (int i = 2; Files.exists(root.resolve(name)) || Files.exists(root.resolve(name + ".tmp")); i++) {
+            name = base + "-" + i;
+        }
+        return name;
+    }
+
+    /** Store UUID → records already exported (missing/unreadable file → export everything). */
+    private static Map<UUID, Long> readCursor(Path file) {
+        Map<UUID, Long> cursor = new HashMap<>();
+        if (Files.notExists(file)) return cursor;
+
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.startsWith("#") || line.isBlank()) continue;
+                String[] parts = line.split(":", 2);
+                if (parts.length != 2) continue;
+                try {
+                    cursor.put(UUID.fromString(parts[0]), Long.parseLong(parts[1].trim()));
+                } catch (IllegalArgumentException ignored) {
+                    // Malformed line: that store is exported from the start
+                }
+            }
+        } catch (IOException e) {
+            BarterContainer.INSTANCE.getLogger().warning(Messages.fmt(
+                    "analytics.export.cursor_unreadable", "detail", e.getMessage()));
+        }
+        return cursor;
+    }
+
+    private static void writeCursor(Path file, Map<UUID, Long> cursor) throws IOException {
+        Path temp = file.resolveSibling(CURSOR_FILE + ".tmp");
+        try (BufferedWriter bw = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            bw.write("# store UUID:records exported");
+            bw.newLine();
+            for (Map.Entry<UUID, Long> entry : cursor.entrySet()) {
+                bw.write(entry.getKey() + ":" + entry.getValue());
+                bw.newLine();
+            }
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeManifest(Path file, long rows, int stores) throws IOException {
+        List<String> lines = List.of(
+                "# BarterBarrels purchase export",
+                "created=" + Instant.now(),
+                "rows=" + rows,
+                "stores=" + stores,
+                "format=one gzip UTF-8 text file per column (<column>.txt.gz); line i of every file is row i",
+                "columns=" + String.join(",", COLUMNS),
+                "notes=timestamp in epoch millis; one row per delivered stack; price_* is the price charged for "
+                        + "the purchase, empty for legacy records; owner empty for removed stores"
+        );
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    private static void deleteRecursively(Path directory) {
+        if (Files.notExists(directory)) return;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ignored) {
+                    // Best effort: a leftover .tmp directory is ignored by readers and never reused
+                }
+            });
+        } catch (IOException ignored) {
+            // Same as above
+        }
+    }
+
+    /** One gzip writer per column; rows are appended to all of them in step. */
+    private static final class Columns implements Closeable {
+        private final Writer[] writers = new Writer[COLUMNS.size()];
+        long rows;
+
+        Columns(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            try {
+                for (int i = 0; i < this.writers.length; i++) {
+                    OutputStream out = Files.newOutputStream(directory.resolve(COLUMNS.get(i) + ".txt.gz"));
+                    this.writers[i] = new BufferedWriter(new OutputStreamWriter(
+                            new GZIPOutputStream(out, 8192), StandardCharsets.UTF_8), 8192);
+                }
+            } catch (IOException e) {
+                this.close();
+                throw e;
+            }
+        }
+
+        /** Append one record (called from the log visitor, hence the unchecked wrapper). */
+        void row(long timestamp, String store, String owner, UUID buyer, Material itemType, int amount, ItemStack price) {
+            try {
+                this.write(0, Long.toString(timestamp));
+                this.write(1, store);
+                this.write(2, owner);
+                this.write(3, buyer == null ? "" : buyer.toString());
+                this.write(4, itemType == null ? "" : itemType.name());
+                this.write(5, Integer.toString(amount));
+                this.write(6, price == null ? "" : price.getType().name());
+                this.write(7, price == null ? "" : Integer.toString(price.getAmount()));
+                this.rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void write(int column, String value) throws IOException {
+            this.writers[column].write(value);
+            this.writers[column].write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (Writer writer : this.writers) {
+                if (writer == null) continue;
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    if (failure == null) failure = e;
+                }
+            }
+            if (failure != null) throw failure;
+        }
+    }
+}
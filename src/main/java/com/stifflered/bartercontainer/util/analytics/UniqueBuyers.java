@@ -0,0 +1,154 @@
+package com.stifflered.bartercontainer.util.analytics;
+
+import java.util.*;
+
+/**
+ * Distinct-buyer counter in bounded memory: exact for small shops, HyperLogLog once it grows.
+
+ * Modes:
+ *  - Exact: a plain set of UUIDs while it holds at most {@link #EXACT_LIMIT} buyers, so small shops show
+ *    exact numbers.
+ *  - Sketch: a HyperLogLog with 2^{@value #PRECISION} one-byte registers (4 KB, ~1.6% standard error),
+ *    whatever the number of buyers. The switch happens once and is one-way.
+
+ * Merging ({@link #addAll}) is exact while the union still fits the exact limit, and a register-wise max
+ * otherwise, so store counters combine into owner-wide and server-wide counts without double counting
+ * repeat buyers.
+
+ * Not thread-safe; owners synchronize.
+ */
+public final class UniqueBuyers {
+
+    /** Largest exact set kept before switching to the sketch. */
+    static final int EXACT_LIMIT = 128;
+
+    /** log2 of the register count. */
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private Set<UUID> exact = new HashSet<>();
+    private byte[] registers;
+
+    /** Count one purchase by {@code buyer} (repeat buyers are only counted once). */
+    public void add(UUID buyer) {
+        if (this.registers != null) {
+            this.offer(hash(buyer));
+            return;
+        }
+        if (this.exact.add(buyer) && this.exact.size() > EXACT_LIMIT) {
+            this.toSketch();
+        }
+    }
+
+    /** Merge another counter into this one (the other is left untouched). */
+    public void addAll(UniqueBuyers other) {
+        if (other.registers == null) {
+            for (UUID buyer : other.exact) this.add(buyer);
+            return;
+        }
+        if (this.registers == null) this.toSketch();
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > this.registers[i]) this.registers[i] = other.registers[i];
+        }
+    }
+
+    /** Distinct buyers (exact while small, estimated afterwards). */
+    public int count() {
+        if (this.registers == null) return this.exact.size();
+
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : this.registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) zeros++;
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+
+        // Small-range correction (linear counting) while many registers are still empty
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return (int) Math.round(estimate);
+    }
+
+    /** True once the exact set has been replaced by the sketch. */
+    public boolean isApproximate() {
+        return this.registers != null;
+    }
+
+    /** Current count together with whether it is an estimate (so views can mark it, e.g., "~1,204"). */
+    public Estimate estimate() {
+        return new Estimate(this.count(), this.isApproximate());
+    }
+
+    /** Single-token form for persistence: "E" + comma-separated UUIDs, or "H" + Base64 registers. */
+    String serialize() {
+        if (this.registers != null) {
+            return "H" + Base64.getEncoder().encodeToString(this.registers);
+        }
+        StringJoiner joiner = new StringJoiner(",", "E", "");
+        for (UUID buyer : this.exact) joiner.add(buyer.toString());
+        return joiner.toString();
+    }
+
+    /**
+     * Inverse of {@link #serialize()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static UniqueBuyers deserialize(String token) {
+        UniqueBuyers buyers = new UniqueBuyers();
+        if (token.startsWith("H")) {
+            byte[] registers = Base64.getDecoder().decode(token.substring(1));
+            if (registers.length != REGISTERS) throw new IllegalArgumentException("bad register count");
+            buyers.exact = null;
+            buyers.registers = registers;
+        } else if (token.startsWith("E")) {
+            String body = token.substring(1);
+            if (!body.isEmpty()) {
+                for (String raw : body.split(",")) buyers.exact.add(UUID.fromString(raw));
+            }
+        } else {
+            throw new IllegalArgumentException("unknown buyer sketch: " + token);
+        }
+        return buyers;
+    }
+
+    private void toSketch() {
+        this.registers = new byte[REGISTERS];
+        for (UUID buyer : this.exact) this.offer(hash(buyer));
+        this.exact = null;
+    }
+
+    private void offer(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // Rank of the first 1-bit in the remaining bits (a sentinel bit caps it at 64 - PRECISION + 1)
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > this.registers[index]) this.registers[index] = (byte) rank;
+    }
+
+    /**
+     * A distinct-buyer count as shown to players.
+     *
+     * @param count       distinct buyers (exact or estimated)
+     * @param approximate true if {@code count} comes from the sketch (~1.6% standard error)
+     */
+    public record Estimate(int count, boolean approximate) {
+    }
+
+    /** 64-bit mix of both UUID halves (random v4 bits are already uniform; this also covers v3/offline UUIDs). */
+    private static long hash(UUID uuid) {
+        return fmix64(uuid.getMostSignificantBits() ^ fmix64(uuid.getLeastSignificantBits()));
+    }
+
+    /** MurmurHash3 finalizer. */
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
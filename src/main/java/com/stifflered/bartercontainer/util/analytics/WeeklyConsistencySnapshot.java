@@ -3,8 +3,6 @@ package com.stifflered.bartercontainer.util.analytics;
 import com.stifflered.bartercontainer.barter.BarterManager;
 import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.store.BarterStoreKey;
-import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager;
-import com.stifflered.bartercontainer.util.BarterShopOwnerLogManager.TransactionRecord;
 import com.stifflered.bartercontainer.util.Messages;
 
 import org.bukkit.plugin.Plugin;
@@ -13,6 +11,10 @@ import java.io.IOException;
 import java.time.*;
 import java.time.temporal.WeekFields;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Computes each owner's ALL-BARRELS consistency over the configured window (default 7 days)
@@ -21,15 +23,21 @@ import java.util.*;
 
  * Implementation is self-contained and relies on the existing APIs you provided:
  *   - Owners & stores:    BarterManager.INSTANCE.getAll()  →  group by owner UUID
- *   - Per-store logs:     BarterShopOwnerLogManager.listAllEntries(BarterStoreKey)
- *   - Scoring math:       ConsistencyScoreCalculator
+ *   - Owner scores:       SalesHistograms.ownerConsistency (kept current as sales are logged,
+ *                         so the snapshot is a cheap export of the live values)
+ *   - Scoring math:       ConsistencyScoreCalculator (online moments, or the allocation-free score()
+ *                         for windows other than the live one)
 
  * Threading:
  *  - Intended to run asynchronously (schedule from the plugin with runTaskTimerAsynchronously).
  *  - Avoids Bukkit calls; uses only your storage APIs and file I/O off-thread.
+ *  - Owners are scored in parallel on a small pool owned by each run; the CSV is written once, by the caller thread.
  */
 public final class WeeklyConsistencySnapshot {
 
+    /** Upper bound on scoring threads; the snapshot is background work and must not starve the server. */
+    private static final int MAX_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
     private final Plugin plugin;
     private final ConsistencyArchive archive;
     private final ZoneId zone;
@@ -53,8 +61,13 @@ public final class WeeklyConsistencySnapshot {
         this.params = params;
     }
 
-    /** Execute a snapshot "now": compute week index, aggregate by owner, score, and append to the month file. */
-    public void runNow() {
+    /**
+     * Execute a snapshot "now": compute week index, aggregate by owner, score in parallel, and write the month file once.
+     *
+     * @return true if the week was recorded (or there was nothing to record); false if the month file could not be
+     *         written, so callers must not treat the week as done
+     */
+    public boolean runNow() {
         // Determine current YearMonth and the "week index" within the month.
         LocalDate today = LocalDate.now(zone);
         YearMonth ym = YearMonth.from(today);
@@ -68,32 +81,24 @@ public final class WeeklyConsistencySnapshot {
                     "analytics.consistency.snapshot_empty",
                     "month", ym.toString()
             ));
-            return;
+            return true;
         }
 
-        final int windowDays = Math.max(1, params.windowDays());
-
-        // For each owner → compute last-N-days all-barrels consistency and record
-        for (UUID ownerId : idx.ownerToKeys.keySet()) {
-            String ownerName = idx.ownerToName.getOrDefault(ownerId, ownerId.toString());
+        final int windowDays = Math.max(2, Math.min(SalesHistograms.HISTORY_DAYS, params.windowDays()));
 
-            List<BarterStoreKey> keys = idx.ownerToKeys.get(ownerId);
-            List<Instant> events = loadOwnerSalesWithinDays(keys, windowDays);
+        // Fan out: score every owner (last-N-days, all barrels) on a bounded pool, collect in memory
+        Map<String, Double> scores = scoreOwners(idx, windowDays);
 
-            ConsistencyScoreCalculator.Result r =
-                    ConsistencyScoreCalculator.calculateFromInstants(events, params, clock, zone);
-
-            double weeklyScore = r.finalScore();
-
-            try {
-                archive.recordWeeklyScore(ownerName, ym, weekIndex, weeklyScore);
-            } catch (IOException io) {
-                plugin.getLogger().warning(Messages.fmt(
-                        "analytics.consistency.snapshot_failed_record",
-                        "owner", ownerName,
-                        "detail", io.getMessage()
-                ));
-            }
+        // Fan in: one read-modify-write of the month file for every row
+        try {
+            archive.recordWeeklyScores(scores, ym, weekIndex);
+        } catch (IOException io) {
+            plugin.getLogger().warning(Messages.fmt(
+                    "analytics.consistency.snapshot_failed_write",
+                    "month", ym.toString(),
+                    "detail", io.getMessage()
+            ));
+            return false;
         }
 
         plugin.getLogger().info(Messages.fmt(
@@ -101,6 +106,61 @@ public final class WeeklyConsistencySnapshot {
                 "month", ym.toString(),
                 "week", weekIndex
         ));
+        return true;
+    }
+
+    /**
+     * Score every owner in parallel and return owner display name → weekly score.
+
+     * Notes:
+     *  - The pool is bounded ({@link #MAX_THREADS}) and lives only for this run.
+     *  - Most owners are answered straight from their rolling histogram; the first run after startup
+     *    also bootstraps store histograms from logs, which is where the parallelism pays off.
+     *  - An owner whose scoring fails is logged and left out of the batch; the others are still written.
+     */
+    private Map<String, Double> scoreOwners(Index idx, int windowDays) {
+        int threads = Math.max(1, Math.min(idx.ownerToKeys.size(), MAX_THREADS));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "BarterContainer-ConsistencySnapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Map<UUID, Future<Double>> pending = new LinkedHashMap<>();
+            for (Map.Entry<UUID, List<BarterStoreKey>> owner : idx.ownerToKeys.entrySet()) {
+                UUID ownerId = owner.getKey();
+                List<BarterStoreKey> keys = owner.getValue();
+                pending.put(ownerId, pool.submit(() -> {
+                    if (windowDays == params.windowDays()) {
+                        // Live owner score (O(1) for the default window)
+                        return SalesHistograms.INSTANCE.ownerConsistency(ownerId, keys, params, clock).finalScore();
+                    }
+                    int[] daily = SalesHistograms.INSTANCE.ownerCounts(ownerId, keys, windowDays, clock);
+                    return ConsistencyScoreCalculator.score(daily, params); // no Result / copy per owner
+                }));
+            }
+
+            Map<String, Double> scores = new HashMap<>();
+            for (Map.Entry<UUID, Future<Double>> entry : pending.entrySet()) {
+                String ownerName = idx.ownerToName.getOrDefault(entry.getKey(), entry.getKey().toString());
+                try {
+                    scores.put(ownerName, entry.getValue().get());
+                } catch (ExecutionException e) {
+                    plugin.getLogger().warning(Messages.fmt(
+                            "analytics.consistency.snapshot_failed_record",
+                            "owner", ownerName,
+                            "detail", String.valueOf(e.getCause())
+                    ));
+                }
+            }
+            return scores;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consistency snapshot interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
     }
 
     /** Week-of-month: 1..5 based on ISO week fields. */
@@ -114,35 +174,6 @@ public final class WeeklyConsistencySnapshot {
         return diff + 1;
     }
 
-    /**
-     * Aggregate all sale timestamps for the given stores within the last {@code windowDays}.
-     * Pulls per-store transaction records and filters by cutoff ← now - windowDays.
-     */
-    private List<Instant> loadOwnerSalesWithinDays(List<BarterStoreKey> keys, int windowDays) {
-        Instant now = Instant.now(clock);
-        Instant cutoff = now.minus(Duration.ofDays(windowDays));
-
-        List<Instant> out = new ArrayList<>();
-        for (BarterStoreKey key : keys) {
-            try {
-                List<TransactionRecord> tx = BarterShopOwnerLogManager.listAllEntries(key); // oldest → newest
-                for (TransactionRecord tr : tx) {
-                    Instant t = Instant.ofEpochMilli(tr.timestamp());
-                    if (!t.isBefore(cutoff) && !t.isAfter(now)) {
-                        out.add(t);
-                    }
-                }
-            } catch (IOException e) {
-                plugin.getLogger().warning(Messages.fmt(
-                        "analytics.consistency.snapshot_read_error_store",
-                        "key", String.valueOf(key),
-                        "detail", e.getMessage()
-                ));
-            }
-        }
-        return out;
-    }
-
     /** Build from storage: owner UUID → keys and owner UUID → display name (prefer PlayerProfile.name). */
     private Index buildOwnerIndex() {
         Map<UUID, List<BarterStoreKey>> ownerToKeys = new HashMap<>();
@@ -0,0 +1,192 @@
+package com.stifflered.bartercontainer.util.analytics;
+
+import com.stifflered.bartercontainer.util.Messages;
+
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.*;
+import java.time.temporal.TemporalAdjusters;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires {@link WeeklyConsistencySnapshot#runNow()} once a week at a fixed local day/time (e.g., Monday 00:05),
+ * replacing a once-a-minute "is it time yet?" poll.
+
+ * How it works:
+ *  - Computes the next fire time from the zone's calendar and sleeps until then on its own single-thread
+ *    scheduled executor (no Bukkit scheduler; the server's tick rate has no say in when it fires).
+ *  - After each run, the next fire time is computed again from the calendar, so DST changes and
+ *    long runs never make it drift.
+ *  - A woken-up-too-early check (clock adjusted while sleeping) re-sleeps for the remainder.
+
+ * Missed weeks:
+ *  - The start of the last completed scheduled window is persisted to data/consistency/last_snapshot.txt.
+ *  - The marker is only written after the month file was actually written; a failed write leaves the
+ *    window unrecorded so the next start retries it.
+ *  - On {@link #start()}, if the most recent scheduled time has passed and isn't recorded (server was down
+ *    or restarting at that minute), the snapshot runs right away as a catch-up. Only the latest missed
+ *    week is caught up; older ones can't be scored retroactively anyway.
+ *  - On first install (no marker file yet) nothing is caught up: there is no sales history to score, so
+ *    the marker is seeded with the latest window and the first real run is the next scheduled one.
+ *    A marker that exists but can't be read still counts as missed.
+
+ * Lifecycle:
+ *  - {@link #start()} from onEnable, {@link #stop()} from onDisable.
+ */
+public final class WeeklySnapshotScheduler {
+
+    private static final String MARKER_FILE = "last_snapshot.txt";
+
+    private final Plugin plugin;
+    private final WeeklyConsistencySnapshot job;
+    private final ZoneId zone;
+    private final DayOfWeek day;
+    private final LocalTime time;
+
+    private ScheduledExecutorService executor;
+
+    public WeeklySnapshotScheduler(Plugin plugin, WeeklyConsistencySnapshot job, ZoneId zone, DayOfWeek day, LocalTime time) {
+        this.plugin = plugin;
+        this.job = job;
+        this.zone = zone;
+        this.day = day;
+        this.time = time;
+    }
+
+    /** Catch up a missed window (if any) and schedule the next one. */
+    public synchronized void start() {
+        if (this.executor != null) return;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BarterContainer-AnalyticsScheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        ZonedDateTime now = ZonedDateTime.now(this.zone);
+        ZonedDateTime due = this.previousFire(now);
+        if (Files.notExists(this.markerFile())) {
+            // First install: no history to score yet, so start counting from the latest window
+            try {
+                this.writeMarker(due.toInstant());
+            } catch (IOException e) {
+                this.plugin.getLogger().warning(Messages.fmt("analytics.consistency.snapshot_failed_log", "detail", e.getMessage()));
+            }
+            this.scheduleNext();
+            return;
+        }
+
+        Instant last = this.readMarker();
+        if (last == null || last.isBefore(due.toInstant())) {
+            // Missed (or never run): catch up now, then continue on the normal schedule
+            this.executor.execute(() -> this.fire(due));
+        } else {
+            this.scheduleNext();
+        }
+    }
+
+    /** Cancel the pending run and stop the thread (a snapshot in progress gets a moment to finish). */
+    public void stop() {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = this.executor;
+            this.executor = null;
+        }
+        if (stopping == null) return;
+
+        // Not holding the lock while waiting: a finishing run may still call scheduleNext()
+        stopping.shutdownNow();
+        try {
+            stopping.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** When the next scheduled run is, in the scheduler's zone. */
+    public ZonedDateTime nextFire() {
+        return this.nextFire(ZonedDateTime.now(this.zone));
+    }
+
+    /* ------------------------------------------------------------------------------------------------
+     * Internals
+     * ---------------------------------------------------------------------------------------------- */
+
+    private synchronized void scheduleNext() {
+        if (this.executor == null || this.executor.isShutdown()) return;
+
+        ZonedDateTime target = this.nextFire(ZonedDateTime.now(this.zone));
+        this.schedule(target);
+    }
+
+    private void schedule(ZonedDateTime target) {
+        long delay = Math.max(0L, Duration.between(Instant.now(), target.toInstant()).toMillis());
+        this.executor.schedule(() -> {
+            if (Instant.now().isBefore(target.toInstant())) {
+                synchronized (this) {
+                    if (this.executor != null && !this.executor.isShutdown()) this.schedule(target); // woke early
+                }
+                return;
+            }
+            this.fire(target);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run the snapshot for the window starting at {@code slot}, record it if the month file was written,
+     * and schedule the next one.
+     */
+    private void fire(ZonedDateTime slot) {
+        try {
+            this.plugin.getLogger().info(Messages.fmt("analytics.consistency.snapshot_started_log"));
+            if (this.job.runNow()) {
+                this.writeMarker(slot.toInstant());
+            }
+        } catch (Throwable t) {
+            this.plugin.getLogger().warning(Messages.fmt("analytics.consistency.snapshot_failed_log", "detail", t.getMessage()));
+        } finally {
+            this.scheduleNext();
+        }
+    }
+
+    /** First scheduled time strictly after {@code now}. */
+    private ZonedDateTime nextFire(ZonedDateTime now) {
+        ZonedDateTime candidate = now.with(TemporalAdjusters.nextOrSame(this.day)).with(this.time);
+        return candidate.isAfter(now) ? candidate : candidate.plusWeeks(1).with(this.time);
+    }
+
+    /** Latest scheduled time at or before {@code now}. */
+    private ZonedDateTime previousFire(ZonedDateTime now) {
+        ZonedDateTime candidate = now.with(TemporalAdjusters.previousOrSame(this.day)).with(this.time);
+        return candidate.isAfter(now) ? candidate.minusWeeks(1).with(this.time) : candidate;
+    }
+
+    private Path markerFile() {
+        return this.plugin.getDataFolder().toPath().resolve("consistency").resolve(MARKER_FILE);
+    }
+
+    /** Last completed window, or null if missing / unreadable (→ catch up). */
+    private Instant readMarker() {
+        Path file = this.markerFile();
+        if (Files.notExists(file)) return null;
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim()));
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void writeMarker(Instant slot) throws IOException {
+        Path file = this.markerFile();
+        Path temp = file.resolveSibling(MARKER_FILE + ".tmp");
+        Files.createDirectories(file.getParent());
+        Files.writeString(temp, Long.toString(slot.toEpochMilli()), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
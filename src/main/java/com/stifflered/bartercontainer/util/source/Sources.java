@@ -2,13 +2,18 @@ package com.stifflered.bartercontainer.util.source;
 
 import com.stifflered.bartercontainer.store.BarterStore;
 import com.stifflered.bartercontainer.store.BarterStoreKey;
+import com.stifflered.bartercontainer.store.OwnerLedger;
 import com.stifflered.bartercontainer.util.source.impl.BarterStorage;
+import com.stifflered.bartercontainer.util.source.impl.OwnerLedgerStorage;
+
+import java.util.UUID;
 
 /**
  * Central registry of object sources used by the plugin.
 
  * Current members:
  *  - BARTER_STORAGE: file-backed store for BarterStore objects keyed by BarterStoreKey.
+ *  - OWNER_LEDGERS:  file-backed owner bank ledgers keyed by owner UUID.
 
  * Notes:
  *  - Declared as an interface with public static final fields (Java idiom for singletons).
@@ -19,4 +24,7 @@ public interface Sources {
     /** File-based storage for BarterStores (located under <plugin>/barter_storage). */
     ObjectSource<BarterStoreKey, BarterStore> BARTER_STORAGE = new BarterStorage();
 
+    /** File-based owner bank ledgers (located under <plugin>/bank_ledgers). */
+    ObjectSource<UUID, OwnerLedger> OWNER_LEDGERS = new OwnerLedgerStorage();
+
 }
@@ -0,0 +1,61 @@
+package com.stifflered.bartercontainer.util.source.impl;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import com.stifflered.bartercontainer.barter.serializers.OwnerLedgerSerializer;
+import com.stifflered.bartercontainer.store.OwnerLedger;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * File-based storage for {@link OwnerLedger}s keyed by owner UUID.
+
+ * Storage layout:
+ *  - Parent directory: <plugin data folder>/bank_ledgers
+ *  - Per-owner file: {UUID}.json
+
+ * Serialization:
+ *  - Delegates to {@link OwnerLedgerSerializer}.
+ */
+public class OwnerLedgerStorage extends SimpleKeyedFileSource<UUID, OwnerLedger> {
+
+    /** Serializer that knows how to read/write a ledger to JSON. */
+    private final OwnerLedgerSerializer serializer = new OwnerLedgerSerializer();
+
+    /** Use default "bank_ledgers" directory under the plugin's data folder. */
+    public OwnerLedgerStorage() {
+        super(Path.of("bank_ledgers"));
+    }
+
+    /** Extract the owner UUID of a ledger. */
+    @Override
+    public UUID getKey(OwnerLedger type) {
+        return type.getOwner();
+    }
+
+    /** Path convention for a given owner: {UUID}.json */
+    @Override
+    public Path getChild(UUID key, Path parent) {
+        return parent.resolve(key + ".json");
+    }
+
+    /** Parse JSON from disk into an OwnerLedger. */
+    @Override
+    public OwnerLedger loadFromFile(Reader fileReader) {
+        JsonObject object = (JsonObject) JsonParser.parseReader(fileReader);
+        return this.serializer.getLedger(object);
+    }
+
+    /** Serialize a ledger into JSON and write it out. */
+    @Override
+    public boolean saveToFile(OwnerLedger object, Writer writer) throws Exception {
+        JsonObject jsonObject = new JsonObject();
+        this.serializer.saveLedger(object, jsonObject);
+        writer.write(jsonObject.toString());
+        return true;
+    }
+}
@@ -8,8 +8,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
 
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 import java.util.List;
 
@@ -26,6 +28,9 @@ import java.util.List;
  */
 public abstract class SimpleKeyedFileSource<K, T> implements ObjectSource<K, T> {
 
+    /** Suffix of the temp file a save writes before moving it into place. */
+    private static final String TEMP_SUFFIX = ".tmp";
+
     /** Parent directory where files for this source live. */
     private final Path parent;
 
@@ -89,29 +94,39 @@ public abstract class SimpleKeyedFileSource<K, T> implements ObjectSource<K, T>
     public abstract boolean saveToFile(T object, Writer writer) throws Exception;
 
     /**
-     * Save the object to disk (overwrites existing content).
-     * Creates the file if it doesn't exist.
+     * Save the object to disk (replaces existing content).
+     * Written to a sibling temp file first and then moved into place, so a crash or failed write never
+     * leaves a truncated file behind.
      */
     @Override
     public boolean save(@NotNull T type) throws Exception {
         Path file = this.getChild(this.getKey(type), this.parent);
-        if (Files.notExists(file)) {
-            Files.createFile(file);
+        Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+
+        boolean saved;
+        try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+            saved = this.saveToFile(type, writer);
+        } catch (Exception e) {
+            Files.deleteIfExists(temp);
+            throw e;
         }
 
-        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
-            return this.saveToFile(type, writer);
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
         }
+        return saved;
     }
 
     /**
-     * Load all objects by iterating files in the parent directory.
+     * Load all objects by iterating files in the parent directory (temp files of in-flight saves are skipped).
      * Any parsing error for a single file propagates as a RuntimeException.
      */
     @Override
     public List<T> getAll() throws Exception {
         try (var paths = Files.list(this.parent)) {
-            return paths.map(file -> {
+            return paths.filter(file -> !file.getFileName().toString().endsWith(TEMP_SUFFIX)).map(file -> {
                 try (BufferedReader reader = Files.newBufferedReader(file)) {
                     return this.loadFromFile(reader);
                 } catch (Exception e) {